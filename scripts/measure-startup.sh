@@ -0,0 +1,48 @@
+#!/usr/bin/env sh
+# Measures time to the first successful tracking number request for each build variant.
+# Needs a Redis reachable via REDIS_HOST/REDIS_PORT and the artifacts of:
+#   ./mvnw package                      (jvm)
+#   ./mvnw -Pfast-startup package       (aot-cds)
+#   ./mvnw -pl tracking-number-app -Pnative native:compile  (native)
+set -eu
+
+PORT=${PORT:-8080}
+URL="http://localhost:$PORT/api/v1/next-tracking-number"
+BODY='{"originCountryId":"US","destinationCountryId":"CA","weight":"1.234","customerId":"de619854-b59b-425e-9db4-943379e1bd49","customerName":"RedBox Logistics","customerSlug":"redbox-logistics"}'
+TARGET=tracking-number-app/target
+
+now_millis() {
+    date +%s%3N
+}
+
+measure() {
+    name=$1
+    artifact=$2
+    shift 2
+    if [ ! -e "$artifact" ]; then
+        echo "$name: skipped ($artifact not built)"
+        return
+    fi
+    start=$(now_millis)
+    "$@" --server.port="$PORT" --spring.rsocket.server.port=0 >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$BODY" "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$name: process exited before serving a request"
+            return
+        fi
+        sleep 0.02
+    done
+    end=$(now_millis)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$name: first successful request after $((end - start))ms"
+}
+
+measure jvm "$TARGET/tracking-number-generator-1.0.0.jar" \
+    java -jar "$TARGET/tracking-number-generator-1.0.0.jar"
+measure aot-cds "$TARGET/cds/application.jsa" \
+    java -XX:SharedArchiveFile="$TARGET/cds/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$TARGET/cds/tracking-number-generator-1.0.0-cds.jar"
+measure native "$TARGET/tracking-number-generator" \
+    "$TARGET/tracking-number-generator"
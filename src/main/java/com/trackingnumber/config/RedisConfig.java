@@ -1,86 +0,0 @@
-package com.trackingnumber.config;
-
-import io.lettuce.core.ClientOptions;
-import io.lettuce.core.SocketOptions;
-import io.lettuce.core.cluster.ClusterClientOptions;
-import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
-
-import java.time.Duration;
-
-@Configuration
-public class RedisConfig {
-
-    @Value("${spring.data.redis.host:localhost}")
-    private String redisHost;
-
-    @Value("${spring.data.redis.port:6379}")
-    private int redisPort;
-
-    @Value("${spring.data.redis.password:}")
-    private String redisPassword;
-
-    @Value("${spring.data.redis.timeout:2000ms}")
-    private Duration timeout;
-
-    @Value("${spring.data.redis.lettuce.pool.max-active:8}")
-    private int maxActive;
-
-    @Value("${spring.data.redis.lettuce.pool.max-idle:8}")
-    private int maxIdle;
-
-    @Value("${spring.data.redis.lettuce.pool.min-idle:0}")
-    private int minIdle;
-
-    @Bean
-    public ReactiveRedisConnectionFactory reactiveRedisConnectionFactory() {
-        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
-        redisConfig.setHostName(redisHost);
-        redisConfig.setPort(redisPort);
-        
-        if (redisPassword != null && !redisPassword.trim().isEmpty()) {
-            redisConfig.setPassword(redisPassword);
-        }
-
-        SocketOptions socketOptions = SocketOptions.builder()
-                .connectTimeout(timeout)
-                .keepAlive(true)
-                .build();
-
-        ClientOptions clientOptions = ClientOptions.builder()
-                .socketOptions(socketOptions)
-                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
-                .autoReconnect(true)
-                .build();
-
-        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
-                .clientOptions(clientOptions)
-                .commandTimeout(timeout)
-                .build();
-
-        return new LettuceConnectionFactory(redisConfig, clientConfig);
-    }
-
-    @Bean
-    public ReactiveRedisTemplate<String, String> reactiveRedisTemplate(
-            ReactiveRedisConnectionFactory connectionFactory) {
-        RedisSerializationContext<String, String> serializationContext = 
-                RedisSerializationContext.<String, String>newSerializationContext(new StringRedisSerializer())
-                        .key(new StringRedisSerializer())
-                        .value(new StringRedisSerializer())
-                        .hashKey(new StringRedisSerializer())
-                        .hashValue(new StringRedisSerializer())
-                        .build();
-
-        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
-    }
-}
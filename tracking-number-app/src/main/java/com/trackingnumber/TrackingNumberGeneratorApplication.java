@@ -1,11 +1,14 @@
 package com.trackingnumber;
 
+import com.trackingnumber.config.TrackingNumberRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 
 @SpringBootApplication
 @EnableRedisRepositories
+@ImportRuntimeHints(TrackingNumberRuntimeHints.class)
 public class TrackingNumberGeneratorApplication {
     public static void main(String[] args) {
         SpringApplication.run(TrackingNumberGeneratorApplication.class, args);
@@ -0,0 +1,232 @@
+package com.trackingnumber.archive;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.PrimitiveIterator;
+
+/**
+ * Immutable, memory-mapped file of sorted packed tracking numbers.
+ * <pre>
+ * header   64 bytes: magic, count, bloom words, hash count, index interval, min / max issued epoch second
+ * bloom    bloomWords longs; ~1% false positives at 10 bits per number
+ * keys     count longs, ascending
+ * index    every indexInterval-th key, so a lookup binary-searches the index, then one short key run
+ * </pre>
+ * Lookups touch only mapped memory: a few bloom words for the usual miss, plus about log2(count) longs for a
+ * hit. A segment holds at most {@link #MAX_ENTRIES} numbers so that it fits a single mapping.
+ */
+public final class ArchiveSegment {
+
+    static final long MAGIC = 0x544E415243485631L; // "TNARCHV1"
+    static final int HEADER_BYTES = 64;
+    static final long MAX_ENTRIES = 200_000_000L;
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASH_COUNT = 7;
+    private static final int INDEX_INTERVAL = 128;
+
+    private final Path path;
+    private final long count;
+    private final long minIssuedSecond;
+    private final long maxIssuedSecond;
+    private final int hashCount;
+    private final long bloomBitMask;
+    private final int indexInterval;
+    private final LongBuffer bloom;
+    private final LongBuffer keys;
+    private final LongBuffer index;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        this.count = buffer.getLong(8);
+        long bloomWords = buffer.getLong(16);
+        this.hashCount = buffer.getInt(24);
+        this.indexInterval = buffer.getInt(28);
+        this.minIssuedSecond = buffer.getLong(32);
+        this.maxIssuedSecond = buffer.getLong(40);
+        this.bloomBitMask = bloomWords * Long.SIZE - 1;
+
+        int bloomOffset = HEADER_BYTES;
+        int keysOffset = bloomOffset + (int) bloomWords * Long.BYTES;
+        int indexOffset = keysOffset + (int) count * Long.BYTES;
+        this.bloom = buffer.slice(bloomOffset, (int) bloomWords * Long.BYTES).asLongBuffer();
+        this.keys = buffer.slice(keysOffset, (int) count * Long.BYTES).asLongBuffer();
+        this.index = buffer.slice(indexOffset, (int) indexEntries(count, indexInterval) * Long.BYTES).asLongBuffer();
+    }
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed, and after the file is deleted by a merge
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes ascending numbers to a new segment at {@code path}. Duplicates are skipped; {@code maxCount}
+     * bounds the number of inputs and sizes the file. The file appears atomically once complete.
+     */
+    public static ArchiveSegment write(Path path, PrimitiveIterator.OfLong ascending, long maxCount,
+                                       long minIssuedSecond, long maxIssuedSecond) throws IOException {
+        if (maxCount > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Archive segment limited to " + MAX_ENTRIES + " numbers");
+        }
+        long bloomWords = bloomWords(maxCount);
+        long size = HEADER_BYTES + (bloomWords + maxCount + indexEntries(maxCount, INDEX_INTERVAL)) * Long.BYTES;
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            LongBuffer bloom = buffer.slice(HEADER_BYTES, (int) bloomWords * Long.BYTES).asLongBuffer();
+            int keysOffset = HEADER_BYTES + (int) bloomWords * Long.BYTES;
+            LongBuffer keys = buffer.slice(keysOffset, (int) maxCount * Long.BYTES).asLongBuffer();
+            long bitMask = bloomWords * Long.SIZE - 1;
+
+            long count = 0;
+            long previous = Long.MIN_VALUE;
+            while (ascending.hasNext()) {
+                long packed = ascending.nextLong();
+                if (count > 0 && packed == previous) {
+                    continue;
+                }
+                if (count > 0 && packed < previous) {
+                    throw new IllegalArgumentException("Archive segment input must be ascending");
+                }
+                keys.put((int) count++, packed);
+                previous = packed;
+                long hash = mix(packed);
+                for (int i = 0; i < HASH_COUNT; i++) {
+                    long bit = (hash + i * (hash >>> 32 | 1)) & bitMask;
+                    int word = (int) (bit >>> 6);
+                    bloom.put(word, bloom.get(word) | 1L << bit);
+                }
+            }
+
+            // Index directly after the actual keys; any tail left by skipped duplicates is unused
+            int indexOffset = keysOffset + (int) count * Long.BYTES;
+            LongBuffer index = buffer.slice(indexOffset, (int) indexEntries(count, INDEX_INTERVAL) * Long.BYTES)
+                    .asLongBuffer();
+            for (long i = 0; i < count; i += INDEX_INTERVAL) {
+                index.put((int) (i / INDEX_INTERVAL), keys.get((int) i));
+            }
+
+            buffer.putLong(0, MAGIC);
+            buffer.putLong(8, count);
+            buffer.putLong(16, bloomWords);
+            buffer.putInt(24, HASH_COUNT);
+            buffer.putInt(28, INDEX_INTERVAL);
+            buffer.putLong(32, minIssuedSecond);
+            buffer.putLong(40, maxIssuedSecond);
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public boolean contains(long packed) {
+        if (count == 0) {
+            return false;
+        }
+        long hash = mix(packed);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (hash + i * (hash >>> 32 | 1)) & bloomBitMask;
+            if ((bloom.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+
+        // Last index entry <= packed, then the run of keys it starts
+        int low = 0;
+        int high = index.limit() - 1;
+        if (packed < index.get(0)) {
+            return false;
+        }
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (index.get(middle) <= packed) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int from = low * indexInterval;
+        int to = (int) Math.min(count, (long) from + indexInterval) - 1;
+        while (from <= to) {
+            int middle = (from + to) >>> 1;
+            long key = keys.get(middle);
+            if (key < packed) {
+                from = middle + 1;
+            } else if (key > packed) {
+                to = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The numbers in ascending order, read straight from the mapping.
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < count;
+            }
+
+            @Override
+            public long nextLong() {
+                return keys.get(position++);
+            }
+        };
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long minIssuedSecond() {
+        return minIssuedSecond;
+    }
+
+    public long maxIssuedSecond() {
+        return maxIssuedSecond;
+    }
+
+    public long sizeBytes() {
+        return HEADER_BYTES + ((long) bloom.limit() + keys.limit() + index.limit()) * Long.BYTES;
+    }
+
+    private static long bloomWords(long count) {
+        // Power of two so bit positions are a mask, not a modulo
+        long bits = Math.max(Long.SIZE, Long.highestOneBit(Math.max(1, count * BITS_PER_KEY) * 2 - 1));
+        return bits / Long.SIZE;
+    }
+
+    private static long indexEntries(long count, int interval) {
+        return (count + interval - 1) / interval;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,471 @@
+package com.trackingnumber.archive;
+
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import com.trackingnumber.feed.IssuedTrackingNumberConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStreamOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Long-horizon record of issued numbers, so a number is not reissued once its Redis key has expired.
+ * <p>
+ * The archive follows the issued-number stream with a consumer group of its own (by default
+ * {@code archive-<HOSTNAME>}; instances sharing a group would split the stream and each see only part of it) and
+ * turns every batch into an
+ * immutable {@link ArchiveSegment} in {@code directory}; everything is archived at issue time, so the tier
+ * already covers a number by the time Redis forgets it. Segments are merged size-tiered in the background
+ * ({@code merge-factor} segments of one tier become one of the next), which keeps the number of segments a
+ * lookup has to probe logarithmic in the archive size, and segments whose newest number is older than
+ * {@code horizon} are dropped. The directory is this instance's state: it must survive restarts, since the
+ * consumer group only replays entries that were never acknowledged. A number missing from the feed would be
+ * reissued after its TTL, so the archive only runs on a lossless feed ({@code tracking-number.feed.lossless}).
+ * <p>
+ * The stream is trimmed, so a group that falls too far behind, or a new group on a stream that has already been
+ * trimmed, would silently miss numbers. Startup fails in that case unless {@code accept-trimmed-feed} is set
+ * (after seeding the directory from another instance's copy), and while running the same check is repeated every
+ * {@code horizon-check-interval} and reported as {@code tracking.number.archive.feed.gap}. Groups of other
+ * instances whose consumers have all been idle for {@code stale-group-after} are destroyed, so groups of hostnames
+ * that no longer exist do not pile up.
+ */
+@Component
+public class TrackingNumberArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberArchive.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String GROUP_PREFIX = "archive-";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final String consumerGroup;
+    private final String streamKey;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final long tierBase;
+    private final int mergeFactor;
+    private final Duration horizon;
+    private final boolean acceptTrimmedFeed;
+    private final Duration staleGroupAfter;
+    private final Duration horizonCheckInterval;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicBoolean feedGap = new AtomicBoolean();
+    private final Counter hits;
+    private final Timer mergeTimer;
+    // Newest first; replaced wholesale so lookups never see a half-applied merge
+    private volatile List<ArchiveSegment> segments = List.of();
+    private Scheduler writer;
+    private Disposable consumption;
+    private Disposable horizonChecks;
+
+    public TrackingNumberArchive(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.archive.enabled:false}") boolean enabled,
+            @Value("${tracking-number.archive.directory:data/archive}") Path directory,
+            @Value("${tracking-number.archive.consumer-group:}") String consumerGroup,
+            @Value("${HOSTNAME:}") String hostname,
+            @Value("${tracking-number.feed.enabled:true}") boolean feedEnabled,
+            @Value("${tracking-number.feed.lossless:false}") boolean feedLossless,
+            @Value("${tracking-number.feed.stream-key:tracking_number_feed}") String streamKey,
+            @Value("${tracking-number.archive.batch-size:10000}") int batchSize,
+            @Value("${tracking-number.archive.poll-interval:5s}") Duration pollInterval,
+            @Value("${tracking-number.archive.tier-base:10000}") long tierBase,
+            @Value("${tracking-number.archive.merge-factor:4}") int mergeFactor,
+            @Value("${tracking-number.archive.horizon:365d}") Duration horizon,
+            @Value("${tracking-number.archive.accept-trimmed-feed:false}") boolean acceptTrimmedFeed,
+            @Value("${tracking-number.archive.stale-group-after:7d}") Duration staleGroupAfter,
+            @Value("${tracking-number.archive.horizon-check-interval:1m}") Duration horizonCheckInterval) {
+        if (mergeFactor < 2 || tierBase < 1) {
+            throw new IllegalArgumentException("Archive merge factor must be at least 2 and tier base positive");
+        }
+        if (enabled && !(feedEnabled && feedLossless)) {
+            throw new IllegalStateException("The archive reads the issued-number feed and needs every number in it; "
+                    + "enable tracking-number.feed.enabled and tracking-number.feed.lossless");
+        }
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.consumerGroup = enabled ? consumerGroup(consumerGroup, hostname) : consumerGroup;
+        this.streamKey = streamKey;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.tierBase = tierBase;
+        this.mergeFactor = mergeFactor;
+        this.horizon = horizon;
+        this.acceptTrimmedFeed = acceptTrimmedFeed;
+        this.staleGroupAfter = staleGroupAfter;
+        this.horizonCheckInterval = horizonCheckInterval;
+        this.hits = Counter.builder("tracking.number.archive.hits")
+                .description("Candidates rejected because the archive already holds them")
+                .register(meterRegistry);
+        this.mergeTimer = Timer.builder("tracking.number.archive.merge")
+                .description("Time to merge archive segments")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.archive.segments", this, archive -> archive.segments.size())
+                .description("Archive segment files")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.archive.numbers", this, TrackingNumberArchive::archivedCount)
+                .description("Numbers held in archive segments")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.archive.bytes", this, TrackingNumberArchive::sizeBytes)
+                .description("Size of archive segment files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.archive.feed.gap", feedGap, gap -> gap.get() ? 1 : 0)
+                .description("1 once feed entries were trimmed before this instance's group read them")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        load();
+        IssuedTrackingNumberConsumer consumer =
+                new IssuedTrackingNumberConsumer(redisTemplate, streamKey, batchSize, pollInterval);
+        // Before the consumer creates the group, so a new group is still recognisable as new
+        Boolean missed = consumer.missedEntries(consumerGroup).block(Duration.ofSeconds(30));
+        if (Boolean.TRUE.equals(missed)) {
+            if (!acceptTrimmedFeed) {
+                throw new IllegalStateException("Consumer group " + consumerGroup + " would miss issued numbers that "
+                        + "were already trimmed from " + streamKey + "; restore this instance's archive directory "
+                        + "and hostname, or seed the directory from another instance and set "
+                        + "tracking-number.archive.accept-trimmed-feed=true");
+            }
+            logger.warn("Consumer group {} starts after entries were trimmed from {}; accepted by configuration",
+                    consumerGroup, streamKey);
+        }
+        destroyStaleGroups().block(Duration.ofSeconds(30));
+        // Segment writes and merges all run on one thread, so the segment list has a single writer
+        writer = Schedulers.newSingle("archive-writer");
+        consumption = consumer
+                .consume(consumerGroup, "archiver", events -> Mono.fromRunnable(() -> append(events))
+                        .subscribeOn(writer))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> logger.warn("Archive consumer failed, retrying: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+        horizonChecks = Flux.interval(horizonCheckInterval, horizonCheckInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> consumer.missedEntries(consumerGroup)
+                        .doOnNext(gap -> {
+                            if (gap && feedGap.compareAndSet(false, true)) {
+                                logger.error("Consumer group {} fell behind the trimming of {}; numbers issued in "
+                                        + "the gap are not archived", consumerGroup, streamKey);
+                            }
+                        })
+                        .onErrorResume(error -> {
+                            logger.warn("Archive feed horizon check failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+        logger.info("Tracking number archive loaded {} numbers in {} segments from {}",
+                archivedCount(), segments.size(), directory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (consumption != null) {
+            horizonChecks.dispose();
+            consumption.dispose();
+            writer.dispose();
+        }
+    }
+
+    // Unique per instance and stable across its restarts, so the group replays what it had not yet archived
+    static String consumerGroup(String configured, String hostname) {
+        if (!configured.isBlank()) {
+            return configured;
+        }
+        if (hostname.isBlank()) {
+            throw new IllegalStateException("Set tracking-number.archive.consumer-group to a name unique to this "
+                    + "instance (HOSTNAME is not set)");
+        }
+        return GROUP_PREFIX + hostname;
+    }
+
+    private Mono<Void> destroyStaleGroups() {
+        ReactiveStreamOperations<String, Object, Object> stream = redisTemplate.opsForStream();
+        return stream.groups(streamKey)
+                .filter(group -> group.groupName().startsWith(GROUP_PREFIX)
+                        && !group.groupName().equals(consumerGroup)
+                        && group.consumerCount() > 0)
+                .concatMap(group -> stream.consumers(streamKey, group.groupName())
+                        .all(consumer -> consumer.idleTimeMs() > staleGroupAfter.toMillis())
+                        .filter(stale -> stale)
+                        .flatMap(stale -> stream.destroyGroup(streamKey, group.groupName()))
+                        .doOnNext(destroyed -> logger.info("Destroyed archive consumer group {}, idle for over {}",
+                                group.groupName(), staleGroupAfter)))
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Failed to clean up stale archive consumer groups: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the number was archived. Pure mapped-memory reads; most misses are answered by the bloom filters.
+     */
+    public boolean contains(long packed) {
+        for (ArchiveSegment segment : segments) {
+            if (segment.contains(packed)) {
+                hits.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long archivedCount() {
+        return segments.stream().mapToLong(ArchiveSegment::count).sum();
+    }
+
+    long sizeBytes() {
+        return segments.stream().mapToLong(ArchiveSegment::sizeBytes).sum();
+    }
+
+    String consumerGroup() {
+        return consumerGroup;
+    }
+
+    List<ArchiveSegment> segments() {
+        return segments;
+    }
+
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        List<ArchiveSegment> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    // Left behind by a write that never completed
+                    Files.delete(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    loaded.add(ArchiveSegment.open(file));
+                    nextSequence.accumulateAndGet(sequenceOf(file) + 1, Math::max);
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong((ArchiveSegment segment) -> sequenceOf(segment)).reversed());
+        segments = List.copyOf(loaded);
+    }
+
+    void append(List<TrackingNumberIssuedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long[] numbers = new long[events.size()];
+        long minIssued = Long.MAX_VALUE;
+        long maxIssued = Long.MIN_VALUE;
+        for (int i = 0; i < numbers.length; i++) {
+            TrackingNumberIssuedEvent event = events.get(i);
+            numbers[i] = event.trackingNumber().packed();
+            minIssued = Math.min(minIssued, event.issuedAtEpochMilli() / 1000);
+            maxIssued = Math.max(maxIssued, event.issuedAtEpochMilli() / 1000);
+        }
+        Arrays.sort(numbers);
+        try {
+            ArchiveSegment segment = ArchiveSegment.write(nextPath(), Arrays.stream(numbers).iterator(),
+                    numbers.length, minIssued, maxIssued);
+            List<ArchiveSegment> updated = new ArrayList<>(segments.size() + 1);
+            updated.add(segment);
+            updated.addAll(segments);
+            segments = List.copyOf(updated);
+        } catch (IOException e) {
+            // Fails the batch, so it stays pending in the stream and is retried
+            throw new UncheckedIOException("Failed to write archive segment", e);
+        }
+        maintain();
+    }
+
+    /**
+     * Drops segments beyond the horizon, then merges while any tier holds {@code merge-factor} segments.
+     */
+    void maintain() {
+        long oldest = Instant.now().minus(horizon).getEpochSecond();
+        List<ArchiveSegment> expired = segments.stream()
+                .filter(segment -> segment.maxIssuedSecond() < oldest)
+                .toList();
+        if (!expired.isEmpty()) {
+            replace(expired, null);
+        }
+
+        List<ArchiveSegment> group;
+        while ((group = mergeCandidates()) != null) {
+            long startTime = System.nanoTime();
+            try {
+                replace(group, merge(group));
+            } catch (IOException e) {
+                logger.warn("Archive merge failed, will retry on the next batch: {}", e.getMessage());
+                return;
+            }
+            mergeTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<ArchiveSegment> mergeCandidates() {
+        // Oldest segments of the lowest tier that has enough of them
+        List<List<ArchiveSegment>> tiers = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            ArchiveSegment segment = segments.get(i);
+            int tier = tierOf(segment.count());
+            while (tiers.size() <= tier) {
+                tiers.add(new ArrayList<>());
+            }
+            tiers.get(tier).add(segment);
+        }
+        for (List<ArchiveSegment> tier : tiers) {
+            if (tier.size() >= mergeFactor) {
+                List<ArchiveSegment> group = tier.subList(0, mergeFactor);
+                long total = group.stream().mapToLong(ArchiveSegment::count).sum();
+                if (total <= ArchiveSegment.MAX_ENTRIES) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ArchiveSegment merge(List<ArchiveSegment> group) throws IOException {
+        long total = 0;
+        long minIssued = Long.MAX_VALUE;
+        long maxIssued = Long.MIN_VALUE;
+        List<PrimitiveIterator.OfLong> inputs = new ArrayList<>(group.size());
+        for (ArchiveSegment segment : group) {
+            total += segment.count();
+            minIssued = Math.min(minIssued, segment.minIssuedSecond());
+            maxIssued = Math.max(maxIssued, segment.maxIssuedSecond());
+            inputs.add(segment.iterator());
+        }
+        ArchiveSegment merged = ArchiveSegment.write(nextPath(), new MergingIterator(inputs), total, minIssued, maxIssued);
+        logger.debug("Merged {} archive segments into {} ({} numbers)", group.size(), merged.path(), merged.count());
+        return merged;
+    }
+
+    private void replace(List<ArchiveSegment> removed, ArchiveSegment added) {
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        updated.removeAll(removed);
+        if (added != null) {
+            // Keep newest-first order by sequence; the merged segment replaces older ones
+            updated.add(added);
+            updated.sort(Comparator.comparingLong((ArchiveSegment segment) -> sequenceOf(segment)).reversed());
+        }
+        segments = List.copyOf(updated);
+        for (ArchiveSegment segment : removed) {
+            try {
+                // Existing mappings stay readable after the file is gone
+                Files.deleteIfExists(segment.path());
+            } catch (IOException e) {
+                logger.warn("Failed to delete archive segment {}: {}", segment.path(), e.getMessage());
+            }
+        }
+    }
+
+    private int tierOf(long count) {
+        int tier = 0;
+        for (long size = count; size > tierBase; size /= mergeFactor) {
+            tier++;
+        }
+        return tier;
+    }
+
+    private Path nextPath() {
+        return directory.resolve(String.format("segment-%019d%s", nextSequence.getAndIncrement(), SEGMENT_SUFFIX));
+    }
+
+    private static long sequenceOf(ArchiveSegment segment) {
+        return sequenceOf(segment.path());
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * K-way merge of ascending inputs; duplicates are left for the segment writer to skip.
+     */
+    static final class MergingIterator implements PrimitiveIterator.OfLong {
+        private final List<PrimitiveIterator.OfLong> inputs;
+        private final long[] heads;
+        private final boolean[] present;
+
+        MergingIterator(List<PrimitiveIterator.OfLong> inputs) {
+            this.inputs = inputs;
+            this.heads = new long[inputs.size()];
+            this.present = new boolean[inputs.size()];
+            for (int i = 0; i < inputs.size(); i++) {
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (boolean p : present) {
+                if (p) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long nextLong() {
+            // Merge factor is small, so a linear scan beats a heap
+            int smallest = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (present[i] && (smallest < 0 || heads[i] < heads[smallest])) {
+                    smallest = i;
+                }
+            }
+            long value = heads[smallest];
+            advance(smallest);
+            return value;
+        }
+
+        private void advance(int i) {
+            present[i] = inputs.get(i).hasNext();
+            if (present[i]) {
+                heads[i] = inputs.get(i).nextLong();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.web.AdaptiveConcurrencyLimitFilter;
+import com.trackingnumber.web.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "tracking-number.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public GradientConcurrencyLimit gradientConcurrencyLimit(
+            @Value("${tracking-number.concurrency-limit.initial-limit:100}") int initialLimit,
+            @Value("${tracking-number.concurrency-limit.min-limit:10}") int minLimit,
+            @Value("${tracking-number.concurrency-limit.max-limit:2000}") int maxLimit,
+            @Value("${tracking-number.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${tracking-number.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${tracking-number.concurrency-limit.long-window:600}") int longWindow) {
+        return new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing, longWindow);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimitFilter adaptiveConcurrencyLimitFilter(
+            GradientConcurrencyLimit gradientConcurrencyLimit,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.concurrency-limit.bulk-limit:8}") int bulkLimit,
+            @Value("${tracking-number.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        return new AdaptiveConcurrencyLimitFilter(gradientConcurrencyLimit, GradientConcurrencyLimit.fixed(bulkLimit),
+                retryAfter, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.exception.GlobalExceptionHandler;
+import com.trackingnumber.service.TrackingNumberService;
+import com.trackingnumber.web.TrackingNumberFastPathHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Router functions are consulted before annotated controllers, so when enabled this route takes
+ * over {@code POST /api/v1/next-tracking-number} for JSON bodies and the controller method is no
+ * longer reached.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracking-number.fast-path.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class FastPathConfig {
+
+    @Bean
+    public TrackingNumberFastPathHandler trackingNumberFastPathHandler(
+            TrackingNumberService trackingNumberService,
+            GlobalExceptionHandler globalExceptionHandler,
+            @Value("${spring.codec.max-in-memory-size:256KB}") DataSize maxInMemorySize) {
+        return new TrackingNumberFastPathHandler(trackingNumberService, globalExceptionHandler,
+                Math.toIntExact(maxInMemorySize.toBytes()));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> trackingNumberFastPathRoute(TrackingNumberFastPathHandler handler) {
+        return RouterFunctions.route(
+                RequestPredicates.POST("/api/v1/next-tracking-number")
+                        .and(RequestPredicates.contentType(MediaType.APPLICATION_JSON)),
+                handler::nextTrackingNumber);
+    }
+}
@@ -0,0 +1,89 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.format.CompiledTrackingNumberFormat;
+import com.trackingnumber.format.FormattedTrackingNumberGenerator;
+import com.trackingnumber.region.RegionCode;
+import com.trackingnumber.service.DefaultTrackingNumberGenerator;
+import com.trackingnumber.service.KeyspaceOccupancyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class GenerationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationConfig.class);
+
+    // The generator lives in tracking-number-core; the length follows the fleet-wide occupancy escalation
+    @Bean
+    public DefaultTrackingNumberGenerator defaultTrackingNumberGenerator(
+            KeyspaceOccupancyTracker occupancyTracker,
+            @Value("${tracking-number.region.code:}") String regionCode) {
+        return new DefaultTrackingNumberGenerator(occupancyTracker::currentLength, RegionCode.parse(regionCode));
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "tracking-number.formats.enabled", havingValue = "true")
+    public FormattedTrackingNumberGenerator formattedTrackingNumberGenerator(
+            DefaultTrackingNumberGenerator fallback,
+            @Value("${tracking-number.formats.definitions:}") List<String> definitions,
+            @Value("${tracking-number.formats.customers:}") List<String> customers,
+            @Value("${tracking-number.formats.default:}") String defaultFormat,
+            @Value("${tracking-number.partitioning.enabled:false}") boolean partitioning,
+            @Value("${tracking-number.region.code:}") String regionCode) {
+        if (partitioning) {
+            // Partition assignment rewrites the leading characters, which would break prefixes and check characters
+            throw new IllegalArgumentException("tracking-number.formats cannot be combined with partitioning");
+        }
+        if (RegionCode.parse(regionCode) != 0) {
+            // Formatted numbers carry no region tag, so two regions could issue the same number
+            throw new IllegalArgumentException("tracking-number.formats cannot be combined with tracking-number.region.code");
+        }
+        Map<String, CompiledTrackingNumberFormat> formats = new HashMap<>();
+        for (Map.Entry<String, String> definition : parseAssignments(definitions, "format definition").entrySet()) {
+            formats.put(definition.getKey(),
+                    CompiledTrackingNumberFormat.compile(definition.getKey(), definition.getValue()));
+        }
+        Map<String, CompiledTrackingNumberFormat> customerFormats = new HashMap<>();
+        parseAssignments(customers, "customer format").forEach((customer, name) ->
+                customerFormats.put(customer, formatNamed(formats, name)));
+        CompiledTrackingNumberFormat fallbackFormat = defaultFormat.isBlank() ? null : formatNamed(formats, defaultFormat);
+
+        logger.info("Tracking number formats: {}, {} customer assignments, default {}",
+                formats.values(), customerFormats.size(), fallbackFormat != null ? fallbackFormat.name() : "random");
+        return new FormattedTrackingNumberGenerator(fallback, fallbackFormat, customerFormats);
+    }
+
+    private static CompiledTrackingNumberFormat formatNamed(Map<String, CompiledTrackingNumberFormat> formats,
+                                                            String name) {
+        CompiledTrackingNumberFormat format = formats.get(name.trim());
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown tracking number format: " + name);
+        }
+        return format;
+    }
+
+    // <key>=<value> entries of a comma-separated property
+    private static Map<String, String> parseAssignments(List<String> entries, String kind) {
+        Map<String, String> assignments = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.indexOf('=');
+            if (equals <= 0 || assignments.put(entry.substring(0, equals).trim(), entry.substring(equals + 1).trim()) != null) {
+                throw new IllegalArgumentException("Each " + kind + " must be a distinct <name>=<value>, got " + entry);
+            }
+        }
+        return assignments;
+    }
+}
@@ -0,0 +1,67 @@
+package com.trackingnumber.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.Http2;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Transport and socket options of the HTTP server. The server runs on its own event loops, on epoll when the
+ * native transport is enabled and loads on this platform, on NIO otherwise. With h2c enabled the same port
+ * accepts HTTP/1.1 and cleartext HTTP/2, so internal callers can multiplex requests over one connection.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class NettyServerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyServerConfig.class);
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources serverLoopResources(
+            @Value("${tracking-number.server.event-loop-threads:0}") int eventLoopThreads) {
+        int workers = eventLoopThreads > 0 ? eventLoopThreads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        // Thread names keep the reactor-http- prefix the event-loop blocking profile matches on
+        return LoopResources.create("reactor-http-server", workers, true);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> nettyServerCustomizer(
+            LoopResources serverLoopResources,
+            @Value("${tracking-number.server.native-transport:true}") boolean nativeTransport,
+            @Value("${tracking-number.server.reuse-port:false}") boolean reusePort,
+            @Value("${tracking-number.server.tcp-no-delay:true}") boolean tcpNoDelay,
+            @Value("${tracking-number.server.backlog:1024}") int backlog,
+            @Value("${tracking-number.server.h2c:false}") boolean h2c) {
+        boolean epoll = nativeTransport && Epoll.isAvailable();
+        if (nativeTransport && !epoll) {
+            logger.info("Native epoll transport unavailable, using NIO: {}", Epoll.unavailabilityCause().toString());
+        }
+        if (reusePort && !epoll) {
+            logger.warn("tracking-number.server.reuse-port requires the epoll transport and is ignored");
+        }
+        logger.info("HTTP server transport: {}, h2c: {}", epoll ? "epoll" : "nio", h2c);
+
+        return factory -> {
+            if (h2c) {
+                Http2 http2 = new Http2();
+                http2.setEnabled(true);
+                factory.setHttp2(http2);
+            }
+            factory.addServerCustomizers(server -> {
+                server = server.runOn(serverLoopResources, epoll)
+                        .option(ChannelOption.SO_BACKLOG, backlog)
+                        .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+                return epoll && reusePort ? server.option(EpollChannelOption.SO_REUSEPORT, true) : server;
+            });
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.partition.KeyspacePartitions;
+import com.trackingnumber.partition.PartitionOwnership;
+import com.trackingnumber.partition.PartitionReadinessIndicator;
+import com.trackingnumber.partition.PartitionedTrackingNumberGenerator;
+import com.trackingnumber.partition.PartitionedTrackingNumberStore;
+import com.trackingnumber.partition.PartitionsEndpoint;
+import com.trackingnumber.repository.TrackingNumberStore;
+import com.trackingnumber.service.DefaultTrackingNumberGenerator;
+import com.trackingnumber.service.TrackingNumberGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.availability.ReadinessStateHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@ConditionalOnProperty(name = "tracking-number.partitioning.enabled", havingValue = "true")
+public class PartitioningConfig {
+
+    @Bean
+    public PartitionOwnership partitionOwnership(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            @Qualifier(StorageConfig.REDIS_STORE) TrackingNumberStore store,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.partitioning.prefix-length:2}") int prefixLength,
+            @Value("${tracking-number.partitioning.instance-id:}") String instanceId,
+            @Value("${tracking-number.partitioning.lease-ttl:10s}") Duration leaseTtl,
+            @Value("${tracking-number.partitioning.renew-interval:2s}") Duration renewInterval,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.partitioning.batch-size:500}") int batchSize,
+            @Value("${tracking-number.partitioning.max-pending:10000}") int maxPending) {
+        return new PartitionOwnership(redisTemplate, store, meterRegistry, new KeyspacePartitions(prefixLength),
+                instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId,
+                leaseTtl, renewInterval, ttlSeconds, batchSize, maxPending);
+    }
+
+    @Bean
+    @Primary
+    public TrackingNumberStore partitionedTrackingNumberStore(
+            @Qualifier(StorageConfig.REDIS_STORE) TrackingNumberStore store,
+            PartitionOwnership partitionOwnership) {
+        return new PartitionedTrackingNumberStore(store, partitionOwnership);
+    }
+
+    @Bean
+    @Primary
+    public TrackingNumberGenerator partitionedTrackingNumberGenerator(
+            DefaultTrackingNumberGenerator generator,
+            PartitionOwnership partitionOwnership) {
+        return new PartitionedTrackingNumberGenerator(generator, partitionOwnership);
+    }
+
+    // Replaces Boot's readiness indicator of the same name, so the readiness group picks it up as is
+    @Bean
+    public ReadinessStateHealthIndicator readinessStateHealthIndicator(
+            ApplicationAvailability applicationAvailability,
+            PartitionOwnership partitionOwnership) {
+        return new PartitionReadinessIndicator(applicationAvailability, partitionOwnership);
+    }
+
+    @Bean
+    public PartitionsEndpoint partitionsEndpoint(PartitionOwnership partitionOwnership) {
+        return new PartitionsEndpoint(partitionOwnership);
+    }
+}
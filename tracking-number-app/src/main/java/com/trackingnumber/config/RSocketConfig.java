@@ -0,0 +1,18 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.rsocket.BinaryTrackingNumberDecoder;
+import com.trackingnumber.rsocket.BinaryTrackingNumberEncoder;
+import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RSocketConfig {
+
+    @Bean
+    public RSocketStrategiesCustomizer binaryTrackingNumberCodecCustomizer() {
+        return strategies -> strategies
+                .encoder(new BinaryTrackingNumberEncoder())
+                .decoder(new BinaryTrackingNumberDecoder());
+    }
+}
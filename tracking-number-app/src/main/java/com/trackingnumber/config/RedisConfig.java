@@ -0,0 +1,196 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.region.RegionCode;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class RedisConfig {
+
+    @Value("${spring.data.redis.host:localhost}")
+    private String redisHost;
+
+    @Value("${spring.data.redis.port:6379}")
+    private int redisPort;
+
+    @Value("${spring.data.redis.password:}")
+    private String redisPassword;
+
+    @Value("${spring.data.redis.timeout:2000ms}")
+    private Duration timeout;
+
+    @Value("${spring.data.redis.lettuce.pool.max-active:8}")
+    private int maxActive;
+
+    @Value("${spring.data.redis.lettuce.pool.max-idle:8}")
+    private int maxIdle;
+
+    @Value("${spring.data.redis.lettuce.pool.min-idle:0}")
+    private int minIdle;
+
+    @Bean
+    public ReactiveRedisConnectionFactory reactiveRedisConnectionFactory() {
+        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
+        redisConfig.setHostName(redisHost);
+        redisConfig.setPort(redisPort);
+        
+        if (redisPassword != null && !redisPassword.trim().isEmpty()) {
+            redisConfig.setPassword(redisPassword);
+        }
+
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientOptions(clientOptions())
+                .commandTimeout(timeout)
+                .build();
+
+        return new LettuceConnectionFactory(redisConfig, clientConfig);
+    }
+
+    /**
+     * Static primary/replica topology for hedged lookups. Lettuce asks every node for its role and sends reads
+     * to replicas, falling back to the primary while none is reachable.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracking-number.redis.hedging.enabled", havingValue = "true")
+    public RedisReplicaTemplates redisReplicaTemplates(
+            @Value("${tracking-number.redis.replicas:}") List<String> replicas) {
+        RedisStaticMasterReplicaConfiguration topology = new RedisStaticMasterReplicaConfiguration(redisHost, redisPort);
+        for (String replica : replicas) {
+            if (replica.isBlank()) {
+                continue;
+            }
+            int separator = replica.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Redis replica must be host:port, got " + replica);
+            }
+            topology.addNode(replica.substring(0, separator).trim(),
+                    Integer.parseInt(replica.substring(separator + 1).trim()));
+        }
+        if (redisPassword != null && !redisPassword.trim().isEmpty()) {
+            topology.setPassword(redisPassword);
+        }
+
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientOptions(clientOptions())
+                .commandTimeout(timeout)
+                .readFrom(ReadFrom.REPLICA_PREFERRED)
+                .build();
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(topology, clientConfig);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return new RedisReplicaTemplates(connectionFactory);
+    }
+
+    /**
+     * One connection per other region, for replicating its issued numbers. Each peer is {@code <code>=host:port}
+     * and shares this region's password and timeouts.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracking-number.region.replication.enabled", havingValue = "true")
+    public RegionPeers regionPeers(@Value("${tracking-number.region.replication.peers:}") List<String> peers) {
+        Map<Character, LettuceConnectionFactory> connectionFactories = new LinkedHashMap<>();
+        for (String peer : peers) {
+            if (peer.isBlank()) {
+                continue;
+            }
+            int equals = peer.indexOf('=');
+            int separator = peer.lastIndexOf(':');
+            if (equals < 0 || separator < equals) {
+                throw new IllegalArgumentException("Region peer must be <code>=host:port, got " + peer);
+            }
+            char region = RegionCode.parse(peer.substring(0, equals));
+            if (region == 0 || connectionFactories.containsKey(region)) {
+                throw new IllegalArgumentException("Region peer needs a distinct region code, got " + peer);
+            }
+            RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration(
+                    peer.substring(equals + 1, separator).trim(), Integer.parseInt(peer.substring(separator + 1).trim()));
+            if (redisPassword != null && !redisPassword.trim().isEmpty()) {
+                redisConfig.setPassword(redisPassword);
+            }
+
+            LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                    .clientOptions(clientOptions())
+                    .commandTimeout(timeout)
+                    .build();
+
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(redisConfig, clientConfig);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            connectionFactories.put(region, connectionFactory);
+        }
+        return new RegionPeers(connectionFactories);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, String> reactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return stringTemplate(connectionFactory);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return trackingNumberTemplate(connectionFactory);
+    }
+
+    static ReactiveRedisTemplate<String, String> stringTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, String> serializationContext = 
+                RedisSerializationContext.<String, String>newSerializationContext(new StringRedisSerializer())
+                        .key(new StringRedisSerializer())
+                        .value(new StringRedisSerializer())
+                        .hashKey(new StringRedisSerializer())
+                        .hashValue(new StringRedisSerializer())
+                        .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    static ReactiveRedisTemplate<String, TrackingNumber> trackingNumberTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, TrackingNumber> serializationContext =
+                RedisSerializationContext.<String, TrackingNumber>newSerializationContext(new StringRedisSerializer())
+                        .key(new StringRedisSerializer())
+                        .value(TrackingNumberRedisSerializer.INSTANCE)
+                        .hashKey(TrackingNumberRedisSerializer.INSTANCE)
+                        .hashValue(new StringRedisSerializer())
+                        .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    private ClientOptions clientOptions() {
+        SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(timeout)
+                .keepAlive(true)
+                .build();
+
+        return ClientOptions.builder()
+                .socketOptions(socketOptions)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .autoReconnect(true)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.domain.TrackingNumber;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+/**
+ * Templates that read from replicas, for hedged lookups. Kept out of the context as plain templates so that
+ * every by-type injection of {@link ReactiveRedisTemplate} keeps resolving to the primary.
+ */
+public final class RedisReplicaTemplates implements DisposableBean {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate;
+
+    RedisReplicaTemplates(LettuceConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = RedisConfig.stringTemplate(connectionFactory);
+        this.trackingNumberRedisTemplate = RedisConfig.trackingNumberTemplate(connectionFactory);
+    }
+
+    public ReactiveRedisTemplate<String, String> redisTemplate() {
+        return redisTemplate;
+    }
+
+    public ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate() {
+        return trackingNumberRedisTemplate;
+    }
+
+    @Override
+    public void destroy() {
+        connectionFactory.destroy();
+    }
+}
@@ -0,0 +1,33 @@
+package com.trackingnumber.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Templates for the Redis of every other region, keyed by region code, for replication. Kept out of the context
+ * as plain templates for the same reason as {@link RedisReplicaTemplates}.
+ */
+public final class RegionPeers implements DisposableBean {
+
+    private final Map<Character, LettuceConnectionFactory> connectionFactories;
+    private final Map<Character, ReactiveRedisTemplate<String, String>> redisTemplates = new LinkedHashMap<>();
+
+    RegionPeers(Map<Character, LettuceConnectionFactory> connectionFactories) {
+        this.connectionFactories = connectionFactories;
+        connectionFactories.forEach((region, connectionFactory) ->
+                redisTemplates.put(region, RedisConfig.stringTemplate(connectionFactory)));
+    }
+
+    public Map<Character, ReactiveRedisTemplate<String, String>> redisTemplates() {
+        return redisTemplates;
+    }
+
+    @Override
+    public void destroy() {
+        connectionFactories.values().forEach(LettuceConnectionFactory::destroy);
+    }
+}
@@ -0,0 +1,23 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.web.TrackingNumberResponseWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Custom writers are consulted before the Jackson encoder, so {@link TrackingNumberResponseWriter} takes over
+ * every {@code TrackingNumberResponse} body, from the annotated controller and the fast path alike.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "tracking-number.response-writer.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseWriterConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new TrackingNumberResponseWriter());
+    }
+}
@@ -0,0 +1,80 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.repository.BucketedTrackingNumberStore;
+import com.trackingnumber.repository.HedgedTrackingNumberStore;
+import com.trackingnumber.repository.KeyPerNumberTrackingNumberStore;
+import com.trackingnumber.repository.TrackingNumberRepository;
+import com.trackingnumber.repository.TrackingNumberStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class StorageConfig {
+
+    // The Redis-backed store, for decorators that need it underneath the primary TrackingNumberStore
+    public static final String REDIS_STORE = "redisTrackingNumberStore";
+
+    private final ObjectProvider<RedisReplicaTemplates> replicaTemplates;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tracking-number.redis.hedging.quantile:0.95}")
+    private double hedgeQuantile;
+
+    @Value("${tracking-number.redis.hedging.min-delay:1ms}")
+    private Duration hedgeMinDelay;
+
+    @Value("${tracking-number.redis.hedging.max-delay:50ms}")
+    private Duration hedgeMaxDelay;
+
+    @Value("${tracking-number.redis.hedging.max-ratio:0.1}")
+    private double hedgeMaxRatio;
+
+    public StorageConfig(ObjectProvider<RedisReplicaTemplates> replicaTemplates, MeterRegistry meterRegistry) {
+        this.replicaTemplates = replicaTemplates;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    @Qualifier(REDIS_STORE)
+    @ConditionalOnProperty(name = "tracking-number.storage.layout", havingValue = "key-per-number", matchIfMissing = true)
+    public TrackingNumberStore keyPerNumberTrackingNumberStore(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            TrackingNumberRepository repository,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.validation.lookup-chunk-size:500}") int lookupChunkSize) {
+        TrackingNumberStore store =
+                new KeyPerNumberTrackingNumberStore(redisTemplate, repository, ttlSeconds, lookupChunkSize);
+        RedisReplicaTemplates replicas = replicaTemplates.getIfAvailable();
+        return replicas == null ? store : hedged(store, new KeyPerNumberTrackingNumberStore(
+                replicas.redisTemplate(), repository, ttlSeconds, lookupChunkSize));
+    }
+
+    @Bean
+    @Qualifier(REDIS_STORE)
+    @ConditionalOnProperty(name = "tracking-number.storage.layout", havingValue = "bucketed")
+    public TrackingNumberStore bucketedTrackingNumberStore(
+            ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.storage.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${tracking-number.storage.shards:1024}") int shards) {
+        TrackingNumberStore store =
+                new BucketedTrackingNumberStore(trackingNumberRedisTemplate, ttlSeconds, bucketSeconds, shards);
+        RedisReplicaTemplates replicas = replicaTemplates.getIfAvailable();
+        return replicas == null ? store : hedged(store, new BucketedTrackingNumberStore(
+                replicas.trackingNumberRedisTemplate(), ttlSeconds, bucketSeconds, shards));
+    }
+
+    private TrackingNumberStore hedged(TrackingNumberStore primary, TrackingNumberStore replica) {
+        return new HedgedTrackingNumberStore(primary, replica, meterRegistry,
+                hedgeQuantile, hedgeMinDelay, hedgeMaxDelay, hedgeMaxRatio);
+    }
+}
@@ -0,0 +1,43 @@
+package com.trackingnumber.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+@JsonComponent
+public class TrackingNumberJsonComponent {
+
+    public static class Serializer extends JsonSerializer<TrackingNumber> {
+
+        private static final ThreadLocal<char[]> BUFFER =
+                ThreadLocal.withInitial(() -> new char[TrackingNumberCodec.MAX_PACKED_LENGTH]);
+
+        @Override
+        public void serialize(TrackingNumber value, JsonGenerator generator, SerializerProvider serializers)
+                throws IOException {
+            char[] buffer = BUFFER.get();
+            generator.writeString(buffer, 0, value.writeTo(buffer, 0));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<TrackingNumber> {
+
+        @Override
+        public TrackingNumber deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String text = parser.getValueAsString();
+            if (!TrackingNumberCodec.isPackable(text)) {
+                return (TrackingNumber) context.handleWeirdStringValue(TrackingNumber.class, text,
+                        "not a tracking number of up to %d characters [0-9A-Z]", TrackingNumberCodec.MAX_PACKED_LENGTH);
+            }
+            return TrackingNumber.of(text);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.domain.TrackingNumberEntity;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.domain.TrackingNumberValidationRequest;
+import com.trackingnumber.domain.TrackingNumberValidationResponse;
+import com.trackingnumber.domain.TrackingNumberValidationResult;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints for the AOT and native-image builds. Jackson binds the API records reflectively, and the Lua
+ * scripts are loaded from the classpath at runtime, so neither is found by static analysis. Lettuce and
+ * Micrometer tracing ship their own reachability metadata through Spring Boot.
+ */
+public class TrackingNumberRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                TrackingNumberRequest.class,
+                TrackingNumberResponse.class,
+                TrackingNumberValidationRequest.class,
+                TrackingNumberValidationResponse.class,
+                TrackingNumberValidationResult.class,
+                TrackingNumberEntity.class);
+        hints.resources().registerPattern("scripts/*.lua");
+    }
+}
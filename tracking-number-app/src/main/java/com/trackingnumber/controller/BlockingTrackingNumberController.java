@@ -0,0 +1,74 @@
+package com.trackingnumber.controller;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.domain.TrackingNumberValidationRequest;
+import com.trackingnumber.domain.TrackingNumberValidationResponse;
+import com.trackingnumber.service.BlockingTrackingNumberService;
+import com.trackingnumber.service.TrackingNumberValidationService;
+import com.trackingnumber.web.CachedTimestamp;
+import io.micrometer.tracing.annotation.NewSpan;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The {@link TrackingNumberController} contract on Spring MVC, one virtual thread per request
+ * ({@code virtual-threads} build).
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BlockingTrackingNumberController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingTrackingNumberController.class);
+
+    private final BlockingTrackingNumberService trackingNumberService;
+    private final TrackingNumberValidationService validationService;
+
+    public BlockingTrackingNumberController(BlockingTrackingNumberService trackingNumberService,
+                                            TrackingNumberValidationService validationService) {
+        this.trackingNumberService = trackingNumberService;
+        this.validationService = validationService;
+    }
+
+    @PostMapping("/next-tracking-number")
+    @ResponseStatus(HttpStatus.CREATED)
+    @NewSpan("get-next-tracking-number")
+    public TrackingNumberResponse getNextTrackingNumber(
+            @Valid @RequestBody TrackingNumberRequest request) {
+
+        logger.info("Received tracking number request from customer: {} ({})",
+                request.customerName(), request.customerId());
+        logger.debug("Request details: {}", request);
+
+        TrackingNumber trackingNumber = trackingNumberService.generateUniqueTrackingNumber(request);
+        TrackingNumberResponse response = new TrackingNumberResponse(trackingNumber, CachedTimestamp.now());
+        logger.info("Successfully generated tracking number response: {}", response.trackingNumber());
+        return response;
+    }
+
+    @PostMapping("/tracking-numbers:validate")
+    @NewSpan("validate-tracking-numbers")
+    public TrackingNumberValidationResponse validateTrackingNumbers(
+            @Valid @RequestBody TrackingNumberValidationRequest request) {
+
+        logger.debug("Received validation request for {} tracking numbers", request.trackingNumbers().size());
+
+        return validationService.validate(request.trackingNumbers())
+                .map(TrackingNumberValidationResponse::new)
+                .doOnError(error ->
+                        logger.error("Error validating {} tracking numbers",
+                                request.trackingNumbers().size(), error))
+                .block();
+    }
+
+    @GetMapping("/health")
+    public String health() {
+        return "OK";
+    }
+}
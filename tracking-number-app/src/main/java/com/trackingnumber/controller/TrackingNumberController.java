@@ -0,0 +1,118 @@
+package com.trackingnumber.controller;
+
+import com.trackingnumber.domain.TrackingNumberBulkRequest;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberRequestValidator;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.domain.TrackingNumberValidationRequest;
+import com.trackingnumber.domain.TrackingNumberValidationResponse;
+import com.trackingnumber.exception.InvalidTrackingNumberRequestException;
+import com.trackingnumber.service.TrackingNumberService;
+import com.trackingnumber.service.TrackingNumberValidationService;
+import com.trackingnumber.web.CachedTimestamp;
+import io.micrometer.tracing.annotation.NewSpan;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TrackingNumberController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberController.class);
+
+    private final TrackingNumberService trackingNumberService;
+    private final TrackingNumberValidationService validationService;
+    private final int batchConcurrency;
+    private final int maxBatchCount;
+
+    public TrackingNumberController(TrackingNumberService trackingNumberService,
+                                    TrackingNumberValidationService validationService,
+                                    @Value("${tracking-number.batch.concurrency:16}") int batchConcurrency,
+                                    @Value("${tracking-number.batch.max-count:10000}") int maxBatchCount) {
+        this.trackingNumberService = trackingNumberService;
+        this.validationService = validationService;
+        this.batchConcurrency = batchConcurrency;
+        this.maxBatchCount = maxBatchCount;
+    }
+
+    @PostMapping("/next-tracking-number")
+    @ResponseStatus(HttpStatus.CREATED)
+    @NewSpan("get-next-tracking-number")
+    public Mono<TrackingNumberResponse> getNextTrackingNumber(
+            @Valid @RequestBody TrackingNumberRequest request) {
+
+        logger.info("Received tracking number request from customer: {} ({})",
+                request.customerName(), request.customerId());
+        logger.debug("Request details: {}", request);
+
+        return trackingNumberService.generateUniqueTrackingNumber(request)
+                .map(trackingNumber -> new TrackingNumberResponse(
+                        trackingNumber,
+                        CachedTimestamp.now()
+                ))
+                .doOnSuccess(response ->
+                        logger.info("Successfully generated tracking number response: {}", response.trackingNumber()))
+                .doOnError(error ->
+                        logger.error("Error processing tracking number request for customer: {}",
+                                request.customerId(), error));
+    }
+
+    /**
+     * Streams {@code count} numbers for one request as a JSON array (or NDJSON), written in chunks as they are issued.
+     */
+    @PostMapping(value = "/tracking-numbers:batch",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    @NewSpan("get-tracking-number-batch")
+    public Flux<TrackingNumberResponse> getTrackingNumberBatch(@RequestBody TrackingNumberBulkRequest bulkRequest) {
+        if (bulkRequest.count() < 1 || bulkRequest.count() > maxBatchCount) {
+            return Flux.error(new InvalidTrackingNumberRequestException(
+                    Map.of("count", "Count must be between 1 and " + maxBatchCount)));
+        }
+        if (bulkRequest.request() == null) {
+            return Flux.error(new InvalidTrackingNumberRequestException(Map.of("request", "Request is required")));
+        }
+        Map<String, String> errors = TrackingNumberRequestValidator.validate(bulkRequest.request());
+        if (!errors.isEmpty()) {
+            return Flux.error(new InvalidTrackingNumberRequestException(errors));
+        }
+
+        logger.debug("Issuing a batch of {} tracking numbers for customer: {}",
+                bulkRequest.count(), bulkRequest.request().customerId());
+
+        return Flux.range(0, bulkRequest.count())
+                .flatMapSequential(i -> trackingNumberService.generateUniqueTrackingNumber(bulkRequest.request()),
+                        batchConcurrency)
+                .map(trackingNumber -> new TrackingNumberResponse(trackingNumber, CachedTimestamp.now()));
+    }
+
+    @PostMapping("/tracking-numbers:validate")
+    @NewSpan("validate-tracking-numbers")
+    public Mono<TrackingNumberValidationResponse> validateTrackingNumbers(
+            @Valid @RequestBody TrackingNumberValidationRequest request) {
+
+        logger.debug("Received validation request for {} tracking numbers", request.trackingNumbers().size());
+
+        return validationService.validate(request.trackingNumbers())
+                .map(TrackingNumberValidationResponse::new)
+                .doOnError(error ->
+                        logger.error("Error validating {} tracking numbers",
+                                request.trackingNumbers().size(), error));
+    }
+
+    @GetMapping("/health")
+    public Mono<String> health() {
+        return Mono.just("OK");
+    }
+}
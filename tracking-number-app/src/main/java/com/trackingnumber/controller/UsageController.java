@@ -0,0 +1,51 @@
+package com.trackingnumber.controller;
+
+import com.trackingnumber.domain.CustomerUsageResponse;
+import com.trackingnumber.exception.InvalidTrackingNumberRequestException;
+import com.trackingnumber.usage.UsageCounters;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1")
+public class UsageController {
+
+    private static final int MAX_DAYS = 31;
+
+    private final UsageCounters usageCounters;
+
+    public UsageController(UsageCounters usageCounters) {
+        this.usageCounters = usageCounters;
+    }
+
+    /**
+     * Issuance counts per customer and route for a range of UTC days (today by default). Counts lag by up to
+     * one flush interval per instance.
+     */
+    @GetMapping("/usage")
+    public Mono<CustomerUsageResponse> getUsage(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end;
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            return Mono.error(new InvalidTrackingNumberRequestException(
+                    Map.of("from", "Date range must be ordered and span at most " + MAX_DAYS + " days")));
+        }
+
+        return usageCounters.usage(start, end, customerId)
+                .collectList()
+                .map(CustomerUsageResponse::new);
+    }
+}
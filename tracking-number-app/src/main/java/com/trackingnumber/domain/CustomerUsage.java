@@ -0,0 +1,20 @@
+package com.trackingnumber.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record CustomerUsage(
+    @JsonProperty("date")
+    String date,
+
+    @JsonProperty("customer_id")
+    String customerId,
+
+    @JsonProperty("origin_country_id")
+    String originCountryId,
+
+    @JsonProperty("destination_country_id")
+    String destinationCountryId,
+
+    @JsonProperty("count")
+    long count
+) {}
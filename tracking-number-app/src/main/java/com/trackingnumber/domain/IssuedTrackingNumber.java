@@ -0,0 +1,6 @@
+package com.trackingnumber.domain;
+
+public record IssuedTrackingNumber(
+    TrackingNumber trackingNumber,
+    long createdAtEpochMilli
+) {}
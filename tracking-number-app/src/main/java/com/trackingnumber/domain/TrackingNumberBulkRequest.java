@@ -0,0 +1,6 @@
+package com.trackingnumber.domain;
+
+public record TrackingNumberBulkRequest(
+    TrackingNumberRequest request,
+    int count
+) {}
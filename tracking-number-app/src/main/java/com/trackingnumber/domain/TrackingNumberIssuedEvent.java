@@ -0,0 +1,9 @@
+package com.trackingnumber.domain;
+
+public record TrackingNumberIssuedEvent(
+    TrackingNumber trackingNumber,
+    long issuedAtEpochMilli,
+    String customerId,
+    String originCountryId,
+    String destinationCountryId
+) {}
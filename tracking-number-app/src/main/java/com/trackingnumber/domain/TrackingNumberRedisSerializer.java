@@ -0,0 +1,37 @@
+package com.trackingnumber.domain;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Writes a {@link TrackingNumber} as its 8-byte big-endian packed value.
+ */
+public final class TrackingNumberRedisSerializer implements RedisSerializer<TrackingNumber> {
+
+    public static final TrackingNumberRedisSerializer INSTANCE = new TrackingNumberRedisSerializer();
+
+    private TrackingNumberRedisSerializer() {
+    }
+
+    @Override
+    public byte[] serialize(TrackingNumber trackingNumber) {
+        return trackingNumber == null ? null : TrackingNumberCodec.toBytes(trackingNumber.packed());
+    }
+
+    @Override
+    public TrackingNumber deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != TrackingNumberCodec.PACKED_BYTES) {
+            throw new SerializationException("Packed tracking number must be "
+                    + TrackingNumberCodec.PACKED_BYTES + " bytes, got " + bytes.length);
+        }
+        return TrackingNumber.ofPacked(TrackingNumberCodec.fromBytes(bytes));
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return TrackingNumber.class;
+    }
+}
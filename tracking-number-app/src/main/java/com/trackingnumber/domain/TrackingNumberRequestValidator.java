@@ -0,0 +1,105 @@
+package com.trackingnumber.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Programmatic equivalent of the constraints declared on {@link TrackingNumberRequest}, with the same
+ * messages, for transports that bypass Bean Validation. Allocates only when a request is invalid.
+ */
+public final class TrackingNumberRequestValidator {
+
+    private TrackingNumberRequestValidator() {
+    }
+
+    public static Map<String, String> validate(TrackingNumberRequest request) {
+        Map<String, String> errors = null;
+        errors = check(errors, "originCountryId", countryError(request.originCountryId(),
+                "Origin country ID is required",
+                "Origin country ID must be in ISO 3166-1 alpha-2 format"));
+        errors = check(errors, "destinationCountryId", countryError(request.destinationCountryId(),
+                "Destination country ID is required",
+                "Destination country ID must be in ISO 3166-1 alpha-2 format"));
+        errors = check(errors, "weight", weightError(request.weight()));
+        errors = check(errors, "customerId", requiredTextError(request.customerId(), 36,
+                "Customer ID is required",
+                "Customer ID must not exceed 36 characters"));
+        errors = check(errors, "customerName", requiredTextError(request.customerName(), 100,
+                "Customer name is required",
+                "Customer name must not exceed 100 characters"));
+        if (request.customerSlug() != null && request.customerSlug().length() > 50) {
+            errors = check(errors, "customerSlug", "Customer slug must not exceed 50 characters");
+        }
+        return errors == null ? Map.of() : errors;
+    }
+
+    static boolean isBlank(CharSequence value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isCountryCode(CharSequence value) {
+        return value.length() == 2 && isUpper(value.charAt(0)) && isUpper(value.charAt(1));
+    }
+
+    static boolean isWeight(CharSequence value) {
+        // \d{1,3}\.\d{3}
+        int length = value.length();
+        if (length < 5 || length > 7 || value.charAt(length - 4) != '.') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (i != length - 4 && !isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String countryError(String value, String requiredMessage, String formatMessage) {
+        if (isBlank(value)) {
+            return requiredMessage;
+        }
+        return isCountryCode(value) ? null : formatMessage;
+    }
+
+    private static String weightError(String value) {
+        if (isBlank(value)) {
+            return "Weight is required";
+        }
+        return isWeight(value) ? null : "Weight must be in format X.XXX (up to 3 decimal places)";
+    }
+
+    private static String requiredTextError(String value, int maxLength, String requiredMessage, String sizeMessage) {
+        if (isBlank(value)) {
+            return requiredMessage;
+        }
+        return value.length() > maxLength ? sizeMessage : null;
+    }
+
+    private static Map<String, String> check(Map<String, String> errors, String field, String message) {
+        if (message == null) {
+            return errors;
+        }
+        if (errors == null) {
+            errors = new LinkedHashMap<>();
+        }
+        errors.put(field, message);
+        return errors;
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
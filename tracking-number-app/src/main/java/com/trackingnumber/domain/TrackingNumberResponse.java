@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record TrackingNumberResponse(
     @JsonProperty("tracking_number")
-    String trackingNumber,
+    TrackingNumber trackingNumber,
     
     @JsonProperty("created_at")
     String createdAt
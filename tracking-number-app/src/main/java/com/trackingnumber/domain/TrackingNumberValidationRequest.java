@@ -0,0 +1,14 @@
+package com.trackingnumber.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TrackingNumberValidationRequest(
+    @JsonProperty("tracking_numbers")
+    @NotEmpty(message = "At least one tracking number is required")
+    @Size(max = 10000, message = "At most 10000 tracking numbers can be validated per request")
+    List<String> trackingNumbers
+) {}
@@ -0,0 +1,10 @@
+package com.trackingnumber.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record TrackingNumberValidationResponse(
+    @JsonProperty("results")
+    List<TrackingNumberValidationResult> results
+) {}
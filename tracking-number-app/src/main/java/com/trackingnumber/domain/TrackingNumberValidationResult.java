@@ -0,0 +1,14 @@
+package com.trackingnumber.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record TrackingNumberValidationResult(
+    @JsonProperty("tracking_number")
+    String trackingNumber,
+
+    @JsonProperty("valid_format")
+    boolean validFormat,
+
+    @JsonProperty("issued")
+    boolean issued
+) {}
@@ -2,13 +2,15 @@ package com.trackingnumber.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
-import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -20,12 +22,23 @@ public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     @ExceptionHandler(WebExchangeBindException.class)
-    public Mono<ResponseEntity<Map<String, Object>>> handleValidationExceptions(
+    public ResponseEntity<Map<String, Object>> handleValidationExceptions(
             WebExchangeBindException ex) {
         logger.warn("Validation error occurred", ex);
+        return validationFailed(ex.getBindingResult());
+    }
 
+    // Servlet stack (virtual-threads build) equivalent of WebExchangeBindException
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleMethodArgumentNotValid(
+            MethodArgumentNotValidException ex) {
+        logger.warn("Validation error occurred", ex);
+        return validationFailed(ex.getBindingResult());
+    }
+
+    private ResponseEntity<Map<String, Object>> validationFailed(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
+        bindingResult.getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -37,11 +50,25 @@ public class GlobalExceptionHandler {
                 errors
         );
 
-        return Mono.just(ResponseEntity.badRequest().body(response));
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(InvalidTrackingNumberRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequest(
+            InvalidTrackingNumberRequestException ex) {
+        logger.warn("Validation error occurred: {}", ex.getErrors());
+
+        Map<String, Object> response = createErrorResponse(
+                "Validation failed",
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getErrors()
+        );
+
+        return ResponseEntity.badRequest().body(response);
     }
 
     @ExceptionHandler(DuplicateTrackingNumberException.class)
-    public Mono<ResponseEntity<Map<String, Object>>> handleDuplicateTrackingNumber(
+    public ResponseEntity<Map<String, Object>> handleDuplicateTrackingNumber(
             DuplicateTrackingNumberException ex) {
         logger.error("Duplicate tracking number generated", ex);
 
@@ -51,11 +78,11 @@ public class GlobalExceptionHandler {
                 null
         );
 
-        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(response));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
     @ExceptionHandler(TrackingNumberException.class)
-    public Mono<ResponseEntity<Map<String, Object>>> handleTrackingNumberException(
+    public ResponseEntity<Map<String, Object>> handleTrackingNumberException(
             TrackingNumberException ex) {
         logger.error("Tracking number generation error", ex);
 
@@ -65,11 +92,24 @@ public class GlobalExceptionHandler {
                 null
         );
 
-        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response));
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    @ExceptionHandler(DataBufferLimitException.class)
+    public ResponseEntity<Map<String, Object>> handlePayloadTooLarge(DataBufferLimitException ex) {
+        logger.warn("Request body too large: {}", ex.getMessage());
+
+        Map<String, Object> response = createErrorResponse(
+                "Request body too large",
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
     }
 
     @ExceptionHandler(Exception.class)
-    public Mono<ResponseEntity<Map<String, Object>>> handleGenericException(Exception ex) {
+    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         logger.error("Unexpected error occurred", ex);
 
         Map<String, Object> response = createErrorResponse(
@@ -78,7 +118,7 @@ public class GlobalExceptionHandler {
                 null
         );
 
-        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response));
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
     private Map<String, Object> createErrorResponse(String message, int status, Object details) {
@@ -0,0 +1,17 @@
+package com.trackingnumber.exception;
+
+import java.util.Map;
+
+public class InvalidTrackingNumberRequestException extends TrackingNumberException {
+
+    private final Map<String, String> errors;
+
+    public InvalidTrackingNumberRequestException(Map<String, String> errors) {
+        super("Validation failed: " + errors);
+        this.errors = errors;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
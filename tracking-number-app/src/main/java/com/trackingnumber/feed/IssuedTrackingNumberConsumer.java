@@ -0,0 +1,211 @@
+package com.trackingnumber.feed;
+
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStreamOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Embeddable consumer of the issued-number stream for downstream services. Each {@link #consume}
+ * subscription reads batches with XREADGROUP and hands each batch to the handler. Once the handler's
+ * publisher completes, it acknowledges the whole batch with one XACK and then emits the handler's
+ * results. Delivery is at-least-once: on subscription the consumer first replays its own
+ * unacknowledged entries, and every {@code claimIdleAfter} it claims entries that another consumer of the
+ * group has left unacknowledged for that long (a consumer that crashed, or was renamed), and replays those
+ * too. Reads never use BLOCK, because a blocking read would stall the shared Lettuce connection; an empty
+ * read waits {@code pollInterval} before trying again.
+ * <p>
+ * The stream is trimmed, so a group that falls behind the trimming loses entries without any error;
+ * {@link #missedEntries(String)} tells whether that has happened.
+ */
+public class IssuedTrackingNumberConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IssuedTrackingNumberConsumer.class);
+    private static final Duration DEFAULT_CLAIM_IDLE_AFTER = Duration.ofMinutes(1);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final String streamKey;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration claimIdleAfter;
+
+    public IssuedTrackingNumberConsumer(ReactiveRedisTemplate<String, String> redisTemplate,
+                                        String streamKey, int batchSize, Duration pollInterval,
+                                        Duration claimIdleAfter) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Consumer batch size must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.claimIdleAfter = claimIdleAfter;
+    }
+
+    public IssuedTrackingNumberConsumer(ReactiveRedisTemplate<String, String> redisTemplate,
+                                        String streamKey, int batchSize, Duration pollInterval) {
+        this(redisTemplate, streamKey, batchSize, pollInterval, DEFAULT_CLAIM_IDLE_AFTER);
+    }
+
+    public IssuedTrackingNumberConsumer(ReactiveRedisTemplate<String, String> redisTemplate) {
+        this(redisTemplate, IssuedTrackingNumberFeed.DEFAULT_STREAM_KEY, 500, Duration.ofMillis(100));
+    }
+
+    public <T> Flux<T> consume(String group, String consumerName,
+                               Function<List<TrackingNumberIssuedEvent>, ? extends Publisher<T>> handler) {
+        Consumer consumer = Consumer.from(group, consumerName);
+        AtomicBoolean replayingPending = new AtomicBoolean(true);
+        AtomicLong lastClaimNanos = new AtomicLong(System.nanoTime());
+
+        // Claimed entries join this consumer's pending list, so replaying it picks them up
+        Mono<Void> claimIfDue = Mono.defer(() -> {
+            long now = System.nanoTime();
+            if (now - lastClaimNanos.get() < claimIdleAfter.toNanos()) {
+                return Mono.empty();
+            }
+            lastClaimNanos.set(now);
+            return claimIdle(group, consumerName)
+                    .doOnNext(claimed -> {
+                        if (claimed > 0) {
+                            logger.info("Consumer {}/{} claimed {} idle entries", group, consumerName, claimed);
+                            replayingPending.set(true);
+                        }
+                    })
+                    .then();
+        });
+
+        Mono<List<MapRecord<String, String, String>>> readBatch = claimIfDue.then(Mono.defer(() -> {
+            ReadOffset offset = replayingPending.get() ? ReadOffset.from("0") : ReadOffset.lastConsumed();
+            return redisTemplate.<String, String>opsForStream()
+                    .read(consumer, StreamReadOptions.empty().count(batchSize), StreamOffset.create(streamKey, offset))
+                    .collectList()
+                    .doOnNext(batch -> {
+                        if (batch.isEmpty() && replayingPending.compareAndSet(true, false)) {
+                            logger.debug("Consumer {}/{} caught up on pending entries", group, consumerName);
+                        }
+                    });
+        }));
+
+        return ensureGroup(group)
+                .thenMany(readBatch
+                        .flatMapMany(batch -> batch.isEmpty()
+                                ? Mono.delay(pollInterval).thenMany(Flux.<T>empty())
+                                : handleBatch(batch, group, handler))
+                        .repeat());
+    }
+
+    private <T> Flux<T> handleBatch(List<MapRecord<String, String, String>> batch, String group,
+                                    Function<List<TrackingNumberIssuedEvent>, ? extends Publisher<T>> handler) {
+        List<TrackingNumberIssuedEvent> events = batch.stream()
+                .map(record -> IssuedTrackingNumberFeed.fromFields(record.getValue()))
+                .toList();
+        RecordId[] ids = batch.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+
+        // Acknowledge once the handler completes, before its results go downstream, so a cancelled
+        // subscriber does not leave a fully handled batch pending
+        return Flux.<T>from(handler.apply(events))
+                .collectList()
+                .flatMapMany(results -> redisTemplate.opsForStream()
+                        .acknowledge(streamKey, group, ids)
+                        .thenMany(Flux.fromIterable(results)));
+    }
+
+    // XPENDING + XCLAIM of the oldest pending entries of other consumers, idle for at least claimIdleAfter
+    private Mono<Long> claimIdle(String group, String consumerName) {
+        ReactiveStreamOperations<String, String, String> stream = redisTemplate.opsForStream();
+        return stream.pending(streamKey, group, Range.unbounded(), batchSize)
+                .flatMapMany(Flux::fromIterable)
+                .filter(message -> !message.getConsumerName().equals(consumerName)
+                        && message.getElapsedTimeSinceLastDelivery().compareTo(claimIdleAfter) >= 0)
+                .map(PendingMessage::getId)
+                .collectList()
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(0L)
+                        : stream.claim(streamKey, group, consumerName, claimIdleAfter, ids.toArray(RecordId[]::new))
+                                .count());
+    }
+
+    /**
+     * Whether entries the group never read have been trimmed from the stream. A group that does not exist yet
+     * counts as starting from the beginning, so it has missed something once the stream has been trimmed at all.
+     * Emits {@code false} while the stream does not exist.
+     */
+    public Mono<Boolean> missedEntries(String group) {
+        ReactiveStreamOperations<String, String, String> stream = redisTemplate.opsForStream();
+        return stream.info(streamKey)
+                .flatMap(info -> stream.groups(streamKey)
+                        .filter(existing -> existing.groupName().equals(group))
+                        .next()
+                        .map(existing -> Optional.of(RecordId.of(existing.lastDeliveredId())))
+                        .defaultIfEmpty(Optional.empty())
+                        .map(lastDelivered -> missedEntries(lastDelivered.orElse(null),
+                                rawId(info.getRaw().get("max-deleted-entry-id")),
+                                info.streamLength() == 0 ? null : RecordId.of(info.firstEntryId()))))
+                .onErrorResume(IssuedTrackingNumberConsumer::isMissingKey, error -> Mono.just(false))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Whether a group that last read {@code lastDelivered} ({@code null} for a group that does not exist yet) has
+     * lost entries to trimming. Redis 7 reports the newest trimmed entry ({@code maxDeleted}), which answers it
+     * exactly; before that, an existing group behind the first entry counts as a gap and a new group cannot be
+     * checked.
+     */
+    static boolean missedEntries(RecordId lastDelivered, RecordId maxDeleted, RecordId firstEntry) {
+        if (maxDeleted != null) {
+            return compare(maxDeleted, lastDelivered == null ? RecordId.of(0, 0) : lastDelivered) > 0;
+        }
+        return lastDelivered != null && firstEntry != null && compare(lastDelivered, firstEntry) < 0;
+    }
+
+    private static int compare(RecordId left, RecordId right) {
+        int byTimestamp = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return byTimestamp != 0 ? byTimestamp : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    private static RecordId rawId(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return RecordId.of(value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : value.toString());
+    }
+
+    private static boolean isMissingKey(Throwable error) {
+        String message = NestedExceptionUtils.getMostSpecificCause(error).getMessage();
+        return message != null && message.contains("no such key");
+    }
+
+    private Mono<Void> ensureGroup(String group) {
+        ByteBuffer key = ByteBuffer.wrap(streamKey.getBytes(StandardCharsets.UTF_8));
+        return redisTemplate.execute(connection -> connection.streamCommands()
+                        .xGroupCreate(key, group, ReadOffset.from("0"), true))
+                .then()
+                .onErrorResume(error -> {
+                    // BUSYGROUP: the group already exists
+                    String message = NestedExceptionUtils.getMostSpecificCause(error).getMessage();
+                    return message != null && message.startsWith("BUSYGROUP") ? Mono.empty() : Mono.error(error);
+                });
+    }
+}
@@ -0,0 +1,42 @@
+package com.trackingnumber.feed;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+
+import java.util.Map;
+
+/**
+ * Field layout of the issued-number stream entries, shared by the publisher and consumers. Values are
+ * plain strings so non-Java consumers can read the stream with XREADGROUP directly.
+ */
+public final class IssuedTrackingNumberFeed {
+
+    public static final String DEFAULT_STREAM_KEY = "tracking_number_feed";
+
+    static final String TRACKING_NUMBER = "n";
+    static final String ISSUED_AT = "t";
+    static final String CUSTOMER_ID = "c";
+    static final String ORIGIN = "o";
+    static final String DESTINATION = "d";
+
+    private IssuedTrackingNumberFeed() {
+    }
+
+    static Map<String, String> toFields(TrackingNumberIssuedEvent event) {
+        return Map.of(
+                TRACKING_NUMBER, event.trackingNumber().toString(),
+                ISSUED_AT, Long.toString(event.issuedAtEpochMilli()),
+                CUSTOMER_ID, event.customerId(),
+                ORIGIN, event.originCountryId(),
+                DESTINATION, event.destinationCountryId());
+    }
+
+    static TrackingNumberIssuedEvent fromFields(Map<String, String> fields) {
+        return new TrackingNumberIssuedEvent(
+                TrackingNumber.of(fields.get(TRACKING_NUMBER)),
+                Long.parseLong(fields.get(ISSUED_AT)),
+                fields.get(CUSTOMER_ID),
+                fields.get(ORIGIN),
+                fields.get(DESTINATION));
+    }
+}
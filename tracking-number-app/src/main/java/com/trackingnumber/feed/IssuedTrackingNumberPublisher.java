@@ -0,0 +1,234 @@
+package com.trackingnumber.feed;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveStreamCommands.AddStreamRecord;
+import org.springframework.data.redis.connection.stream.ByteBufferRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes every issued number to a Redis Stream for downstream systems. {@link #publish} only enqueues,
+ * so the request path never waits on Redis. A background loop drains the queue every
+ * {@code flush-interval} and sends each batch as a single pipelined run of XADD commands, trimmed with
+ * {@code MAXLEN ~}. A batch that fails to write is requeued for the next flush. Once Redis has been unreachable
+ * long enough for the queue to fill, new events are dropped (and counted).
+ * <p>
+ * With {@code lossless}, no number is handed out without being recorded in the feed: {@link #checkCapacity}
+ * refuses an issuance before anything is reserved once the queue is full, and the Mono returned by
+ * {@link #publish} only completes when the entry is written, so a crash cannot lose an event for a number
+ * already returned.
+ */
+@Component
+public class IssuedTrackingNumberPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(IssuedTrackingNumberPublisher.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final boolean lossless;
+    private final ByteBuffer streamKey;
+    private final long maxLength;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration flushInterval;
+    private final Queue<PendingEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Timer flushTimer;
+    private Disposable flushes;
+
+    public IssuedTrackingNumberPublisher(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.feed.enabled:true}") boolean enabled,
+            @Value("${tracking-number.feed.lossless:false}") boolean lossless,
+            @Value("${tracking-number.feed.stream-key:" + IssuedTrackingNumberFeed.DEFAULT_STREAM_KEY + "}") String streamKey,
+            @Value("${tracking-number.feed.max-length:1000000}") long maxLength,
+            @Value("${tracking-number.feed.batch-size:500}") int batchSize,
+            @Value("${tracking-number.feed.max-pending:100000}") int maxPending,
+            @Value("${tracking-number.feed.flush-interval:5ms}") Duration flushInterval) {
+        if (batchSize < 1 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Feed batch size must be positive and at most max-pending");
+        }
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.lossless = lossless;
+        this.streamKey = utf8(streamKey);
+        this.maxLength = maxLength;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flushInterval = flushInterval;
+        this.published = Counter.builder("tracking.number.feed.published")
+                .description("Issued-number events written to the stream")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tracking.number.feed.dropped")
+                .description("Issued-number events dropped because the publish queue was full")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tracking.number.feed.rejected")
+                .description("Issuances refused because the lossless feed's publish queue was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tracking.number.feed.flush")
+                .description("Time to write one batch of stream entries")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.feed.pending", pendingSize, AtomicInteger::get)
+                .description("Issued-number events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flushes = Flux.interval(flushInterval, flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(error -> {
+                            logger.warn("Failed to publish issued tracking numbers: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushes != null) {
+            flushes.dispose();
+            // Best-effort final flush so a graceful shutdown does not lose the tail
+            flush().onErrorResume(error -> Mono.empty()).block(Duration.ofSeconds(5));
+            if (pendingSize.get() > 0) {
+                logger.error("{} issued tracking numbers were not written to the feed before shutdown", pendingSize.get());
+            }
+        }
+    }
+
+    /**
+     * Called before a number is reserved: on a lossless feed, refuses the issuance while the queue is full, so
+     * the feed never has to drop an event for a number that is already taken.
+     */
+    public void checkCapacity() {
+        if (enabled && lossless && pendingSize.get() >= maxPending) {
+            rejected.increment();
+            throw new TrackingNumberException("Issued-number feed is backed up; refusing to issue numbers it cannot record");
+        }
+    }
+
+    /**
+     * Queues the event. The Mono completes at once, or on a lossless feed once the entry is in the stream.
+     */
+    public Mono<Void> publish(TrackingNumber trackingNumber, TrackingNumberRequest request) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        TrackingNumberIssuedEvent event = new TrackingNumberIssuedEvent(trackingNumber, System.currentTimeMillis(),
+                request.customerId(), request.originCountryId(), request.destinationCountryId());
+        if (lossless) {
+            // Capacity was checked before the reservation; concurrent issuances may overshoot it slightly
+            Sinks.Empty<Void> written = Sinks.empty();
+            pendingSize.incrementAndGet();
+            pending.add(new PendingEvent(event, written));
+            return written.asMono();
+        }
+        if (pendingSize.incrementAndGet() > maxPending) {
+            pendingSize.decrementAndGet();
+            dropped.increment();
+            return Mono.empty();
+        }
+        pending.add(new PendingEvent(event, null));
+        return Mono.empty();
+    }
+
+    Mono<Void> flush() {
+        // Drain everything queued so far, one pipelined batch at a time, until a batch fails
+        return Mono.defer(() -> {
+            AtomicBoolean failed = new AtomicBoolean();
+            return Mono.fromSupplier(this::drainBatch)
+                    .filter(batch -> !batch.isEmpty())
+                    .flatMap(batch -> write(batch)
+                            .onErrorResume(error -> {
+                                // Requeue for the next pass; a retried XADD may duplicate entries, never lose them
+                                logger.warn("Failed to publish {} issued tracking numbers, requeued: {}",
+                                        batch.size(), error.getMessage());
+                                failed.set(true);
+                                pendingSize.addAndGet(batch.size());
+                                pending.addAll(batch);
+                                return Mono.empty();
+                            }))
+                    .repeat(() -> pendingSize.get() > 0 && !failed.get())
+                    .then();
+        });
+    }
+
+    private List<PendingEvent> drainBatch() {
+        List<PendingEvent> batch = new ArrayList<>(Math.min(batchSize, pendingSize.get()));
+        PendingEvent event;
+        while (batch.size() < batchSize && (event = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private Mono<Void> write(List<PendingEvent> batch) {
+        long startTime = System.nanoTime();
+        return redisTemplate.execute(connection -> connection.streamCommands()
+                        .xAdd(Flux.fromIterable(batch).map(pendingEvent -> toRecord(pendingEvent.event()))))
+                .then()
+                .doOnSuccess(ignored -> {
+                    flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                    published.increment(batch.size());
+                    for (PendingEvent pendingEvent : batch) {
+                        if (pendingEvent.written() != null) {
+                            pendingEvent.written().tryEmitEmpty();
+                        }
+                    }
+                });
+    }
+
+    private AddStreamRecord toRecord(TrackingNumberIssuedEvent event) {
+        Map<ByteBuffer, ByteBuffer> fields = new HashMap<>(8);
+        IssuedTrackingNumberFeed.toFields(event).forEach((field, value) -> fields.put(utf8(field), utf8(value)));
+        ByteBufferRecord record = StreamRecords.rawBuffer(fields).withStreamKey(streamKey.duplicate());
+        return AddStreamRecord.of(record).maxlen(maxLength).approximateTrimming(true);
+    }
+
+    private static ByteBuffer utf8(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // written is only set on a lossless feed, where the issuance waits for it
+    private record PendingEvent(TrackingNumberIssuedEvent event, Sinks.Empty<Void> written) {
+    }
+}
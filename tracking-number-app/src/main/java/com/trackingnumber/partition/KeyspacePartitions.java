@@ -0,0 +1,100 @@
+package com.trackingnumber.partition;
+
+/**
+ * Splits the generated keyspace into {@code 16^k} partitions by the leading {@code k} characters. Generated
+ * numbers only use {@code 0-F} (hex digits of the hash), so each leading hex character selects one of 16
+ * sub-ranges. Works on the packed form directly: with bijective base 36, a number of length {@code L} is
+ * {@code prefix * 36^(L-k) + suffix}, so the prefix can be read and replaced arithmetically.
+ */
+public final class KeyspacePartitions {
+
+    private static final int HEX_DIGITS = 16;
+
+    private final int prefixLength;
+    private final int count;
+
+    public KeyspacePartitions(int prefixLength) {
+        if (prefixLength < 1 || prefixLength > 3) {
+            throw new IllegalArgumentException("Partition prefix must be 1 to 3 characters");
+        }
+        this.prefixLength = prefixLength;
+        int count = 1;
+        for (int i = 0; i < prefixLength; i++) {
+            count *= HEX_DIGITS;
+        }
+        this.count = count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * The partition of a packed number, or -1 if it is shorter than the prefix or not led by hex characters.
+     */
+    public int partitionOf(long packed) {
+        long prefix = prefixOf(packed);
+        if (prefix <= 0) {
+            return -1;
+        }
+        int partition = 0;
+        int scale = 1;
+        for (int i = 0; i < prefixLength; i++) {
+            long digit = (prefix - 1) % 36 + 1;
+            if (digit > HEX_DIGITS) {
+                return -1;
+            }
+            partition += (int) (digit - 1) * scale;
+            scale *= HEX_DIGITS;
+            prefix = (prefix - 1) / 36;
+        }
+        return partition;
+    }
+
+    /**
+     * Replaces the leading characters of a packed number (at least {@code k} long) with those of the partition.
+     */
+    public long assign(long packed, int partition) {
+        if (partition < 0 || partition >= count) {
+            throw new IllegalArgumentException("Partition out of range: " + partition);
+        }
+        int length = lengthOf(packed);
+        if (length < prefixLength) {
+            throw new IllegalArgumentException("Tracking number shorter than the partition prefix");
+        }
+        long current = packed;
+        long scale = 1;
+        for (; length > prefixLength; length--) {
+            current = (current - 1) / 36;
+            scale *= 36;
+        }
+        long prefix = 0;
+        long multiplier = 1;
+        for (int i = 0; i < prefixLength; i++) {
+            prefix += (partition % HEX_DIGITS + 1) * multiplier;
+            partition /= HEX_DIGITS;
+            multiplier *= 36;
+        }
+        return packed + (prefix - current) * scale;
+    }
+
+    private long prefixOf(long packed) {
+        int length = lengthOf(packed);
+        if (length < prefixLength) {
+            return -1;
+        }
+        long prefix = packed;
+        for (; length > prefixLength; length--) {
+            prefix = (prefix - 1) / 36;
+        }
+        return prefix;
+    }
+
+    private static int lengthOf(long packed) {
+        int length = 0;
+        for (long remaining = packed; remaining > 0; remaining = (remaining - 1) / 36) {
+            length++;
+        }
+        return length;
+    }
+}
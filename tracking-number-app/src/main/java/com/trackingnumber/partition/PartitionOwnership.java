@@ -0,0 +1,568 @@
+package com.trackingnumber.partition;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.repository.TrackingNumberStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Claims keyspace partitions through Redis leases so this instance can check uniqueness in memory.
+ * <p>
+ * Instances heartbeat into a member set, and every instance maps partitions to members with rendezvous
+ * hashing, so all of them agree on the target layout and a join or leave only moves that member's share.
+ * A partition is claimed with a lease ({@code tracking_number_partition:<p>}), loaded from its journal
+ * ({@code tracking_number_partition_journal:<p>}, a sorted set of numbers scored by issue time) and then
+ * served from memory. A claim is only handed out once it is in the journal and the regular store, so a crash
+ * never loses a number the next owner must know about. Claims are group-committed: while one journal write is in
+ * flight, new claims queue up (at most {@code max-pending}) and go out together in the next one, one ZADD per
+ * partition. A partition moving away stops issuing first and is released once its last claim is committed; the
+ * instance keeps issuing in its other partitions throughout.
+ * <p>
+ * A lease is only trusted until its TTL runs out locally, so an instance cut off from Redis stops issuing
+ * before another can take over.
+ */
+public class PartitionOwnership {
+
+    static final String LEASE_KEY_PREFIX = "tracking_number_partition:";
+    static final String JOURNAL_KEY_PREFIX = "tracking_number_partition_journal:";
+    static final String MEMBERS_KEY = "tracking_number_partition_members";
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionOwnership.class);
+    private static final RedisScript<Long> LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/partition-lease.lua"), Long.class);
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final TrackingNumberStore store;
+    private final KeyspacePartitions partitions;
+    private final String instanceId;
+    private final Duration leaseTtl;
+    private final Duration renewInterval;
+    private final long ttlSeconds;
+    private final int batchSize;
+    private final int maxPending;
+    private final AtomicReferenceArray<OwnedPartition> owned;
+    private final Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final AtomicBoolean committing = new AtomicBoolean();
+    private final Counter leasesLost;
+    private final Counter rejected;
+    private final Counter commitFailures;
+    private final Timer rebalanceTimer;
+    private volatile int[] active = new int[0];
+    private volatile List<String> members = List.of();
+    private long lastPruneNanos = System.nanoTime();
+    private long rebalanceStartedNanos;
+    private List<Integer> lastDesired = List.of();
+    private Disposable ticks;
+
+    public PartitionOwnership(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            TrackingNumberStore store,
+            MeterRegistry meterRegistry,
+            KeyspacePartitions partitions,
+            String instanceId,
+            Duration leaseTtl,
+            Duration renewInterval,
+            long ttlSeconds,
+            int batchSize,
+            int maxPending) {
+        if (renewInterval.compareTo(leaseTtl) >= 0) {
+            throw new IllegalArgumentException("Partition renew interval must be shorter than the lease TTL");
+        }
+        if (batchSize < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("Partition batch size and max-pending must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.store = store;
+        this.partitions = partitions;
+        this.instanceId = instanceId;
+        this.leaseTtl = leaseTtl;
+        this.renewInterval = renewInterval;
+        this.ttlSeconds = ttlSeconds;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.owned = new AtomicReferenceArray<>(partitions.count());
+        this.leasesLost = Counter.builder("tracking.number.partitions.leases.lost")
+                .description("Partition leases that could not be renewed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tracking.number.partitions.rejected")
+                .description("Claims refused because max-pending claims were already waiting for the journal")
+                .register(meterRegistry);
+        this.commitFailures = Counter.builder("tracking.number.partitions.commit.failures")
+                .description("Journal writes that failed; their claims were not handed out")
+                .register(meterRegistry);
+        this.rebalanceTimer = Timer.builder("tracking.number.partitions.rebalance")
+                .description("Time from a membership change until this instance owns exactly its target partitions")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.partitions.owned", this, ownership -> ownership.active.length)
+                .description("Partitions this instance issues in")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.partitions.members", this, ownership -> ownership.members.size())
+                .description("Live instances sharing the keyspace")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.partitions.pending", pendingSize, AtomicInteger::get)
+                .description("Claims waiting for their journal write")
+                .register(meterRegistry);
+    }
+
+    public static RedisScript<Long> script() {
+        return LEASE_SCRIPT;
+    }
+
+    @PostConstruct
+    public void start() {
+        // Try to claim an initial share before serving; readiness stays down until one is held
+        rebalance().timeout(leaseTtl).onErrorResume(error -> {
+            logger.warn("Initial partition rebalance failed: {}", error.getMessage());
+            return Mono.empty();
+        }).block();
+        ticks = Flux.interval(renewInterval, renewInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> rebalance()
+                        .onErrorResume(error -> {
+                            logger.warn("Partition maintenance failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks == null) {
+            return;
+        }
+        ticks.dispose();
+        // Hand every partition over right away instead of making the next owners wait out the leases
+        active = new int[0];
+        List<Integer> held = new ArrayList<>();
+        for (int partition = 0; partition < owned.length(); partition++) {
+            if (owned.getAndSet(partition, null) != null) {
+                held.add(partition);
+            }
+        }
+        flush()
+                .thenMany(Flux.fromIterable(held).flatMap(this::release))
+                .then(redisTemplate.opsForZSet().remove(MEMBERS_KEY, instanceId))
+                .then()
+                .onErrorResume(error -> Mono.empty())
+                .block(Duration.ofSeconds(5));
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public KeyspacePartitions partitions() {
+        return partitions;
+    }
+
+    /**
+     * Partitions this instance may currently issue in.
+     */
+    public int[] activePartitions() {
+        return active;
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    /**
+     * Whether this instance holds at least one partition it can issue in; readiness is down until it does.
+     */
+    public boolean isIssuing() {
+        return active.length > 0;
+    }
+
+    /**
+     * Claims the number in memory and emits {@code true} once it is committed to the journal and the store.
+     * Emits {@code false} on a collision and also when the partition is not (or no longer) issuable here, so the
+     * caller simply tries another candidate. Fails with {@link TrackingNumberException} when {@code max-pending}
+     * claims are already waiting or the journal write fails; such a claim stays taken in memory but is never
+     * handed out.
+     */
+    public Mono<Boolean> claim(TrackingNumber trackingNumber, Instant issuedAt) {
+        return Mono.defer(() -> {
+            int partition = partitions.partitionOf(trackingNumber.packed());
+            OwnedPartition state = partition < 0 ? null : owned.get(partition);
+            if (state == null || !state.isIssuable()) {
+                return Mono.just(false);
+            }
+            if (pendingSize.get() >= maxPending) {
+                rejected.increment();
+                return Mono.error(new TrackingNumberException(
+                        "Partition journal backlog is full (" + maxPending + " claims pending)"));
+            }
+            if (state.issued.putIfAbsent(trackingNumber.packed(), issuedAt.getEpochSecond()) != null) {
+                return Mono.just(false);
+            }
+            PendingWrite write = new PendingWrite(partition, state, trackingNumber, issuedAt, Sinks.one());
+            state.inFlight.incrementAndGet();
+            pending.add(write);
+            pendingSize.incrementAndGet();
+            commit();
+            return write.committed().asMono().thenReturn(true);
+        });
+    }
+
+    /**
+     * Whether the number was issued in a partition owned here, including numbers not yet written behind.
+     */
+    public boolean isIssuedLocally(TrackingNumber trackingNumber) {
+        int partition = partitions.partitionOf(trackingNumber.packed());
+        OwnedPartition state = partition < 0 ? null : owned.get(partition);
+        return state != null && state.issued.containsKey(trackingNumber.packed());
+    }
+
+    /**
+     * Records permanently blocked numbers in the journals. Their {@code +inf} score survives every prune, so
+     * owners load them with the rest of the partition; partitions owned here take them immediately.
+     */
+    public Mono<Void> block(List<TrackingNumber> trackingNumbers) {
+        Map<Integer, Set<ZSetOperations.TypedTuple<String>>> byPartition = new HashMap<>();
+        for (TrackingNumber trackingNumber : trackingNumbers) {
+            int partition = partitions.partitionOf(trackingNumber.packed());
+            if (partition < 0) {
+                // Not led by hex characters, so never generated
+                continue;
+            }
+            OwnedPartition state = owned.get(partition);
+            if (state != null) {
+                state.issued.put(trackingNumber.packed(), Long.MAX_VALUE);
+            }
+            byPartition.computeIfAbsent(partition, p -> new HashSet<>())
+                    .add(ZSetOperations.TypedTuple.of(Long.toString(trackingNumber.packed()), Double.POSITIVE_INFINITY));
+        }
+        return Flux.fromIterable(byPartition.entrySet())
+                .flatMap(entry -> redisTemplate.opsForZSet().addAll(JOURNAL_KEY_PREFIX + entry.getKey(), entry.getValue()))
+                .then();
+    }
+
+    /**
+     * Current lease holder of every partition, read straight from Redis.
+     */
+    public Mono<Map<Integer, String>> ownershipMap() {
+        List<String> keys = new ArrayList<>(partitions.count());
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            keys.add(LEASE_KEY_PREFIX + partition);
+        }
+        return redisTemplate.opsForValue().multiGet(keys).map(owners -> {
+            Map<Integer, String> result = new TreeMap<>();
+            for (int partition = 0; partition < owners.size(); partition++) {
+                if (owners.get(partition) != null) {
+                    result.put(partition, owners.get(partition));
+                }
+            }
+            return result;
+        });
+    }
+
+    // Starts a commit pass unless one is running; a running pass picks up everything queued before it ends
+    private void commit() {
+        if (!committing.compareAndSet(false, true)) {
+            return;
+        }
+        flush().doFinally(signal -> {
+            committing.set(false);
+            if (pendingSize.get() > 0) {
+                commit();
+            }
+        }).subscribe();
+    }
+
+    Mono<Void> flush() {
+        return Mono.fromSupplier(this::drainBatch)
+                .filter(batch -> !batch.isEmpty())
+                .flatMap(this::commitBatch)
+                .repeat(() -> pendingSize.get() > 0)
+                .then();
+    }
+
+    private Mono<Void> commitBatch(List<PendingWrite> batch) {
+        Map<Integer, List<PendingWrite>> byPartition = new HashMap<>();
+        for (PendingWrite write : batch) {
+            byPartition.computeIfAbsent(write.partition(), partition -> new ArrayList<>()).add(write);
+        }
+        // One ZADD per partition plus the store writes, all in flight at once on the shared connection
+        return Flux.fromIterable(byPartition.entrySet())
+                .flatMap(entry -> {
+                    List<PendingWrite> writes = entry.getValue();
+                    Set<ZSetOperations.TypedTuple<String>> journal = new HashSet<>();
+                    for (PendingWrite write : writes) {
+                        journal.add(ZSetOperations.TypedTuple.of(Long.toString(write.trackingNumber().packed()),
+                                (double) write.issuedAt().getEpochSecond()));
+                    }
+                    return Mono.when(
+                                    redisTemplate.opsForZSet().addAll(JOURNAL_KEY_PREFIX + entry.getKey(), journal),
+                                    Flux.fromIterable(writes)
+                                            .flatMap(write -> store.save(write.trackingNumber(), write.issuedAt())))
+                            .doOnSuccess(ignored -> writes.forEach(write -> write.complete(null)))
+                            .onErrorResume(error -> {
+                                logger.warn("Journal write for partition {} failed: {}", entry.getKey(), error.getMessage());
+                                commitFailures.increment();
+                                TrackingNumberException failure = new TrackingNumberException(
+                                        "Failed to commit claims to partition journal " + entry.getKey(), error);
+                                writes.forEach(write -> write.complete(failure));
+                                return Mono.empty();
+                            });
+                })
+                .then();
+    }
+
+    Mono<Void> rebalance() {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            return redisTemplate.opsForZSet()
+                    .add(MEMBERS_KEY, instanceId, now + leaseTtl.toMillis())
+                    .then(redisTemplate.opsForZSet().removeRangeByScore(MEMBERS_KEY, upTo(now)))
+                    .thenMany(redisTemplate.opsForZSet().rangeByScore(MEMBERS_KEY, from(now)))
+                    .collectSortedList()
+                    .flatMap(this::converge);
+        });
+    }
+
+    private Mono<Void> converge(List<String> liveMembers) {
+        if (!liveMembers.contains(instanceId)) {
+            liveMembers = new ArrayList<>(liveMembers);
+            liveMembers.add(instanceId);
+        }
+        members = List.copyOf(liveMembers);
+
+        List<Integer> desired = new ArrayList<>();
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            if (instanceId.equals(ownerOf(partition, liveMembers))) {
+                desired.add(partition);
+            }
+        }
+        if (!desired.equals(lastDesired)) {
+            lastDesired = desired;
+            rebalanceStartedNanos = System.nanoTime();
+        }
+
+        List<Integer> toRelease = new ArrayList<>();
+        List<Integer> toRenew = new ArrayList<>();
+        List<Integer> toAcquire = new ArrayList<>();
+        boolean[] wanted = new boolean[partitions.count()];
+        desired.forEach(partition -> wanted[partition] = true);
+        for (int partition = 0; partition < partitions.count(); partition++) {
+            OwnedPartition state = owned.get(partition);
+            if (state == null) {
+                if (wanted[partition]) {
+                    toAcquire.add(partition);
+                }
+            } else if (state.draining) {
+                // Marked last round; released once every claim made before that is committed or failed
+                if (state.inFlight.get() == 0) {
+                    owned.set(partition, null);
+                    toRelease.add(partition);
+                }
+            } else if (!wanted[partition]) {
+                state.draining = true;
+            } else {
+                toRenew.add(partition);
+            }
+        }
+        publishActive();
+
+        long startNanos = System.nanoTime();
+        return Flux.fromIterable(toRelease).flatMap(this::release)
+                .thenMany(Flux.fromIterable(toRenew).flatMap(partition -> lease(partition).map(held -> {
+                    OwnedPartition state = owned.get(partition);
+                    if (!held) {
+                        logger.warn("Lost lease on partition {}", partition);
+                        leasesLost.increment();
+                        owned.set(partition, null);
+                    } else if (state != null) {
+                        state.validUntilNanos = startNanos + leaseTtl.toNanos();
+                    }
+                    return partition;
+                })))
+                .thenMany(Flux.fromIterable(toAcquire).flatMap(partition -> acquire(partition, startNanos)))
+                .then(Mono.fromRunnable(() -> {
+                    publishActive();
+                    pruneIfDue();
+                    if (rebalanceStartedNanos != 0 && ownsExactly(desired)) {
+                        rebalanceTimer.record(System.nanoTime() - rebalanceStartedNanos, TimeUnit.NANOSECONDS);
+                        logger.info("Partition rebalance complete: {} of {} partitions across {} members",
+                                desired.size(), partitions.count(), members.size());
+                        rebalanceStartedNanos = 0;
+                    }
+                }));
+    }
+
+    private Mono<Void> acquire(int partition, long startNanos) {
+        return lease(partition)
+                .filter(Boolean::booleanValue)
+                .flatMap(held -> loadJournal(partition).map(issued -> {
+                    OwnedPartition state = new OwnedPartition(issued);
+                    state.validUntilNanos = startNanos + leaseTtl.toNanos();
+                    owned.set(partition, state);
+                    logger.debug("Acquired partition {} with {} live numbers", partition, issued.size());
+                    return partition;
+                }))
+                .then();
+    }
+
+    private Mono<ConcurrentHashMap<Long, Long>> loadJournal(int partition) {
+        String key = JOURNAL_KEY_PREFIX + partition;
+        long oldest = Instant.now().getEpochSecond() - ttlSeconds;
+        return redisTemplate.opsForZSet()
+                .removeRangeByScore(key, upTo(oldest))
+                .thenMany(redisTemplate.opsForZSet().rangeByScoreWithScores(key, from(oldest)))
+                .collect(ConcurrentHashMap<Long, Long>::new, (issued, entry) ->
+                        issued.put(Long.parseLong(entry.getValue()), entry.getScore().longValue()));
+    }
+
+    private Mono<Boolean> lease(int partition) {
+        return redisTemplate.execute(LEASE_SCRIPT, List.of(LEASE_KEY_PREFIX + partition),
+                        List.of(instanceId, "acquire", Long.toString(leaseTtl.toMillis())))
+                .next()
+                .map(result -> result == 1L);
+    }
+
+    private Mono<Void> release(int partition) {
+        return redisTemplate.execute(LEASE_SCRIPT, List.of(LEASE_KEY_PREFIX + partition),
+                        List.of(instanceId, "release", "0"))
+                .then();
+    }
+
+    private void publishActive() {
+        List<Integer> issuable = new ArrayList<>();
+        for (int partition = 0; partition < owned.length(); partition++) {
+            OwnedPartition state = owned.get(partition);
+            if (state != null && !state.draining) {
+                issuable.add(partition);
+            }
+        }
+        active = issuable.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean ownsExactly(List<Integer> desired) {
+        return Arrays.equals(active, desired.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private void pruneIfDue() {
+        if (System.nanoTime() - lastPruneNanos < PRUNE_INTERVAL.toNanos()) {
+            return;
+        }
+        lastPruneNanos = System.nanoTime();
+        long oldest = Instant.now().getEpochSecond() - ttlSeconds;
+        Map<Integer, Integer> pruned = new HashMap<>();
+        for (int partition = 0; partition < owned.length(); partition++) {
+            OwnedPartition state = owned.get(partition);
+            if (state != null) {
+                int before = state.issued.size();
+                state.issued.values().removeIf(issuedAt -> issuedAt < oldest);
+                pruned.put(partition, before - state.issued.size());
+                redisTemplate.opsForZSet()
+                        .removeRangeByScore(JOURNAL_KEY_PREFIX + partition, upTo(oldest))
+                        .subscribe(removed -> { }, error -> logger.debug("Journal prune failed: {}", error.getMessage()));
+            }
+        }
+        logger.debug("Pruned expired numbers from owned partitions: {}", pruned);
+    }
+
+    private List<PendingWrite> drainBatch() {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, pendingSize.get()));
+        PendingWrite write;
+        while (batch.size() < batchSize && (write = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            batch.add(write);
+        }
+        return batch;
+    }
+
+    // Scores strictly below the bound, and from the bound upwards
+    private static Range<Double> upTo(long bound) {
+        return Range.leftUnbounded(Range.Bound.exclusive((double) bound));
+    }
+
+    private static Range<Double> from(long bound) {
+        return Range.rightUnbounded(Range.Bound.inclusive((double) bound));
+    }
+
+    // Rendezvous hashing: the member with the highest score for a partition owns it
+    static String ownerOf(int partition, List<String> members) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String member : members) {
+            long score = mix(member.hashCode() * 0x9E3779B97F4A7C15L + partition);
+            if (owner == null || score > best) {
+                best = score;
+                owner = member;
+            }
+        }
+        return owner;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private record PendingWrite(int partition, OwnedPartition state, TrackingNumber trackingNumber, Instant issuedAt,
+                                Sinks.One<Void> committed) {
+
+        void complete(Throwable error) {
+            state.inFlight.decrementAndGet();
+            if (error == null) {
+                committed.tryEmitEmpty();
+            } else {
+                committed.tryEmitError(error);
+            }
+        }
+    }
+
+    private static final class OwnedPartition {
+        private final ConcurrentHashMap<Long, Long> issued;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean draining;
+        private volatile long validUntilNanos;
+
+        OwnedPartition(ConcurrentHashMap<Long, Long> issued) {
+            this.issued = issued;
+        }
+
+        boolean isIssuable() {
+            return !draining && System.nanoTime() - validUntilNanos < 0;
+        }
+    }
+}
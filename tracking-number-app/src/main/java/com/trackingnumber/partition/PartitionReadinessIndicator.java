@@ -0,0 +1,28 @@
+package com.trackingnumber.partition;
+
+import org.springframework.boot.actuate.availability.ReadinessStateHealthIndicator;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.ReadinessState;
+
+/**
+ * Readiness that also stays down while this instance owns no partition it can issue in, for example right after
+ * start when every lease is still held by the previous owners. Every reserve would fail until then.
+ */
+public class PartitionReadinessIndicator extends ReadinessStateHealthIndicator {
+
+    private final PartitionOwnership ownership;
+
+    public PartitionReadinessIndicator(ApplicationAvailability availability, PartitionOwnership ownership) {
+        super(availability);
+        this.ownership = ownership;
+    }
+
+    @Override
+    protected AvailabilityState getState(ApplicationAvailability applicationAvailability) {
+        if (!ownership.isIssuing()) {
+            return ReadinessState.REFUSING_TRAFFIC;
+        }
+        return super.getState(applicationAvailability);
+    }
+}
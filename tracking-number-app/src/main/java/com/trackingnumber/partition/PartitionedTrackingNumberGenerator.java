@@ -0,0 +1,37 @@
+package com.trackingnumber.partition;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.service.TrackingNumberGenerator;
+
+/**
+ * Moves every candidate into one of the partitions this instance currently owns, by rewriting its leading
+ * characters. The rest of the candidate is left as the delegate generated it.
+ */
+public class PartitionedTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    private final TrackingNumberGenerator delegate;
+    private final PartitionOwnership ownership;
+
+    public PartitionedTrackingNumberGenerator(TrackingNumberGenerator delegate, PartitionOwnership ownership) {
+        this.delegate = delegate;
+        this.ownership = ownership;
+    }
+
+    @Override
+    public String generate(TrackingNumberRequest request, int attempt) {
+        return TrackingNumberCodec.unpack(generatePacked(request, attempt));
+    }
+
+    @Override
+    public long generatePacked(TrackingNumberRequest request, int attempt) {
+        long candidate = delegate.generatePacked(request, attempt);
+        int[] active = ownership.activePartitions();
+        if (active.length == 0) {
+            // Nothing to issue into; the store rejects the candidate with a clear error
+            return candidate;
+        }
+        int partition = active[(int) Long.remainderUnsigned(candidate * 0x9E3779B97F4A7C15L, active.length)];
+        return ownership.partitions().assign(candidate, partition);
+    }
+}
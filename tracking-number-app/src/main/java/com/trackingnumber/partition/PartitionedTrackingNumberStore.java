@@ -0,0 +1,58 @@
+package com.trackingnumber.partition;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.repository.TrackingNumberStore;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reserves candidates in the memory of the owning instance instead of with a Redis round trip; a reservation
+ * completes once the claim is committed to the journal and the regular store. Everything else goes to the
+ * regular store. Numbers reserved directly in Redis,
+ * for example by an embedded {@code TrackingNumberIssuer}, are never seen here, so partitioning assumes this
+ * service is the only issuer of its keyspace.
+ */
+public class PartitionedTrackingNumberStore implements TrackingNumberStore {
+
+    private final TrackingNumberStore delegate;
+    private final PartitionOwnership ownership;
+
+    public PartitionedTrackingNumberStore(TrackingNumberStore delegate, PartitionOwnership ownership) {
+        this.delegate = delegate;
+        this.ownership = ownership;
+    }
+
+    @Override
+    public Mono<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        if (ownership.activePartitions().length == 0) {
+            return Mono.error(new TrackingNumberException("No keyspace partition is owned by this instance"));
+        }
+        return ownership.claim(trackingNumber, issuedAt);
+    }
+
+    @Override
+    public Mono<Void> save(TrackingNumber trackingNumber, Instant issuedAt) {
+        return delegate.save(trackingNumber, issuedAt);
+    }
+
+    @Override
+    public Mono<List<Boolean>> exists(List<TrackingNumber> trackingNumbers) {
+        // Numbers claimed here may still be waiting for their journal write
+        return delegate.exists(trackingNumbers).map(issued -> {
+            List<Boolean> result = new ArrayList<>(issued.size());
+            for (int i = 0; i < issued.size(); i++) {
+                result.add(issued.get(i) || ownership.isIssuedLocally(trackingNumbers.get(i)));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Mono<Void> block(List<TrackingNumber> trackingNumbers) {
+        return delegate.block(trackingNumbers).then(ownership.block(trackingNumbers));
+    }
+}
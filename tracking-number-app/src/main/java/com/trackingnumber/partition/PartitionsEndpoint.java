@@ -0,0 +1,36 @@
+package com.trackingnumber.partition;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/partitions}: live members, the partitions this instance issues in, and the lease
+ * holder of every partition.
+ */
+@Endpoint(id = "partitions")
+public class PartitionsEndpoint {
+
+    private final PartitionOwnership ownership;
+
+    public PartitionsEndpoint(PartitionOwnership ownership) {
+        this.ownership = ownership;
+    }
+
+    @ReadOperation
+    public Mono<Map<String, Object>> partitions() {
+        return ownership.ownershipMap().map(owners -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("instanceId", ownership.instanceId());
+            result.put("partitionCount", ownership.partitions().count());
+            result.put("members", ownership.members());
+            result.put("owned", Arrays.stream(ownership.activePartitions()).boxed().toList());
+            result.put("owners", owners);
+            return result;
+        });
+    }
+}
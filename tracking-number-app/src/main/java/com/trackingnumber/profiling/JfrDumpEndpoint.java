@@ -0,0 +1,41 @@
+package com.trackingnumber.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code POST /actuator/jfrdump} dumps the retained raw events to a .jfr file on local disk and returns its path.
+ * It writes to the server's disk, so it only exists with {@code tracking-number.profiling.dump-enabled=true} and
+ * is not in any default exposure list; expose it only where the actuator is not publicly reachable.
+ */
+@Component
+@Endpoint(id = "jfrdump")
+@ConditionalOnProperty(name = "tracking-number.profiling.dump-enabled", havingValue = "true")
+public class JfrDumpEndpoint {
+
+    private final JfrProfiler profiler;
+
+    public JfrDumpEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", profiler.isEnabled());
+        if (profiler.isEnabled()) {
+            Path file = profiler.dump();
+            result.put("file", file.toString());
+            result.put("sizeBytes", Files.size(file));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.trackingnumber.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/jfr} returns the rolling summaries. Dumping raw events is a separate, opt-in endpoint,
+ * {@link JfrDumpEndpoint}.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrProfiler profiler;
+
+    public JfrEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", profiler.isEnabled());
+        if (profiler.isEnabled()) {
+            result.put("settings", profiler.describeSettings());
+            result.put("summaries", profiler.summary());
+        }
+        return result;
+    }
+}
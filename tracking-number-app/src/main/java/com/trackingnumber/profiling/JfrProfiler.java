@@ -0,0 +1,252 @@
+package com.trackingnumber.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams JFR events in-process and folds them into {@link RollingSummary rolling summaries}: sampled
+ * allocation weight by class, monitor contention by lock class, blocking calls made on event-loop threads,
+ * and the durations of this service's own generation and reservation events. The underlying
+ * recording keeps {@code max-age} of raw events on disk so {@link #dump()} can write a regular .jfr file
+ * for offline analysis. The dump directory keeps at most {@code max-dumps} files and {@code max-dump-total-size}
+ * bytes; older dumps are deleted first.
+ */
+@Component
+public class JfrProfiler {
+
+    static final String ALLOCATION = "allocation-bytes";
+    static final String CONTENTION = "monitor-contention-nanos";
+    static final String BLOCKING = "event-loop-blocking-nanos";
+    static final String OPERATIONS = "operation-nanos";
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrProfiler.class);
+    private static final List<String> BLOCKING_EVENTS = List.of(
+            "jdk.ThreadPark", "jdk.ThreadSleep", "jdk.SocketRead", "jdk.SocketWrite", "jdk.FileRead", "jdk.FileWrite");
+    private static final List<String> OPERATION_EVENTS = List.of(
+            "com.trackingnumber.Generation", "com.trackingnumber.RedisReservation");
+    private static final String DUMP_PREFIX = "tracking-number-";
+    private static final String DUMP_SUFFIX = ".jfr";
+    private static final DateTimeFormatter DUMP_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration maxAge;
+    private final Duration contentionThreshold;
+    private final Duration blockingThreshold;
+    private final String allocationThrottle;
+    private final List<String> eventLoopThreadPrefixes;
+    private final int top;
+    private final Path dumpDirectory;
+    private final int maxDumps;
+    private final long maxDumpBytes;
+    private final RollingSummary summary;
+    private RecordingStream stream;
+
+    public JfrProfiler(
+            @Value("${tracking-number.profiling.enabled:true}") boolean enabled,
+            @Value("${tracking-number.profiling.window:5m}") Duration window,
+            @Value("${tracking-number.profiling.slices:30}") int slices,
+            @Value("${tracking-number.profiling.max-age:2m}") Duration maxAge,
+            @Value("${tracking-number.profiling.contention-threshold:10ms}") Duration contentionThreshold,
+            @Value("${tracking-number.profiling.blocking-threshold:1ms}") Duration blockingThreshold,
+            @Value("${tracking-number.profiling.allocation-throttle:150/s}") String allocationThrottle,
+            @Value("${tracking-number.profiling.event-loop-thread-prefixes:reactor-http-,lettuce-,reactor-tcp-}")
+                    List<String> eventLoopThreadPrefixes,
+            @Value("${tracking-number.profiling.top:10}") int top,
+            @Value("${tracking-number.profiling.dump-directory:${java.io.tmpdir}/tracking-number-jfr}") Path dumpDirectory,
+            @Value("${tracking-number.profiling.max-dumps:5}") int maxDumps,
+            @Value("${tracking-number.profiling.max-dump-total-size:512MB}") DataSize maxDumpTotalSize) {
+        if (maxDumps < 1 || maxDumpTotalSize.toBytes() <= 0) {
+            throw new IllegalArgumentException("JFR dumps need max-dumps >= 1 and a positive max-dump-total-size");
+        }
+        this.enabled = enabled;
+        this.window = window;
+        this.maxAge = maxAge;
+        this.contentionThreshold = contentionThreshold;
+        this.blockingThreshold = blockingThreshold;
+        this.allocationThrottle = allocationThrottle;
+        this.eventLoopThreadPrefixes = List.copyOf(eventLoopThreadPrefixes);
+        this.top = top;
+        this.dumpDirectory = dumpDirectory;
+        this.maxDumps = maxDumps;
+        this.maxDumpBytes = maxDumpTotalSize.toBytes();
+        this.summary = new RollingSummary(window, slices);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.setMaxAge(maxAge);
+
+        stream.enable("jdk.ObjectAllocationSample").with("throttle", allocationThrottle);
+        stream.onEvent("jdk.ObjectAllocationSample", event -> summary.record(
+                ALLOCATION, event.getClass("objectClass").getName(), event.getLong("weight"), epochMilli(event)));
+
+        // Monitor waits anywhere count as contention; on an event loop they are blocking as well
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(contentionThreshold).withStackTrace();
+        stream.onEvent("jdk.JavaMonitorEnter", event -> {
+            summary.record(CONTENTION, event.getClass("monitorClass").getName(),
+                    event.getDuration().toNanos(), epochMilli(event));
+            recordIfOnEventLoop(event);
+        });
+
+        for (String name : BLOCKING_EVENTS) {
+            stream.enable(name).withThreshold(blockingThreshold).withStackTrace();
+            stream.onEvent(name, this::recordIfOnEventLoop);
+        }
+
+        for (String name : OPERATION_EVENTS) {
+            stream.enable(name).withoutStackTrace();
+            stream.onEvent(name, event -> summary.record(
+                    OPERATIONS, name, event.getDuration().toNanos(), epochMilli(event)));
+        }
+
+        stream.onError(error -> logger.warn("JFR event stream failed: {}", error.getMessage()));
+        stream.startAsync();
+        logger.info("JFR profiling started: window {}, raw events kept for {}", window, maxAge);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return stream != null;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    public Map<String, List<RollingSummary.Entry>> summary() {
+        return summary.snapshot(top, System.currentTimeMillis());
+    }
+
+    /**
+     * Writes the last {@code max-age} of raw events to a new file under the dump directory, then deletes the
+     * oldest dumps until the directory is back within its limits.
+     */
+    public synchronized Path dump() throws IOException {
+        if (stream == null) {
+            throw new IllegalStateException("JFR profiling is disabled");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve(DUMP_PREFIX + DUMP_TIMESTAMP.format(Instant.now()) + DUMP_SUFFIX);
+        stream.dump(file);
+        prune(dumpDirectory, file, maxDumps, maxDumpBytes);
+        logger.info("Wrote JFR recording to {}", file);
+        return file;
+    }
+
+    static void prune(Path directory, Path newest, int maxDumps, long maxBytes) throws IOException {
+        long size = Files.size(newest);
+        if (size > maxBytes) {
+            Files.delete(newest);
+            throw new IllegalStateException("JFR recording of " + size + " bytes exceeds max-dump-total-size");
+        }
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            // Timestamped names sort oldest first
+            dumps = files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(DUMP_PREFIX) && name.endsWith(DUMP_SUFFIX) && !path.equals(newest);
+            }).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+        long total = size;
+        for (Path dump : dumps) {
+            total += Files.size(dump);
+        }
+        while (!dumps.isEmpty() && (dumps.size() + 1 > maxDumps || total > maxBytes)) {
+            Path oldest = dumps.remove(0);
+            total -= Files.size(oldest);
+            Files.delete(oldest);
+            logger.info("Deleted old JFR recording {}", oldest);
+        }
+    }
+
+    private void recordIfOnEventLoop(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null || !isEventLoopThread(thread.getJavaName())) {
+            return;
+        }
+        summary.record(BLOCKING, event.getEventType().getName() + " at " + callSite(event.getStackTrace()),
+                event.getDuration().toNanos(), epochMilli(event));
+    }
+
+    boolean isEventLoopThread(String threadName) {
+        if (threadName == null) {
+            return false;
+        }
+        for (String prefix : eventLoopThreadPrefixes) {
+            if (threadName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The first frame outside the JDK is the code that actually made the blocking call
+    private static String callSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame fallback = stackTrace.getFrames().get(0);
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return describe(fallback);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static long epochMilli(RecordedEvent event) {
+        return event.getEndTime().toEpochMilli();
+    }
+
+    Map<String, Object> describeSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("window", window.toString());
+        settings.put("maxAge", maxAge.toString());
+        settings.put("eventLoopThreadPrefixes", eventLoopThreadPrefixes);
+        settings.put("dumpDirectory", dumpDirectory.toString());
+        settings.put("maxDumps", maxDumps);
+        settings.put("maxDumpTotalBytes", maxDumpBytes);
+        return settings;
+    }
+}
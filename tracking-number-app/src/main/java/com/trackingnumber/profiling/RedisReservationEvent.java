@@ -0,0 +1,22 @@
+package com.trackingnumber.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.trackingnumber.RedisReservation")
+@Label("Redis Reservation")
+@Description("Atomic check-and-store of one candidate, from subscription to reply")
+@Category({"Tracking Number"})
+@StackTrace(false)
+public class RedisReservationEvent extends Event {
+
+    @Label("Tracking Number")
+    public String trackingNumber;
+
+    @Label("Reserved")
+    public boolean reserved;
+}
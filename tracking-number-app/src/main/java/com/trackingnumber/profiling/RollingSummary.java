@@ -0,0 +1,101 @@
+package com.trackingnumber.profiling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-category count / total / max aggregates over a sliding window. The window is a ring of time slices;
+ * a slice is cleared when the clock comes back round to it, so old samples age out without a sweeper.
+ */
+public class RollingSummary {
+
+    private final long sliceMillis;
+    private final Slice[] slices;
+
+    public RollingSummary(Duration window, int sliceCount) {
+        if (sliceCount < 1 || window.toMillis() < sliceCount) {
+            throw new IllegalArgumentException("Summary window must cover at least one millisecond per slice");
+        }
+        this.sliceMillis = window.toMillis() / sliceCount;
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public synchronized void record(String category, String key, long value, long epochMilli) {
+        long index = epochMilli / sliceMillis;
+        Slice slice = slices[(int) Math.floorMod(index, (long) slices.length)];
+        if (slice.index != index) {
+            if (slice.index > index) {
+                // Older than anything the ring still holds
+                return;
+            }
+            slice.reset(index);
+        }
+        slice.stats.computeIfAbsent(category, c -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Stat())
+                .add(value);
+    }
+
+    /**
+     * The {@code limit} keys with the largest totals in each category, over the slices still inside the window.
+     */
+    public synchronized Map<String, List<Entry>> snapshot(int limit, long epochMilli) {
+        long current = epochMilli / sliceMillis;
+        Map<String, Map<String, Stat>> merged = new TreeMap<>();
+        for (Slice slice : slices) {
+            if (slice.index > current - slices.length && slice.index <= current) {
+                slice.stats.forEach((category, stats) -> {
+                    Map<String, Stat> target = merged.computeIfAbsent(category, c -> new HashMap<>());
+                    stats.forEach((key, stat) -> target.computeIfAbsent(key, k -> new Stat()).merge(stat));
+                });
+            }
+        }
+
+        Map<String, List<Entry>> result = new TreeMap<>();
+        merged.forEach((category, stats) -> {
+            List<Entry> entries = new ArrayList<>(stats.size());
+            stats.forEach((key, stat) -> entries.add(new Entry(key, stat.count, stat.total, stat.max)));
+            entries.sort(Comparator.comparingLong(Entry::total).reversed());
+            result.put(category, List.copyOf(entries.subList(0, Math.min(limit, entries.size()))));
+        });
+        return result;
+    }
+
+    public record Entry(String key, long count, long total, long max) {
+    }
+
+    private static final class Slice {
+        private long index = Long.MIN_VALUE;
+        private final Map<String, Map<String, Stat>> stats = new HashMap<>();
+
+        void reset(long index) {
+            this.index = index;
+            stats.clear();
+        }
+    }
+
+    private static final class Stat {
+        private long count;
+        private long total;
+        private long max;
+
+        void add(long value) {
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        void merge(Stat other) {
+            count += other.count;
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.trackingnumber.region;
+
+import com.trackingnumber.config.RegionPeers;
+import com.trackingnumber.config.StorageConfig;
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import com.trackingnumber.feed.IssuedTrackingNumberConsumer;
+import com.trackingnumber.feed.IssuedTrackingNumberFeed;
+import com.trackingnumber.repository.TrackingNumberStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the numbers issued in every other region to this region's store, so lookups and validation see them
+ * without a cross-region round trip per number. Each region already appends its issued numbers to its own feed
+ * stream; this reads each peer's feed with one consumer group per reading region
+ * ({@code replication-<code>}), and saves every batch with pipelined writes before acknowledging it. Replicated
+ * numbers are not published to the local feed, so they never travel further. Instances of a region share the
+ * group and split the work. The consumer name defaults to the hostname, so a restarted instance replays what it
+ * had read but not yet applied; entries left pending by an instance that never comes back are claimed by the
+ * others after {@code claim-idle-after}.
+ * <p>
+ * Each peer's feed is trimmed, so a group that falls too far behind loses entries. Every
+ * {@code horizon-check-interval} the group's position is compared with the trimmed end of the stream, and a loss
+ * is logged and reported as {@code tracking.number.replication.gap} per source region.
+ * <p>
+ * Replication is asynchronous: a number is visible in other regions {@code tracking.number.replication.lag}
+ * after it was issued. Uniqueness does not depend on it, since region tags keep the regions' numbers disjoint.
+ */
+@Component
+@ConditionalOnProperty(name = "tracking-number.region.replication.enabled", havingValue = "true")
+public class RegionReplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionReplicator.class);
+
+    private final RegionPeers peers;
+    private final TrackingNumberStore store;
+    private final MeterRegistry meterRegistry;
+    private final String group;
+    private final String consumerName;
+    private final String streamKey;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration pollInterval;
+    private final Duration claimIdleAfter;
+    private final Duration horizonCheckInterval;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public RegionReplicator(
+            RegionPeers peers,
+            @Qualifier(StorageConfig.REDIS_STORE) TrackingNumberStore store,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.region.code:}") String regionCode,
+            @Value("${tracking-number.format:random}") String format,
+            @Value("${tracking-number.feed.enabled:true}") boolean feedEnabled,
+            @Value("${tracking-number.feed.stream-key:" + IssuedTrackingNumberFeed.DEFAULT_STREAM_KEY + "}") String streamKey,
+            @Value("${tracking-number.region.replication.consumer-name:}") String consumerName,
+            @Value("${HOSTNAME:}") String hostname,
+            @Value("${tracking-number.region.replication.batch-size:500}") int batchSize,
+            @Value("${tracking-number.region.replication.concurrency:64}") int concurrency,
+            @Value("${tracking-number.region.replication.poll-interval:100ms}") Duration pollInterval,
+            @Value("${tracking-number.region.replication.claim-idle-after:1m}") Duration claimIdleAfter,
+            @Value("${tracking-number.region.replication.horizon-check-interval:1m}") Duration horizonCheckInterval) {
+        char region = RegionCode.parse(regionCode);
+        if (region == 0) {
+            throw new IllegalStateException("Region replication requires tracking-number.region.code");
+        }
+        // Route sequences are counted in each region's own Redis, so they would collide across regions
+        if (!"random".equalsIgnoreCase(format)) {
+            throw new IllegalStateException("Region replication requires tracking-number.format=random");
+        }
+        if (!feedEnabled) {
+            throw new IllegalStateException("Region replication reads the issued-number feed; "
+                    + "enable tracking-number.feed.enabled in every region");
+        }
+        if (peers.redisTemplates().containsKey(region)) {
+            throw new IllegalStateException("Region " + region + " cannot replicate from itself");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Replication concurrency must be positive");
+        }
+        this.peers = peers;
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.group = "replication-" + region;
+        this.consumerName = consumerName(consumerName, hostname);
+        this.streamKey = streamKey;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.pollInterval = pollInterval;
+        this.claimIdleAfter = claimIdleAfter;
+        this.horizonCheckInterval = horizonCheckInterval;
+    }
+
+    // Stable across restarts, so a restarted instance picks up its own pending entries
+    static String consumerName(String configured, String hostname) {
+        if (!configured.isBlank()) {
+            return configured;
+        }
+        if (hostname.isBlank()) {
+            throw new IllegalStateException("Set tracking-number.region.replication.consumer-name to a name unique to "
+                    + "this instance (HOSTNAME is not set)");
+        }
+        return hostname;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Map.Entry<Character, ReactiveRedisTemplate<String, String>> peer : peers.redisTemplates().entrySet()) {
+            String source = String.valueOf(peer.getKey());
+            Counter applied = Counter.builder("tracking.number.replication.applied")
+                    .description("Numbers issued in another region and saved to this region's store")
+                    .tag("region", source)
+                    .register(meterRegistry);
+            Timer lag = Timer.builder("tracking.number.replication.lag")
+                    .description("Time from issue in another region until the number is saved here")
+                    .tag("region", source)
+                    .register(meterRegistry);
+
+            AtomicBoolean gap = new AtomicBoolean();
+            Gauge.builder("tracking.number.replication.gap", gap, missed -> missed.get() ? 1 : 0)
+                    .description("1 once entries were trimmed from the region's feed before this region applied them")
+                    .tag("region", source)
+                    .register(meterRegistry);
+
+            IssuedTrackingNumberConsumer consumer = new IssuedTrackingNumberConsumer(
+                    peer.getValue(), streamKey, batchSize, pollInterval, claimIdleAfter);
+            subscriptions.add(consumer.consume(group, consumerName, events -> apply(events, applied, lag))
+                    .doOnError(error -> logger.warn("Replication from region {} failed: {}", source, error.getMessage()))
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                    .subscribe());
+            subscriptions.add(Flux.interval(horizonCheckInterval, horizonCheckInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> consumer.missedEntries(group)
+                            .doOnNext(missed -> {
+                                if (missed && gap.compareAndSet(false, true)) {
+                                    logger.error("Entries of region {}'s feed were trimmed before {} applied them; "
+                                            + "numbers issued there in the gap are not replicated", source, group);
+                                }
+                            })
+                            .onErrorResume(error -> {
+                                logger.warn("Replication horizon check for region {} failed: {}",
+                                        source, error.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe());
+            logger.info("Replicating issued tracking numbers from region {} as {}/{}", source, group, consumerName);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    Mono<Void> apply(List<TrackingNumberIssuedEvent> events, Counter applied, Timer lag) {
+        return Flux.fromIterable(events)
+                .flatMap(event -> store.save(event.trackingNumber(), Instant.ofEpochMilli(event.issuedAtEpochMilli())),
+                        concurrency)
+                .then(Mono.fromRunnable(() -> {
+                    long now = System.currentTimeMillis();
+                    for (TrackingNumberIssuedEvent event : events) {
+                        lag.record(Math.max(0, now - event.issuedAtEpochMilli()), TimeUnit.MILLISECONDS);
+                    }
+                    applied.increment(events.size());
+                }));
+    }
+}
@@ -0,0 +1,184 @@
+package com.trackingnumber.repository;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.reservation.redis.BucketedLayout;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact layout: numbers are binary-packed (see {@link TrackingNumberCodec}) and stored as fields of
+ * small hashes {@code tracking_numbers:{<shard>}:<bucket>}, one per shard and time bucket. Each hash
+ * carries a single TTL that covers its whole bucket, and shards are sized so hashes stay within
+ * {@code hash-max-listpack-entries} and keep the listpack encoding. All buckets of a shard share a
+ * hash slot, so the reserve script works on Redis Cluster too. Blocked numbers live in a
+ * TTL-less {@code tracking_numbers:{<shard>}:blocked} hash that every lookup checks as well.
+ */
+public class BucketedTrackingNumberStore implements TrackingNumberStore {
+
+    private static final String BLOCKED_SUFFIX = BucketedLayout.BLOCKED_SUFFIX;
+
+    private static final RedisScript<Long> RESERVE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/bucketed-reserve.lua"), Long.class);
+
+    // Script arguments mix packed numbers and decimal integers; replies are integers and never read
+    private static final RedisElementWriter<Object> ARGUMENT_WRITER = argument -> argument instanceof TrackingNumber number
+            ? ByteBuffer.wrap(TrackingNumberRedisSerializer.INSTANCE.serialize(number))
+            : ByteBuffer.wrap(argument.toString().getBytes(StandardCharsets.US_ASCII));
+    private static final RedisElementReader<Long> RESULT_READER =
+            buffer -> Long.parseLong(StandardCharsets.US_ASCII.decode(buffer).toString());
+
+    private final ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate;
+    private final BucketedLayout layout;
+
+    public BucketedTrackingNumberStore(
+            ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate,
+            long ttlSeconds,
+            long bucketSeconds,
+            int shards) {
+        this.trackingNumberRedisTemplate = trackingNumberRedisTemplate;
+        this.layout = new BucketedLayout(ttlSeconds, bucketSeconds, shards);
+    }
+
+    public static List<RedisScript<?>> scripts() {
+        return List.of(RESERVE_SCRIPT);
+    }
+
+    @Override
+    public Mono<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        long epochSecond = issuedAt.getEpochSecond();
+        long bucket = layout.bucketOf(epochSecond);
+        List<String> keys = liveBucketKeys(shardOf(trackingNumber.packed()), epochSecond);
+        List<Object> args = List.of(trackingNumber, epochSecond - bucket * layout.bucketSeconds(), expiresAt(bucket));
+
+        return trackingNumberRedisTemplate.execute(RESERVE_SCRIPT, keys, args, ARGUMENT_WRITER, RESULT_READER)
+                .next()
+                .map(result -> result == 1L);
+    }
+
+    @Override
+    public Mono<Integer> reserveFirst(List<TrackingNumber> candidates, Instant issuedAt) {
+        // Candidates fall into different shards, and so different hash slots, so one script cannot claim them all;
+        // the per-candidate reserve scripts are all in flight at once instead
+        return Flux.fromIterable(candidates)
+                .flatMapSequential(candidate -> reserve(candidate, issuedAt))
+                .collectList()
+                .flatMap(claimed -> {
+                    int first = claimed.indexOf(Boolean.TRUE);
+                    if (first < 0) {
+                        return Mono.just(-1);
+                    }
+                    // Later claims were never handed out; remove them from the bucket the script wrote them to
+                    long bucket = layout.bucketOf(issuedAt.getEpochSecond());
+                    return Flux.range(first + 1, claimed.size() - first - 1)
+                            .filter(i -> claimed.get(i))
+                            .map(candidates::get)
+                            .flatMap(candidate -> trackingNumberRedisTemplate.<TrackingNumber, String>opsForHash()
+                                    .remove(bucketKey(shardOf(candidate.packed()), bucket), candidate))
+                            .then(Mono.just(first));
+                });
+    }
+
+    @Override
+    public Mono<Void> save(TrackingNumber trackingNumber, Instant issuedAt) {
+        long epochSecond = issuedAt.getEpochSecond();
+        long bucket = layout.bucketOf(epochSecond);
+        String key = bucketKey(shardOf(trackingNumber.packed()), bucket);
+
+        return trackingNumberRedisTemplate.<TrackingNumber, String>opsForHash()
+                .put(key, trackingNumber, Long.toString(epochSecond - bucket * layout.bucketSeconds()))
+                .then(trackingNumberRedisTemplate.expireAt(key, Instant.ofEpochSecond(expiresAt(bucket))))
+                .then();
+    }
+
+    @Override
+    public Mono<List<Boolean>> exists(List<TrackingNumber> trackingNumbers) {
+        long now = Instant.now().getEpochSecond();
+        Map<Integer, List<Integer>> byShard = new HashMap<>();
+        for (int i = 0; i < trackingNumbers.size(); i++) {
+            byShard.computeIfAbsent(shardOf(trackingNumbers.get(i).packed()), shard -> new ArrayList<>()).add(i);
+        }
+        boolean[] found = new boolean[trackingNumbers.size()];
+        // One HMGET per live key of each shard (blocked hash and buckets), all in flight at once on the shared
+        // connection; a number exists if any of them holds it
+        return Flux.fromIterable(byShard.entrySet())
+                .flatMap(entry -> {
+                    List<Integer> indexes = entry.getValue();
+                    List<TrackingNumber> fields = indexes.stream().map(trackingNumbers::get).toList();
+                    return Flux.fromIterable(liveBucketKeys(entry.getKey(), now))
+                            .flatMap(key -> trackingNumberRedisTemplate.<TrackingNumber, String>opsForHash()
+                                    .multiGet(key, fields))
+                            .doOnNext(values -> {
+                                for (int i = 0; i < values.size(); i++) {
+                                    if (values.get(i) != null) {
+                                        found[indexes.get(i)] = true;
+                                    }
+                                }
+                            });
+                })
+                // Replies are applied one at a time, so the array needs no further synchronisation
+                .then(Mono.fromSupplier(() -> {
+                    List<Boolean> result = new ArrayList<>(found.length);
+                    for (boolean exists : found) {
+                        result.add(exists);
+                    }
+                    return result;
+                }));
+    }
+
+    @Override
+    public Mono<Void> block(List<TrackingNumber> trackingNumbers) {
+        Map<Integer, Map<TrackingNumber, String>> byShard = new HashMap<>();
+        for (TrackingNumber trackingNumber : trackingNumbers) {
+            byShard.computeIfAbsent(shardOf(trackingNumber.packed()), shard -> new HashMap<>())
+                    .put(trackingNumber, BLOCKED_SUFFIX);
+        }
+        // One HSET per shard, all in flight at once on the shared connection
+        return Flux.fromIterable(byShard.entrySet())
+                .flatMap(entry -> trackingNumberRedisTemplate.<TrackingNumber, String>opsForHash()
+                        .putAll(blockedKey(entry.getKey()), entry.getValue()))
+                .then();
+    }
+
+    public long bucketSeconds() {
+        return layout.bucketSeconds();
+    }
+
+    public int shards() {
+        return layout.shards();
+    }
+
+    List<String> liveBucketKeys(int shard, long epochSecond) {
+        return layout.liveBucketKeys(shard, epochSecond);
+    }
+
+    String bucketKey(int shard, long bucket) {
+        return layout.bucketKey(shard, bucket);
+    }
+
+    String blockedKey(int shard) {
+        return layout.blockedKey(shard);
+    }
+
+    int shardOf(long packed) {
+        return layout.shardOf(packed);
+    }
+
+    private long expiresAt(long bucket) {
+        return layout.expiresAt(bucket);
+    }
+}
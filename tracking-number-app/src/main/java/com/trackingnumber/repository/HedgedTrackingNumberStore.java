@@ -0,0 +1,137 @@
+package com.trackingnumber.repository;
+
+import com.trackingnumber.domain.TrackingNumber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedged lookups: {@link #exists} goes to the primary, and if no answer has arrived after the primary's recent
+ * p95 (by default), the same lookup is sent to a replica; the first answer wins and the other is cancelled.
+ * Writes only ever go to the primary. Hedges are rationed to {@code maxHedgeRatio} of lookups, so a slow primary
+ * adds at most that much load to the replicas. A replica may lag, so a number reserved a moment ago can read as
+ * unknown on the hedge; lookups are advisory and never decide uniqueness.
+ */
+public class HedgedTrackingNumberStore implements TrackingNumberStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedTrackingNumberStore.class);
+    // Hedge credit in thousandths of a hedge; each lookup earns maxHedgeRatio, each hedge spends one
+    private static final long CREDIT_SCALE = 1000;
+    private static final long MAX_CREDIT = 10 * CREDIT_SCALE;
+
+    private final TrackingNumberStore primary;
+    private final TrackingNumberStore replica;
+    private final LatencyQuantile primaryLatency;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long creditPerLookup;
+    private final AtomicLong hedgeCredit = new AtomicLong(MAX_CREDIT);
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    public HedgedTrackingNumberStore(
+            TrackingNumberStore primary,
+            TrackingNumberStore replica,
+            MeterRegistry meterRegistry,
+            double quantile,
+            Duration minDelay,
+            Duration maxDelay,
+            double maxHedgeRatio) {
+        if (minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("Hedge min-delay must not exceed max-delay");
+        }
+        this.primary = primary;
+        this.replica = replica;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.primaryLatency = new LatencyQuantile(quantile, maxDelayNanos);
+        this.creditPerLookup = Math.round(maxHedgeRatio * CREDIT_SCALE);
+
+        this.hedges = Counter.builder("tracking.number.redis.hedges")
+                .description("Lookups re-sent to a replica after the hedge delay")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("tracking.number.redis.hedge.wins")
+                .description("Hedged lookups answered by the replica first")
+                .register(meterRegistry);
+        TimeGauge.builder("tracking.number.redis.hedge.delay", this, TimeUnit.NANOSECONDS,
+                        HedgedTrackingNumberStore::hedgeDelayNanos)
+                .description("Current delay before a lookup is hedged")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        return primary.reserve(trackingNumber, issuedAt);
+    }
+
+    @Override
+    public Mono<Integer> reserveFirst(List<TrackingNumber> candidates, Instant issuedAt) {
+        return primary.reserveFirst(candidates, issuedAt);
+    }
+
+    @Override
+    public Mono<Void> save(TrackingNumber trackingNumber, Instant issuedAt) {
+        return primary.save(trackingNumber, issuedAt);
+    }
+
+    @Override
+    public Mono<Void> block(List<TrackingNumber> trackingNumbers) {
+        return primary.block(trackingNumbers);
+    }
+
+    @Override
+    public Mono<List<Boolean>> exists(List<TrackingNumber> trackingNumbers) {
+        Mono<List<Boolean>> primaryLookup = Mono.defer(() -> {
+            long startTime = System.nanoTime();
+            // Also recorded when the hedge wins and the primary is cancelled: a lower bound, but still a slow sample
+            return primary.exists(trackingNumbers)
+                    .doFinally(signal -> primaryLatency.record(System.nanoTime() - startTime));
+        });
+        Mono<List<Boolean>> hedgedLookup = Mono.delay(Duration.ofNanos(hedgeDelayNanos()))
+                .filter(ignored -> tryAcquireHedge())
+                .flatMap(ignored -> {
+                    hedges.increment();
+                    logger.debug("Hedging lookup of {} tracking numbers to a replica", trackingNumbers.size());
+                    return replica.exists(trackingNumbers).doOnNext(result -> hedgeWins.increment());
+                });
+
+        earnHedgeCredit();
+        return Mono.firstWithValue(primaryLookup, hedgedLookup)
+                // Both failed (or the hedge was not sent): surface the primary's error rather than the composite
+                .onErrorMap(NoSuchElementException.class, HedgedTrackingNumberStore::firstFailure);
+    }
+
+    long hedgeDelayNanos() {
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, primaryLatency.valueNanos()));
+    }
+
+    private static Throwable firstFailure(NoSuchElementException error) {
+        if (error.getCause() == null) {
+            return error;
+        }
+        return Exceptions.unwrapMultiple(error.getCause()).stream()
+                .filter(failure -> !(failure instanceof NoSuchElementException))
+                .findFirst()
+                .orElse(error);
+    }
+
+    private void earnHedgeCredit() {
+        hedgeCredit.getAndUpdate(credit -> Math.min(MAX_CREDIT, credit + creditPerLookup));
+    }
+
+    private boolean tryAcquireHedge() {
+        return hedgeCredit.getAndUpdate(credit -> credit >= CREDIT_SCALE ? credit - CREDIT_SCALE : credit)
+                >= CREDIT_SCALE;
+    }
+}
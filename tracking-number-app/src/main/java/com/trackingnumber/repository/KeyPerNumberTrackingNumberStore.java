@@ -0,0 +1,157 @@
+package com.trackingnumber.repository;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberEntity;
+import com.trackingnumber.reservation.redis.KeyPerNumberRedisReservations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Original layout: a {@code tracking_number:<n>} string key per number reserved with SETNX, plus the
+ * {@code @RedisHash} entity written through {@link TrackingNumberRepository}. Keys are textual, so
+ * this layout converts numbers to strings at the Redis boundary.
+ */
+public class KeyPerNumberTrackingNumberStore implements TrackingNumberStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyPerNumberTrackingNumberStore.class);
+    static final String KEY_PREFIX = KeyPerNumberRedisReservations.KEY_PREFIX;
+    public static final String BLOCKED_VALUE = "blocked";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final TrackingNumberRepository repository;
+    private final long ttlSeconds;
+    private final int lookupChunkSize;
+
+    public KeyPerNumberTrackingNumberStore(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            TrackingNumberRepository repository,
+            long ttlSeconds,
+            int lookupChunkSize) {
+        if (lookupChunkSize < 1) {
+            throw new IllegalArgumentException("Lookup chunk size must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.ttlSeconds = ttlSeconds;
+        this.lookupChunkSize = lookupChunkSize;
+    }
+
+    @Override
+    public Mono<Boolean> reserve(TrackingNumber number, Instant issuedAt) {
+        String trackingNumber = number.toString();
+        // Use Redis SETNX (SET if Not eXists) for atomic check-and-set
+        String redisKey = KEY_PREFIX + trackingNumber;
+        String timestamp = issuedAt.toString();
+
+        return redisTemplate.opsForValue()
+                .setIfAbsent(redisKey, timestamp)
+                .flatMap(wasSet -> {
+                    if (!wasSet) {
+                        return Mono.just(false);
+                    }
+                    // Set TTL for the Redis key
+                    return redisTemplate.expire(redisKey, Duration.ofSeconds(ttlSeconds))
+                            .then(saveToRepository(trackingNumber, timestamp))
+                            .thenReturn(true);
+                });
+    }
+
+    @Override
+    public Mono<Integer> reserveFirst(List<TrackingNumber> candidates, Instant issuedAt) {
+        String timestamp = issuedAt.toString();
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        // Every candidate is claimed with SET NX EX at once, pipelined on the shared connection
+        return Flux.fromIterable(candidates)
+                .flatMapSequential(candidate -> redisTemplate.opsForValue()
+                        .setIfAbsent(KEY_PREFIX + candidate, timestamp, ttl))
+                .collectList()
+                .flatMap(claimed -> {
+                    int first = claimed.indexOf(Boolean.TRUE);
+                    if (first < 0) {
+                        return Mono.just(-1);
+                    }
+                    // Only the first claim is issued; later ones were never handed out, so they are released
+                    List<String> released = new ArrayList<>();
+                    for (int i = first + 1; i < claimed.size(); i++) {
+                        if (Boolean.TRUE.equals(claimed.get(i))) {
+                            released.add(KEY_PREFIX + candidates.get(i));
+                        }
+                    }
+                    Mono<Long> release = released.isEmpty()
+                            ? Mono.empty()
+                            : redisTemplate.delete(released.toArray(String[]::new));
+                    return Mono.when(release, saveToRepository(candidates.get(first).toString(), timestamp))
+                            .thenReturn(first);
+                });
+    }
+
+    @Override
+    public Mono<Void> save(TrackingNumber number, Instant issuedAt) {
+        String trackingNumber = number.toString();
+        String timestamp = issuedAt.toString();
+        return redisTemplate.opsForValue()
+                .set(KEY_PREFIX + trackingNumber, timestamp, Duration.ofSeconds(ttlSeconds))
+                .then(saveToRepository(trackingNumber, timestamp));
+    }
+
+    @Override
+    public Mono<List<Boolean>> exists(List<TrackingNumber> trackingNumbers) {
+        int size = trackingNumbers.size();
+        Boolean[] found = new Boolean[size];
+        int chunks = (size + lookupChunkSize - 1) / lookupChunkSize;
+
+        // Every chunk is one MGET; issuing them concurrently on the shared connection pipelines them
+        return Flux.range(0, chunks)
+                .flatMap(chunk -> {
+                    int from = chunk * lookupChunkSize;
+                    int to = Math.min(from + lookupChunkSize, size);
+                    List<String> keys = new ArrayList<>(to - from);
+                    for (int i = from; i < to; i++) {
+                        keys.add(KEY_PREFIX + trackingNumbers.get(i));
+                    }
+                    return redisTemplate.opsForValue()
+                            .multiGet(keys)
+                            .doOnNext(values -> {
+                                for (int i = from; i < to; i++) {
+                                    found[i] = values.get(i - from) != null;
+                                }
+                            });
+                })
+                .then(Mono.fromSupplier(() -> Arrays.asList(found)));
+    }
+
+    @Override
+    public Mono<Void> block(List<TrackingNumber> trackingNumbers) {
+        // One MSET per batch; blocked keys carry no TTL and no repository entity
+        Map<String, String> keys = new HashMap<>(trackingNumbers.size() * 2);
+        for (TrackingNumber trackingNumber : trackingNumbers) {
+            keys.put(KEY_PREFIX + trackingNumber, BLOCKED_VALUE);
+        }
+        return redisTemplate.opsForValue().multiSet(keys).then();
+    }
+
+    private Mono<Void> saveToRepository(String trackingNumber, String timestamp) {
+        TrackingNumberEntity entity = new TrackingNumberEntity(
+                trackingNumber,
+                timestamp,
+                ttlSeconds
+        );
+
+        return repository.save(entity)
+                .doOnSuccess(savedEntity ->
+                        logger.debug("Successfully stored tracking number in repository: {}", trackingNumber))
+                .then();
+    }
+}
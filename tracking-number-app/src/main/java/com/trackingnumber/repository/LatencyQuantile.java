@@ -0,0 +1,47 @@
+package com.trackingnumber.repository;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A quantile of the most recent latencies, for hedge delays. Samples go into a fixed ring; every
+ * {@code RECOMPUTE_EVERY} samples the recording thread sorts a copy and publishes the new value, so readers only
+ * touch a volatile long. Samples written while a copy is taken may be missed, which a tail estimate tolerates.
+ */
+public final class LatencyQuantile {
+
+    private static final int SAMPLES = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final long[] samples = new long[SAMPLES];
+    private final AtomicLong recorded = new AtomicLong();
+    private final double quantile;
+    private volatile long valueNanos;
+
+    public LatencyQuantile(double quantile, long initialNanos) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        this.quantile = quantile;
+        this.valueNanos = initialNanos;
+    }
+
+    public void record(long nanos) {
+        long sequence = recorded.getAndIncrement();
+        samples[(int) (sequence % SAMPLES)] = nanos;
+        if ((sequence + 1) % RECOMPUTE_EVERY == 0) {
+            int filled = (int) Math.min(sequence + 1, SAMPLES);
+            long[] sorted = Arrays.copyOf(samples, filled);
+            Arrays.sort(sorted);
+            valueNanos = sorted[Math.min(filled - 1, (int) (filled * quantile))];
+        }
+    }
+
+    /**
+     * The quantile over the last {@value #SAMPLES} samples, or the initial value until {@value #RECOMPUTE_EVERY}
+     * have been recorded.
+     */
+    public long valueNanos() {
+        return valueNanos;
+    }
+}
@@ -0,0 +1,49 @@
+package com.trackingnumber.repository;
+
+import com.trackingnumber.domain.TrackingNumber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Uniqueness store for issued tracking numbers. Implementations decide the Redis layout.
+ */
+public interface TrackingNumberStore {
+
+    /**
+     * Atomically records the number unless it is already live; emits {@code false} on a collision.
+     */
+    Mono<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt);
+
+    /**
+     * Reserves the first of {@code candidates} that is not live and emits its index, or -1 when all of them
+     * collided. Stores that can claim every candidate in one exchange override this and release the extra
+     * claims; by default candidates are reserved one round trip at a time.
+     */
+    default Mono<Integer> reserveFirst(List<TrackingNumber> candidates, Instant issuedAt) {
+        return Flux.fromIterable(candidates)
+                .concatMap(candidate -> reserve(candidate, issuedAt))
+                .index()
+                .filter(reserved -> reserved.getT2())
+                .next()
+                .map(reserved -> reserved.getT1().intValue())
+                .defaultIfEmpty(-1);
+    }
+
+    /**
+     * Records a number that is unique by construction, without a collision check.
+     */
+    Mono<Void> save(TrackingNumber trackingNumber, Instant issuedAt);
+
+    /**
+     * Emits one flag per input number, in order, resolved with pipelined lookups.
+     */
+    Mono<List<Boolean>> exists(List<TrackingNumber> trackingNumbers);
+
+    /**
+     * Permanently marks externally issued numbers as taken, without a TTL, so they are never generated.
+     */
+    Mono<Void> block(List<TrackingNumber> trackingNumbers);
+}
@@ -0,0 +1,25 @@
+package com.trackingnumber.rsocket;
+
+import org.springframework.util.MimeType;
+
+/**
+ * Wire format of the {@value #MIME_TYPE_VALUE} payloads exchanged over RSocket.
+ * <ul>
+ *   <li>request: six fields (origin, destination, weight, customer id, customer name, customer slug),
+ *   each a one-byte length followed by UTF-8 bytes; a slug length of {@code 0xFF} means absent</li>
+ *   <li>bulk request: a two-byte unsigned count followed by a request</li>
+ *   <li>issued number: the 8-byte packed tracking number followed by the 8-byte creation epoch millis</li>
+ * </ul>
+ * All integers are big-endian.
+ */
+public final class BinaryTrackingNumberCodec {
+
+    public static final String MIME_TYPE_VALUE = "application/vnd.tracking-number.v1+binary";
+    public static final MimeType MIME_TYPE = MimeType.valueOf(MIME_TYPE_VALUE);
+
+    static final int ABSENT = 0xFF;
+    static final int ISSUED_BYTES = 16;
+
+    private BinaryTrackingNumberCodec() {
+    }
+}
@@ -0,0 +1,85 @@
+package com.trackingnumber.rsocket;
+
+import com.trackingnumber.domain.IssuedTrackingNumber;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberBulkRequest;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Decodes the types of the binary format described in {@link BinaryTrackingNumberCodec}. The server
+ * only reads the request types; {@link IssuedTrackingNumber} is here for Java callers.
+ */
+public class BinaryTrackingNumberDecoder extends AbstractDataBufferDecoder<Object> {
+
+    public BinaryTrackingNumberDecoder() {
+        super(BinaryTrackingNumberCodec.MIME_TYPE);
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (type == TrackingNumberRequest.class
+                || type == TrackingNumberBulkRequest.class
+                || type == IssuedTrackingNumber.class)
+                && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Object decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+        try {
+            if (targetType.toClass() == IssuedTrackingNumber.class) {
+                return new IssuedTrackingNumber(TrackingNumber.ofPacked(readLong(buffer)), readLong(buffer));
+            }
+            if (targetType.toClass() == TrackingNumberBulkRequest.class) {
+                int count = ((buffer.read() & 0xff) << 8) | (buffer.read() & 0xff);
+                return new TrackingNumberBulkRequest(readRequest(buffer), count);
+            }
+            return readRequest(buffer);
+        } catch (IndexOutOfBoundsException e) {
+            throw new DecodingException("Truncated tracking number payload", e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static TrackingNumberRequest readRequest(DataBuffer buffer) {
+        return new TrackingNumberRequest(
+                readField(buffer),
+                readField(buffer),
+                readField(buffer),
+                readField(buffer),
+                readField(buffer),
+                readField(buffer)
+        );
+    }
+
+    private static long readLong(DataBuffer buffer) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (buffer.read() & 0xff);
+        }
+        return value;
+    }
+
+    private static String readField(DataBuffer buffer) {
+        int length = buffer.read() & 0xff;
+        if (length == BinaryTrackingNumberCodec.ABSENT) {
+            return null;
+        }
+        if (length > buffer.readableByteCount()) {
+            throw new DecodingException("Field length " + length + " exceeds remaining payload");
+        }
+        byte[] bytes = new byte[length];
+        buffer.read(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
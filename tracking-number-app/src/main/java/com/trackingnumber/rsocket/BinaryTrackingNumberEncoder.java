@@ -0,0 +1,94 @@
+package com.trackingnumber.rsocket;
+
+import com.trackingnumber.domain.IssuedTrackingNumber;
+import com.trackingnumber.domain.TrackingNumberBulkRequest;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes the types of the binary format described in {@link BinaryTrackingNumberCodec}. The server
+ * only writes {@link IssuedTrackingNumber}; the request types are here for Java callers.
+ */
+public class BinaryTrackingNumberEncoder extends AbstractEncoder<Object> {
+
+    public BinaryTrackingNumberEncoder() {
+        super(BinaryTrackingNumberCodec.MIME_TYPE);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (type == IssuedTrackingNumber.class
+                || type == TrackingNumberRequest.class
+                || type == TrackingNumberBulkRequest.class)
+                && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        if (value instanceof IssuedTrackingNumber issued) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(BinaryTrackingNumberCodec.ISSUED_BYTES);
+            writeLong(buffer, issued.trackingNumber().packed());
+            writeLong(buffer, issued.createdAtEpochMilli());
+            return buffer;
+        }
+        if (value instanceof TrackingNumberBulkRequest bulk) {
+            if (bulk.count() < 0 || bulk.count() > 0xFFFF) {
+                throw new EncodingException("Bulk count must fit in two bytes: " + bulk.count());
+            }
+            DataBuffer buffer = bufferFactory.allocateBuffer(256);
+            buffer.write((byte) (bulk.count() >>> 8));
+            buffer.write((byte) bulk.count());
+            writeRequest(buffer, bulk.request());
+            return buffer;
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(256);
+        writeRequest(buffer, (TrackingNumberRequest) value);
+        return buffer;
+    }
+
+    private static void writeRequest(DataBuffer buffer, TrackingNumberRequest request) {
+        writeField(buffer, request.originCountryId());
+        writeField(buffer, request.destinationCountryId());
+        writeField(buffer, request.weight());
+        writeField(buffer, request.customerId());
+        writeField(buffer, request.customerName());
+        writeField(buffer, request.customerSlug());
+    }
+
+    private static void writeField(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write((byte) BinaryTrackingNumberCodec.ABSENT);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= BinaryTrackingNumberCodec.ABSENT) {
+            throw new EncodingException("Field exceeds " + (BinaryTrackingNumberCodec.ABSENT - 1) + " bytes");
+        }
+        buffer.write((byte) bytes.length);
+        buffer.write(bytes);
+    }
+
+    private static void writeLong(DataBuffer buffer, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer.write((byte) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.trackingnumber.rsocket;
+
+import com.trackingnumber.domain.IssuedTrackingNumber;
+import com.trackingnumber.domain.TrackingNumberBulkRequest;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberRequestValidator;
+import com.trackingnumber.exception.InvalidTrackingNumberRequestException;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.service.TrackingNumberService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * RSocket transport for internal callers, next to the HTTP controller and backed by the same
+ * {@link TrackingNumberService}. Requests are validated programmatically instead of through Bean
+ * Validation. Bulk streams honour RSocket request-n: at most {@code bulk-concurrency} numbers are in
+ * flight per stream and no further numbers are generated until the caller grants more credit.
+ */
+@Controller
+public class TrackingNumberRSocketController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberRSocketController.class);
+
+    private final TrackingNumberService trackingNumberService;
+    private final int bulkConcurrency;
+    private final int maxBulkCount;
+
+    public TrackingNumberRSocketController(
+            TrackingNumberService trackingNumberService,
+            @Value("${tracking-number.rsocket.bulk-concurrency:16}") int bulkConcurrency,
+            @Value("${tracking-number.rsocket.max-bulk-count:10000}") int maxBulkCount) {
+        this.trackingNumberService = trackingNumberService;
+        this.bulkConcurrency = bulkConcurrency;
+        this.maxBulkCount = maxBulkCount;
+    }
+
+    @MessageMapping("tracking-numbers.next")
+    public Mono<IssuedTrackingNumber> next(TrackingNumberRequest request) {
+        Map<String, String> errors = TrackingNumberRequestValidator.validate(request);
+        if (!errors.isEmpty()) {
+            return Mono.error(new InvalidTrackingNumberRequestException(errors));
+        }
+        return issue(request);
+    }
+
+    @MessageMapping("tracking-numbers.stream")
+    public Flux<IssuedTrackingNumber> stream(TrackingNumberBulkRequest bulkRequest) {
+        if (bulkRequest.count() < 1 || bulkRequest.count() > maxBulkCount) {
+            return Flux.error(new TrackingNumberException(
+                    "Bulk count must be between 1 and " + maxBulkCount));
+        }
+        Map<String, String> errors = TrackingNumberRequestValidator.validate(bulkRequest.request());
+        if (!errors.isEmpty()) {
+            return Flux.error(new InvalidTrackingNumberRequestException(errors));
+        }
+
+        logger.debug("Streaming {} tracking numbers for customer: {}",
+                bulkRequest.count(), bulkRequest.request().customerId());
+
+        return Flux.range(0, bulkRequest.count())
+                .flatMapSequential(i -> Mono.defer(() -> issue(bulkRequest.request())), bulkConcurrency);
+    }
+
+    private Mono<IssuedTrackingNumber> issue(TrackingNumberRequest request) {
+        return trackingNumberService.generateUniqueTrackingNumber(request)
+                .map(trackingNumber -> new IssuedTrackingNumber(trackingNumber, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import io.micrometer.tracing.annotation.NewSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Straight-line counterpart of {@link TrackingNumberServiceImpl} for the servlet stack on virtual threads
+ * ({@code virtual-threads} build). Both run the same {@link TrackingNumberIssuance} steps; this one awaits each
+ * store call on the calling virtual thread and retries in a plain loop, and concurrent requests pipeline their
+ * commands on the shared Lettuce connection.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BlockingTrackingNumberService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingTrackingNumberService.class);
+    private static final int TRANSIENT_RETRIES = 3;
+    private static final long TRANSIENT_BACKOFF_MILLIS = 100;
+
+    private final TrackingNumberIssuance issuance;
+    private final int maxRetries;
+    private final boolean routeSequenceFormat;
+
+    public BlockingTrackingNumberService(
+            TrackingNumberIssuance issuance,
+            @Value("${tracking-number.max-retries:10}") int maxRetries,
+            @Value("${tracking-number.format:random}") String format) {
+        this.issuance = issuance;
+        this.maxRetries = maxRetries;
+        this.routeSequenceFormat = "route-sequence".equalsIgnoreCase(format);
+    }
+
+    @NewSpan("generate-unique-tracking-number")
+    public TrackingNumber generateUniqueTrackingNumber(TrackingNumberRequest request) {
+        if (request == null) {
+            throw new TrackingNumberException("TrackingNumberRequest cannot be null");
+        }
+
+        logger.info("Starting tracking number generation for customer: {}", request.customerId());
+
+        long startTime = System.nanoTime();
+        TrackingNumber trackingNumber;
+        try {
+            issuance.checkCapacity();
+            trackingNumber = routeSequenceFormat
+                    ? generateFromSequence(request)
+                    : generateWithRetry(request);
+            issuance.completeIssue(trackingNumber, request, startTime).block();
+        } catch (RuntimeException e) {
+            logger.error("Failed to generate tracking number for customer: {}", request.customerId(), e);
+            throw e;
+        }
+
+        logger.info("Successfully generated tracking number: {} for customer: {}",
+                trackingNumber, request.customerId());
+        return trackingNumber;
+    }
+
+    // Sequence values can still be held by an imported block or the archive; a taken value skips to the next one
+    private TrackingNumber generateFromSequence(TrackingNumberRequest request) {
+        for (int attempt = 0; attempt < maxRetries; attempt++) {
+            TrackingNumber trackingNumber = allocateFromSequence(request);
+            if (issuance.isArchivedSequenceNumber(trackingNumber)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(issuance.reserve(trackingNumber).block())) {
+                return trackingNumber;
+            }
+            issuance.recordSequenceCollision(trackingNumber);
+        }
+
+        logger.error("Max retries exceeded for sequence allocation. Customer: {}", request.customerId());
+        throw new TrackingNumberException(
+                "Failed to allocate a free sequence number after " + maxRetries + " attempts");
+    }
+
+    private TrackingNumber allocateFromSequence(TrackingNumberRequest request) {
+        // Same policy as Retry.backoff(3, 100ms) in the reactive service, without jitter
+        for (int retry = 0; ; retry++) {
+            try {
+                return issuance.nextSequenceNumber(request).block();
+            } catch (TrackingNumberException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (retry >= TRANSIENT_RETRIES) {
+                    throw e;
+                }
+                logger.debug("Retrying due to transient error: {}", e.getMessage());
+                sleep(TRANSIENT_BACKOFF_MILLIS << retry);
+            }
+        }
+    }
+
+    private TrackingNumber generateWithRetry(TrackingNumberRequest request) {
+        for (int attempt = 0; attempt < maxRetries; attempt++) {
+            int candidates = Math.min(issuance.candidateCount(), maxRetries - attempt);
+            if (candidates > 1) {
+                TrackingNumber reserved = reserveSpeculatively(request, attempt, candidates);
+                if (reserved != null) {
+                    return reserved;
+                }
+                attempt += candidates - 1;
+                continue;
+            }
+
+            logger.debug("Tracking number generation attempt {} for customer: {}",
+                    attempt + 1, request.customerId());
+
+            TrackingNumber candidateNumber = issuance.drawCandidate(request, attempt);
+            if (candidateNumber == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(issuance.reserve(candidateNumber).block())) {
+                issuance.recordIssued(candidateNumber, attempt);
+                return candidateNumber;
+            }
+            issuance.recordCollision(candidateNumber, attempt, maxRetries);
+        }
+
+        logger.error("Max retries exceeded for tracking number generation. Customer: {}", request.customerId());
+        throw new TrackingNumberException(
+                "Failed to generate unique tracking number after " + maxRetries + " attempts");
+    }
+
+    // The issued number, or null when every candidate collided
+    private TrackingNumber reserveSpeculatively(TrackingNumberRequest request, int attempt, int candidates) {
+        logger.debug("Tracking number generation attempts {}-{} for customer: {}",
+                attempt + 1, attempt + candidates, request.customerId());
+
+        List<TrackingNumber> batch = issuance.drawCandidates(request, attempt, candidates);
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        Integer reserved;
+        try {
+            reserved = issuance.reserveFirst(batch).block();
+        } catch (RuntimeException e) {
+            logger.error("Error in atomic check-and-store for tracking numbers: {}", batch, e);
+            throw new TrackingNumberException("Failed to store tracking numbers: " + batch, e);
+        }
+        return issuance.recordSpeculative(batch, reserved == null ? -1 : reserved, attempt, candidates, maxRetries);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrackingNumberException("Interrupted while retrying tracking number generation", e);
+        }
+    }
+}
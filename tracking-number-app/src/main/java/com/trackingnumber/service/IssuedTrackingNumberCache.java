@@ -0,0 +1,42 @@
+package com.trackingnumber.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trackingnumber.domain.TrackingNumber;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded local record of numbers known to be issued, either because this instance issued them or
+ * because Redis confirmed them. Only positive answers are cached: a miss can turn into a hit as soon
+ * as another instance issues the number, but an issued number stays issued for its TTL.
+ */
+@Component
+public class IssuedTrackingNumberCache {
+
+    private final Cache<TrackingNumber, Boolean> issued;
+
+    public IssuedTrackingNumberCache(
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.validation.cache.max-size:100000}") long maxSize,
+            @Value("${tracking-number.validation.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.issued = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, issued, "tracking-number-issued");
+    }
+
+    public void record(TrackingNumber trackingNumber) {
+        issued.put(trackingNumber, Boolean.TRUE);
+    }
+
+    public boolean isKnownIssued(TrackingNumber trackingNumber) {
+        return issued.getIfPresent(trackingNumber) != null;
+    }
+}
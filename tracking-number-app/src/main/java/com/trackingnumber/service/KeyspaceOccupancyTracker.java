@@ -0,0 +1,245 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.region.RegionCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates how full the random-number keyspace is and raises the generated length before duplicate
+ * retries become common. Issued numbers are added to one HyperLogLog per length and time bucket
+ * ({@code tracking_number_hll:{occupancy}:<length>:<bucket>}), flushed in batches. A union count
+ * over the live buckets estimates the {@code n} live numbers of the current length. A random
+ * candidate then collides with probability {@code n / 16^length} (the generator emits hex digits; a region
+ * tag fixes one of them).
+ * When the expected retry rate crosses the threshold, the length is raised through a single Redis
+ * key. Every instance polls that key, so the fleet switches within one refresh interval.
+ * Escalation is one-way; delete the key to return to {@code tracking-number.generation.length}.
+ */
+@Component
+public class KeyspaceOccupancyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyspaceOccupancyTracker.class);
+    private static final String HLL_PREFIX = "tracking_number_hll:{occupancy}:";
+    static final String LENGTH_KEY = "tracking_number_length";
+    private static final double ALPHABET_SIZE = 16;
+    private static final int MAX_PENDING = 100_000;
+
+    private static final RedisScript<Long> RAISE_LENGTH_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/raise-length.lua"), Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final long ttlSeconds;
+    private final long bucketSeconds;
+    private final int baseLength;
+    private final int maxLength;
+    private final double maxRetryRate;
+    private final boolean escalationEnabled;
+    private final Duration refreshInterval;
+    private final Queue<TrackingNumber> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final Counter duplicates;
+    private final int taggedCharacters;
+
+    private volatile int length;
+    private volatile long occupancy;
+    private volatile double collisionProbability;
+    private Disposable refreshes;
+
+    public KeyspaceOccupancyTracker(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.storage.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${tracking-number.generation.length:10}") int baseLength,
+            @Value("${tracking-number.generation.escalation.max-length:12}") int maxLength,
+            @Value("${tracking-number.generation.escalation.max-retry-rate:0.001}") double maxRetryRate,
+            @Value("${tracking-number.generation.escalation.enabled:true}") boolean escalationEnabled,
+            @Value("${tracking-number.generation.escalation.refresh-interval:5s}") Duration refreshInterval,
+            @Value("${tracking-number.region.code:}") String regionCode) {
+        // A region tag fixes the last character, leaving one fewer random character
+        this.taggedCharacters = RegionCode.parse(regionCode) == 0 ? 0 : 1;
+        if (baseLength < TrackingNumberFormat.MIN_LENGTH + taggedCharacters || maxLength < baseLength
+                || maxLength > TrackingNumberCodec.MAX_PACKED_LENGTH) {
+            throw new IllegalArgumentException("Generated length must satisfy " + (TrackingNumberFormat.MIN_LENGTH + taggedCharacters)
+                    + " <= length <= max-length <= " + TrackingNumberCodec.MAX_PACKED_LENGTH);
+        }
+        this.redisTemplate = redisTemplate;
+        this.ttlSeconds = ttlSeconds;
+        this.bucketSeconds = bucketSeconds;
+        this.baseLength = baseLength;
+        this.maxLength = maxLength;
+        this.maxRetryRate = maxRetryRate;
+        this.escalationEnabled = escalationEnabled;
+        this.refreshInterval = refreshInterval;
+        this.length = baseLength;
+
+        this.duplicates = Counter.builder("tracking.number.duplicates")
+                .description("Observed duplicate candidates that forced a retry")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.keyspace.occupancy", this, tracker -> tracker.occupancy)
+                .description("Estimated live issued numbers of the current generated length")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.keyspace.collision.probability", this, tracker -> tracker.collisionProbability)
+                .description("Probability that a random candidate is already issued")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.keyspace.predicted.retry.rate", this, KeyspaceOccupancyTracker::predictedRetryRate)
+                .description("Expected duplicate retries per issued number")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.generation.length", this, KeyspaceOccupancyTracker::currentLength)
+                .description("Length of randomly generated tracking numbers")
+                .register(meterRegistry);
+    }
+
+    public static RedisScript<Long> script() {
+        return RAISE_LENGTH_SCRIPT;
+    }
+
+    @PostConstruct
+    public void start() {
+        refreshes = Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .then(refresh())
+                        .onErrorResume(error -> {
+                            logger.warn("Keyspace occupancy refresh failed: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshes != null) {
+            refreshes.dispose();
+        }
+    }
+
+    public int currentLength() {
+        return length;
+    }
+
+    public void recordIssued(TrackingNumber trackingNumber) {
+        if (pendingSize.incrementAndGet() > MAX_PENDING) {
+            // Redis has been unreachable for a while; under-counting is preferable to unbounded memory
+            pendingSize.decrementAndGet();
+            return;
+        }
+        pending.add(trackingNumber);
+    }
+
+    public void recordDuplicate() {
+        duplicates.increment();
+    }
+
+    double predictedRetryRate() {
+        double p = collisionProbability;
+        return p >= 1.0 ? Double.POSITIVE_INFINITY : p / (1.0 - p);
+    }
+
+    static double collisionProbability(long occupancy, int length) {
+        return Math.min(1.0, occupancy / Math.pow(ALPHABET_SIZE, length));
+    }
+
+    Mono<Void> flush() {
+        List<List<String>> byLength = new ArrayList<>();
+        for (int i = 0; i <= maxLength; i++) {
+            byLength.add(new ArrayList<>());
+        }
+        TrackingNumber trackingNumber;
+        while ((trackingNumber = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            byLength.get(Math.min(trackingNumber.length(), maxLength)).add(trackingNumber.toString());
+        }
+
+        long bucket = Instant.now().getEpochSecond() / bucketSeconds;
+        Instant expiresAt = Instant.ofEpochSecond((bucket + 1) * bucketSeconds + ttlSeconds);
+        return Flux.range(0, byLength.size())
+                .filter(numberLength -> !byLength.get(numberLength).isEmpty())
+                .flatMap(numberLength -> {
+                    String key = bucketKey(numberLength, bucket);
+                    return redisTemplate.opsForHyperLogLog()
+                            .add(key, byLength.get(numberLength).toArray(String[]::new))
+                            .then(redisTemplate.expireAt(key, expiresAt));
+                })
+                .then();
+    }
+
+    Mono<Void> refresh() {
+        return redisTemplate.opsForValue().get(LENGTH_KEY)
+                .map(Integer::parseInt)
+                .defaultIfEmpty(baseLength)
+                .flatMap(fleetLength -> {
+                    int current = Math.max(baseLength, Math.min(maxLength, fleetLength));
+                    if (current != length) {
+                        logger.info("Generated tracking number length changed from {} to {}", length, current);
+                        length = current;
+                    }
+                    return redisTemplate.opsForHyperLogLog().size(liveBucketKeys(current).toArray(String[]::new))
+                            .flatMap(count -> {
+                                occupancy = count;
+                                collisionProbability = collisionProbability(count, current - taggedCharacters);
+                                return escalateIfNeeded(current);
+                            });
+                });
+    }
+
+    private Mono<Void> escalateIfNeeded(int current) {
+        double retryRate = predictedRetryRate();
+        if (retryRate <= maxRetryRate) {
+            return Mono.empty();
+        }
+        if (!escalationEnabled || current >= maxLength) {
+            logger.warn("Predicted duplicate retry rate {} exceeds {} at length {} ({} live numbers), not escalating",
+                    retryRate, maxRetryRate, current, occupancy);
+            return Mono.empty();
+        }
+        logger.warn("Predicted duplicate retry rate {} exceeds {} at length {} ({} live numbers), raising length to {}",
+                retryRate, maxRetryRate, current, occupancy, current + 1);
+        return redisTemplate.execute(RAISE_LENGTH_SCRIPT, List.of(LENGTH_KEY), List.of(Integer.toString(current + 1)))
+                .next()
+                .doOnNext(raised -> {
+                    length = Math.min(maxLength, raised.intValue());
+                    occupancy = 0;
+                    collisionProbability = 0;
+                })
+                .then();
+    }
+
+    List<String> liveBucketKeys(int numberLength) {
+        long epochSecond = Instant.now().getEpochSecond();
+        long current = epochSecond / bucketSeconds;
+        long oldest = Math.max(0, epochSecond - ttlSeconds) / bucketSeconds;
+        List<String> keys = new ArrayList<>((int) (current - oldest + 1));
+        for (long bucket = oldest; bucket <= current; bucket++) {
+            keys.add(bucketKey(numberLength, bucket));
+        }
+        return keys;
+    }
+
+    private static String bucketKey(int numberLength, long bucket) {
+        return HLL_PREFIX + numberLength + ":" + bucket;
+    }
+}
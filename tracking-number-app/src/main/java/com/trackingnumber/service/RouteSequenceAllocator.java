@@ -0,0 +1,101 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.exception.TrackingNumberException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out dense per-namespace sequence values. Each namespace has its own Redis counter
+ * ({@code tracking_number_seq:{namespace}}), so load spreads across keys and cluster hash slots,
+ * and values are leased from it in blocks to keep Redis off the per-request path. A drained block is
+ * refilled by a single lease that every caller waiting on the namespace shares.
+ */
+@Component
+public class RouteSequenceAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteSequenceAllocator.class);
+    private static final String KEY_PREFIX = "tracking_number_seq:";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final long blockSize;
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Void>> refills = new ConcurrentHashMap<>();
+    private final Counter blockLeases;
+
+    public RouteSequenceAllocator(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.route-sequence.block-size:1000}") long blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Route sequence block size must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.blockSize = blockSize;
+        this.blockLeases = Counter.builder("tracking.number.sequence.block.leases")
+                .description("Sequence blocks leased from Redis")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.sequence.namespaces.active", blocks, Map::size)
+                .description("Sequence namespaces with a leased block on this instance")
+                .register(meterRegistry);
+    }
+
+    public Mono<Long> nextSequence(String namespace) {
+        SequenceBlock block = blocks.computeIfAbsent(namespace, ns -> new SequenceBlock());
+        long value = block.tryNext();
+        if (value > 0) {
+            return Mono.just(value);
+        }
+        // Waiters take from the refilled block; if it drains again before they get there, they wait on the next refill
+        return refill(namespace, block).then(Mono.defer(() -> nextSequence(namespace)));
+    }
+
+    public int activeNamespaces() {
+        return blocks.size();
+    }
+
+    // One lease in flight per namespace. The entry is dropped before waiters are signalled, so one that finds the
+    // block drained again starts a fresh lease instead of replaying this one, and a failed lease is retried
+    private Mono<Void> refill(String namespace, SequenceBlock block) {
+        return refills.computeIfAbsent(namespace, ns -> leaseBlock(ns)
+                .doOnNext(end -> block.install(end - blockSize + 1, end))
+                .then()
+                .doOnTerminate(() -> refills.remove(ns))
+                .cache());
+    }
+
+    private Mono<Long> leaseBlock(String namespace) {
+        String redisKey = KEY_PREFIX + "{" + namespace + "}";
+        return redisTemplate.opsForValue()
+                .increment(redisKey, blockSize)
+                .doOnNext(end -> {
+                    blockLeases.increment();
+                    logger.debug("Leased sequence block ({}, {}] for namespace: {}", end - blockSize, end, namespace);
+                })
+                .onErrorMap(throwable -> new TrackingNumberException(
+                        "Failed to lease sequence block for namespace: " + namespace, throwable));
+    }
+
+    private static final class SequenceBlock {
+        private long next;
+        private long limit;
+
+        synchronized long tryNext() {
+            return next < limit ? next++ : -1;
+        }
+
+        synchronized void install(long start, long end) {
+            next = start;
+            limit = end + 1;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds numbers of the form {@code <namespace:4><sequence:width><check:1>}. The namespace is either
+ * the origin/destination pair ({@code USCA}) or a base-36 digest of the customer slug. Every namespace owns
+ * a dense counter, so sequence values never repeat; the caller still reserves each number, since an imported
+ * block may already hold it.
+ */
+@Component
+public class RouteSequenceTrackingNumberGenerator {
+
+    static final int NAMESPACE_LENGTH = 4;
+    private static final int MAX_LENGTH = TrackingNumberCodec.MAX_PACKED_LENGTH;
+    private static final long NAMESPACE_SPACE = 36L * 36 * 36 * 36;
+
+    private final RouteSequenceAllocator allocator;
+    private final NamespaceKey namespaceKey;
+    private final int sequenceWidth;
+    private final long sequenceCapacity;
+
+    public RouteSequenceTrackingNumberGenerator(
+            RouteSequenceAllocator allocator,
+            @Value("${tracking-number.route-sequence.namespace-key:route}") String namespaceKey,
+            @Value("${tracking-number.route-sequence.sequence-width:7}") int sequenceWidth) {
+        if (sequenceWidth < 1 || NAMESPACE_LENGTH + sequenceWidth + 1 > MAX_LENGTH) {
+            throw new IllegalArgumentException("Route sequence width must be between 1 and "
+                    + (MAX_LENGTH - NAMESPACE_LENGTH - 1));
+        }
+        this.allocator = allocator;
+        this.namespaceKey = NamespaceKey.valueOf(namespaceKey.trim().toUpperCase());
+        this.sequenceWidth = sequenceWidth;
+        long capacity = 1;
+        for (int i = 0; i < sequenceWidth; i++) {
+            capacity *= 36;
+        }
+        this.sequenceCapacity = capacity;
+    }
+
+    public Mono<TrackingNumber> generate(TrackingNumberRequest request) {
+        String namespace = namespaceOf(request);
+        return allocator.nextSequence(namespace).flatMap(sequence -> {
+            if (sequence >= sequenceCapacity) {
+                return Mono.error(new TrackingNumberException(
+                        "Sequence space exhausted for namespace: " + namespace));
+            }
+            return Mono.just(TrackingNumber.of(format(namespace, sequence)));
+        });
+    }
+
+    String namespaceOf(TrackingNumberRequest request) {
+        if (namespaceKey == NamespaceKey.ROUTE) {
+            return request.originCountryId() + request.destinationCountryId();
+        }
+        String slug = request.customerSlug() != null ? request.customerSlug() : request.customerId();
+        return customerNamespace(slug);
+    }
+
+    String format(String namespace, long sequence) {
+        StringBuilder result = new StringBuilder(NAMESPACE_LENGTH + sequenceWidth + 1);
+        result.append(namespace);
+        appendBase36(result, sequence, sequenceWidth);
+        result.append(TrackingNumberCheckCharacter.compute(result));
+        return result.toString();
+    }
+
+    static String customerNamespace(String slug) {
+        // FNV-1a; distinct slugs may share a namespace, which only means they share a counter
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < slug.length(); i++) {
+            hash ^= slug.charAt(i);
+            hash *= 0x01000193;
+        }
+        StringBuilder result = new StringBuilder(NAMESPACE_LENGTH);
+        appendBase36(result, Integer.toUnsignedLong(hash) % NAMESPACE_SPACE, NAMESPACE_LENGTH);
+        return result.toString();
+    }
+
+    private static void appendBase36(StringBuilder target, long value, int width) {
+        int start = target.length();
+        for (int i = 0; i < width; i++) {
+            target.append('0');
+        }
+        for (int i = start + width - 1; i >= start && value > 0; i--) {
+            target.setCharAt(i, TrackingNumberCheckCharacter.charOf((int) (value % 36)));
+            value /= 36;
+        }
+    }
+
+    enum NamespaceKey {
+        ROUTE,
+        CUSTOMER
+    }
+}
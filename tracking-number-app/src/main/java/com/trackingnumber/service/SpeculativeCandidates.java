@@ -0,0 +1,101 @@
+package com.trackingnumber.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides how many random candidates to reserve at once. With a collision rate {@code p}, one candidate misses
+ * with probability {@code p} and costs another round trip; {@code k} candidates all miss with probability
+ * {@code p^k}. The count is the smallest {@code k} that keeps {@code p^k} at or below {@code target-miss-rate},
+ * so it stays at 1 (a plain reservation) until collisions are common enough to show in the latency tail.
+ * <p>
+ * {@code p} is an exponentially weighted average of the collided fraction of reserved candidates, updated every
+ * {@value #WINDOW} candidates.
+ */
+@Component
+public class SpeculativeCandidates {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeculativeCandidates.class);
+    private static final long WINDOW = 1000;
+    private static final double SMOOTHING = 0.2;
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final double targetMissRate;
+    private final LongAdder tried = new LongAdder();
+    private final LongAdder collided = new LongAdder();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile double collisionRate;
+    private volatile int candidates = 1;
+
+    public SpeculativeCandidates(
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.generation.speculative.enabled:false}") boolean enabled,
+            @Value("${tracking-number.generation.speculative.max-candidates:8}") int maxCandidates,
+            @Value("${tracking-number.generation.speculative.target-miss-rate:0.001}") double targetMissRate) {
+        if (maxCandidates < 1 || targetMissRate <= 0 || targetMissRate >= 1) {
+            throw new IllegalArgumentException("Speculative reservation needs max-candidates >= 1 and 0 < target-miss-rate < 1");
+        }
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.targetMissRate = targetMissRate;
+
+        if (enabled) {
+            Gauge.builder("tracking.number.speculative.candidates", this, SpeculativeCandidates::candidateCount)
+                    .description("Random candidates reserved at once")
+                    .register(meterRegistry);
+            Gauge.builder("tracking.number.speculative.collision.rate", this, tracker -> tracker.collisionRate)
+                    .description("Observed fraction of reserved candidates that collided")
+                    .register(meterRegistry);
+        }
+    }
+
+    public int candidateCount() {
+        return candidates;
+    }
+
+    /**
+     * Records one reservation: {@code collided} of the {@code tried} candidates it went through were live.
+     */
+    public void record(int tried, int collided) {
+        if (!enabled) {
+            return;
+        }
+        this.tried.add(tried);
+        this.collided.add(collided);
+        if (this.tried.sum() >= WINDOW && updating.compareAndSet(false, true)) {
+            try {
+                long windowTried = this.tried.sumThenReset();
+                long windowCollided = this.collided.sumThenReset();
+                double rate = collisionRate + SMOOTHING * ((double) windowCollided / windowTried - collisionRate);
+                int count = candidatesFor(rate, targetMissRate, maxCandidates);
+                if (count != candidates) {
+                    logger.info("Collision rate {}, reserving {} candidates at once", rate, count);
+                }
+                collisionRate = rate;
+                candidates = count;
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    static int candidatesFor(double collisionRate, double targetMissRate, int maxCandidates) {
+        if (collisionRate <= targetMissRate) {
+            return 1;
+        }
+        if (collisionRate >= 1.0) {
+            return maxCandidates;
+        }
+        int count = (int) Math.ceil(Math.log(targetMissRate) / Math.log(collisionRate) - 1e-9);
+        return Math.max(1, Math.min(maxCandidates, count));
+    }
+}
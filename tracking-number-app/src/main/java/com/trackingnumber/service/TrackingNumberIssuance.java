@@ -0,0 +1,222 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.archive.TrackingNumberArchive;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.feed.IssuedTrackingNumberPublisher;
+import com.trackingnumber.profiling.RedisReservationEvent;
+import com.trackingnumber.repository.TrackingNumberStore;
+import com.trackingnumber.shadow.ShadowTraffic;
+import com.trackingnumber.usage.UsageCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The steps of issuing a number that do not depend on the execution model: drawing candidates past the archive,
+ * reserving them, accounting for the outcome and the side effects of an issued number. {@link TrackingNumberServiceImpl}
+ * and {@link BlockingTrackingNumberService} only add their own retry and backoff around these steps.
+ */
+@Component
+public class TrackingNumberIssuance {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberIssuance.class);
+
+    private final TrackingNumberStore store;
+    private final TrackingNumberGenerator generator;
+    private final RouteSequenceTrackingNumberGenerator routeSequenceGenerator;
+    private final IssuedTrackingNumberCache issuedCache;
+    private final KeyspaceOccupancyTracker occupancyTracker;
+    private final IssuedTrackingNumberPublisher feedPublisher;
+    private final UsageCounters usageCounters;
+    private final TrackingNumberArchive archive;
+    private final ShadowTraffic shadowTraffic;
+    private final SpeculativeCandidates speculativeCandidates;
+
+    public TrackingNumberIssuance(
+            TrackingNumberStore store,
+            TrackingNumberGenerator generator,
+            RouteSequenceTrackingNumberGenerator routeSequenceGenerator,
+            IssuedTrackingNumberCache issuedCache,
+            KeyspaceOccupancyTracker occupancyTracker,
+            IssuedTrackingNumberPublisher feedPublisher,
+            UsageCounters usageCounters,
+            TrackingNumberArchive archive,
+            ShadowTraffic shadowTraffic,
+            SpeculativeCandidates speculativeCandidates) {
+        this.store = store;
+        this.generator = generator;
+        this.routeSequenceGenerator = routeSequenceGenerator;
+        this.issuedCache = issuedCache;
+        this.occupancyTracker = occupancyTracker;
+        this.feedPublisher = feedPublisher;
+        this.usageCounters = usageCounters;
+        this.archive = archive;
+        this.shadowTraffic = shadowTraffic;
+        this.speculativeCandidates = speculativeCandidates;
+    }
+
+    /**
+     * Refuses the issuance before anything is reserved when the feed cannot record it.
+     */
+    public void checkCapacity() {
+        feedPublisher.checkCapacity();
+    }
+
+    public int candidateCount() {
+        return speculativeCandidates.candidateCount();
+    }
+
+    /**
+     * The candidate for {@code attempt}, or {@code null} when it is archived (issued longer ago than the Redis TTL),
+     * which is rejected locally without a round trip.
+     */
+    public TrackingNumber drawCandidate(TrackingNumberRequest request, int attempt) {
+        TrackingNumber candidateNumber;
+        try {
+            candidateNumber = TrackingNumber.ofPacked(generator.generatePacked(request, attempt));
+        } catch (Exception e) {
+            logger.error("Error generating tracking number candidate on attempt {}: {}", attempt + 1, e.getMessage());
+            throw new TrackingNumberException("Failed to generate tracking number", e);
+        }
+        if (archive.contains(candidateNumber.packed())) {
+            occupancyTracker.recordDuplicate();
+            logger.debug("Archived tracking number {} generated again, retrying", candidateNumber);
+            return null;
+        }
+        return candidateNumber;
+    }
+
+    /**
+     * Candidates for attempts {@code attempt} onwards, without the archived ones; may be empty.
+     */
+    public List<TrackingNumber> drawCandidates(TrackingNumberRequest request, int attempt, int candidates) {
+        List<TrackingNumber> batch = new ArrayList<>(candidates);
+        try {
+            for (int i = 0; i < candidates; i++) {
+                TrackingNumber candidateNumber = TrackingNumber.ofPacked(generator.generatePacked(request, attempt + i));
+                if (archive.contains(candidateNumber.packed())) {
+                    occupancyTracker.recordDuplicate();
+                } else {
+                    batch.add(candidateNumber);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error generating tracking number candidates on attempt {}: {}", attempt + 1, e.getMessage());
+            throw new TrackingNumberException("Failed to generate tracking number", e);
+        }
+        return batch;
+    }
+
+    public Mono<TrackingNumber> nextSequenceNumber(TrackingNumberRequest request) {
+        return routeSequenceGenerator.generate(request);
+    }
+
+    /**
+     * Whether a sequence value is archived; sequence values skip to the next one instead of retrying.
+     */
+    public boolean isArchivedSequenceNumber(TrackingNumber trackingNumber) {
+        if (archive.contains(trackingNumber.packed())) {
+            occupancyTracker.recordDuplicate();
+            logger.warn("Sequence number {} is archived, skipping to the next value", trackingNumber);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reserves one number, recorded as a {@link RedisReservationEvent}. Emits whether it was free; store failures
+     * surface as {@link TrackingNumberException}.
+     */
+    public Mono<Boolean> reserve(TrackingNumber trackingNumber) {
+        logger.debug("Atomically checking and storing tracking number: {}", trackingNumber);
+
+        return Mono.defer(() -> {
+                    RedisReservationEvent event = new RedisReservationEvent();
+                    event.begin();
+                    return store.reserve(trackingNumber, Instant.now())
+                            .doOnNext(reserved -> {
+                                event.end();
+                                if (event.shouldCommit()) {
+                                    event.trackingNumber = trackingNumber.toString();
+                                    event.reserved = reserved;
+                                    event.commit();
+                                }
+                            });
+                })
+                .doOnNext(reserved -> {
+                    if (!reserved) {
+                        logger.debug("Tracking number already exists: {}", trackingNumber);
+                    }
+                })
+                .onErrorMap(throwable -> {
+                    logger.error("Error in atomic check-and-store for tracking number: {}", trackingNumber, throwable);
+                    return new TrackingNumberException("Failed to store tracking number: " + trackingNumber, throwable);
+                });
+    }
+
+    /**
+     * Index of the first free candidate in {@code batch}, which is reserved, or -1 when all of them collided.
+     */
+    public Mono<Integer> reserveFirst(List<TrackingNumber> batch) {
+        return store.reserveFirst(batch, Instant.now());
+    }
+
+    public void recordIssued(TrackingNumber trackingNumber, int attempt) {
+        occupancyTracker.recordIssued(trackingNumber);
+        speculativeCandidates.record(1, 0);
+        shadowTraffic.recordPrimaryAttempts(attempt + 1);
+    }
+
+    public void recordCollision(TrackingNumber trackingNumber, int attempt, int maxRetries) {
+        occupancyTracker.recordDuplicate();
+        speculativeCandidates.record(1, 1);
+        logger.warn("Duplicate tracking number detected: {}, retrying (attempt {}/{})",
+                trackingNumber, attempt + 1, maxRetries);
+    }
+
+    public void recordSequenceCollision(TrackingNumber trackingNumber) {
+        occupancyTracker.recordDuplicate();
+        logger.warn("Sequence number {} is already taken, skipping to the next value", trackingNumber);
+    }
+
+    /**
+     * Accounts for a speculative exchange that reserved {@code batch[reserved]} (drawn from attempt {@code attempt}
+     * onwards), or nothing when {@code reserved} is negative. Returns the issued number, or {@code null}.
+     */
+    public TrackingNumber recordSpeculative(List<TrackingNumber> batch, int reserved, int attempt, int candidates,
+                                            int maxRetries) {
+        int collided = reserved < 0 ? batch.size() : reserved;
+        for (int i = 0; i < collided; i++) {
+            occupancyTracker.recordDuplicate();
+        }
+        speculativeCandidates.record(reserved < 0 ? batch.size() : reserved + 1, collided);
+        if (reserved < 0) {
+            logger.warn("All {} speculative tracking numbers collided, retrying (attempt {}/{})",
+                    batch.size(), attempt + candidates, maxRetries);
+            return null;
+        }
+        TrackingNumber trackingNumber = batch.get(reserved);
+        occupancyTracker.recordIssued(trackingNumber);
+        shadowTraffic.recordPrimaryAttempts(attempt + reserved + 1);
+        return trackingNumber;
+    }
+
+    /**
+     * Side effects of an issued number. Completes once the feed has it (on a lossless feed, once it is written).
+     */
+    public Mono<Void> completeIssue(TrackingNumber trackingNumber, TrackingNumberRequest request, long startNanos) {
+        return feedPublisher.publish(trackingNumber, request)
+                .then(Mono.fromRunnable(() -> {
+                    issuedCache.record(trackingNumber);
+                    usageCounters.record(request);
+                    shadowTraffic.mirror(request, System.nanoTime() - startNanos);
+                }));
+    }
+}
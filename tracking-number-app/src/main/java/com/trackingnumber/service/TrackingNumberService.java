@@ -1,8 +1,9 @@
 package com.trackingnumber.service;
 
+import com.trackingnumber.domain.TrackingNumber;
 import com.trackingnumber.domain.TrackingNumberRequest;
 import reactor.core.publisher.Mono;
 
 public interface TrackingNumberService {
-    Mono<String> generateUniqueTrackingNumber(TrackingNumberRequest request);
+    Mono<TrackingNumber> generateUniqueTrackingNumber(TrackingNumberRequest request);
 }
@@ -0,0 +1,184 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import io.micrometer.tracing.annotation.NewSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reactive retry shell around {@link TrackingNumberIssuance}: a collision draws the next candidate, and a
+ * transient store error is retried with backoff.
+ */
+@Service
+public class TrackingNumberServiceImpl implements TrackingNumberService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberServiceImpl.class);
+
+    private final TrackingNumberIssuance issuance;
+    private final int maxRetries;
+    private final boolean routeSequenceFormat;
+
+    public TrackingNumberServiceImpl(
+            TrackingNumberIssuance issuance,
+            @Value("${tracking-number.max-retries:10}") int maxRetries,
+            @Value("${tracking-number.format:random}") String format) {
+        this.issuance = issuance;
+        this.maxRetries = maxRetries;
+        this.routeSequenceFormat = "route-sequence".equalsIgnoreCase(format);
+    }
+
+    @Override
+    @NewSpan("generate-unique-tracking-number")
+    public Mono<TrackingNumber> generateUniqueTrackingNumber(TrackingNumberRequest request) {
+        if (request == null) {
+            return Mono.error(new TrackingNumberException("TrackingNumberRequest cannot be null"));
+        }
+
+        logger.info("Starting tracking number generation for customer: {}", request.customerId());
+
+        long startTime = System.nanoTime();
+        Mono<TrackingNumber> generation = routeSequenceFormat
+                ? generateFromSequence(request, 0)
+                : generateWithRetry(request, 0);
+
+        // A lossless feed refuses before anything is reserved, and the number is returned once its entry is written
+        return Mono.fromRunnable(issuance::checkCapacity)
+                .then(generation)
+                .flatMap(trackingNumber -> issuance.completeIssue(trackingNumber, request, startTime)
+                        .thenReturn(trackingNumber))
+                .doOnSuccess(trackingNumber ->
+                        logger.info("Successfully generated tracking number: {} for customer: {}",
+                                trackingNumber, request.customerId()))
+                .doOnError(error ->
+                        logger.error("Failed to generate tracking number for customer: {}",
+                                request.customerId(), error));
+    }
+
+    /**
+     * Sequence values are unique among themselves, but an imported block or an archived number may already hold
+     * one, so each value is still reserved with SETNX and a taken value skips to the next one.
+     */
+    private Mono<TrackingNumber> generateFromSequence(TrackingNumberRequest request, int attempt) {
+        if (attempt >= maxRetries) {
+            logger.error("Max retries exceeded for sequence allocation. Customer: {}", request.customerId());
+            return Mono.error(new TrackingNumberException(
+                    "Failed to allocate a free sequence number after " + maxRetries + " attempts"));
+        }
+
+        return issuance.nextSequenceNumber(request)
+                .flatMap(trackingNumber -> {
+                    if (issuance.isArchivedSequenceNumber(trackingNumber)) {
+                        return generateFromSequence(request, attempt + 1);
+                    }
+                    return issuance.reserve(trackingNumber).flatMap(reserved -> {
+                        if (reserved) {
+                            return Mono.just(trackingNumber);
+                        }
+                        issuance.recordSequenceCollision(trackingNumber);
+                        return generateFromSequence(request, attempt + 1);
+                    });
+                })
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
+                        .filter(throwable -> !(throwable instanceof TrackingNumberException))
+                        .doBeforeRetry(retrySignal ->
+                                logger.debug("Retrying due to transient error: {}", retrySignal.failure().getMessage())));
+    }
+
+    private Mono<TrackingNumber> generateWithRetry(TrackingNumberRequest request, int attempt) {
+        if (attempt >= maxRetries) {
+            logger.error("Max retries exceeded for tracking number generation. Customer: {}",
+                    request.customerId());
+            return Mono.error(new TrackingNumberException(
+                    "Failed to generate unique tracking number after " + maxRetries + " attempts"));
+        }
+
+        int candidates = Math.min(issuance.candidateCount(), maxRetries - attempt);
+        if (candidates > 1) {
+            return generateSpeculatively(request, attempt, candidates);
+        }
+
+        logger.debug("Tracking number generation attempt {} for customer: {}",
+                attempt + 1, request.customerId());
+
+        TrackingNumber candidateNumber;
+        try {
+            candidateNumber = issuance.drawCandidate(request, attempt);
+        } catch (TrackingNumberException e) {
+            return Mono.error(e);
+        }
+        if (candidateNumber == null) {
+            return generateWithRetry(request, attempt + 1);
+        }
+
+        return issuance.reserve(candidateNumber)
+                .flatMap(reserved -> {
+                    if (reserved) {
+                        issuance.recordIssued(candidateNumber, attempt);
+                        return Mono.just(candidateNumber);
+                    }
+                    issuance.recordCollision(candidateNumber, attempt, maxRetries);
+                    return generateWithRetry(request, attempt + 1);
+                })
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
+                        .filter(throwable -> !(throwable instanceof TrackingNumberException))
+                        .doBeforeRetry(retrySignal ->
+                                logger.debug("Retrying due to transient error: {}", retrySignal.failure().getMessage())));
+    }
+
+    /**
+     * Draws {@code candidates} numbers at once (attempts {@code attempt} onwards) and reserves the first free one
+     * in a single exchange, so a collision no longer costs a round trip of its own.
+     */
+    private Mono<TrackingNumber> generateSpeculatively(TrackingNumberRequest request, int attempt, int candidates) {
+        logger.debug("Tracking number generation attempts {}-{} for customer: {}",
+                attempt + 1, attempt + candidates, request.customerId());
+
+        return Mono.defer(() -> reserveCandidates(request, attempt, candidates))
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
+                        .filter(throwable -> !(throwable instanceof TrackingNumberException))
+                        .doBeforeRetry(retrySignal ->
+                                logger.debug("Retrying due to transient error: {}", retrySignal.failure().getMessage())))
+                .onErrorMap(throwable -> !(throwable instanceof TrackingNumberException), throwable -> {
+                    logger.error("Error in atomic check-and-store for speculative tracking numbers", throwable);
+                    return new TrackingNumberException("Failed to store tracking numbers", throwable);
+                })
+                .flatMap(reservation -> {
+                    List<TrackingNumber> batch = reservation.batch();
+                    TrackingNumber trackingNumber = batch.isEmpty() ? null
+                            : issuance.recordSpeculative(batch, reservation.reserved(), attempt, candidates, maxRetries);
+                    return trackingNumber == null
+                            ? generateWithRetry(request, attempt + candidates)
+                            : Mono.just(trackingNumber);
+                });
+    }
+
+    /**
+     * Draws a fresh batch on every subscription: after a transient error the exchange may already have reserved
+     * one of the previous batch, and sending it again would count the service's own claim as a collision.
+     */
+    private Mono<SpeculativeReservation> reserveCandidates(TrackingNumberRequest request, int attempt, int candidates) {
+        List<TrackingNumber> batch;
+        try {
+            batch = issuance.drawCandidates(request, attempt, candidates);
+        } catch (TrackingNumberException e) {
+            return Mono.error(e);
+        }
+        if (batch.isEmpty()) {
+            return Mono.just(new SpeculativeReservation(batch, -1));
+        }
+        return issuance.reserveFirst(batch)
+                .map(reserved -> new SpeculativeReservation(batch, reserved));
+    }
+
+    private record SpeculativeReservation(List<TrackingNumber> batch, int reserved) {
+    }
+}
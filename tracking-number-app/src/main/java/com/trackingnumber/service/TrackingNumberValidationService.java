@@ -0,0 +1,10 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumberValidationResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface TrackingNumberValidationService {
+    Mono<List<TrackingNumberValidationResult>> validate(List<String> trackingNumbers);
+}
@@ -0,0 +1,112 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberValidationResult;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.repository.TrackingNumberStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TrackingNumberValidationServiceImpl implements TrackingNumberValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberValidationServiceImpl.class);
+
+    private final TrackingNumberStore store;
+    private final IssuedTrackingNumberCache issuedCache;
+    private final Counter cacheHits;
+    private final Counter redisLookups;
+
+    public TrackingNumberValidationServiceImpl(
+            TrackingNumberStore store,
+            IssuedTrackingNumberCache issuedCache,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.issuedCache = issuedCache;
+        this.cacheHits = Counter.builder("tracking.number.validation.lookups")
+                .tag("source", "cache")
+                .register(meterRegistry);
+        this.redisLookups = Counter.builder("tracking.number.validation.lookups")
+                .tag("source", "redis")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<List<TrackingNumberValidationResult>> validate(List<String> trackingNumbers) {
+        int size = trackingNumbers.size();
+        boolean[] validFormat = new boolean[size];
+        boolean[] issued = new boolean[size];
+        int[] pending = new int[size];
+        int pendingCount = 0;
+        List<TrackingNumber> lookups = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            String text = trackingNumbers.get(i);
+            if (!TrackingNumberFormat.isValid(text)) {
+                continue;
+            }
+            validFormat[i] = true;
+            // Only numbers that fit the packed form can ever have been issued
+            if (!TrackingNumberCodec.isPackable(text)) {
+                continue;
+            }
+            TrackingNumber trackingNumber = TrackingNumber.of(text);
+            if (issuedCache.isKnownIssued(trackingNumber)) {
+                issued[i] = true;
+            } else {
+                pending[pendingCount++] = i;
+                lookups.add(trackingNumber);
+            }
+        }
+
+        cacheHits.increment(countTrue(issued));
+        redisLookups.increment(pendingCount);
+        logger.debug("Validating {} tracking numbers, {} need a Redis lookup", size, pendingCount);
+
+        if (pendingCount == 0) {
+            return Mono.just(toResults(trackingNumbers, validFormat, issued));
+        }
+
+        return store.exists(lookups)
+                .map(found -> {
+                    for (int p = 0; p < found.size(); p++) {
+                        if (found.get(p)) {
+                            issued[pending[p]] = true;
+                            issuedCache.record(lookups.get(p));
+                        }
+                    }
+                    return toResults(trackingNumbers, validFormat, issued);
+                })
+                .onErrorMap(throwable -> {
+                    logger.error("Error looking up tracking numbers in Redis", throwable);
+                    return new TrackingNumberException("Failed to validate tracking numbers", throwable);
+                });
+    }
+
+    private static List<TrackingNumberValidationResult> toResults(
+            List<String> trackingNumbers, boolean[] validFormat, boolean[] issued) {
+        List<TrackingNumberValidationResult> results = new ArrayList<>(trackingNumbers.size());
+        for (int i = 0; i < trackingNumbers.size(); i++) {
+            results.add(new TrackingNumberValidationResult(trackingNumbers.get(i), validFormat[i], issued[i]));
+        }
+        return results;
+    }
+
+    private static int countTrue(boolean[] values) {
+        int count = 0;
+        for (boolean value : values) {
+            if (value) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
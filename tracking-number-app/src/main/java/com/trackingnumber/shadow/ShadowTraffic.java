@@ -0,0 +1,300 @@
+package com.trackingnumber.shadow;
+
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.reservation.TrackingNumberIssuer;
+import com.trackingnumber.reservation.TrackingNumberReservations;
+import com.trackingnumber.reservation.redis.BucketedLayout;
+import com.trackingnumber.reservation.redis.BucketedRedisReservations;
+import com.trackingnumber.reservation.redis.KeyPerNumberRedisReservations;
+import com.trackingnumber.service.TrackingNumberGenerator;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirrors a fraction of issued requests to a candidate {@link TrackingNumberGenerator} that reserves in a separate
+ * Redis database, to compare it with the primary path under live load. {@link #mirror} only enqueues; a
+ * background loop on its own thread drains the queue, and requests are dropped (and counted) when it is full.
+ * Both paths are recorded under {@code tracking.number.shadow.*} with a {@code path} tag:
+ * <ul>
+ *   <li>{@code issuance} and {@code attempts}: end-to-end latency and candidates tried per issued number; the
+ *       primary side is reported by the service, the candidate side by the shadow issuer</li>
+ *   <li>{@code generation} and {@code generation.allocation}: one candidate from each generator, produced back to
+ *       back on the shadow thread so time and allocated bytes are comparable</li>
+ * </ul>
+ */
+@Component
+public class ShadowTraffic {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowTraffic.class);
+    private static final String PRIMARY = "primary";
+    private static final String CANDIDATE = "candidate";
+
+    private final boolean enabled;
+    private final double fraction;
+    private final int maxPending;
+    private final int concurrency;
+    private final int maxRetries;
+    private final Duration drainInterval;
+    private final Queue<TrackingNumberRequest> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private TrackingNumberGenerator primaryGenerator;
+    private TrackingNumberGenerator candidateGenerator;
+    private TrackingNumberReservations candidateReservations;
+    private RedisClient redisClient;
+    private Scheduler scheduler;
+    private Disposable drains;
+
+    private Timer primaryIssuance;
+    private Timer candidateIssuance;
+    private DistributionSummary primaryAttempts;
+    private DistributionSummary candidateAttempts;
+    private Timer primaryGeneration;
+    private Timer candidateGeneration;
+    private DistributionSummary primaryAllocation;
+    private DistributionSummary candidateAllocation;
+    private Counter failures;
+    private Counter dropped;
+
+    public ShadowTraffic(
+            ListableBeanFactory beanFactory,
+            TrackingNumberGenerator primaryGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.shadow.enabled:false}") boolean enabled,
+            @Value("${tracking-number.shadow.fraction:0.01}") double fraction,
+            @Value("${tracking-number.shadow.generator:com.trackingnumber.service.DefaultTrackingNumberGenerator}") String generator,
+            @Value("${tracking-number.shadow.layout:${tracking-number.storage.layout:key-per-number}}") String layout,
+            @Value("${tracking-number.shadow.redis.database:1}") int database,
+            @Value("${spring.data.redis.database:0}") int primaryDatabase,
+            @Value("${spring.data.redis.host:localhost}") String host,
+            @Value("${spring.data.redis.port:6379}") int port,
+            @Value("${spring.data.redis.password:}") String password,
+            @Value("${tracking-number.shadow.max-pending:10000}") int maxPending,
+            @Value("${tracking-number.shadow.concurrency:16}") int concurrency,
+            @Value("${tracking-number.shadow.drain-interval:10ms}") Duration drainInterval,
+            @Value("${tracking-number.max-retries:10}") int maxRetries,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.storage.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${tracking-number.storage.shards:1024}") int shards) {
+        this.enabled = enabled;
+        this.fraction = fraction;
+        this.maxPending = maxPending;
+        this.concurrency = concurrency;
+        this.maxRetries = maxRetries;
+        this.drainInterval = drainInterval;
+        if (!enabled) {
+            return;
+        }
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Shadow fraction must be in (0, 1]");
+        }
+        if (database == primaryDatabase) {
+            throw new IllegalArgumentException(
+                    "Shadow traffic must reserve in a different Redis database than the service (" + database + ")");
+        }
+
+        this.primaryGenerator = primaryGenerator;
+        this.candidateGenerator = resolveGenerator(beanFactory, generator);
+
+        RedisURI.Builder uri = RedisURI.builder().withHost(host).withPort(port).withDatabase(database);
+        if (!password.isEmpty()) {
+            uri.withPassword(password.toCharArray());
+        }
+        this.redisClient = RedisClient.create(uri.build());
+        this.candidateReservations = "bucketed".equalsIgnoreCase(layout)
+                ? new BucketedRedisReservations(
+                        redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE)),
+                        new BucketedLayout(ttlSeconds, bucketSeconds, shards))
+                : new KeyPerNumberRedisReservations(redisClient.connect(), ttlSeconds);
+
+        this.primaryIssuance = issuanceTimer(meterRegistry, PRIMARY);
+        this.candidateIssuance = issuanceTimer(meterRegistry, CANDIDATE);
+        this.primaryAttempts = attemptsSummary(meterRegistry, PRIMARY);
+        this.candidateAttempts = attemptsSummary(meterRegistry, CANDIDATE);
+        this.primaryGeneration = generationTimer(meterRegistry, PRIMARY);
+        this.candidateGeneration = generationTimer(meterRegistry, CANDIDATE);
+        this.primaryAllocation = allocationSummary(meterRegistry, PRIMARY);
+        this.candidateAllocation = allocationSummary(meterRegistry, CANDIDATE);
+        this.failures = Counter.builder("tracking.number.shadow.failures")
+                .description("Shadow issuances that exhausted their retries or failed in Redis")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tracking.number.shadow.dropped")
+                .description("Mirrored requests dropped because the shadow queue was full")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.shadow.pending", pendingSize, AtomicInteger::get)
+                .description("Mirrored requests waiting for the shadow issuer")
+                .register(meterRegistry);
+        logger.info("Shadow traffic enabled: {} of requests to {} in Redis database {} ({} layout)",
+                fraction, candidateGenerator.getClass().getName(), database, layout);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Schedulers.newSingle("tracking-number-shadow", true);
+        drains = Flux.interval(drainInterval, drainInterval, scheduler)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        drains.dispose();
+        scheduler.dispose();
+        redisClient.shutdown();
+    }
+
+    /**
+     * Called by the service once the primary path has issued a number for {@code request}.
+     */
+    public void mirror(TrackingNumberRequest request, long primaryNanos) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= fraction) {
+            return;
+        }
+        primaryIssuance.record(primaryNanos, TimeUnit.NANOSECONDS);
+        if (pendingSize.incrementAndGet() > maxPending) {
+            pendingSize.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.add(request);
+    }
+
+    /**
+     * Candidates the primary path tried before one was reserved.
+     */
+    public void recordPrimaryAttempts(int attempts) {
+        if (enabled) {
+            primaryAttempts.record(attempts);
+        }
+    }
+
+    private Mono<Void> drain() {
+        return Flux.<TrackingNumberRequest>generate(sink -> {
+                    TrackingNumberRequest request = pending.poll();
+                    if (request == null) {
+                        sink.complete();
+                    } else {
+                        pendingSize.decrementAndGet();
+                        sink.next(request);
+                    }
+                })
+                .flatMap(this::issue, concurrency)
+                .then();
+    }
+
+    private Mono<Void> issue(TrackingNumberRequest request) {
+        measureGeneration(primaryGenerator, request, primaryGeneration, primaryAllocation);
+        measureGeneration(candidateGenerator, request, candidateGeneration, candidateAllocation);
+
+        AtomicInteger attempts = new AtomicInteger();
+        TrackingNumberIssuer issuer = new TrackingNumberIssuer(candidateGenerator, (trackingNumber, issuedAt) -> {
+            attempts.incrementAndGet();
+            return candidateReservations.reserve(trackingNumber, issuedAt);
+        }, maxRetries);
+        long startTime = System.nanoTime();
+        return Mono.fromFuture(() -> issuer.issue(request))
+                .doOnNext(trackingNumber -> {
+                    candidateIssuance.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                    candidateAttempts.record(attempts.get());
+                })
+                .then()
+                .onErrorResume(error -> {
+                    failures.increment();
+                    logger.debug("Shadow issuance failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void measureGeneration(TrackingNumberGenerator generator, TrackingNumberRequest request,
+                                   Timer timer, DistributionSummary allocation) {
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        try {
+            generator.generatePacked(request, 0);
+        } catch (RuntimeException e) {
+            return;
+        }
+        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        allocation.record(threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    private static TrackingNumberGenerator resolveGenerator(ListableBeanFactory beanFactory, String generator) {
+        if (beanFactory.containsBean(generator)) {
+            return beanFactory.getBean(generator, TrackingNumberGenerator.class);
+        }
+        Class<?> type = ClassUtils.resolveClassName(generator, ShadowTraffic.class.getClassLoader());
+        if (!TrackingNumberGenerator.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(generator + " is not a TrackingNumberGenerator");
+        }
+        // A fresh instance, so the candidate never shares state with the primary generator
+        return (TrackingNumberGenerator) ((AutowireCapableBeanFactory) beanFactory).createBean(type);
+    }
+
+    private static Timer issuanceTimer(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("tracking.number.shadow.issuance")
+                .description("Time to issue a mirrored request's number, per path")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary attemptsSummary(MeterRegistry meterRegistry, String path) {
+        return DistributionSummary.builder("tracking.number.shadow.attempts")
+                .description("Candidates tried per issued number, per path")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private static Timer generationTimer(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("tracking.number.shadow.generation")
+                .description("Time to generate one candidate on the shadow thread, per generator")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary allocationSummary(MeterRegistry meterRegistry, String path) {
+        return DistributionSummary.builder("tracking.number.shadow.generation.allocation")
+                .description("Bytes allocated generating one candidate, per generator")
+                .baseUnit("bytes")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+}
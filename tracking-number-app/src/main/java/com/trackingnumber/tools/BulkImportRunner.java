@@ -0,0 +1,173 @@
+package com.trackingnumber.tools;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.repository.TrackingNumberStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-shot import of externally issued numbers (one per line) into the uniqueness store, so they are
+ * never generated. Run with
+ * {@code --tracking-number.import.enabled=true --tracking-number.import.file=<path> --spring.main.web-application-type=none};
+ * the process exits when the file is done. Batches are written in parallel, at most
+ * {@code rate} numbers per second. After every {@code checkpoint-interval} the byte offset up to which
+ * all batches are stored goes to {@code <file>.checkpoint}. A rerun resumes from there, and
+ * re-importing a few batches is harmless because blocking is idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "tracking-number.import.enabled", havingValue = "true")
+public class BulkImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    private final TrackingNumberStore store;
+    private final ConfigurableApplicationContext applicationContext;
+    private final Path file;
+    private final Path checkpointFile;
+    private final int batchSize;
+    private final int parallelism;
+    private final long rate;
+    private final Duration checkpointInterval;
+    private final Duration progressInterval;
+
+    public BulkImportRunner(
+            TrackingNumberStore store,
+            ConfigurableApplicationContext applicationContext,
+            @Value("${tracking-number.import.file}") Path file,
+            @Value("${tracking-number.import.checkpoint-file:}") String checkpointFile,
+            @Value("${tracking-number.import.batch-size:1000}") int batchSize,
+            @Value("${tracking-number.import.parallelism:8}") int parallelism,
+            @Value("${tracking-number.import.rate:0}") long rate,
+            @Value("${tracking-number.import.checkpoint-interval:1s}") Duration checkpointInterval,
+            @Value("${tracking-number.import.progress-interval:5s}") Duration progressInterval) {
+        if (batchSize < 1 || parallelism < 1 || rate < 0) {
+            throw new IllegalArgumentException("Import batch size and parallelism must be positive, rate not negative");
+        }
+        this.store = store;
+        this.applicationContext = applicationContext;
+        this.file = file;
+        this.checkpointFile = checkpointFile.isBlank()
+                ? file.resolveSibling(file.getFileName() + ".checkpoint")
+                : Path.of(checkpointFile);
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.rate = rate;
+        this.checkpointInterval = checkpointInterval;
+        this.progressInterval = progressInterval;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long startPosition = readCheckpoint();
+        AtomicLong imported = new AtomicLong();
+        long startTime = System.nanoTime();
+
+        try (TrackingNumberFileScanner scanner = new TrackingNumberFileScanner(file, startPosition)) {
+            logger.info("Importing {} ({} bytes) from offset {} in batches of {}, {} in flight, rate {}",
+                    file, scanner.size(), startPosition, batchSize, parallelism, rate > 0 ? rate + "/s" : "unlimited");
+
+            Flux<Batch> batches = Flux.generate(sink -> {
+                try {
+                    long[] packed = new long[batchSize];
+                    int count = scanner.next(packed);
+                    if (count == 0) {
+                        sink.complete();
+                    } else {
+                        sink.next(new Batch(packed, count, scanner.position()));
+                    }
+                } catch (IOException e) {
+                    sink.error(new UncheckedIOException(e));
+                }
+            });
+            if (rate > 0) {
+                batches = batches.delayElements(Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) * batchSize / rate));
+            }
+
+            long[] lastCheckpoint = {System.nanoTime()};
+            long[] lastProgress = {System.nanoTime()};
+            Batch last = batches
+                    // Completes in file order, so every emitted offset has all earlier batches stored
+                    .flatMapSequential(batch -> store.block(batch.trackingNumbers()).thenReturn(batch), parallelism)
+                    .doOnNext(batch -> {
+                        imported.addAndGet(batch.count());
+                        long now = System.nanoTime();
+                        if (now - lastCheckpoint[0] >= checkpointInterval.toNanos()) {
+                            writeCheckpoint(batch.endPosition());
+                            lastCheckpoint[0] = now;
+                        }
+                        if (now - lastProgress[0] >= progressInterval.toNanos()) {
+                            logProgress(scanner, batch.endPosition(), imported.get(), startTime);
+                            lastProgress[0] = now;
+                        }
+                    })
+                    .last(new Batch(new long[0], 0, startPosition))
+                    .block();
+
+            if (last != null) {
+                writeCheckpoint(last.endPosition());
+            }
+            logProgress(scanner, scanner.position(), imported.get(), startTime);
+            logger.info("Import complete: {} numbers blocked, {} invalid lines, {} longer than generated numbers",
+                    imported.get(), scanner.invalid(), scanner.unreachable());
+        }
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private void logProgress(TrackingNumberFileScanner scanner, long position, long imported, long startTime) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - startTime) / 1e9);
+        logger.info("Import progress: {}% of file, {} numbers blocked ({} per second), {} invalid, {} unreachable",
+                scanner.size() == 0 ? 100 : position * 100 / scanner.size(),
+                imported, Math.round(imported / seconds), scanner.invalid(), scanner.unreachable());
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        long position = Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim());
+        logger.info("Resuming import from checkpoint {} at offset {}", checkpointFile, position);
+        return position;
+    }
+
+    private void writeCheckpoint(long position) {
+        try {
+            Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(temporary, Long.toString(position), StandardCharsets.US_ASCII);
+            Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write import checkpoint at offset {}: {}", position, e.getMessage());
+        }
+    }
+
+    private record Batch(long[] packed, int count, long endPosition) {
+
+        List<TrackingNumber> trackingNumbers() {
+            List<TrackingNumber> trackingNumbers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                trackingNumbers.add(TrackingNumber.ofPacked(packed[i]));
+            }
+            return trackingNumbers;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.trackingnumber.tools;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.repository.BucketedTrackingNumberStore;
+import com.trackingnumber.repository.KeyPerNumberTrackingNumberStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-shot copy of the key-per-number layout into the bucketed layout. Run with
+ * {@code --tracking-number.storage.migration.enabled=true --spring.main.web-application-type=none};
+ * the process exits when the scan completes. Source keys are left in place unless
+ * {@code tracking-number.storage.migration.delete-source=true}, so traffic can keep flowing on the old
+ * layout until the switch.
+ */
+@Component
+@ConditionalOnProperty(name = "tracking-number.storage.migration.enabled", havingValue = "true")
+public class StorageMigrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageMigrationRunner.class);
+    private static final String SOURCE_PREFIX = "tracking_number:";
+    private static final String ENTITY_PREFIX = "tracking_numbers:";
+    private static final String ENTITY_INDEX = "tracking_numbers";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final BucketedTrackingNumberStore target;
+    private final ConfigurableApplicationContext applicationContext;
+    private final int batchSize;
+    private final boolean deleteSource;
+
+    public StorageMigrationRunner(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate,
+            ConfigurableApplicationContext applicationContext,
+            @Value("${tracking-number.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${tracking-number.storage.bucket-seconds:3600}") long bucketSeconds,
+            @Value("${tracking-number.storage.shards:1024}") int shards,
+            @Value("${tracking-number.storage.migration.batch-size:1000}") int batchSize,
+            @Value("${tracking-number.storage.migration.delete-source:false}") boolean deleteSource) {
+        this.redisTemplate = redisTemplate;
+        this.target = new BucketedTrackingNumberStore(trackingNumberRedisTemplate, ttlSeconds, bucketSeconds, shards);
+        this.applicationContext = applicationContext;
+        this.batchSize = batchSize;
+        this.deleteSource = deleteSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AtomicLong migrated = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        long startTime = System.nanoTime();
+
+        logger.info("Migrating tracking numbers to bucketed layout (batch size {}, delete source {})",
+                batchSize, deleteSource);
+
+        redisTemplate.scan(ScanOptions.scanOptions().match(SOURCE_PREFIX + "*").count(batchSize).build())
+                .buffer(batchSize)
+                .concatMap(keys -> migrateBatch(keys, migrated, skipped))
+                .then(deleteSource ? redisTemplate.delete(ENTITY_INDEX).then() : Mono.empty())
+                .block();
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        logger.info("Migrated {} tracking numbers ({} expired during the scan or not packable) in {}ms",
+                migrated.get(), skipped.get(), elapsedMillis);
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private Mono<Void> migrateBatch(List<String> keys, AtomicLong migrated, AtomicLong skipped) {
+        return redisTemplate.opsForValue()
+                .multiGet(keys)
+                .flatMapMany(timestamps -> Flux.range(0, keys.size())
+                        .flatMap(i -> {
+                            String timestamp = timestamps.get(i);
+                            String trackingNumber = keys.get(i).substring(SOURCE_PREFIX.length());
+                            if (timestamp == null || !TrackingNumberCodec.isPackable(trackingNumber)) {
+                                skipped.incrementAndGet();
+                                return Mono.empty();
+                            }
+                            Mono<Void> copy = KeyPerNumberTrackingNumberStore.BLOCKED_VALUE.equals(timestamp)
+                                    ? target.block(List.of(TrackingNumber.of(trackingNumber)))
+                                    : target.save(TrackingNumber.of(trackingNumber), issuedAt(timestamp));
+                            if (deleteSource) {
+                                copy = copy.then(redisTemplate.delete(keys.get(i), ENTITY_PREFIX + trackingNumber).then());
+                            }
+                            return copy.doOnSuccess(ignored -> migrated.incrementAndGet());
+                        }))
+                .then()
+                .doOnSuccess(ignored -> logger.info("Migration progress: {} tracking numbers", migrated.get()));
+    }
+
+    private static Instant issuedAt(String timestamp) {
+        try {
+            return Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return Instant.now();
+        }
+    }
+}
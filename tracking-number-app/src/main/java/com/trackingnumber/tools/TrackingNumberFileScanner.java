@@ -0,0 +1,164 @@
+package com.trackingnumber.tools;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.service.TrackingNumberFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads one tracking number per line from a memory-mapped file and packs valid ones straight from the
+ * mapped bytes, with no per-line allocation. The file is mapped in windows that always start at a line
+ * boundary. {@link #position()} is the byte offset after the last consumed line, which makes it a
+ * safe resume point. Lines may end in {@code \n} or {@code \r\n}; blank lines are ignored.
+ */
+public class TrackingNumberFileScanner implements Closeable {
+
+    static final long DEFAULT_WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (char c = '0'; c <= '9'; c++) {
+            DIGITS[c] = c - '0';
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            DIGITS[c] = c - 'A' + 10;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long invalid;
+    private long unreachable;
+
+    public TrackingNumberFileScanner(Path file, long startPosition) throws IOException {
+        this(file, startPosition, DEFAULT_WINDOW_BYTES);
+    }
+
+    TrackingNumberFileScanner(Path file, long startPosition, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        if (startPosition < 0 || startPosition > size) {
+            channel.close();
+            throw new IllegalArgumentException("Start position " + startPosition + " is outside the file (" + size + " bytes)");
+        }
+        this.windowBytes = windowBytes;
+        this.position = startPosition;
+    }
+
+    /**
+     * Fills {@code packed} with up to {@code packed.length} numbers and returns how many were read;
+     * zero means the end of the file. Invalid lines are skipped and counted. So are lines longer than
+     * 12 characters: they are valid, but the generator can never produce them.
+     */
+    public int next(long[] packed) throws IOException {
+        int count = 0;
+        while (count < packed.length && position < size) {
+            long value = readLine();
+            if (value > 0) {
+                packed[count++] = value;
+            }
+        }
+        return count;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long invalid() {
+        return invalid;
+    }
+
+    public long unreachable() {
+        return unreachable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Consumes one line; returns the packed number, 0 for a blank line or -1 for a skipped one
+    private long readLine() throws IOException {
+        long lineStart = position;
+        ensureMapped(lineStart);
+        int index = (int) (lineStart - windowStart);
+        int limit = window.limit();
+
+        long packed = 0;
+        int length = 0;
+        boolean valid = true;
+        while (true) {
+            if (index == limit) {
+                if (windowStart + limit >= size) {
+                    break;
+                }
+                // The line straddles the window; remap from its start and parse it again
+                remap(lineStart);
+                return readLine();
+            }
+            byte b = window.get(index++);
+            if (b == '\n') {
+                break;
+            }
+            if (b == '\r') {
+                continue;
+            }
+            int digit = b >= 0 ? DIGITS[b] : -1;
+            if (digit < 0) {
+                valid = false;
+            } else if (++length <= TrackingNumberCodec.MAX_PACKED_LENGTH) {
+                packed = packed * 36 + digit + 1;
+            }
+        }
+        position = windowStart + index;
+
+        if (length == 0) {
+            if (!valid) {
+                invalid++;
+                return -1;
+            }
+            return 0;
+        }
+        if (!valid || length > TrackingNumberFormat.MAX_LENGTH) {
+            invalid++;
+            return -1;
+        }
+        if (length > TrackingNumberCodec.MAX_PACKED_LENGTH) {
+            unreachable++;
+            return -1;
+        }
+        return packed;
+    }
+
+    private void ensureMapped(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+            remap(offset);
+        }
+    }
+
+    private void remap(long offset) throws IOException {
+        long length = Math.min(windowBytes, size - offset);
+        if (window != null && offset == windowStart && length <= window.limit()) {
+            throw new IOException("Line at offset " + offset + " is longer than the mapping window");
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        windowStart = offset;
+    }
+}
@@ -0,0 +1,245 @@
+package com.trackingnumber.usage;
+
+import com.trackingnumber.domain.CustomerUsage;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-customer, per-route issuance counts. Each issued number bumps a {@link LongAdder} keyed by UTC day,
+ * customer and route, so the request path never touches Redis and concurrent requests for the same
+ * customer don't contend on one cache line. Every {@code flush-interval} the accumulated deltas are sent
+ * as HINCRBY commands, all in flight at once on the shared connection, into one hash per day
+ * ({@code tracking_number_usage:<date>}, field {@code <customerId>:<origin><destination>}).
+ * <p>
+ * The counter map is bounded by {@code max-counters}; once full, new keys are counted under
+ * {@value #OVERFLOW_CUSTOMER_ID} so totals still add up. Counters for past days are retired once drained.
+ */
+@Component
+public class UsageCounters {
+
+    static final String KEY_PREFIX = "tracking_number_usage:";
+    static final String OVERFLOW_CUSTOMER_ID = "_overflow";
+    private static final String OVERFLOW_COUNTRY_ID = "--";
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    // Rough retained size of one entry: map node, key record, customer id string and an uncontended adder
+    private static final long ENTRY_OVERHEAD_BYTES = 176;
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageCounters.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final int maxCounters;
+    private final Duration flushInterval;
+    private final Duration retention;
+    private final Map<UsageKey, LongAdder> counters = new ConcurrentHashMap<>();
+    // Retired adders are drained once more on the next flush, catching increments that raced with removal
+    private final List<LongAdder> retired = new ArrayList<>();
+    private final List<UsageKey> retiredKeys = new ArrayList<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final Counter overflow;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
+    private Disposable flushes;
+
+    public UsageCounters(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.usage.enabled:true}") boolean enabled,
+            @Value("${tracking-number.usage.max-counters:100000}") int maxCounters,
+            @Value("${tracking-number.usage.flush-interval:5s}") Duration flushInterval,
+            @Value("${tracking-number.usage.retention:400d}") Duration retention) {
+        if (maxCounters < 1) {
+            throw new IllegalArgumentException("Usage max-counters must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.maxCounters = maxCounters;
+        this.flushInterval = flushInterval;
+        this.retention = retention;
+        this.overflow = Counter.builder("tracking.number.usage.overflow")
+                .description("Issued numbers counted under the overflow key because the counter map was full")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("tracking.number.usage.flush.failures")
+                .description("Usage deltas that failed to reach Redis and were carried over")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tracking.number.usage.flush")
+                .description("Time to write one batch of usage deltas")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.usage.counters", counters, Map::size)
+                .description("Usage counters held in memory")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.usage.counters.bytes", estimatedBytes, AtomicLong::get)
+                .description("Estimated memory retained by usage counters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flushes = Flux.interval(flushInterval, flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(error -> {
+                            logger.warn("Failed to flush usage counters: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushes != null) {
+            flushes.dispose();
+            // Best-effort final flush so a graceful shutdown does not lose the tail
+            flush().onErrorResume(error -> Mono.empty()).block(Duration.ofSeconds(5));
+        }
+    }
+
+    public void record(TrackingNumberRequest request) {
+        if (!enabled) {
+            return;
+        }
+        UsageKey key = new UsageKey(System.currentTimeMillis() / MILLIS_PER_DAY,
+                request.customerId(), request.originCountryId(), request.destinationCountryId());
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            if (counters.size() >= maxCounters) {
+                overflow.increment();
+                key = new UsageKey(key.epochDay(), OVERFLOW_CUSTOMER_ID, OVERFLOW_COUNTRY_ID, OVERFLOW_COUNTRY_ID);
+            }
+            adder = counters.computeIfAbsent(key, this::newAdder);
+        }
+        adder.increment();
+    }
+
+    /**
+     * Fleet-wide counts for the given UTC days, as last flushed by every instance; optionally one customer only.
+     */
+    public Flux<CustomerUsage> usage(LocalDate from, LocalDate to, String customerId) {
+        ScanOptions options = customerId == null
+                ? ScanOptions.scanOptions().count(1000).build()
+                : ScanOptions.scanOptions().match(escapeGlob(customerId) + ":*").count(1000).build();
+        return Flux.fromStream(from.datesUntil(to.plusDays(1)))
+                .concatMap(date -> redisTemplate.<String, String>opsForHash()
+                        .scan(redisKey(date.toEpochDay()), options)
+                        .map(entry -> toUsage(date, entry.getKey(), Long.parseLong(entry.getValue()))));
+    }
+
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+            Map<UsageKey, Long> deltas = drain();
+            if (deltas.isEmpty()) {
+                return Mono.empty();
+            }
+            long startTime = System.nanoTime();
+            Set<String> keys = new HashSet<>();
+            deltas.keySet().forEach(key -> keys.add(redisKey(key.epochDay())));
+            return Flux.fromIterable(deltas.entrySet())
+                    .flatMap(delta -> redisTemplate.<String, String>opsForHash()
+                            .increment(redisKey(delta.getKey().epochDay()), field(delta.getKey()), delta.getValue())
+                            .onErrorResume(error -> {
+                                // Put the delta back so the next flush retries it
+                                flushFailures.increment();
+                                counters.computeIfAbsent(delta.getKey(), this::newAdder).add(delta.getValue());
+                                return Mono.empty();
+                            }))
+                    .thenMany(Flux.fromIterable(keys).flatMap(key -> redisTemplate.expire(key, retention)))
+                    .then()
+                    .doOnSuccess(ignored -> flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Map<UsageKey, Long> drain() {
+        Map<UsageKey, Long> deltas = new HashMap<>();
+        for (int i = 0; i < retired.size(); i++) {
+            long delta = retired.get(i).sumThenReset();
+            if (delta > 0) {
+                deltas.merge(retiredKeys.get(i), delta, Long::sum);
+            }
+        }
+        retired.clear();
+        retiredKeys.clear();
+
+        long today = System.currentTimeMillis() / MILLIS_PER_DAY;
+        counters.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.merge(key, delta, Long::sum);
+            } else if (key.epochDay() < today && counters.remove(key, adder)) {
+                estimatedBytes.addAndGet(-estimateBytes(key));
+                retired.add(adder);
+                retiredKeys.add(key);
+            }
+        });
+        return deltas;
+    }
+
+    private LongAdder newAdder(UsageKey key) {
+        estimatedBytes.addAndGet(estimateBytes(key));
+        return new LongAdder();
+    }
+
+    static String redisKey(long epochDay) {
+        return KEY_PREFIX + LocalDate.ofEpochDay(epochDay);
+    }
+
+    static String field(UsageKey key) {
+        return key.customerId() + ":" + key.originCountryId() + key.destinationCountryId();
+    }
+
+    static CustomerUsage toUsage(LocalDate date, String field, long count) {
+        // The route is always the last four characters; customer ids may themselves contain ':'
+        int routeStart = field.length() - 4;
+        return new CustomerUsage(date.toString(), field.substring(0, routeStart - 1),
+                field.substring(routeStart, routeStart + 2), field.substring(routeStart + 2), count);
+    }
+
+    private static long estimateBytes(UsageKey key) {
+        return ENTRY_OVERHEAD_BYTES + key.customerId().length();
+    }
+
+    private static String escapeGlob(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    record UsageKey(long epochDay, String customerId, String originCountryId, String destinationCountryId) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.trackingnumber.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.repository.BucketedTrackingNumberStore;
+import com.trackingnumber.service.KeyspaceOccupancyTracker;
+import com.trackingnumber.service.TrackingNumberGenerator;
+import com.trackingnumber.web.CachedTimestamp;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Warms the process before it takes traffic: opens and pings the Redis connections, loads the Lua
+ * scripts into the script cache, and drives the generator, Bean Validation, Jackson and the Redis
+ * serializer with synthetic requests until JIT compilation settles. Application runners complete
+ * before Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so
+ * {@code /actuator/health/readiness} reports OUT_OF_SERVICE until warm-up is done. Nothing is written
+ * to Redis.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "tracking-number.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] COUNTRIES = {"US", "CA", "MX", "GB", "DE", "FR", "JP", "CN", "AU", "BR"};
+
+    private final TrackingNumberGenerator generator;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate;
+    private final Timer warmupTimer;
+    private final Duration maxDuration;
+    private final int minBatches;
+    private final long settledCompilationMillis;
+    private final int redisPings;
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+    // Keeps the synthetic work observable so the JIT cannot eliminate it
+    private volatile long blackhole;
+
+    public WarmupRunner(
+            TrackingNumberGenerator generator,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ReactiveRedisTemplate<String, TrackingNumber> trackingNumberRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracking-number.warmup.max-duration:20s}") Duration maxDuration,
+            @Value("${tracking-number.warmup.min-batches:10}") int minBatches,
+            @Value("${tracking-number.warmup.settled-compilation-millis:5}") long settledCompilationMillis,
+            @Value("${tracking-number.warmup.redis-pings:50}") int redisPings) {
+        this.generator = generator;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.trackingNumberRedisTemplate = trackingNumberRedisTemplate;
+        this.warmupTimer = Timer.builder("tracking.number.warmup")
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry);
+        this.maxDuration = maxDuration;
+        this.minBatches = minBatches;
+        this.settledCompilationMillis = settledCompilationMillis;
+        this.redisPings = redisPings;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startTime = System.nanoTime();
+        logger.info("Warming up before accepting traffic (at most {})", maxDuration);
+
+        warmRedis();
+        warmHotPath(startTime + maxDuration.toNanos());
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        warmupTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        logger.info("Warm-up finished in {}ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private void warmRedis() {
+        try {
+            Duration timeout = maxDuration.dividedBy(4);
+            long firstPing = timePing(redisTemplate, timeout);
+            long lastPing = firstPing;
+            for (int i = 1; i < redisPings; i++) {
+                lastPing = timePing(redisTemplate, timeout);
+                timePing(trackingNumberRedisTemplate, timeout);
+            }
+
+            List<RedisScript<?>> scripts = new ArrayList<>(BucketedTrackingNumberStore.scripts());
+            scripts.add(KeyspaceOccupancyTracker.script());
+            List<String> shas = Flux.fromIterable(scripts)
+                    .flatMap(script -> redisTemplate.execute(connection -> connection.scriptingCommands()
+                            .scriptLoad(ByteBuffer.wrap(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)))))
+                    .collectList()
+                    .block(timeout);
+
+            logger.info("Redis warm: first PING {}us, last PING {}us, {} scripts loaded",
+                    TimeUnit.NANOSECONDS.toMicros(firstPing), TimeUnit.NANOSECONDS.toMicros(lastPing),
+                    shas != null ? shas.size() : 0);
+        } catch (RuntimeException e) {
+            // Redis health is reported separately; a cold connection is not a reason to stay out of rotation
+            logger.warn("Redis warm-up failed, continuing: {}", e.getMessage());
+        }
+    }
+
+    private void warmHotPath(long deadline) {
+        List<TrackingNumberRequest> requests = syntheticRequests();
+        long firstBatchNanos = 0;
+        long lastBatchNanos = 0;
+        int batches = 0;
+
+        while (System.nanoTime() < deadline) {
+            long compilationBefore = compilationMillis();
+            long batchStart = System.nanoTime();
+            long sink = 0;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                sink += exercise(requests.get(i % requests.size()), i);
+            }
+            blackhole = sink;
+            lastBatchNanos = System.nanoTime() - batchStart;
+            if (batches++ == 0) {
+                firstBatchNanos = lastBatchNanos;
+            }
+            long compiled = compilationMillis() - compilationBefore;
+            if (batches >= minBatches && compiled >= 0 && compiled <= settledCompilationMillis) {
+                break;
+            }
+        }
+
+        logger.info("Hot path warm after {} synthetic requests: {}ns/request in the first batch, {}ns/request in the last",
+                (long) batches * BATCH_SIZE, firstBatchNanos / BATCH_SIZE, lastBatchNanos / BATCH_SIZE);
+    }
+
+    private long exercise(TrackingNumberRequest request, int attempt) {
+        try {
+            long result = validator.validate(request).size();
+            TrackingNumber trackingNumber = TrackingNumber.ofPacked(generator.generatePacked(request, attempt));
+            result += TrackingNumberRedisSerializer.INSTANCE.serialize(trackingNumber).length;
+            byte[] json = objectMapper.writeValueAsBytes(
+                    new TrackingNumberResponse(trackingNumber, CachedTimestamp.now()));
+            result += objectMapper.readValue(objectMapper.writeValueAsBytes(request), TrackingNumberRequest.class)
+                    .weight().length();
+            return result + json.length;
+        } catch (IOException e) {
+            throw new IllegalStateException("Warm-up serialization failed", e);
+        }
+    }
+
+    private static long timePing(ReactiveRedisTemplate<String, ?> template, Duration timeout) {
+        long startTime = System.nanoTime();
+        template.execute(connection -> connection.ping()).blockLast(timeout);
+        return System.nanoTime() - startTime;
+    }
+
+    private long compilationMillis() {
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime()
+                : -1;
+    }
+
+    private static List<TrackingNumberRequest> syntheticRequests() {
+        return IntStream.range(0, COUNTRIES.length * COUNTRIES.length)
+                .mapToObj(i -> new TrackingNumberRequest(
+                        COUNTRIES[i / COUNTRIES.length],
+                        COUNTRIES[i % COUNTRIES.length],
+                        String.format("%d.%03d", i % 1000, i % 1000),
+                        "00000000-0000-0000-0000-" + String.format("%012d", i),
+                        "Warm-up Customer " + i,
+                        "warmup-" + i))
+                .toList();
+    }
+}
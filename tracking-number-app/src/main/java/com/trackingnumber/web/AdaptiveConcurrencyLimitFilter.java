@@ -0,0 +1,127 @@
+package com.trackingnumber.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admits API requests through a {@link GradientConcurrencyLimit} and answers the rest immediately with
+ * 503 and {@code Retry-After}, so in-flight work stays bounded while Redis is slow. Successful
+ * responses feed latency samples; server errors and requests that fail with an error (a Redis timeout
+ * surfaces as either) count as drops and shrink the limit. Client errors and cancelled requests are
+ * ignored. The health endpoint and the actuator are never limited.
+ * <p>
+ * Batch issuance and batch validation handle up to 10000 numbers per request, so their latency says nothing about
+ * Redis and would drag the gradient down. They take permits from a separate fixed limit instead and are never
+ * sampled.
+ */
+public class AdaptiveConcurrencyLimitFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimitFilter.class);
+    private static final String LIMITED_PREFIX = "/api/";
+    private static final String HEALTH_PATH = "/api/v1/health";
+    private static final String BATCH_SUFFIX = ":batch";
+    private static final String VALIDATE_SUFFIX = ":validate";
+
+    private final GradientConcurrencyLimit limit;
+    private final GradientConcurrencyLimit bulkLimit;
+    private final String retryAfterSeconds;
+    private final Counter rejections;
+    private final Counter drops;
+
+    public AdaptiveConcurrencyLimitFilter(GradientConcurrencyLimit limit, GradientConcurrencyLimit bulkLimit,
+                                          Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.bulkLimit = bulkLimit;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.rejections = Counter.builder("tracking.number.concurrency.rejected")
+                .description("Requests shed by the adaptive concurrency limit")
+                .register(meterRegistry);
+        this.drops = Counter.builder("tracking.number.concurrency.dropped")
+                .description("Limited requests that failed with a server error or timed out")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.concurrency.inflight", limit, GradientConcurrencyLimit::inFlight)
+                .description("Requests currently admitted by the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("tracking.number.concurrency.bulk.inflight", bulkLimit, GradientConcurrencyLimit::inFlight)
+                .description("Batch requests currently admitted by the fixed bulk limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.startsWith(LIMITED_PREFIX) || path.equals(HEALTH_PATH)) {
+            return chain.filter(exchange);
+        }
+        boolean bulk = path.endsWith(BATCH_SUFFIX) || path.endsWith(VALIDATE_SUFFIX);
+        GradientConcurrencyLimit admission = bulk ? bulkLimit : limit;
+        if (!admission.tryAcquire()) {
+            rejections.increment();
+            logger.debug("Shedding request to {} (limit {}, in flight {})", path, admission.limit(), admission.inFlight());
+            return reject(exchange.getResponse());
+        }
+
+        long startTime = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(failure::set)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (!bulk && dropped(signal, status, failure.get())) {
+                        drops.increment();
+                        admission.releaseDropped();
+                        return;
+                    }
+                    boolean sample = !bulk && signal == SignalType.ON_COMPLETE
+                            && (status == null || status.is2xxSuccessful());
+                    admission.release(System.nanoTime() - startTime, sample);
+                });
+    }
+
+    private static boolean dropped(SignalType signal, HttpStatusCode status, Throwable failure) {
+        if (signal == SignalType.ON_ERROR) {
+            return !(failure instanceof ResponseStatusException rejected && rejected.getStatusCode().is4xxClientError());
+        }
+        return signal == SignalType.ON_COMPLETE && status != null && status.is5xxServerError();
+    }
+
+    @Override
+    public int getOrder() {
+        // Shed before any other filter spends work on the request
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        String body = "{\"timestamp\":\"" + Instant.now() + "\",\"status\":503,"
+                + "\"error\":\"Service overloaded, retry later\"}";
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,38 @@
+package com.trackingnumber.web;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The current time as an ISO-8601 UTC string with millisecond precision, formatted at most once per
+ * millisecond and shared by every response created within it.
+ */
+public final class CachedTimestamp {
+
+    private static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private record Formatted(long epochMilli, String text) {
+    }
+
+    private static volatile Formatted current = format(System.currentTimeMillis());
+
+    private CachedTimestamp() {
+    }
+
+    public static String now() {
+        long epochMilli = System.currentTimeMillis();
+        Formatted formatted = current;
+        if (formatted.epochMilli() != epochMilli) {
+            // Racing threads may both format; either result is correct
+            formatted = format(epochMilli);
+            current = formatted;
+        }
+        return formatted.text();
+    }
+
+    private static Formatted format(long epochMilli) {
+        return new Formatted(epochMilli, FORMAT.format(Instant.ofEpochMilli(epochMilli)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.trackingnumber.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit. A long-term exponential average of request latency is the
+ * baseline. Each sample moves the limit by {@code gradient = tolerance * longRtt / rtt}, clamped to
+ * [0.5, 1], plus a queue allowance of {@code sqrt(limit)}. While latency stays near the baseline the
+ * limit grows; when Redis slows down the gradient falls and the limit shrinks, so excess requests are
+ * shed instead of queueing. Samples taken while less than half the limit is in use are app-limited
+ * and do not change the limit. A dropped request (a timeout or a server error) says Redis is already
+ * overloaded and multiplies the limit by {@value #DROP_BACKOFF} at once.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longRttDecay;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing, int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1.0 || smoothing <= 0.0 || smoothing > 1.0 || longWindow < 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit tuning");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longRttDecay = 2.0 / (longWindow + 1);
+        this.limit = initialLimit;
+    }
+
+    /**
+     * A limit that never moves, for requests whose latency is not a health signal.
+     */
+    public static GradientConcurrencyLimit fixed(int limit) {
+        return new GradientConcurrencyLimit(limit, limit, limit, 1.0, 1.0, 1);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit. Pass {@code sample = false} for requests whose latency says nothing about
+     * downstream health (cancelled, rejected by validation, failed fast).
+     */
+    public void release(long rttNanos, boolean sample) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        if (sample && rttNanos > 0) {
+            onSample(rttNanos, inFlightAtRelease);
+        }
+    }
+
+    /**
+     * Releases the permit of a request that timed out or failed on the server side, and shrinks the limit.
+     */
+    public void releaseDropped() {
+        inFlight.decrementAndGet();
+        onDrop();
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onDrop() {
+        limit = Math.max(minLimit, limit * DROP_BACKOFF);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtRelease) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longRttDecay;
+        }
+        // After a latency spike ends, pull the baseline down quickly instead of waiting out the window
+        if (longRttNanos / rttNanos > 2.0) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (inFlightAtRelease < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
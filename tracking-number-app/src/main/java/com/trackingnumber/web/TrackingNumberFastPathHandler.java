@@ -0,0 +1,99 @@
+package com.trackingnumber.web;
+
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberRequestValidator;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.exception.DuplicateTrackingNumberException;
+import com.trackingnumber.exception.GlobalExceptionHandler;
+import com.trackingnumber.exception.InvalidTrackingNumberRequestException;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.service.TrackingNumberService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Functional handler for {@code POST /api/v1/next-tracking-number} that decodes the body with
+ * {@link TrackingNumberRequestDecoder} and validates it with {@link TrackingNumberRequestValidator},
+ * bypassing Jackson data binding and Hibernate Validator. Failures are passed to the same
+ * {@link GlobalExceptionHandler} methods the annotated controller uses, so responses match. The body is
+ * buffered up to the codecs' {@code max-in-memory-size}; a larger one is answered with 413.
+ */
+public class TrackingNumberFastPathHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingNumberFastPathHandler.class);
+
+    private final TrackingNumberService trackingNumberService;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final int maxBodyBytes;
+
+    public TrackingNumberFastPathHandler(TrackingNumberService trackingNumberService,
+                                         GlobalExceptionHandler exceptionHandler,
+                                         int maxBodyBytes) {
+        this.trackingNumberService = trackingNumberService;
+        this.exceptionHandler = exceptionHandler;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Mono<ServerResponse> nextTrackingNumber(ServerRequest serverRequest) {
+        return DataBufferUtils.join(serverRequest.body(BodyExtractors.toDataBuffers()), maxBodyBytes)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("No request body")))
+                .map(TrackingNumberFastPathHandler::decodeAndValidate)
+                .flatMap(request -> {
+                    logger.info("Received tracking number request from customer: {} ({})",
+                            request.customerName(), request.customerId());
+                    return trackingNumberService.generateUniqueTrackingNumber(request);
+                })
+                .flatMap(trackingNumber -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new TrackingNumberResponse(trackingNumber, CachedTimestamp.now())))
+                .onErrorResume(this::toErrorResponse);
+    }
+
+    private static TrackingNumberRequest decodeAndValidate(DataBuffer body) {
+        try {
+            TrackingNumberRequest request = TrackingNumberRequestDecoder.decode(body);
+            Map<String, String> errors = TrackingNumberRequestValidator.validate(request);
+            if (!errors.isEmpty()) {
+                throw new InvalidTrackingNumberRequestException(errors);
+            }
+            return request;
+        } catch (TrackingNumberRequestDecoder.MalformedRequestException e) {
+            throw new ServerWebInputException(e.getMessage(), null, e);
+        } finally {
+            DataBufferUtils.release(body);
+        }
+    }
+
+    private Mono<ServerResponse> toErrorResponse(Throwable error) {
+        ResponseEntity<Map<String, Object>> response;
+        if (error instanceof DataBufferLimitException tooLarge) {
+            response = exceptionHandler.handlePayloadTooLarge(tooLarge);
+        } else if (error instanceof InvalidTrackingNumberRequestException invalid) {
+            response = exceptionHandler.handleInvalidRequest(invalid);
+        } else if (error instanceof DuplicateTrackingNumberException duplicate) {
+            response = exceptionHandler.handleDuplicateTrackingNumber(duplicate);
+        } else if (error instanceof TrackingNumberException trackingNumberException) {
+            response = exceptionHandler.handleTrackingNumberException(trackingNumberException);
+        } else if (error instanceof Exception exception) {
+            response = exceptionHandler.handleGenericException(exception);
+        } else {
+            return Mono.error(error);
+        }
+        return ServerResponse.status(response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(response.getBody());
+    }
+}
@@ -0,0 +1,327 @@
+package com.trackingnumber.web;
+
+import com.trackingnumber.domain.TrackingNumberRequest;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-rolled JSON decoder for the fixed {@link TrackingNumberRequest} schema. It reads the body
+ * buffer in place: field names are matched byte by byte, valid country codes come from a table of
+ * interned strings, and the only allocations on the happy path are the request record and its
+ * free-text strings. Unknown fields are skipped. Scalars in string fields are taken verbatim, and
+ * {@code null} is accepted, both as Jackson does. Constraint checks stay with the caller (see
+ * {@code TrackingNumberRequestValidator}), so both paths report identical errors.
+ */
+public final class TrackingNumberRequestDecoder {
+
+    private static final byte[][] FIELD_NAMES = {
+            ascii("originCountryId"),
+            ascii("destinationCountryId"),
+            ascii("weight"),
+            ascii("customerId"),
+            ascii("customerName"),
+            ascii("customerSlug")
+    };
+    private static final int ORIGIN = 0;
+    private static final int DESTINATION = 1;
+    private static final int UNKNOWN = -1;
+
+    private static final String[] COUNTRY_CODES = new String[26 * 26];
+
+    static {
+        for (int i = 0; i < COUNTRY_CODES.length; i++) {
+            COUNTRY_CODES[i] = new String(new char[]{(char) ('A' + i / 26), (char) ('A' + i % 26)});
+        }
+    }
+
+    private final DataBuffer buffer;
+    private final int limit;
+    private int position;
+    private final String[] values = new String[FIELD_NAMES.length];
+
+    private TrackingNumberRequestDecoder(DataBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.readPosition();
+        this.limit = buffer.writePosition();
+    }
+
+    /**
+     * Decodes a complete request body.
+     *
+     * @throws MalformedRequestException if the body is not a JSON object of the expected shape
+     */
+    public static TrackingNumberRequest decode(DataBuffer buffer) {
+        TrackingNumberRequestDecoder decoder = new TrackingNumberRequestDecoder(buffer);
+        decoder.readObject();
+        String[] values = decoder.values;
+        return new TrackingNumberRequest(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private void readObject() {
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int field = readFieldName();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (field == UNKNOWN) {
+                skipValue();
+            } else {
+                values[field] = readFieldValue(field);
+            }
+            skipWhitespace();
+            byte next = next();
+            if (next == '}') {
+                return;
+            }
+            if (next != ',') {
+                throw malformed("expected ',' or '}'");
+            }
+        }
+    }
+
+    private int readFieldName() {
+        int start = position;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                // Escaped field names never match the schema; read past them as unknown
+                position = start;
+                readEscapedString(start);
+                return UNKNOWN;
+            }
+        }
+        int length = position - 1 - start;
+        for (int field = 0; field < FIELD_NAMES.length; field++) {
+            byte[] name = FIELD_NAMES[field];
+            if (name.length == length && regionMatches(start, name)) {
+                return field;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private String readFieldValue(int field) {
+        byte b = peek();
+        if (b == '"') {
+            position++;
+            return readString(field == ORIGIN || field == DESTINATION);
+        }
+        if (b == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        if (b == 't' || b == 'f' || b == '-' || (b >= '0' && b <= '9')) {
+            int start = position;
+            skipScalar();
+            return buffer.toString(start, position - start, StandardCharsets.US_ASCII);
+        }
+        throw malformed("expected a string value");
+    }
+
+    private String readString(boolean countryCode) {
+        int start = position;
+        boolean ascii = true;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            if (b >= 0 && b < 0x20) {
+                throw malformed("control character in string");
+            }
+            ascii &= b >= 0;
+        }
+        int length = position - 1 - start;
+        if (countryCode && length == 2) {
+            int first = buffer.getByte(start) - 'A';
+            int second = buffer.getByte(start + 1) - 'A';
+            if (first >= 0 && first < 26 && second >= 0 && second < 26) {
+                return COUNTRY_CODES[first * 26 + second];
+            }
+        }
+        return buffer.toString(start, length, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    // Slow path for strings with escape sequences; position is just inside the opening quote at start
+    private String readEscapedString(int start) {
+        position = start;
+        StringBuilder result = new StringBuilder();
+        int runStart = position;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                appendRun(result, runStart, position - 1);
+                return result.toString();
+            }
+            if (b >= 0 && b < 0x20) {
+                throw malformed("control character in string");
+            }
+            if (b != '\\') {
+                continue;
+            }
+            appendRun(result, runStart, position - 1);
+            byte escaped = next();
+            switch (escaped) {
+                case '"', '\\', '/' -> result.append((char) escaped);
+                case 'b' -> result.append('\b');
+                case 'f' -> result.append('\f');
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case 't' -> result.append('\t');
+                case 'u' -> result.append((char) readHex4());
+                default -> throw malformed("invalid escape sequence");
+            }
+            runStart = position;
+        }
+    }
+
+    private void appendRun(StringBuilder target, int from, int to) {
+        if (to > from) {
+            target.append(buffer.toString(from, to - from, StandardCharsets.UTF_8));
+        }
+    }
+
+    private int readHex4() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+                throw malformed("invalid unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private void skipValue() {
+        byte b = peek();
+        if (b == '"') {
+            position++;
+            skipString();
+        } else if (b == '{' || b == '[') {
+            skipContainer();
+        } else if (b == 'n') {
+            expectLiteral("null");
+        } else {
+            skipScalar();
+        }
+    }
+
+    private void skipContainer() {
+        int depth = 0;
+        do {
+            byte b = next();
+            if (b == '"') {
+                skipString();
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void skipString() {
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                next();
+            }
+        }
+    }
+
+    private void skipScalar() {
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.getByte(position);
+            if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw malformed("expected a value");
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw malformed("expected " + literal);
+            }
+        }
+    }
+
+    private boolean regionMatches(int start, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.getByte(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit && isWhitespace(buffer.getByte(position))) {
+            position++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw malformed("expected '" + expected + "'");
+        }
+    }
+
+    private byte peek() {
+        if (position >= limit) {
+            throw malformed("unexpected end of input");
+        }
+        return buffer.getByte(position);
+    }
+
+    private byte next() {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    private MalformedRequestException malformed(String reason) {
+        return new MalformedRequestException("Malformed tracking number request at offset "
+                + (position - buffer.readPosition()) + ": " + reason);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static class MalformedRequestException extends RuntimeException {
+
+        public MalformedRequestException(String message) {
+            super(message);
+        }
+    }
+}
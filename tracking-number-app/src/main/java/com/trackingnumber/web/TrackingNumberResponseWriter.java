@@ -0,0 +1,191 @@
+package com.trackingnumber.web;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link TrackingNumberResponse} without Jackson: the fixed JSON shape is filled in from pre-encoded
+ * field fragments into a thread-local scratch array, then copied once into a buffer from the response's factory
+ * (pooled on Netty). A single response carries its Content-Length. A stream of responses is written as a
+ * JSON array, or as one object per line for {@code application/x-ndjson}, in chunks of up to
+ * {@value #CHUNK_SIZE} responses or whatever arrived within {@code CHUNK_DELAY}, whichever comes first.
+ */
+public class TrackingNumberResponseWriter implements HttpMessageWriter<TrackingNumberResponse> {
+
+    private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    private static final int CHUNK_SIZE = 64;
+    private static final Duration CHUNK_DELAY = Duration.ofMillis(5);
+
+    private static final byte[] NUMBER_FIELD = ascii("\"tracking_number\":\"");
+    private static final byte[] CREATED_AT_FIELD = ascii("\"created_at\":\"");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] EMPTY_ARRAY = ascii("[]");
+    private static final byte[] ARRAY_END = ascii("]");
+    // Braces, quotes, comma, separator or newline, and the longest number
+    private static final int FIXED_LENGTH = NUMBER_FIELD.length + CREATED_AT_FIELD.length + 8
+            + TrackingNumberCodec.MAX_PACKED_LENGTH;
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[128]);
+
+    @Override
+    public List<MediaType> getWritableMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType elementType, MediaType mediaType) {
+        if (!TrackingNumberResponse.class.isAssignableFrom(elementType.toClass())) {
+            return false;
+        }
+        if (mediaType == null) {
+            return true;
+        }
+        for (MediaType writable : MEDIA_TYPES) {
+            if (writable.isCompatibleWith(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<? extends TrackingNumberResponse> input, ResolvableType elementType,
+                            MediaType mediaType, ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+        boolean ndjson = mediaType != null && !mediaType.isWildcardSubtype()
+                && MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType);
+        message.getHeaders().setContentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+        DataBufferFactory bufferFactory = message.bufferFactory();
+
+        if (input instanceof Mono) {
+            return message.writeWith(Mono.from(input).map(response -> {
+                DataBuffer buffer = encode(response, bufferFactory);
+                message.getHeaders().setContentLength(buffer.readableByteCount());
+                return buffer;
+            }));
+        }
+        return message.writeWith(encodeStream(Flux.from(input), bufferFactory, ndjson)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+    }
+
+    /**
+     * One response as a single buffer, exactly sized.
+     */
+    public DataBuffer encode(TrackingNumberResponse response, DataBufferFactory bufferFactory) {
+        byte[] scratch = scratch(maxLength(response));
+        int length = write(response, scratch, 0);
+        DataBuffer buffer = bufferFactory.allocateBuffer(length);
+        buffer.write(scratch, 0, length);
+        return buffer;
+    }
+
+    Flux<DataBuffer> encodeStream(Flux<? extends TrackingNumberResponse> responses, DataBufferFactory bufferFactory,
+                                  boolean ndjson) {
+        return Flux.defer(() -> {
+            boolean[] empty = {true};
+            Flux<DataBuffer> chunks = responses.bufferTimeout(CHUNK_SIZE, CHUNK_DELAY)
+                    .map(chunk -> {
+                        DataBuffer buffer = encodeChunk(chunk, bufferFactory, ndjson, empty[0]);
+                        empty[0] = false;
+                        return buffer;
+                    });
+            if (ndjson) {
+                return chunks;
+            }
+            return chunks.concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(empty[0] ? EMPTY_ARRAY : ARRAY_END)));
+        });
+    }
+
+    private DataBuffer encodeChunk(List<? extends TrackingNumberResponse> chunk, DataBufferFactory bufferFactory,
+                                   boolean ndjson, boolean first) {
+        int bound = 0;
+        for (TrackingNumberResponse response : chunk) {
+            bound += maxLength(response);
+        }
+        byte[] scratch = scratch(bound);
+        int position = 0;
+        for (TrackingNumberResponse response : chunk) {
+            if (!ndjson) {
+                scratch[position++] = (byte) (first ? '[' : ',');
+                first = false;
+            }
+            position = write(response, scratch, position);
+            if (ndjson) {
+                scratch[position++] = '\n';
+            }
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(position);
+        buffer.write(scratch, 0, position);
+        return buffer;
+    }
+
+    // Null fields are left out, as Jackson does with the application's non_null inclusion
+    private static int write(TrackingNumberResponse response, byte[] target, int position) {
+        target[position++] = '{';
+        if (response.trackingNumber() != null) {
+            position = copy(NUMBER_FIELD, target, position);
+            position += response.trackingNumber().writeTo(target, position);
+            target[position++] = '"';
+        }
+        String createdAt = response.createdAt();
+        if (createdAt != null) {
+            if (response.trackingNumber() != null) {
+                target[position++] = ',';
+            }
+            position = copy(CREATED_AT_FIELD, target, position);
+            for (int i = 0; i < createdAt.length(); i++) {
+                char c = createdAt.charAt(i);
+                if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                    target[position++] = '\\';
+                    target[position++] = 'u';
+                    target[position++] = HEX[c >> 12 & 0xf];
+                    target[position++] = HEX[c >> 8 & 0xf];
+                    target[position++] = HEX[c >> 4 & 0xf];
+                    target[position++] = HEX[c & 0xf];
+                } else {
+                    target[position++] = (byte) c;
+                }
+            }
+            target[position++] = '"';
+        }
+        target[position++] = '}';
+        return position;
+    }
+
+    // Worst case: every created_at character escaped as six bytes
+    private static int maxLength(TrackingNumberResponse response) {
+        return FIXED_LENGTH + (response.createdAt() == null ? 0 : response.createdAt().length() * 6);
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
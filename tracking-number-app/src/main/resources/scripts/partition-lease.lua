@@ -0,0 +1,15 @@
+-- KEYS[1]: partition lease, ARGV[1]: instance id, ARGV[2]: acquire | release, ARGV[3]: lease ttl in milliseconds
+-- Acquire takes a free lease or extends one we already hold; release only drops a lease we hold
+local owner = redis.call('GET', KEYS[1])
+if ARGV[2] == 'release' then
+    if owner == ARGV[1] then
+        redis.call('DEL', KEYS[1])
+        return 1
+    end
+    return 0
+end
+if owner == false or owner == ARGV[1] then
+    redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+    return 1
+end
+return 0
@@ -0,0 +1,9 @@
+-- KEYS[1]: fleet-wide generated length, ARGV[1]: proposed length
+-- Only ever raises the length, so concurrent proposals from several instances converge on the largest
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+local proposed = tonumber(ARGV[1])
+if proposed > current then
+    redis.call('SET', KEYS[1], ARGV[1])
+    return proposed
+end
+return current
@@ -0,0 +1,67 @@
+package com.trackingnumber.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFindEveryWrittenNumberAndSurviveReopen() throws Exception {
+        Random random = new Random(42);
+        long[] numbers = new long[100_000];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = 1 + (random.nextLong() >>> 4);
+        }
+        Arrays.sort(numbers);
+
+        ArchiveSegment written = ArchiveSegment.write(directory.resolve("segment-1.seg"),
+                Arrays.stream(numbers).iterator(), numbers.length, 100, 200);
+        ArchiveSegment reopened = ArchiveSegment.open(written.path());
+
+        for (long number : numbers) {
+            assertTrue(reopened.contains(number));
+        }
+        assertEquals(numbers.length, reopened.count());
+        assertEquals(100, reopened.minIssuedSecond());
+        assertEquals(200, reopened.maxIssuedSecond());
+    }
+
+    @Test
+    void shouldRejectAbsentNumbers() throws Exception {
+        ArchiveSegment segment = ArchiveSegment.write(directory.resolve("segment-1.seg"),
+                Arrays.stream(new long[]{10, 20, 30}).iterator(), 3, 0, 0);
+
+        assertFalse(segment.contains(5));
+        assertFalse(segment.contains(15));
+        assertFalse(segment.contains(35));
+    }
+
+    @Test
+    void shouldSkipDuplicatesAndIterateInOrder() throws Exception {
+        ArchiveSegment segment = ArchiveSegment.write(directory.resolve("segment-1.seg"),
+                Arrays.stream(new long[]{1, 1, 2, 3, 3, 3}).iterator(), 6, 0, 0);
+
+        assertEquals(3, segment.count());
+        PrimitiveIterator.OfLong iterator = segment.iterator();
+        assertEquals(1, iterator.nextLong());
+        assertEquals(2, iterator.nextLong());
+        assertEquals(3, iterator.nextLong());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void shouldRejectUnsortedInput() {
+        assertThrows(IllegalArgumentException.class, () -> ArchiveSegment.write(directory.resolve("segment-1.seg"),
+                Arrays.stream(new long[]{3, 1}).iterator(), 2, 0, 0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.trackingnumber.archive;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldMergeBatchesIntoFewerSegments() throws Exception {
+        TrackingNumberArchive archive = archive(Duration.ofDays(365));
+        archive.load();
+
+        for (int batch = 0; batch < 64; batch++) {
+            archive.append(events(batch * 100L + 1, 100, System.currentTimeMillis()));
+        }
+
+        // 64 batches of one tier collapse to a single segment with merge factor 4
+        assertEquals(1, archive.segments().size());
+        assertEquals(6400, archive.archivedCount());
+        for (long packed = 1; packed <= 6400; packed++) {
+            assertTrue(archive.contains(packed));
+        }
+        assertFalse(archive.contains(6401));
+    }
+
+    @Test
+    void shouldReloadSegmentsFromDisk() throws Exception {
+        TrackingNumberArchive archive = archive(Duration.ofDays(365));
+        archive.load();
+        archive.append(events(1, 10, System.currentTimeMillis()));
+        archive.append(events(11, 10, System.currentTimeMillis()));
+
+        TrackingNumberArchive reloaded = archive(Duration.ofDays(365));
+        reloaded.load();
+
+        assertEquals(2, reloaded.segments().size());
+        assertTrue(reloaded.contains(15));
+    }
+
+    @Test
+    void shouldDropSegmentsBeyondHorizon() throws Exception {
+        TrackingNumberArchive archive = archive(Duration.ofDays(30));
+        archive.load();
+        archive.append(events(1, 10, System.currentTimeMillis() - Duration.ofDays(31).toMillis()));
+        archive.append(events(11, 10, System.currentTimeMillis()));
+
+        assertFalse(archive.contains(5));
+        assertTrue(archive.contains(15));
+    }
+
+    @Test
+    void shouldUseAConsumerGroupPerInstance() {
+        assertEquals("archive-instance-1", archive(Duration.ofDays(1)).consumerGroup());
+        assertEquals("archive-eu", TrackingNumberArchive.consumerGroup("archive-eu", ""));
+        assertThrows(IllegalStateException.class, () -> TrackingNumberArchive.consumerGroup("", ""));
+    }
+
+    @Test
+    void shouldRequireALosslessFeed() {
+        assertThrows(IllegalStateException.class, () -> new TrackingNumberArchive(null, new SimpleMeterRegistry(),
+                true, directory, "", "instance-1", true, false, "tracking_number_feed",
+                1000, Duration.ofSeconds(1), 100, 4, Duration.ofDays(1), false, Duration.ofDays(7), Duration.ofMinutes(1)));
+    }
+
+    private TrackingNumberArchive archive(Duration horizon) {
+        return new TrackingNumberArchive(null, new SimpleMeterRegistry(), true, directory, "", "instance-1",
+                true, true, "tracking_number_feed", 1000, Duration.ofSeconds(1), 100, 4, horizon,
+                false, Duration.ofDays(7), Duration.ofMinutes(1));
+    }
+
+    private static List<TrackingNumberIssuedEvent> events(long first, int count, long issuedAt) {
+        List<TrackingNumberIssuedEvent> events = new ArrayList<>(count);
+        for (long packed = first; packed < first + count; packed++) {
+            events.add(new TrackingNumberIssuedEvent(TrackingNumber.ofPacked(packed), issuedAt,
+                    "de619854-b59b-425e-9db4-943379e1bd49", "US", "CA"));
+        }
+        return events;
+    }
+}
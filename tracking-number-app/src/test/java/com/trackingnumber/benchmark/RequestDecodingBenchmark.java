@@ -0,0 +1,77 @@
+package com.trackingnumber.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberRequestValidator;
+import com.trackingnumber.web.TrackingNumberRequestDecoder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and validating one request body: Jackson + Hibernate Validator (the annotated controller)
+ * versus {@link TrackingNumberRequestDecoder} + {@link TrackingNumberRequestValidator} (the fast path).
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestDecodingBenchmark {
+
+    private static final byte[] BODY = ("{\"originCountryId\":\"US\",\"destinationCountryId\":\"CA\",\"weight\":\"1.234\","
+            + "\"customerId\":\"de619854-b59b-425e-9db4-943379e1bd49\",\"customerName\":\"RedBox Logistics\","
+            + "\"customerSlug\":\"redbox-logistics\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(BODY);
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TrackingNumberRequest>> jacksonAndBeanValidation() throws IOException {
+        TrackingNumberRequest request = objectMapper.readValue(BODY, TrackingNumberRequest.class);
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Map<String, String> streamingDecoderAndValidator() {
+        TrackingNumberRequest request = TrackingNumberRequestDecoder.decode(buffer);
+        return TrackingNumberRequestValidator.validate(request);
+    }
+}
@@ -0,0 +1,60 @@
+package com.trackingnumber.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.trackingnumber.config.TrackingNumberJsonComponent;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import com.trackingnumber.web.CachedTimestamp;
+import com.trackingnumber.web.TrackingNumberResponseWriter;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding one response body: Jackson with {@code Instant.now().toString()} (the default codec) versus
+ * {@link TrackingNumberResponseWriter} with {@link CachedTimestamp} into a pooled Netty buffer.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private final TrackingNumber trackingNumber = TrackingNumber.of("ABC123DEF456");
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .registerModule(new SimpleModule().addSerializer(TrackingNumber.class, new TrackingNumberJsonComponent.Serializer()));
+    private final TrackingNumberResponseWriter writer = new TrackingNumberResponseWriter();
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Benchmark
+    public byte[] jackson() throws Exception {
+        return objectMapper.writeValueAsBytes(new TrackingNumberResponse(trackingNumber, Instant.now().toString()));
+    }
+
+    @Benchmark
+    public int preEncodedWriter() {
+        DataBuffer buffer = writer.encode(new TrackingNumberResponse(trackingNumber, CachedTimestamp.now()), bufferFactory);
+        int length = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return length;
+    }
+}
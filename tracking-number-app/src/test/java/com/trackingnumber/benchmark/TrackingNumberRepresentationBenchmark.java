@@ -0,0 +1,219 @@
+package com.trackingnumber.benchmark;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.service.DefaultTrackingNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * String versus packed handling of one issued number: generate, validate and encode for Redis. The String side
+ * runs {@link BaselineStringGenerator}, a copy of the generator from before the packed representation.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackingNumberRepresentationBenchmark {
+
+    private final BaselineStringGenerator baseline = new BaselineStringGenerator();
+    private final DefaultTrackingNumberGenerator generator = new DefaultTrackingNumberGenerator();
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+    private final TrackingNumber issued = TrackingNumber.of("ABC123DEF4");
+    private final String issuedText = "ABC123DEF4";
+    private int attempt;
+
+    @Benchmark
+    public byte[] stringGenerateAndEncode() {
+        // The baseline generator validates against its pattern before returning
+        String trackingNumber = baseline.generate(request, attempt++);
+        return ("tracking_number:" + trackingNumber).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long packedGenerate() {
+        return generator.generatePacked(request, attempt++);
+    }
+
+    @Benchmark
+    public byte[] stringEncode() {
+        return issuedText.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] packedEncode() {
+        return TrackingNumberRedisSerializer.INSTANCE.serialize(issued);
+    }
+
+    /**
+     * The String generator as it was before numbers were packed, kept verbatim so this benchmark keeps measuring
+     * the original path rather than {@code generatePacked} plus {@code unpack}.
+     */
+    static final class BaselineStringGenerator {
+
+        private static final Logger logger = LoggerFactory.getLogger(BaselineStringGenerator.class);
+        private static final Pattern TRACKING_NUMBER_PATTERN = Pattern.compile("^[A-Z0-9]{1,16}$");
+        private static final int MIN_LENGTH = 1;
+        private static final int MAX_LENGTH = 16;
+        private static final int DEFAULT_LENGTH = 10;
+        private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+        public String generate(TrackingNumberRequest request, int attempt) {
+            if (request == null) {
+                throw new IllegalArgumentException("TrackingNumberRequest cannot be null");
+            }
+
+            logger.debug("Generating tracking number for request: {}, attempt: {}", request, attempt);
+
+            try {
+                String input = buildInputString(request, attempt);
+                String hash = generateHash(input);
+                String trackingNumber = formatTrackingNumber(hash);
+
+                if (!isValidTrackingNumber(trackingNumber)) {
+                    logger.warn("Generated invalid tracking number: {}", trackingNumber);
+                    throw new IllegalStateException("Generated tracking number does not match required pattern");
+                }
+
+                logger.debug("Generated tracking number: {}", trackingNumber);
+                return trackingNumber;
+
+            } catch (Exception e) {
+                logger.error("Error generating tracking number for request: {}", request, e);
+                throw new RuntimeException("Failed to generate tracking number", e);
+            }
+        }
+
+        private String buildInputString(TrackingNumberRequest request, int attempt) {
+            // Enhanced entropy sources
+            long nanoTime = System.nanoTime();
+            long currentTimeMillis = System.currentTimeMillis();
+            int randomInt = ThreadLocalRandom.current().nextInt();
+            byte[] randomBytes = new byte[8];
+            SECURE_RANDOM.nextBytes(randomBytes);
+
+            // Convert random bytes to hex string
+            StringBuilder randomHex = new StringBuilder();
+            for (byte b : randomBytes) {
+                randomHex.append(String.format("%02x", b));
+            }
+
+            return String.format("%s|%s|%s|%s|%s|%s|%d|%d|%d|%d|%s",
+                    request.originCountryId(),
+                    request.destinationCountryId(),
+                    request.weight(),
+                    request.customerId(),
+                    request.customerName(),
+                    request.customerSlug() != null ? request.customerSlug() : "",
+                    attempt,
+                    nanoTime,
+                    currentTimeMillis,
+                    randomInt,
+                    randomHex.toString()
+            );
+        }
+
+        private String generateHash(String input) throws NoSuchAlgorithmException {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hashBytes = md.digest(input.getBytes());
+
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hashBytes) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) {
+                    hexString.append('0');
+                }
+                hexString.append(hex);
+            }
+            return hexString.toString().toUpperCase();
+        }
+
+        private String formatTrackingNumber(String hash) {
+            if (hash == null || hash.isEmpty()) {
+                throw new IllegalArgumentException("Hash cannot be null or empty");
+            }
+
+            StringBuilder result = new StringBuilder();
+            int hashIndex = 0;
+
+            // Use a more sophisticated approach to convert hash to alphanumeric
+            while (result.length() < DEFAULT_LENGTH && hashIndex < hash.length()) {
+                char c = hash.charAt(hashIndex);
+
+                if (Character.isDigit(c)) {
+                    result.append(c);
+                } else if (c >= 'A' && c <= 'F') {
+                    // Convert hex letters to valid letters (A-F maps to A-F, then continue with G-Z)
+                    if (c <= 'F') {
+                        result.append(c);
+                    }
+                } else {
+                    // For any other character, use modulo to get valid character
+                    int charValue = (int) c;
+                    if (charValue % 2 == 0) {
+                        result.append((char) ('A' + (charValue % 26)));
+                    } else {
+                        result.append((char) ('0' + (charValue % 10)));
+                    }
+                }
+                hashIndex++;
+            }
+
+            // If we still need more characters, use additional entropy
+            while (result.length() < DEFAULT_LENGTH) {
+                int randomChoice = SECURE_RANDOM.nextInt(36); // 0-35
+                if (randomChoice < 10) {
+                    result.append((char) ('0' + randomChoice));
+                } else {
+                    result.append((char) ('A' + (randomChoice - 10)));
+                }
+            }
+
+            String trackingNumber = result.toString();
+
+            // Ensure length constraints
+            if (trackingNumber.length() > MAX_LENGTH) {
+                trackingNumber = trackingNumber.substring(0, MAX_LENGTH);
+            }
+
+            // Ensure minimum length (should not happen with current logic, but safety check)
+            while (trackingNumber.length() < MIN_LENGTH) {
+                trackingNumber += "A";
+            }
+
+            return trackingNumber;
+        }
+
+        private boolean isValidTrackingNumber(String trackingNumber) {
+            return trackingNumber != null &&
+                    trackingNumber.length() >= MIN_LENGTH &&
+                    trackingNumber.length() <= MAX_LENGTH &&
+                    TRACKING_NUMBER_PATTERN.matcher(trackingNumber).matches() &&
+                    !trackingNumber.trim().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.trackingnumber.config;
+
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberValidationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackingNumberRuntimeHintsTest {
+
+    @Test
+    void shouldRegisterBindingAndScriptHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new TrackingNumberRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TrackingNumberRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TrackingNumberValidationRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("scripts/bucketed-reserve.lua").test(hints));
+    }
+}
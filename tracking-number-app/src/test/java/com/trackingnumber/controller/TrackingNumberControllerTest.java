@@ -1,8 +1,12 @@
 package com.trackingnumber.controller;
 
+import com.trackingnumber.domain.TrackingNumber;
 import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberValidationRequest;
+import com.trackingnumber.domain.TrackingNumberValidationResult;
 import com.trackingnumber.exception.TrackingNumberException;
 import com.trackingnumber.service.TrackingNumberService;
+import com.trackingnumber.service.TrackingNumberValidationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -11,6 +15,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -23,6 +29,9 @@ class TrackingNumberControllerTest {
     @MockBean
     private TrackingNumberService trackingNumberService;
     
+    @MockBean
+    private TrackingNumberValidationService validationService;
+    
     @Test
     void shouldGenerateTrackingNumber() {
         String expectedTrackingNumber = "ABC123DEF4";
@@ -32,7 +41,7 @@ class TrackingNumberControllerTest {
         );
         
         when(trackingNumberService.generateUniqueTrackingNumber(any(TrackingNumberRequest.class)))
-            .thenReturn(Mono.just(expectedTrackingNumber));
+            .thenReturn(Mono.just(TrackingNumber.of(expectedTrackingNumber)));
         
         webTestClient.post()
             .uri("/api/v1/next-tracking-number")
@@ -84,6 +93,42 @@ class TrackingNumberControllerTest {
             .jsonPath("$.status").isEqualTo(500);
     }
     
+    @Test
+    void shouldValidateTrackingNumbers() {
+        List<String> trackingNumbers = List.of("ABC123DEF4", "abc-123");
+        
+        when(validationService.validate(trackingNumbers))
+            .thenReturn(Mono.just(List.of(
+                new TrackingNumberValidationResult("ABC123DEF4", true, true),
+                new TrackingNumberValidationResult("abc-123", false, false)
+            )));
+        
+        webTestClient.post()
+            .uri("/api/v1/tracking-numbers:validate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new TrackingNumberValidationRequest(trackingNumbers))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.results[0].tracking_number").isEqualTo("ABC123DEF4")
+            .jsonPath("$.results[0].valid_format").isEqualTo(true)
+            .jsonPath("$.results[0].issued").isEqualTo(true)
+            .jsonPath("$.results[1].valid_format").isEqualTo(false)
+            .jsonPath("$.results[1].issued").isEqualTo(false);
+    }
+    
+    @Test
+    void shouldRejectEmptyValidationBatch() {
+        webTestClient.post()
+            .uri("/api/v1/tracking-numbers:validate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new TrackingNumberValidationRequest(List.of()))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.details.trackingNumbers").exists();
+    }
+    
     @Test
     void shouldReturnHealthStatus() {
         webTestClient.get()
@@ -0,0 +1,25 @@
+package com.trackingnumber.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssuedTrackingNumberConsumerTest {
+
+    @Test
+    void shouldDetectEntriesTrimmedBeforeTheGroupReadThem() {
+        RecordId first = RecordId.of("1000-0");
+        // Redis 7 reports the newest trimmed entry
+        assertFalse(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("1200-0"), RecordId.of("999-0"), first));
+        assertTrue(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("998-5"), RecordId.of("999-0"), first));
+        assertFalse(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("0-0"), RecordId.of("0-0"), first));
+        // A new group on a trimmed stream misses everything before the first entry
+        assertTrue(IssuedTrackingNumberConsumer.missedEntries(null, RecordId.of("999-0"), first));
+        assertFalse(IssuedTrackingNumberConsumer.missedEntries(null, null, first));
+        // Without it, only a group behind the first entry is known to have missed something
+        assertTrue(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("998-5"), null, first));
+        assertFalse(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("1000-0"), null, first));
+        assertFalse(IssuedTrackingNumberConsumer.missedEntries(RecordId.of("998-5"), null, null));
+    }
+}
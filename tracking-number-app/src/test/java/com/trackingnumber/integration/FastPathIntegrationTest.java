@@ -0,0 +1,96 @@
+package com.trackingnumber.integration;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"tracking-number.fast-path.enabled=true", "spring.rsocket.server.port=0",
+                "tracking-number.warmup.enabled=false"})
+@Testcontainers
+class FastPathIntegrationTest {
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldGenerateTrackingNumber() {
+        webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TrackingNumberRequest(
+                        "US", "CA", "1.234",
+                        "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.tracking_number").isNotEmpty()
+                .jsonPath("$.created_at").exists();
+    }
+
+    @Test
+    void shouldReturnSameValidationErrorsAsController() {
+        webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TrackingNumberRequest(
+                        "USA", "C", "invalid_weight",
+                        "de619854-b59b-425e-9db4-943379e1bd49", "", "valid-slug"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation failed")
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.details.originCountryId").isEqualTo("Origin country ID must be in ISO 3166-1 alpha-2 format")
+                .jsonPath("$.details.destinationCountryId").exists()
+                .jsonPath("$.details.weight").isEqualTo("Weight must be in format X.XXX (up to 3 decimal places)")
+                .jsonPath("$.details.customerName").isEqualTo("Customer name is required");
+    }
+
+    @Test
+    void shouldHandleEmptyRequestBody() {
+        webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation failed")
+                .jsonPath("$.details").exists();
+    }
+
+    @Test
+    void shouldRejectBodiesAboveTheCodecLimit() {
+        // Past the configured 1MB codec max-in-memory-size
+        String padding = "x".repeat(2 * 1024 * 1024);
+        webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"customerName\":\"" + padding + "\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(413);
+    }
+}
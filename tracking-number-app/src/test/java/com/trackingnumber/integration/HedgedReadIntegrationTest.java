@@ -0,0 +1,137 @@
+package com.trackingnumber.integration;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.repository.HedgedTrackingNumberStore;
+import com.trackingnumber.repository.KeyPerNumberTrackingNumberStore;
+import com.trackingnumber.repository.TrackingNumberStore;
+import com.trackingnumber.testing.FaultInjectingProxy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.trackingnumber.testing.LatencyReport.percentile;
+import static com.trackingnumber.testing.LatencyReport.percentiles;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The primary is reached through a {@link FaultInjectingProxy}, the "replica" directly, so faults only hit the
+ * primary. Prints lookup latency percentiles with and without hedging.
+ */
+@Testcontainers
+class HedgedReadIntegrationTest {
+
+    private static final int LOOKUPS = 3000;
+    private static final Duration SPIKE = Duration.ofMillis(100);
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private FaultInjectingProxy proxy;
+    private LettuceConnectionFactory primaryConnectionFactory;
+    private LettuceConnectionFactory replicaConnectionFactory;
+    private TrackingNumberStore primary;
+    private TrackingNumberStore hedged;
+    private final List<TrackingNumber> issued = new ArrayList<>();
+    private final List<TrackingNumber> lookup = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        proxy = new FaultInjectingProxy(redis.getHost(), redis.getMappedPort(6379));
+        primaryConnectionFactory = connectionFactory("localhost", proxy.port());
+        replicaConnectionFactory = connectionFactory(redis.getHost(), redis.getMappedPort(6379));
+
+        // Lookups never touch the repository
+        primary = new KeyPerNumberTrackingNumberStore(template(primaryConnectionFactory), null, 86400, 500);
+        TrackingNumberStore replica =
+                new KeyPerNumberTrackingNumberStore(template(replicaConnectionFactory), null, 86400, 500);
+        hedged = new HedgedTrackingNumberStore(primary, replica, new SimpleMeterRegistry(),
+                0.95, Duration.ofMillis(1), Duration.ofMillis(50), 0.1);
+
+        for (int i = 0; i < 20; i++) {
+            TrackingNumber trackingNumber = TrackingNumber.ofPacked(1_000_000L + i);
+            lookup.add(trackingNumber);
+            if (i % 2 == 0) {
+                issued.add(trackingNumber);
+            }
+        }
+        primary.block(issued).block();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        proxy.close();
+        primaryConnectionFactory.destroy();
+        replicaConnectionFactory.destroy();
+    }
+
+    @Test
+    void shouldCutTailLatencyUnderLatencySpikes() {
+        proxy.latency(0.01, SPIKE);
+
+        long[] unhedged = measure(primary);
+        long[] hedgedLatencies = measure(hedged);
+
+        System.out.println("Primary only: " + percentiles(unhedged));
+        System.out.println("Hedged:       " + percentiles(hedgedLatencies));
+        assertTrue(percentile(unhedged, 0.999) >= SPIKE.toNanos(), "spikes should reach the unhedged tail");
+        assertTrue(percentile(hedgedLatencies, 0.999) < SPIKE.toNanos(), "hedging should cut the spikes off");
+    }
+
+    @Test
+    void shouldAnswerFromReplicaWhilePrimaryStalls() {
+        proxy.stall(true);
+
+        for (int i = 0; i < 5; i++) {
+            long startTime = System.nanoTime();
+            List<Boolean> found = hedged.exists(lookup).block(Duration.ofSeconds(5));
+            assertTrue(System.nanoTime() - startTime < Duration.ofSeconds(1).toNanos());
+            assertExpected(found);
+        }
+    }
+
+    private long[] measure(TrackingNumberStore store) {
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long startTime = System.nanoTime();
+            List<Boolean> found = store.exists(lookup).block(Duration.ofSeconds(5));
+            latencies[i] = System.nanoTime() - startTime;
+            assertExpected(found);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void assertExpected(List<Boolean> found) {
+        assertNotNull(found);
+        for (int i = 0; i < lookup.size(); i++) {
+            assertEquals(issued.contains(lookup.get(i)), found.get(i));
+        }
+    }
+
+    private static LettuceConnectionFactory connectionFactory(String host, int port) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return connectionFactory;
+    }
+
+    private static ReactiveRedisTemplate<String, String> template(LettuceConnectionFactory connectionFactory) {
+        return new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+    }
+}
@@ -0,0 +1,114 @@
+package com.trackingnumber.integration;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberIssuedEvent;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.feed.IssuedTrackingNumberConsumer;
+import com.trackingnumber.feed.IssuedTrackingNumberFeed;
+import com.trackingnumber.feed.IssuedTrackingNumberPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.rsocket.server.port=0", "tracking-number.warmup.enabled=false"})
+@Testcontainers
+class IssuedTrackingNumberFeedIntegrationTest {
+
+    private static final int EVENTS = 5000;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private IssuedTrackingNumberPublisher publisher;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldDeliverPublishedNumbersToConsumerGroup() {
+        long startTime = System.nanoTime();
+        for (int i = 1; i <= EVENTS; i++) {
+            publisher.publish(TrackingNumber.ofPacked(i), request);
+        }
+        long publishNanos = System.nanoTime() - startTime;
+        System.out.println("Producer overhead: " + publishNanos / EVENTS + "ns per issued number");
+
+        IssuedTrackingNumberConsumer consumer = new IssuedTrackingNumberConsumer(
+                redisTemplate, IssuedTrackingNumberFeed.DEFAULT_STREAM_KEY, 1000, Duration.ofMillis(20));
+        List<TrackingNumberIssuedEvent> received = consumer
+                .consume("billing", "billing-1", Flux::fromIterable)
+                .filter(event -> event.trackingNumber().packed() <= EVENTS)
+                .take(EVENTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(received);
+        Set<Long> numbers = received.stream().map(event -> event.trackingNumber().packed()).collect(Collectors.toSet());
+        assertEquals(EVENTS, numbers.size());
+        assertEquals("de619854-b59b-425e-9db4-943379e1bd49", received.get(0).customerId());
+
+        Long pending = redisTemplate.opsForStream()
+                .pending(IssuedTrackingNumberFeed.DEFAULT_STREAM_KEY, "billing")
+                .map(summary -> summary.getTotalPendingMessages())
+                .block(Duration.ofSeconds(5));
+        assertEquals(0L, pending);
+    }
+
+    @Test
+    void shouldPublishNumbersIssuedThroughTheApi() {
+        String trackingNumber = webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(trackingNumber);
+
+        IssuedTrackingNumberConsumer consumer = new IssuedTrackingNumberConsumer(redisTemplate);
+        TrackingNumberIssuedEvent event = consumer
+                .consume("labels", "labels-1", Flux::fromIterable)
+                .filter(issued -> trackingNumber.contains("\"" + issued.trackingNumber() + "\""))
+                .blockFirst(Duration.ofSeconds(10));
+
+        assertNotNull(event);
+        assertEquals("US", event.originCountryId());
+        assertEquals("CA", event.destinationCountryId());
+    }
+}
@@ -0,0 +1,166 @@
+package com.trackingnumber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.TrackingNumberGeneratorApplication;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two regions, G and H, each with its own Redis, replicating from each other.
+ */
+@Testcontainers
+class MultiRegionIntegrationTest {
+
+    private static final int NUMBERS = 200;
+
+    @Container
+    static RedisContainer redisG = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Container
+    static RedisContainer redisH = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static ConfigurableApplicationContext regionG;
+    private static ConfigurableApplicationContext regionH;
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @BeforeAll
+    static void startRegions() {
+        regionG = start("G", redisG, "H", redisH);
+        regionH = start("H", redisH, "G", redisG);
+    }
+
+    @AfterAll
+    static void stopRegions() {
+        if (regionG != null) {
+            regionG.close();
+        }
+        if (regionH != null) {
+            regionH.close();
+        }
+    }
+
+    @Test
+    void shouldIssueDisjointNumbersAndReplicateThemToTheOtherRegion() {
+        List<String> issuedInG = issue(client(regionG), NUMBERS);
+        List<String> issuedInH = issue(client(regionH), NUMBERS);
+
+        assertTrue(issuedInG.stream().allMatch(number -> number.endsWith("G")));
+        assertTrue(issuedInH.stream().allMatch(number -> number.endsWith("H")));
+
+        // Each region sees the other's numbers once replication catches up
+        awaitIssued(client(regionH), issuedInG);
+        awaitIssued(client(regionG), issuedInH);
+
+        Timer lag = regionH.getBean(MeterRegistry.class)
+                .get("tracking.number.replication.lag").tag("region", "G").timer();
+        assertTrue(lag.count() >= NUMBERS);
+        System.out.printf("Replication lag G -> H: mean %.1fms, max %.1fms%n",
+                lag.mean(TimeUnit.MILLISECONDS), lag.max(TimeUnit.MILLISECONDS));
+    }
+
+    private List<String> issue(WebTestClient client, int count) {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonNode response = client.post()
+                    .uri("/api/v1/next-tracking-number")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody(JsonNode.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertNotNull(response);
+            numbers.add(response.get("tracking_number").asText());
+        }
+        return numbers;
+    }
+
+    private void awaitIssued(WebTestClient client, List<String> numbers) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            JsonNode response = client.post()
+                    .uri("/api/v1/tracking-numbers:validate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("tracking_numbers", numbers))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(JsonNode.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertNotNull(response);
+            long issued = 0;
+            for (JsonNode result : response.get("results")) {
+                if (result.get("issued").asBoolean()) {
+                    issued++;
+                }
+            }
+            if (issued == numbers.size()) {
+                return;
+            }
+            assertTrue(System.nanoTime() < deadline, "only " + issued + " of " + numbers.size() + " replicated");
+            sleep();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String region, RedisContainer redis,
+                                                        String peer, RedisContainer peerRedis) {
+        return new SpringApplicationBuilder(TrackingNumberGeneratorApplication.class)
+                .properties(
+                        "spring.data.redis.host=" + redis.getHost(),
+                        "spring.data.redis.port=" + redis.getMappedPort(6379),
+                        "server.port=0",
+                        "spring.rsocket.server.port=0",
+                        "tracking-number.warmup.enabled=false",
+                        "tracking-number.region.code=" + region,
+                        "tracking-number.region.replication.enabled=true",
+                        "tracking-number.region.replication.peers=" + peer + "=" + peerRedis.getHost() + ":"
+                                + peerRedis.getMappedPort(6379),
+                        "tracking-number.region.replication.consumer-name=" + region + "-1",
+                        "tracking-number.region.replication.poll-interval=20ms",
+                        "logging.level.com.trackingnumber=WARN")
+                .run();
+    }
+
+    private static WebTestClient client(ConfigurableApplicationContext context) {
+        return WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort())
+                .build();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
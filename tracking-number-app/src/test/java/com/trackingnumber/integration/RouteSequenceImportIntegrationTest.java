@@ -0,0 +1,77 @@
+package com.trackingnumber.integration;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.repository.KeyPerNumberTrackingNumberStore;
+import com.trackingnumber.repository.TrackingNumberStore;
+import com.trackingnumber.service.TrackingNumberCheckCharacter;
+import com.trackingnumber.service.TrackingNumberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Route sequences allocated over imported numbers: the blocked values are skipped and stay blocked.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.rsocket.server.port=0", "tracking-number.warmup.enabled=false",
+                "tracking-number.format=route-sequence"})
+@Testcontainers
+class RouteSequenceImportIntegrationTest {
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private TrackingNumberService service;
+
+    @Autowired
+    private TrackingNumberStore store;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldSkipImportedNumbersWithoutOverwritingThem() {
+        // The first leased block starts at sequence value 1
+        List<TrackingNumber> imported = List.of(sequenceNumber("USCA", 1), sequenceNumber("USCA", 2));
+        store.block(imported).block();
+
+        TrackingNumber issued = service.generateUniqueTrackingNumber(new TrackingNumberRequest(
+                "US", "CA", "1.234",
+                "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+        )).block();
+
+        assertEquals(sequenceNumber("USCA", 3), issued);
+        for (TrackingNumber trackingNumber : imported) {
+            String key = "tracking_number:" + trackingNumber;
+            assertEquals(KeyPerNumberTrackingNumberStore.BLOCKED_VALUE, redisTemplate.opsForValue().get(key).block());
+            // Still permanent: no TTL was attached by the allocation
+            assertEquals(Duration.ZERO, redisTemplate.getExpire(key).block());
+        }
+    }
+
+    private static TrackingNumber sequenceNumber(String namespace, int sequence) {
+        String payload = namespace + String.format("%07d", sequence);
+        return TrackingNumber.of(payload + TrackingNumberCheckCharacter.compute(payload));
+    }
+}
@@ -0,0 +1,106 @@
+package com.trackingnumber.integration;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.rsocket.server.port=0",
+                "tracking-number.warmup.enabled=false",
+                "tracking-number.shadow.enabled=true",
+                "tracking-number.shadow.fraction=1.0",
+                "tracking-number.shadow.redis.database=1"
+        })
+@Testcontainers
+class ShadowTrafficIntegrationTest {
+
+    private static final int REQUESTS = 500;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldMirrorIssuanceIntoShadowDatabase() throws InterruptedException {
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> webTestClient.post()
+                        .uri("/api/v1/next-tracking-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .exchange()
+                        .expectStatus().isCreated()
+                        .returnResult(String.class)
+                        .getResponseBody()
+                        .then(), 32)
+                .blockLast();
+
+        DistributionSummary candidateAttempts = meterRegistry.get("tracking.number.shadow.attempts")
+                .tag("path", "candidate").summary();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (candidateAttempts.count() < REQUESTS) {
+            assertTrue(System.nanoTime() < deadline,
+                    "only " + candidateAttempts.count() + " of " + REQUESTS + " mirrored");
+            Thread.sleep(50);
+        }
+
+        Timer primaryIssuance = meterRegistry.get("tracking.number.shadow.issuance").tag("path", "primary").timer();
+        Timer candidateIssuance = meterRegistry.get("tracking.number.shadow.issuance").tag("path", "candidate").timer();
+        assertEquals(REQUESTS, primaryIssuance.count());
+        assertEquals(REQUESTS, candidateIssuance.count());
+        assertEquals(REQUESTS, meterRegistry.get("tracking.number.shadow.generation.allocation")
+                .tag("path", "candidate").summary().count());
+        assertEquals(0, meterRegistry.get("tracking.number.shadow.dropped").counter().count());
+
+        RedisClient client = RedisClient.create(RedisURI.create(redis.getHost(), redis.getMappedPort(6379)));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            // Both paths reserved every number, each in its own database
+            assertEquals(REQUESTS, connection.sync().keys("tracking_number:*").size());
+            connection.sync().select(1);
+            assertEquals(REQUESTS, connection.sync().keys("tracking_number:*").size());
+        } finally {
+            client.shutdown();
+        }
+
+        System.out.println("Primary issuance:   " + primaryIssuance.mean(TimeUnit.MICROSECONDS) + "us mean");
+        System.out.println("Candidate issuance: " + candidateIssuance.mean(TimeUnit.MICROSECONDS) + "us mean");
+    }
+}
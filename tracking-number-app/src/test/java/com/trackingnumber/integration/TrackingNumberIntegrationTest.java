@@ -142,4 +142,14 @@ class TrackingNumberIntegrationTest {
             .jsonPath("$.tracking_number").exists()
             .jsonPath("$.created_at").exists();
     }
+
+    @Test
+    void shouldReportReadyAfterWarmup() {
+        webTestClient.get()
+            .uri("/actuator/health/readiness")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("UP");
+    }
 }
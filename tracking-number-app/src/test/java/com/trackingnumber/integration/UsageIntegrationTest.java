@@ -0,0 +1,131 @@
+package com.trackingnumber.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.usage.UsageCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.rsocket.server.port=0", "tracking-number.warmup.enabled=false",
+                "tracking-number.usage.flush-interval=100ms"})
+@Testcontainers
+class UsageIntegrationTest {
+
+    private static final String CUSTOMER_ID = "de619854-b59b-425e-9db4-943379e1bd49";
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UsageCounters usageCounters;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldCountIssuedNumbersPerCustomerAndRoute() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            issue("US", "CA");
+        }
+        issue("US", "DE");
+
+        Map<String, Long> counts = awaitCounts(CUSTOMER_ID, 4);
+
+        assertEquals(Map.of("USCA", 3L, "USDE", 1L), counts);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentIncrements() throws Exception {
+        String customerId = "concurrent-customer";
+        TrackingNumberRequest request = new TrackingNumberRequest(
+                "GB", "FR", "1.234", customerId, "Concurrent Customer", "concurrent-customer");
+        int threads = 8;
+        int perThread = 50_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    usageCounters.record(request);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(Map.of("GBFR", (long) threads * perThread), awaitCounts(customerId, (long) threads * perThread));
+    }
+
+    @Test
+    void shouldRejectOversizedDateRange() {
+        webTestClient.get()
+                .uri("/api/v1/usage?from=2026-01-01&to=2026-03-01")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private void issue(String origin, String destination) {
+        webTestClient.post()
+                .uri("/api/v1/next-tracking-number")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TrackingNumberRequest(origin, destination, "1.234",
+                        CUSTOMER_ID, "RedBox Logistics", "redbox-logistics"))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    private Map<String, Long> awaitCounts(String customerId, long expectedTotal) throws Exception {
+        Map<String, Long> counts = Map.of();
+        for (int attempt = 0; attempt < 50; attempt++) {
+            byte[] body = webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/v1/usage").queryParam("customerId", customerId).build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .returnResult()
+                    .getResponseBody();
+
+            counts = new HashMap<>();
+            for (JsonNode usage : objectMapper.readTree(body).get("usage")) {
+                assertEquals(customerId, usage.get("customer_id").asText());
+                counts.merge(usage.get("origin_country_id").asText() + usage.get("destination_country_id").asText(),
+                        usage.get("count").asLong(), Long::sum);
+            }
+            if (counts.values().stream().mapToLong(Long::longValue).sum() >= expectedTotal) {
+                return counts;
+            }
+            Thread.sleep(100);
+        }
+        return counts;
+    }
+}
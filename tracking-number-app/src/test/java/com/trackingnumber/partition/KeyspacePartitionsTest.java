@@ -0,0 +1,68 @@
+package com.trackingnumber.partition;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyspacePartitionsTest {
+
+    private final KeyspacePartitions partitions = new KeyspacePartitions(2);
+
+    @Test
+    void shouldReadPartitionFromLeadingHexCharacters() {
+        assertEquals(256, partitions.count());
+        assertEquals(0x00, partitions.partitionOf(TrackingNumberCodec.pack("00ABC12345")));
+        assertEquals(0x3F, partitions.partitionOf(TrackingNumberCodec.pack("3FABC12345")));
+        assertEquals(0xFF, partitions.partitionOf(TrackingNumberCodec.pack("FF")));
+        assertEquals(-1, partitions.partitionOf(TrackingNumberCodec.pack("ZZ12345678")));
+        assertEquals(-1, partitions.partitionOf(TrackingNumberCodec.pack("A")));
+    }
+
+    @Test
+    void shouldRewriteOnlyLeadingCharacters() {
+        for (int i = 0; i < 1000; i++) {
+            String candidate = randomHex(ThreadLocalRandom.current().nextInt(2, 13));
+            int partition = ThreadLocalRandom.current().nextInt(partitions.count());
+
+            String assigned = TrackingNumberCodec.unpack(partitions.assign(TrackingNumberCodec.pack(candidate), partition));
+
+            assertEquals(String.format("%02X", partition) + candidate.substring(2), assigned);
+            assertEquals(partition, partitions.partitionOf(TrackingNumberCodec.pack(assigned)));
+        }
+    }
+
+    @Test
+    void shouldOnlyMoveJoiningMembersShare() {
+        List<String> members = new ArrayList<>(List.of("a", "b", "c"));
+        String[] before = new String[partitions.count()];
+        for (int partition = 0; partition < before.length; partition++) {
+            before[partition] = PartitionOwnership.ownerOf(partition, members);
+        }
+
+        members.add("d");
+        int moved = 0;
+        for (int partition = 0; partition < before.length; partition++) {
+            String after = PartitionOwnership.ownerOf(partition, members);
+            if (!after.equals(before[partition])) {
+                assertEquals("d", after);
+                moved++;
+            }
+        }
+
+        // Roughly a quarter of the partitions move, all of them to the new member
+        assertTrue(moved > 32 && moved < 100, "moved " + moved);
+    }
+
+    private static String randomHex(int length) {
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(Character.toUpperCase(Character.forDigit(ThreadLocalRandom.current().nextInt(16), 16)));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.trackingnumber.performance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.reservation.TrackingNumberIssuer;
+import com.trackingnumber.reservation.redis.KeyPerNumberRedisReservations;
+import com.trackingnumber.service.DefaultTrackingNumberGenerator;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.trackingnumber.testing.LatencyReport.throughput;
+import static com.trackingnumber.testing.LatencyReport.time;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issues the same number of tracking numbers through the HTTP API and through an embedded
+ * {@link TrackingNumberIssuer} reserving in the same Redis, and prints the throughput of each.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.rsocket.server.port=0", "tracking-number.warmup.enabled=false"})
+@Testcontainers
+class EmbeddedIssuanceComparisonPerformanceTest {
+
+    private static final int REQUESTS = 5000;
+    private static final int CONCURRENCY = 64;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private RedisClient redisClient;
+    private StatefulRedisConnection<String, String> connection;
+    private TrackingNumberIssuer issuer;
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @BeforeEach
+    void connect() {
+        redisClient = RedisClient.create(RedisURI.create(redis.getHost(), redis.getMappedPort(6379)));
+        connection = redisClient.connect();
+        issuer = new TrackingNumberIssuer(new DefaultTrackingNumberGenerator(),
+                new KeyPerNumberRedisReservations(connection, 86400), 10);
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.close();
+        redisClient.shutdown();
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void shouldCompareHttpAndInProcessThroughput() {
+        // Warm up both paths before measuring
+        http(500);
+        embedded(500);
+
+        long httpMillis = time(() -> assertEquals(REQUESTS, http(REQUESTS).size()));
+        long embeddedMillis = time(() -> assertEquals(REQUESTS, embedded(REQUESTS).size()));
+
+        System.out.println("HTTP/JSON:  " + throughput(REQUESTS, httpMillis));
+        System.out.println("In-process: " + throughput(REQUESTS, embeddedMillis));
+    }
+
+    @Test
+    void shouldShareUniquenessWithService() {
+        List<String> embedded = embedded(100).stream().map(TrackingNumber::toString).toList();
+
+        JsonNode response = webTestClient.post()
+                .uri("/api/v1/tracking-numbers:validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("tracking_numbers", embedded))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(response);
+        for (JsonNode result : response.get("results")) {
+            assertTrue(result.get("issued").asBoolean(), result.toString());
+        }
+    }
+
+    private List<String> http(int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> webTestClient.post()
+                        .uri("/api/v1/next-tracking-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .exchange()
+                        .returnResult(String.class)
+                        .getResponseBody()
+                        .next(), CONCURRENCY)
+                .collectList()
+                .block();
+    }
+
+    private List<TrackingNumber> embedded(int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> Mono.fromFuture(() -> issuer.issue(request)), CONCURRENCY)
+                .collectList()
+                .block();
+    }
+}
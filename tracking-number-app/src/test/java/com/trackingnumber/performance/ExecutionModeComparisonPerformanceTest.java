@@ -0,0 +1,163 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.TrackingNumberGeneratorApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.trackingnumber.testing.LatencyReport.percentile;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application once on WebFlux/Netty and once on Spring MVC with virtual threads, drives both with the same
+ * HTTP load, and prints throughput, latency percentiles and allocation per request. Only runs in the
+ * {@code virtual-threads} build ({@code ./mvnw -Pvirtual-threads test -Dtest=ExecutionModeComparisonPerformanceTest}),
+ * where both web stacks are on the classpath.
+ */
+@Testcontainers
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIf("servletStackPresent")
+class ExecutionModeComparisonPerformanceTest {
+
+    private static final int WARMUP_REQUESTS = 5000;
+    private static final int REQUESTS = 20000;
+    private static final int CONCURRENCY = 128;
+
+    private static final String REQUEST_BODY = """
+            {"originCountryId":"US","destinationCountryId":"CA","weight":"1.234",\
+            "customerId":"de619854-b59b-425e-9db4-943379e1bd49","customerName":"RedBox Logistics",\
+            "customerSlug":"redbox-logistics"}""";
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    static boolean servletStackPresent() {
+        return ClassUtils.isPresent("org.springframework.web.servlet.DispatcherServlet", null);
+    }
+
+    @Test
+    @Timeout(value = 300, unit = TimeUnit.SECONDS)
+    void shouldCompareReactiveAndVirtualThreadModes() throws Exception {
+        Result reactive = measure(NettyServer.class, "--spring.main.web-application-type=reactive");
+        Result virtualThreads = measure(TrackingNumberGeneratorApplication.class, "--spring.profiles.active=virtual-threads");
+
+        System.out.println("WebFlux / Netty:          " + reactive);
+        System.out.println("MVC / virtual threads:    " + virtualThreads);
+    }
+
+    private Result measure(Class<?> source, String... args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TrackingNumberGeneratorApplication.class, source)
+                .properties(
+                        "spring.data.redis.host=" + redis.getHost(),
+                        "spring.data.redis.port=" + redis.getMappedPort(6379),
+                        "server.port=0",
+                        "spring.rsocket.server.port=0",
+                        "logging.level.com.trackingnumber=WARN")
+                .run(args)) {
+            URI uri = URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/v1/next-tracking-number");
+
+            run(uri, WARMUP_REQUESTS);
+            System.gc();
+
+            long allocatedBefore = allocatedBytes();
+            long startTime = System.nanoTime();
+            long[] latencies = run(uri, REQUESTS);
+            long elapsedNanos = System.nanoTime() - startTime;
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            Arrays.sort(latencies);
+            return new Result(
+                    REQUESTS * 1_000_000_000.0 / elapsedNanos,
+                    percentile(latencies, 0.5),
+                    percentile(latencies, 0.99),
+                    allocated / REQUESTS);
+        }
+    }
+
+    private long[] run(URI uri, int count) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(REQUEST_BODY))
+                .build();
+        long[] latencies = new long[count];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[count];
+
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sentAt = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sentAt;
+                        if (error != null || response.statusCode() != 201) {
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        assertEquals(0, failures.get(), "failed requests");
+        return latencies;
+    }
+
+    // All live platform threads, so it includes the load generator (identical for both modes); virtual threads
+    // allocate through their carrier threads, which are counted
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+
+    // Tomcat is on the classpath too and would otherwise serve the reactive stack as well
+    static class NettyServer {
+
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+
+    private record Result(double requestsPerSecond, long p50Nanos, long p99Nanos, long bytesPerRequest) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, p50 %.2fms, p99 %.2fms, %d bytes allocated per request",
+                    requestsPerSecond, p50Nanos / 1e6, p99Nanos / 1e6, bytesPerRequest);
+        }
+    }
+}
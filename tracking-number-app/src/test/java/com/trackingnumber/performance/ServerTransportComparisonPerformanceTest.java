@@ -0,0 +1,125 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import io.netty.channel.epoll.Epoll;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.trackingnumber.testing.LatencyReport.throughput;
+import static com.trackingnumber.testing.LatencyReport.time;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issues the same number of tracking numbers over HTTP/1.1 with a pool of {@link #CONCURRENCY} connections and over
+ * h2c with every request multiplexed on a single connection, and prints the throughput of each.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.rsocket.server.port=0", "tracking-number.server.h2c=true"})
+@Testcontainers
+class ServerTransportComparisonPerformanceTest {
+
+    private static final int REQUESTS = 5000;
+    private static final int CONCURRENCY = 64;
+
+    private static final String REQUEST_BODY = """
+            {"originCountryId":"US","destinationCountryId":"CA","weight":"1.234",\
+            "customerId":"de619854-b59b-425e-9db4-943379e1bd49","customerName":"RedBox Logistics",\
+            "customerSlug":"redbox-logistics"}""";
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @Test
+    void shouldServeHttp2WithPriorKnowledge() {
+        ConnectionProvider connections = ConnectionProvider.create("h2c", 1);
+        try {
+            assertEquals("HTTP/2.0 201", post(client(HttpProtocol.H2C, connections)).block());
+        } finally {
+            connections.dispose();
+        }
+    }
+
+    @Test
+    void shouldStillServeHttp11() {
+        ConnectionProvider connections = ConnectionProvider.create("http11", 1);
+        try {
+            assertEquals("HTTP/1.1 201", post(client(HttpProtocol.HTTP11, connections)).block());
+        } finally {
+            connections.dispose();
+        }
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void shouldCompareHttp11AndH2cThroughput() {
+        ConnectionProvider http11Connections = ConnectionProvider.create("http11", CONCURRENCY);
+        ConnectionProvider h2cConnections = ConnectionProvider.create("h2c", 1);
+        try {
+            HttpClient http11 = client(HttpProtocol.HTTP11, http11Connections);
+            HttpClient h2c = client(HttpProtocol.H2C, h2cConnections);
+
+            // Warm up both protocols before measuring
+            run(http11, 500);
+            run(h2c, 500);
+
+            long http11Millis = time(() -> assertEquals(REQUESTS, run(http11, REQUESTS)));
+            long h2cMillis = time(() -> assertEquals(REQUESTS, run(h2c, REQUESTS)));
+
+            System.out.println("Server transport: " + (Epoll.isAvailable() ? "epoll" : "nio"));
+            System.out.println("HTTP/1.1, " + CONCURRENCY + " connections: " + throughput(REQUESTS, http11Millis));
+            System.out.println("h2c, 1 connection:          " + throughput(REQUESTS, h2cMillis));
+        } finally {
+            http11Connections.dispose();
+            h2cConnections.dispose();
+        }
+    }
+
+    private HttpClient client(HttpProtocol protocol, ConnectionProvider connections) {
+        return HttpClient.create(connections)
+                .protocol(protocol)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"));
+    }
+
+    private static Mono<String> post(HttpClient client) {
+        return client.post()
+                .uri("/api/v1/next-tracking-number")
+                .send(ByteBufFlux.fromString(Mono.just(REQUEST_BODY)))
+                .responseSingle((response, body) -> body.then(
+                        Mono.just(response.version().text() + " " + response.status().code())));
+    }
+
+    private static long run(HttpClient client, int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> post(client), CONCURRENCY)
+                .filter(status -> status.endsWith(" 201"))
+                .count()
+                .block();
+    }
+}
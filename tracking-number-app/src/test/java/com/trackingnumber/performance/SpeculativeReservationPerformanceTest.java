@@ -0,0 +1,132 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.repository.BucketedTrackingNumberStore;
+import com.trackingnumber.service.SpeculativeCandidates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.trackingnumber.testing.LatencyReport.percentile;
+import static com.trackingnumber.testing.LatencyReport.percentiles;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issuance latency at high keyspace occupancy. Candidates come from a space of {@value #SPACE} numbers, half of
+ * them already issued, so about every other candidate collides. One candidate at a time pays a round trip per
+ * collision; speculative reservation claims {@link SpeculativeCandidates#candidateCount()} candidates at once,
+ * adapting to the collisions it sees during the warm-up.
+ */
+@Testcontainers
+class SpeculativeReservationPerformanceTest {
+
+    private static final int SPACE = 200_000;
+    private static final int WARMUP = 2_000;
+    private static final int ISSUES = 10_000;
+    private static final int CONCURRENCY = 16;
+    private static final int MAX_CANDIDATES = 8;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static BucketedTrackingNumberStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        ReactiveRedisTemplate<String, TrackingNumber> template = new ReactiveRedisTemplate<>(connectionFactory,
+                RedisSerializationContext.<String, TrackingNumber>newSerializationContext(new StringRedisSerializer())
+                        .value(TrackingNumberRedisSerializer.INSTANCE)
+                        .hashKey(TrackingNumberRedisSerializer.INSTANCE)
+                        .build());
+        store = new BucketedTrackingNumberStore(template, 86400, 3600, 1024);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldCutTailLatencyAtHighOccupancy() {
+        long[] sequential = measure(new SpeculativeCandidates(new SimpleMeterRegistry(), false, MAX_CANDIDATES, 0.001));
+        SpeculativeCandidates adaptive = new SpeculativeCandidates(new SimpleMeterRegistry(), true, MAX_CANDIDATES, 0.001);
+        long[] speculative = measure(adaptive);
+
+        report("One candidate at a time", sequential);
+        report("Speculative (" + adaptive.candidateCount() + " candidates)", speculative);
+
+        assertTrue(adaptive.candidateCount() > 1, "Expected more than one candidate at 50% occupancy");
+        assertTrue(percentile(speculative, 0.99) < percentile(sequential, 0.99),
+                "Expected a lower p99 with speculative reservation");
+    }
+
+    private long[] measure(SpeculativeCandidates candidates) {
+        connectionFactory.getReactiveConnection().serverCommands().flushAll().block();
+        // Half of the space issued up front
+        Flux.range(0, SPACE / 2)
+                .map(i -> number(2 * i))
+                .buffer(10_000)
+                .concatMap(store::block)
+                .blockLast();
+
+        issue(candidates, WARMUP).blockLast();
+        List<Long> latencies = issue(candidates, ISSUES).collectList().block();
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private Flux<Long> issue(SpeculativeCandidates candidates, int issues) {
+        return Flux.range(0, issues)
+                .flatMap(i -> Mono.defer(() -> {
+                    long startTime = System.nanoTime();
+                    return reserve(candidates).map(ignored -> System.nanoTime() - startTime);
+                }), CONCURRENCY);
+    }
+
+    // Same loop as the service: draw the current candidate count, reserve the first free one, repeat on a miss
+    private Mono<TrackingNumber> reserve(SpeculativeCandidates candidates) {
+        int count = candidates.candidateCount();
+        List<TrackingNumber> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(number(ThreadLocalRandom.current().nextInt(SPACE)));
+        }
+        return store.reserveFirst(batch, Instant.now())
+                .flatMap(reserved -> {
+                    candidates.record(reserved < 0 ? count : reserved + 1, reserved < 0 ? count : reserved);
+                    return reserved < 0 ? reserve(candidates) : Mono.just(batch.get(reserved));
+                });
+    }
+
+    private static TrackingNumber number(int i) {
+        return TrackingNumber.of(String.format("SR%08d", i));
+    }
+
+    private static void report(String mode, long[] sorted) {
+        System.out.println(mode + ": " + percentiles(sorted));
+    }
+}
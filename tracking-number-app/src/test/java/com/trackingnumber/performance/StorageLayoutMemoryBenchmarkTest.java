@@ -0,0 +1,117 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRedisSerializer;
+import com.trackingnumber.repository.BucketedTrackingNumberStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures {@code used_memory} per issued number for the key-per-number layout (SETNX key, the
+ * {@code @RedisHash} entity and its index set member) and for the bucketed layout.
+ */
+@Testcontainers
+class StorageLayoutMemoryBenchmarkTest {
+
+    private static final int NUMBERS = 100_000;
+    private static final long TTL_SECONDS = 86400;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveRedisTemplate<String, String> stringTemplate;
+    private static ReactiveRedisTemplate<String, TrackingNumber> trackingNumberTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        stringTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+        trackingNumberTemplate = new ReactiveRedisTemplate<>(connectionFactory,
+                RedisSerializationContext.<String, TrackingNumber>newSerializationContext(new StringRedisSerializer())
+                        .value(TrackingNumberRedisSerializer.INSTANCE)
+                        .hashKey(TrackingNumberRedisSerializer.INSTANCE)
+                        .build());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        connectionFactory.getReactiveConnection().serverCommands().flushAll().block();
+    }
+
+    @Test
+    void shouldUseLessMemoryPerNumberWithBucketedLayout() {
+        long keyPerNumberBytes = bytesPerNumber(() -> Flux.range(0, NUMBERS)
+                .flatMap(i -> {
+                    String trackingNumber = trackingNumber(i);
+                    String timestamp = Instant.now().toString();
+                    return stringTemplate.opsForValue()
+                            .set("tracking_number:" + trackingNumber, timestamp, Duration.ofSeconds(TTL_SECONDS))
+                            .then(stringTemplate.opsForHash().putAll("tracking_numbers:" + trackingNumber, Map.of(
+                                    "_class", "com.trackingnumber.domain.TrackingNumberEntity",
+                                    "trackingNumber", trackingNumber,
+                                    "createdAt", timestamp,
+                                    "ttl", Long.toString(TTL_SECONDS))))
+                            .then(stringTemplate.expire("tracking_numbers:" + trackingNumber, Duration.ofSeconds(TTL_SECONDS)))
+                            .then(stringTemplate.opsForSet().add("tracking_numbers", trackingNumber));
+                }, 256)
+                .blockLast());
+
+        flush();
+
+        BucketedTrackingNumberStore store = new BucketedTrackingNumberStore(trackingNumberTemplate, TTL_SECONDS, 3600, 1024);
+        Instant issuedAt = Instant.now();
+        long bucketedBytes = bytesPerNumber(() -> Flux.range(0, NUMBERS)
+                .flatMap(i -> store.save(TrackingNumber.of(trackingNumber(i)), issuedAt), 256)
+                .blockLast());
+
+        System.out.println("Key-per-number layout: " + keyPerNumberBytes + " bytes/number");
+        System.out.println("Bucketed layout: " + bucketedBytes + " bytes/number");
+
+        assertTrue(bucketedBytes * 4 < keyPerNumberBytes,
+                "Expected at least a 4x reduction, got " + keyPerNumberBytes + " -> " + bucketedBytes);
+    }
+
+    private long bytesPerNumber(Runnable load) {
+        long before = usedMemory();
+        load.run();
+        return (usedMemory() - before) / NUMBERS;
+    }
+
+    private long usedMemory() {
+        return Long.parseLong(connectionFactory.getReactiveConnection().serverCommands()
+                .info("memory")
+                .block()
+                .getProperty("used_memory"));
+    }
+
+    private static String trackingNumber(int i) {
+        return String.format("BM%08d", i);
+    }
+}
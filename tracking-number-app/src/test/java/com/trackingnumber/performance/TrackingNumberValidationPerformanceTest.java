@@ -0,0 +1,87 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumberValidationResult;
+import com.trackingnumber.service.TrackingNumberValidationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class TrackingNumberValidationPerformanceTest {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ROUNDS = 20;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private TrackingNumberValidationService validationService;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+        // Keep the local cache out of the way so every round measures the pipelined Redis path
+        registry.add("tracking-number.validation.cache.max-size", () -> "0");
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void shouldValidateLargeBatchesWithPipelinedLookups() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        Map<String, String> issued = new HashMap<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String trackingNumber = String.format("PERF%08d", i);
+            batch.add(i % 100 == 0 ? trackingNumber.toLowerCase() : trackingNumber);
+            if (i % 2 == 0) {
+                issued.put("tracking_number:" + trackingNumber, "2025-05-25T10:30:45.123Z");
+            }
+        }
+        redisTemplate.opsForValue().multiSet(issued).block();
+
+        // Warm up connections and JIT before measuring
+        validationService.validate(batch).block();
+
+        long startTime = System.nanoTime();
+        List<TrackingNumberValidationResult> results = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            results = validationService.validate(batch).block();
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertNotNull(results);
+        assertEquals(BATCH_SIZE, results.size());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            TrackingNumberValidationResult result = results.get(i);
+            assertEquals(i % 100 != 0, result.validFormat(), "Unexpected format result for " + result.trackingNumber());
+            assertEquals(i % 100 != 0 && i % 2 == 0, result.issued(), "Unexpected issued result for " + result.trackingNumber());
+        }
+
+        double numbersPerSecond = (double) BATCH_SIZE * ROUNDS / Math.max(durationMillis, 1) * 1000;
+        System.out.println("Validated " + ROUNDS + " batches of " + BATCH_SIZE + " tracking numbers in "
+                + durationMillis + "ms (" + String.format("%.0f", numbersPerSecond) + " numbers/s)");
+        assertTrue(durationMillis < 30_000, "Validation took too long: " + durationMillis + "ms");
+    }
+}
@@ -0,0 +1,129 @@
+package com.trackingnumber.performance;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.IssuedTrackingNumber;
+import com.trackingnumber.domain.TrackingNumberBulkRequest;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.rsocket.BinaryTrackingNumberCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.rsocket.context.LocalRSocketServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.trackingnumber.testing.LatencyReport.throughput;
+import static com.trackingnumber.testing.LatencyReport.time;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issues the same number of tracking numbers over REST/JSON, RSocket request-response and RSocket
+ * request-stream, and prints the throughput of each.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.rsocket.server.port=0")
+@Testcontainers
+class TransportComparisonPerformanceTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int CONCURRENCY = 64;
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RSocketRequester.Builder requesterBuilder;
+
+    @LocalRSocketServerPort
+    private int rsocketPort;
+
+    private RSocketRequester requester;
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @BeforeEach
+    void connect() {
+        requester = requesterBuilder
+                .dataMimeType(BinaryTrackingNumberCodec.MIME_TYPE)
+                .tcp("localhost", rsocketPort);
+    }
+
+    @AfterEach
+    void disconnect() {
+        requester.dispose();
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void shouldCompareRestAndRSocketThroughput() {
+        // Warm up both transports before measuring
+        rest(200);
+        rsocketRequestResponse(200);
+
+        long restMillis = time(() -> assertEquals(REQUESTS, rest(REQUESTS)));
+        long requestResponseMillis = time(() -> assertEquals(REQUESTS, rsocketRequestResponse(REQUESTS)));
+        long requestStreamMillis = time(() -> {
+            List<IssuedTrackingNumber> issued = requester.route("tracking-numbers.stream")
+                    .data(new TrackingNumberBulkRequest(request, REQUESTS))
+                    .retrieveFlux(IssuedTrackingNumber.class)
+                    .collectList()
+                    .block();
+            assertNotNull(issued);
+            assertEquals(REQUESTS, issued.size());
+        });
+
+        System.out.println("REST/JSON:               " + throughput(REQUESTS, restMillis));
+        System.out.println("RSocket request-response: " + throughput(REQUESTS, requestResponseMillis));
+        System.out.println("RSocket request-stream:    " + throughput(REQUESTS, requestStreamMillis));
+    }
+
+    private long rest(int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> webTestClient.post()
+                        .uri("/api/v1/next-tracking-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .exchange()
+                        .returnResult(String.class)
+                        .getResponseBody()
+                        .then(), CONCURRENCY)
+                .then()
+                .thenReturn((long) count)
+                .block();
+    }
+
+    private long rsocketRequestResponse(int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> requester.route("tracking-numbers.next")
+                        .data(request)
+                        .retrieveMono(IssuedTrackingNumber.class), CONCURRENCY)
+                .count()
+                .block();
+    }
+}
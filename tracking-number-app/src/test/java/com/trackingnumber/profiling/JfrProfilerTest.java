@@ -0,0 +1,62 @@
+package com.trackingnumber.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrProfilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldKeepTheNewestDumps() throws IOException {
+        write("tracking-number-20240101-000000.jfr", 10);
+        write("tracking-number-20240101-000001.jfr", 10);
+        write("tracking-number-20240101-000002.jfr", 10);
+        write("unrelated.jfr", 10);
+        Path newest = write("tracking-number-20240101-000003.jfr", 10);
+
+        JfrProfiler.prune(directory, newest, 2, 1_000);
+
+        assertEquals(List.of("tracking-number-20240101-000002.jfr", "tracking-number-20240101-000003.jfr",
+                "unrelated.jfr"), files());
+    }
+
+    @Test
+    void shouldDeleteOldDumpsOverTheTotalSize() throws IOException {
+        write("tracking-number-20240101-000000.jfr", 40);
+        write("tracking-number-20240101-000001.jfr", 40);
+        Path newest = write("tracking-number-20240101-000002.jfr", 40);
+
+        JfrProfiler.prune(directory, newest, 10, 100);
+
+        assertEquals(List.of("tracking-number-20240101-000001.jfr", "tracking-number-20240101-000002.jfr"), files());
+    }
+
+    @Test
+    void shouldRejectADumpLargerThanTheTotalSize() throws IOException {
+        write("tracking-number-20240101-000000.jfr", 10);
+        Path newest = write("tracking-number-20240101-000001.jfr", 200);
+
+        assertThrows(IllegalStateException.class, () -> JfrProfiler.prune(directory, newest, 10, 100));
+        assertEquals(List.of("tracking-number-20240101-000000.jfr"), files());
+    }
+
+    private Path write(String name, int size) throws IOException {
+        return Files.write(directory.resolve(name), new byte[size]);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+}
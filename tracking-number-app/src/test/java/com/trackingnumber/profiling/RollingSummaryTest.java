@@ -0,0 +1,57 @@
+package com.trackingnumber.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingSummaryTest {
+
+    @Test
+    void shouldAggregateAndRankByTotal() {
+        RollingSummary summary = new RollingSummary(Duration.ofSeconds(10), 10);
+
+        summary.record("allocation", "byte[]", 100, 1_000);
+        summary.record("allocation", "byte[]", 300, 2_500);
+        summary.record("allocation", "String", 250, 3_000);
+        summary.record("allocation", "Long", 10, 3_000);
+
+        List<RollingSummary.Entry> entries = summary.snapshot(2, 3_000).get("allocation");
+
+        assertEquals(2, entries.size());
+        assertEquals(new RollingSummary.Entry("byte[]", 2, 400, 300), entries.get(0));
+        assertEquals(new RollingSummary.Entry("String", 1, 250, 250), entries.get(1));
+    }
+
+    @Test
+    void shouldDropSlicesOutsideWindow() {
+        RollingSummary summary = new RollingSummary(Duration.ofSeconds(10), 10);
+
+        summary.record("contention", "Object", 5, 1_000);
+        summary.record("contention", "Object", 7, 10_500);
+
+        Map<String, List<RollingSummary.Entry>> snapshot = summary.snapshot(10, 10_500);
+        assertEquals(new RollingSummary.Entry("Object", 2, 12, 7), snapshot.get("contention").get(0));
+
+        snapshot = summary.snapshot(10, 11_000);
+        assertEquals(new RollingSummary.Entry("Object", 1, 7, 7), snapshot.get("contention").get(0));
+
+        // t=20s lands in the slice that held t=10.5s and starts it afresh
+        summary.record("contention", "Object", 1, 20_000);
+        snapshot = summary.snapshot(10, 20_000);
+        assertEquals(new RollingSummary.Entry("Object", 1, 1, 1), snapshot.get("contention").get(0));
+    }
+
+    @Test
+    void shouldIgnoreSamplesOlderThanRing() {
+        RollingSummary summary = new RollingSummary(Duration.ofSeconds(10), 10);
+
+        summary.record("blocking", "park", 3, 15_000);
+        summary.record("blocking", "park", 100, 5_000);
+
+        assertEquals(new RollingSummary.Entry("park", 1, 3, 3), summary.snapshot(10, 15_000).get("blocking").get(0));
+    }
+}
@@ -0,0 +1,41 @@
+package com.trackingnumber.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyQuantileTest {
+
+    @Test
+    void shouldKeepInitialValueUntilEnoughSamples() {
+        LatencyQuantile quantile = new LatencyQuantile(0.95, 50_000_000L);
+        for (int i = 0; i < 63; i++) {
+            quantile.record(1_000);
+        }
+        assertEquals(50_000_000L, quantile.valueNanos());
+
+        quantile.record(1_000);
+        assertEquals(1_000, quantile.valueNanos());
+    }
+
+    @Test
+    void shouldTrackQuantileOfRecentSamples() {
+        LatencyQuantile quantile = new LatencyQuantile(0.95, 0);
+        for (int i = 0; i < 1024; i++) {
+            quantile.record(i);
+        }
+        assertEquals(972, quantile.valueNanos());
+
+        // The ring only remembers the last 1024 samples
+        for (int i = 0; i < 1024; i++) {
+            quantile.record(10_000 + i);
+        }
+        assertEquals(10_972, quantile.valueNanos());
+    }
+
+    @Test
+    void shouldRejectQuantileOutsideOpenInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyQuantile(1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyQuantile(0, 0));
+    }
+}
@@ -0,0 +1,31 @@
+package com.trackingnumber.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyspaceOccupancyTrackerTest {
+
+    @Test
+    void shouldPredictCollisionProbabilityFromOccupancy() {
+        // 16^10 ~ 1.1e12 candidates; a billion live numbers collide about once in 1100 attempts
+        double probability = KeyspaceOccupancyTracker.collisionProbability(1_000_000_000L, 10);
+
+        assertEquals(1e9 / Math.pow(16, 10), probability, 1e-12);
+        assertTrue(probability > 0.0009 && probability < 0.001);
+    }
+
+    @Test
+    void shouldDropProbabilityWithLongerNumbers() {
+        double atTen = KeyspaceOccupancyTracker.collisionProbability(1_000_000_000L, 10);
+        double atEleven = KeyspaceOccupancyTracker.collisionProbability(1_000_000_000L, 11);
+
+        assertEquals(atTen / 16, atEleven, 1e-12);
+    }
+
+    @Test
+    void shouldCapProbabilityAtOne() {
+        assertEquals(1.0, KeyspaceOccupancyTracker.collisionProbability(Long.MAX_VALUE, 1));
+        assertEquals(0.0, KeyspaceOccupancyTracker.collisionProbability(0, 10));
+    }
+}
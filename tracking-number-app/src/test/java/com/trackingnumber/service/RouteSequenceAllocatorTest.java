@@ -0,0 +1,66 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.exception.TrackingNumberException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RouteSequenceAllocatorTest {
+
+    private static final String KEY = "tracking_number_seq:{USCA}";
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private RouteSequenceAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        allocator = new RouteSequenceAllocator(redisTemplate, new SimpleMeterRegistry(), 10);
+    }
+
+    @Test
+    void shouldShareOneLeaseBetweenConcurrentRefills() {
+        Sinks.One<Long> lease = Sinks.one();
+        when(valueOperations.increment(KEY, 10L)).thenReturn(lease.asMono());
+
+        CompletableFuture<Long> first = allocator.nextSequence("USCA").toFuture();
+        CompletableFuture<Long> second = allocator.nextSequence("USCA").toFuture();
+        lease.tryEmitValue(10L);
+
+        assertEquals(Set.of(1L, 2L), Set.of(first.join(), second.join()));
+        verify(valueOperations, times(1)).increment(KEY, 10L);
+    }
+
+    @Test
+    void shouldLeaseAgainAfterAFailedRefill() {
+        when(valueOperations.increment(KEY, 10L))
+                .thenReturn(Mono.error(new RuntimeException("Connection reset")), Mono.just(20L));
+
+        StepVerifier.create(allocator.nextSequence("USCA"))
+                .expectError(TrackingNumberException.class)
+                .verify();
+        StepVerifier.create(allocator.nextSequence("USCA"))
+                .expectNext(11L)
+                .verifyComplete();
+    }
+}
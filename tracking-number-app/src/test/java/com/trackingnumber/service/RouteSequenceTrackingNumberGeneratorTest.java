@@ -0,0 +1,98 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteSequenceTrackingNumberGeneratorTest {
+
+    @Mock
+    private RouteSequenceAllocator allocator;
+
+    private TrackingNumberRequest validRequest;
+
+    @BeforeEach
+    void setUp() {
+        validRequest = new TrackingNumberRequest(
+                "US", "CA", "1.234",
+                "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+        );
+    }
+
+    @Test
+    void shouldPrefixRouteAndAppendCheckCharacter() {
+        RouteSequenceTrackingNumberGenerator generator =
+                new RouteSequenceTrackingNumberGenerator(allocator, "route", 7);
+        when(allocator.nextSequence("USCA")).thenReturn(Mono.just(36L));
+
+        StepVerifier.create(generator.generate(validRequest))
+                .assertNext(generated -> {
+                    String trackingNumber = generated.toString();
+                    assertEquals(12, trackingNumber.length());
+                    assertTrue(trackingNumber.startsWith("USCA0000010"));
+                    assertTrue(Pattern.matches("^[A-Z0-9]{1,16}$", trackingNumber));
+                    assertTrue(TrackingNumberCheckCharacter.isValid(trackingNumber));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldUseStableCustomerNamespace() {
+        RouteSequenceTrackingNumberGenerator generator =
+                new RouteSequenceTrackingNumberGenerator(allocator, "customer", 7);
+        when(allocator.nextSequence(anyString())).thenReturn(Mono.just(1L));
+
+        String namespace = RouteSequenceTrackingNumberGenerator.customerNamespace("redbox-logistics");
+
+        StepVerifier.create(generator.generate(validRequest))
+                .assertNext(trackingNumber -> assertTrue(trackingNumber.toString().startsWith(namespace)))
+                .verifyComplete();
+
+        verify(allocator).nextSequence(namespace);
+        assertEquals(namespace, RouteSequenceTrackingNumberGenerator.customerNamespace("redbox-logistics"));
+        assertTrue(Pattern.matches("^[A-Z0-9]{4}$", namespace));
+    }
+
+    @Test
+    void shouldFailWhenSequenceSpaceIsExhausted() {
+        RouteSequenceTrackingNumberGenerator generator =
+                new RouteSequenceTrackingNumberGenerator(allocator, "route", 1);
+        when(allocator.nextSequence("USCA")).thenReturn(Mono.just(36L));
+
+        StepVerifier.create(generator.generate(validRequest))
+                .expectError(TrackingNumberException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldDetectSubstitutedCharacter() {
+        RouteSequenceTrackingNumberGenerator generator =
+                new RouteSequenceTrackingNumberGenerator(allocator, "route", 7);
+        String trackingNumber = generator.format("USCA", 123456L);
+        char[] corrupted = trackingNumber.toCharArray();
+        corrupted[6] = corrupted[6] == '9' ? '8' : '9';
+
+        assertTrue(TrackingNumberCheckCharacter.isValid(trackingNumber));
+        assertFalse(TrackingNumberCheckCharacter.isValid(new String(corrupted)));
+    }
+
+    @Test
+    void shouldRejectWidthBeyondMaximumLength() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteSequenceTrackingNumberGenerator(allocator, "route", 8));
+    }
+}
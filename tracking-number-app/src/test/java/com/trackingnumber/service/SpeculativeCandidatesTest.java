@@ -0,0 +1,51 @@
+package com.trackingnumber.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeculativeCandidatesTest {
+
+    @Test
+    void shouldReserveOneCandidateWhileCollisionsAreRare() {
+        assertEquals(1, SpeculativeCandidates.candidatesFor(0, 0.001, 8));
+        assertEquals(1, SpeculativeCandidates.candidatesFor(0.001, 0.001, 8));
+    }
+
+    @Test
+    void shouldGrowCandidatesWithCollisionRate() {
+        // 0.01^2 and 0.1^3 both reach the 0.001 target
+        assertEquals(2, SpeculativeCandidates.candidatesFor(0.01, 0.001, 8));
+        assertEquals(3, SpeculativeCandidates.candidatesFor(0.1, 0.001, 8));
+        // 0.5^10 ~ 0.001, capped at max-candidates
+        assertEquals(8, SpeculativeCandidates.candidatesFor(0.5, 0.001, 8));
+        assertEquals(8, SpeculativeCandidates.candidatesFor(1.0, 0.001, 8));
+    }
+
+    @Test
+    void shouldAdaptToRecordedCollisions() {
+        SpeculativeCandidates candidates = new SpeculativeCandidates(new SimpleMeterRegistry(), true, 8, 0.001);
+        assertEquals(1, candidates.candidateCount());
+
+        // Every other candidate collides
+        for (int i = 0; i < 20_000; i++) {
+            candidates.record(2, 1);
+        }
+        assertEquals(8, candidates.candidateCount());
+
+        for (int i = 0; i < 100_000; i++) {
+            candidates.record(1, 0);
+        }
+        assertEquals(1, candidates.candidateCount());
+    }
+
+    @Test
+    void shouldStayAtOneCandidateWhenDisabled() {
+        SpeculativeCandidates candidates = new SpeculativeCandidates(new SimpleMeterRegistry(), false, 8, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            candidates.record(1, 1);
+        }
+        assertEquals(1, candidates.candidateCount());
+    }
+}
@@ -0,0 +1,235 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.archive.TrackingNumberArchive;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.feed.IssuedTrackingNumberPublisher;
+import com.trackingnumber.repository.TrackingNumberStore;
+import com.trackingnumber.shadow.ShadowTraffic;
+import com.trackingnumber.usage.UsageCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingNumberServiceImplTest {
+
+    private static final TrackingNumber FIRST = TrackingNumber.of("ABC123DEF4");
+    private static final TrackingNumber SECOND = TrackingNumber.of("XYZ789GHI0");
+    private static final TrackingNumber THIRD = TrackingNumber.of("QRS456TUV7");
+    private static final TrackingNumber FOURTH = TrackingNumber.of("LMN012OPQ3");
+
+    @Mock
+    private TrackingNumberStore store;
+
+    @Mock
+    private TrackingNumberGenerator generator;
+
+    @Mock
+    private RouteSequenceTrackingNumberGenerator routeSequenceGenerator;
+
+    @Mock
+    private IssuedTrackingNumberCache issuedCache;
+
+    @Mock
+    private KeyspaceOccupancyTracker occupancyTracker;
+
+    @Mock
+    private IssuedTrackingNumberPublisher feedPublisher;
+
+    @Mock
+    private UsageCounters usageCounters;
+
+    @Mock
+    private TrackingNumberArchive archive;
+
+    @Mock
+    private ShadowTraffic shadowTraffic;
+
+    @Mock
+    private SpeculativeCandidates speculativeCandidates;
+
+    private TrackingNumberServiceImpl service;
+    private TrackingNumberRequest validRequest;
+
+    @BeforeEach
+    void setUp() {
+        TrackingNumberIssuance issuance = new TrackingNumberIssuance(store, generator, routeSequenceGenerator,
+                issuedCache, occupancyTracker, feedPublisher, usageCounters, archive, shadowTraffic,
+                speculativeCandidates);
+        service = new TrackingNumberServiceImpl(issuance, 10, "random");
+        lenient().when(feedPublisher.publish(any(), any())).thenReturn(Mono.empty());
+        validRequest = new TrackingNumberRequest(
+                "US", "CA", "1.234",
+                "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+        );
+    }
+
+    @Test
+    void shouldGenerateUniqueTrackingNumber() {
+        when(generator.generatePacked(validRequest, 0)).thenReturn(FIRST.packed());
+        when(store.reserve(eq(FIRST), any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(FIRST)
+                .verifyComplete();
+
+        verify(occupancyTracker).recordIssued(FIRST);
+        verify(issuedCache).record(FIRST);
+        verify(feedPublisher).publish(FIRST, validRequest);
+        verify(usageCounters).record(validRequest);
+    }
+
+    @Test
+    void shouldRetryOnDuplicateTrackingNumber() {
+        when(generator.generatePacked(validRequest, 0)).thenReturn(FIRST.packed());
+        when(generator.generatePacked(validRequest, 1)).thenReturn(SECOND.packed());
+        when(store.reserve(eq(FIRST), any())).thenReturn(Mono.just(false));
+        when(store.reserve(eq(SECOND), any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(SECOND)
+                .verifyComplete();
+
+        verify(occupancyTracker).recordDuplicate();
+        verify(speculativeCandidates).record(1, 1);
+        verify(speculativeCandidates).record(1, 0);
+        verify(shadowTraffic).recordPrimaryAttempts(2);
+    }
+
+    @Test
+    void shouldFailAfterMaxRetries() {
+        when(generator.generatePacked(eq(validRequest), anyInt())).thenReturn(FIRST.packed());
+        when(store.reserve(eq(FIRST), any())).thenReturn(Mono.just(false));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectError(TrackingNumberException.class)
+                .verify();
+
+        verify(generator, times(10)).generatePacked(eq(validRequest), anyInt());
+        verify(feedPublisher, never()).publish(any(), any());
+    }
+
+    @Test
+    void shouldSkipArchivedNumbersWithoutARoundTrip() {
+        when(generator.generatePacked(validRequest, 0)).thenReturn(FIRST.packed());
+        when(generator.generatePacked(validRequest, 1)).thenReturn(SECOND.packed());
+        when(archive.contains(anyLong())).thenReturn(true, false);
+        when(store.reserve(eq(SECOND), any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(SECOND)
+                .verifyComplete();
+
+        verify(store, never()).reserve(eq(FIRST), any());
+        verify(occupancyTracker).recordDuplicate();
+    }
+
+    @Test
+    void shouldHandleStoreError() {
+        when(generator.generatePacked(eq(validRequest), anyInt())).thenReturn(FIRST.packed());
+        when(store.reserve(eq(FIRST), any())).thenReturn(Mono.error(new RuntimeException("Redis connection failed")));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectError(TrackingNumberException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldHandleGeneratorError() {
+        when(generator.generatePacked(eq(validRequest), anyInt()))
+                .thenThrow(new RuntimeException("Hash generation failed"));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectError(TrackingNumberException.class)
+                .verify();
+
+        verify(generator).generatePacked(validRequest, 0);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void shouldReserveSpeculativeCandidatesInOneExchange() {
+        when(speculativeCandidates.candidateCount()).thenReturn(3);
+        when(generator.generatePacked(validRequest, 0)).thenReturn(FIRST.packed());
+        when(generator.generatePacked(validRequest, 1)).thenReturn(SECOND.packed());
+        when(generator.generatePacked(validRequest, 2)).thenReturn(THIRD.packed());
+        when(store.reserveFirst(eq(List.of(FIRST, SECOND, THIRD)), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(SECOND)
+                .verifyComplete();
+
+        verify(store, never()).reserve(any(), any());
+        verify(occupancyTracker).recordDuplicate();
+        verify(occupancyTracker).recordIssued(SECOND);
+        verify(speculativeCandidates).record(2, 1);
+        verify(shadowTraffic).recordPrimaryAttempts(2);
+    }
+
+    @Test
+    void shouldLeaveArchivedNumbersOutOfTheSpeculativeBatch() {
+        when(speculativeCandidates.candidateCount()).thenReturn(3);
+        when(generator.generatePacked(validRequest, 0)).thenReturn(FIRST.packed());
+        when(generator.generatePacked(validRequest, 1)).thenReturn(SECOND.packed());
+        when(generator.generatePacked(validRequest, 2)).thenReturn(THIRD.packed());
+        // Only the second of the three candidates is archived
+        when(archive.contains(anyLong())).thenReturn(false, true, false);
+        when(store.reserveFirst(eq(List.of(FIRST, THIRD)), any())).thenReturn(Mono.just(0));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(FIRST)
+                .verifyComplete();
+
+        verify(occupancyTracker).recordDuplicate();
+    }
+
+    @Test
+    void shouldContinueAfterEverySpeculativeCandidateCollides() {
+        when(speculativeCandidates.candidateCount()).thenReturn(2);
+        when(generator.generatePacked(eq(validRequest), anyInt()))
+                .thenReturn(FIRST.packed(), SECOND.packed(), THIRD.packed(), FOURTH.packed());
+        when(store.reserveFirst(eq(List.of(FIRST, SECOND)), any())).thenReturn(Mono.just(-1));
+        when(store.reserveFirst(eq(List.of(THIRD, FOURTH)), any())).thenReturn(Mono.just(0));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(THIRD)
+                .verifyComplete();
+
+        verify(speculativeCandidates).record(2, 2);
+        verify(speculativeCandidates).record(1, 0);
+        verify(generator).generatePacked(validRequest, 2);
+        verify(generator).generatePacked(validRequest, 3);
+    }
+
+    @Test
+    void shouldDrawFreshCandidatesWhenRetryingASpeculativeReservation() {
+        when(speculativeCandidates.candidateCount()).thenReturn(2);
+        when(generator.generatePacked(eq(validRequest), anyInt()))
+                .thenReturn(FIRST.packed(), SECOND.packed(), THIRD.packed(), FOURTH.packed());
+        when(store.reserveFirst(anyList(), any()))
+                .thenReturn(Mono.error(new RuntimeException("Connection reset")), Mono.just(0));
+
+        StepVerifier.create(service.generateUniqueTrackingNumber(validRequest))
+                .expectNext(THIRD)
+                .verifyComplete();
+
+        verify(store).reserveFirst(eq(List.of(FIRST, SECOND)), any());
+        verify(store).reserveFirst(eq(List.of(THIRD, FOURTH)), any());
+        verify(speculativeCandidates).record(1, 0);
+    }
+}
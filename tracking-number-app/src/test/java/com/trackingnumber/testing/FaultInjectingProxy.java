@@ -0,0 +1,158 @@
+package com.trackingnumber.testing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-JVM TCP proxy for Redis (or anything else) that injects faults into responses: random latency spikes,
+ * connection resets and stalls. It forwards bytes without parsing them, so a delayed read delays every reply
+ * queued behind it on that connection, as a slow single-threaded Redis would.
+ */
+public final class FaultInjectingProxy implements AutoCloseable {
+
+    private record Latency(double probability, long delayMillis) {
+    }
+
+    private final String targetHost;
+    private final int targetPort;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final Object stallMonitor = new Object();
+
+    private volatile Latency latency = new Latency(0, 0);
+    private volatile double resetProbability;
+    private volatile boolean stalled;
+
+    public FaultInjectingProxy(String targetHost, int targetPort) throws IOException {
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        start("proxy-accept", this::accept);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Delays a response chunk by {@code delay} with the given probability.
+     */
+    public void latency(double probability, Duration delay) {
+        this.latency = new Latency(probability, delay.toMillis());
+    }
+
+    /**
+     * Resets the connection instead of forwarding a response chunk, with the given probability.
+     */
+    public void resetProbability(double probability) {
+        this.resetProbability = probability;
+    }
+
+    /**
+     * Holds every response until unstalled; requests are still accepted.
+     */
+    public void stall(boolean stalled) {
+        synchronized (stallMonitor) {
+            this.stalled = stalled;
+            stallMonitor.notifyAll();
+        }
+    }
+
+    public void clearFaults() {
+        latency(0, Duration.ZERO);
+        resetProbability(0);
+        stall(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+        stall(false);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket upstream = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                upstream.setTcpNoDelay(true);
+                sockets.add(client);
+                sockets.add(upstream);
+                start("proxy-request", () -> pump(client, upstream, false));
+                start("proxy-response", () -> pump(upstream, client, true));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    throw new IllegalStateException("Proxy failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void pump(Socket from, Socket to, boolean inject) {
+        byte[] buffer = new byte[16 * 1024];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (inject && injectFault(from, to)) {
+                    return;
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Either side closed or was reset; tear down both
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    // True if the connection was reset
+    private boolean injectFault(Socket from, Socket to) throws InterruptedException, SocketException {
+        synchronized (stallMonitor) {
+            while (stalled && !serverSocket.isClosed()) {
+                stallMonitor.wait();
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (resetProbability > 0 && random.nextDouble() < resetProbability) {
+            to.setSoLinger(true, 0);
+            closeQuietly(to);
+            closeQuietly(from);
+            return true;
+        }
+        Latency current = latency;
+        if (current.probability() > 0 && random.nextDouble() < current.probability()) {
+            Thread.sleep(current.delayMillis());
+        }
+        return false;
+    }
+
+    private void closeQuietly(Socket socket) {
+        sockets.remove(socket);
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    private static void start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,41 @@
+package com.trackingnumber.testing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing and percentile helpers shared by the performance tests, so every comparison reports numbers computed
+ * the same way. Percentiles use the nearest-rank definition: the smallest sample with at least
+ * {@code quantile} of all samples at or below it.
+ */
+public final class LatencyReport {
+
+    private LatencyReport() {
+    }
+
+    public static long time(Runnable runnable) {
+        long startTime = System.nanoTime();
+        runnable.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    public static String throughput(int numbers, long millis) {
+        return numbers + " numbers in " + millis + "ms ("
+                + String.format("%.0f", numbers * 1000.0 / Math.max(millis, 1)) + " numbers/s)";
+    }
+
+    /**
+     * @param sorted latencies in nanoseconds, ascending
+     */
+    public static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1))];
+    }
+
+    /**
+     * @param sorted latencies in nanoseconds, ascending
+     */
+    public static String percentiles(long[] sorted) {
+        return String.format("p50 %.2fms, p99 %.2fms, p99.9 %.2fms, max %.2fms",
+                percentile(sorted, 0.5) / 1e6, percentile(sorted, 0.99) / 1e6,
+                percentile(sorted, 0.999) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
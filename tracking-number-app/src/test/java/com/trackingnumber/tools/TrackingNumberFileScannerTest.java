@@ -0,0 +1,77 @@
+package com.trackingnumber.tools;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberFileScannerTest {
+
+    private static final String CONTENT =
+            "ABC123\r\nabc\n\nZZZZZZZZZZZZ\n1234567890123\nABCDEFGHIJKLMNOPQ\n00001\nLAST";
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(longs = {18, 25, TrackingNumberFileScanner.DEFAULT_WINDOW_BYTES})
+    void shouldPackValidLinesAcrossMappingWindows(long windowBytes) throws IOException {
+        Path file = write(CONTENT);
+
+        try (TrackingNumberFileScanner scanner = new TrackingNumberFileScanner(file, 0, windowBytes)) {
+            assertEquals(List.of("ABC123", "ZZZZZZZZZZZZ", "00001", "LAST"), readAll(scanner));
+            assertEquals(2, scanner.invalid());
+            assertEquals(1, scanner.unreachable());
+            assertEquals(scanner.size(), scanner.position());
+        }
+    }
+
+    @Test
+    void shouldResumeFromLineBoundary() throws IOException {
+        Path file = write(CONTENT);
+        long resumeAt;
+        try (TrackingNumberFileScanner scanner = new TrackingNumberFileScanner(file, 0)) {
+            long[] packed = new long[2];
+            assertEquals(2, scanner.next(packed));
+            resumeAt = scanner.position();
+        }
+
+        try (TrackingNumberFileScanner scanner = new TrackingNumberFileScanner(file, resumeAt)) {
+            assertEquals(List.of("00001", "LAST"), readAll(scanner));
+        }
+    }
+
+    @Test
+    void shouldRejectLineLongerThanWindow() throws IOException {
+        Path file = write("ABCDEFGHIJ\n");
+
+        try (TrackingNumberFileScanner scanner = new TrackingNumberFileScanner(file, 0, 4)) {
+            assertThrows(IOException.class, () -> scanner.next(new long[1]));
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("numbers.txt"), content);
+    }
+
+    private static List<String> readAll(TrackingNumberFileScanner scanner) throws IOException {
+        List<String> numbers = new ArrayList<>();
+        long[] packed = new long[3];
+        int count;
+        while ((count = scanner.next(packed)) > 0) {
+            for (int i = 0; i < count; i++) {
+                numbers.add(TrackingNumberCodec.unpack(packed[i]));
+            }
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,107 @@
+package com.trackingnumber.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Test
+    void shouldRejectBeyondLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 1.5, 0.2, 100);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.inFlight());
+
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsStableAndSaturated() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 10, 200, 1.5, 0.2, 100);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limit);
+            releaseAll(limit, FAST);
+        }
+
+        assertTrue(limit.limit() > 20, "limit should grow, was " + limit.limit());
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200, 1.5, 0.2, 600);
+        for (int i = 0; i < 50; i++) {
+            saturate(limit);
+            releaseAll(limit, FAST);
+        }
+        int before = limit.limit();
+
+        for (int i = 0; i < 3; i++) {
+            saturate(limit);
+            releaseAll(limit, SLOW);
+        }
+
+        assertTrue(limit.limit() < before, "limit should shrink from " + before + ", was " + limit.limit());
+        assertTrue(limit.limit() >= 10);
+    }
+
+    @Test
+    void shouldIgnoreAppLimitedSamples() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200, 1.5, 0.2, 600);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(i % 2 == 0 ? FAST : SLOW, true);
+        }
+
+        assertEquals(100, limit.limit());
+    }
+
+    @Test
+    void shouldShrinkOnDrops() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 10, 200, 1.5, 0.2, 600);
+
+        assertTrue(limit.tryAcquire());
+        limit.releaseDropped();
+        assertEquals(90, limit.limit());
+        assertEquals(0, limit.inFlight());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.releaseDropped();
+        }
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void shouldKeepAFixedLimit() {
+        GradientConcurrencyLimit limit = GradientConcurrencyLimit.fixed(4);
+        for (int i = 0; i < 20; i++) {
+            saturate(limit);
+            assertEquals(4, limit.inFlight());
+            releaseAll(limit, i % 2 == 0 ? FAST : SLOW);
+        }
+
+        assertEquals(4, limit.limit());
+    }
+
+    private static void saturate(GradientConcurrencyLimit limit) {
+        while (limit.tryAcquire()) {
+            // take every permit
+        }
+    }
+
+    private static void releaseAll(GradientConcurrencyLimit limit, long rttNanos) {
+        while (limit.inFlight() > 0) {
+            limit.release(rttNanos, true);
+        }
+    }
+}
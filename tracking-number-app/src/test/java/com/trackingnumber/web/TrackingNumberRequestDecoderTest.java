@@ -0,0 +1,64 @@
+package com.trackingnumber.web;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.domain.TrackingNumberRequestValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberRequestDecoderTest {
+
+    // Same leniency as the application's spring.jackson settings
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void shouldDecodeValidRequest() {
+        TrackingNumberRequest request = decode("""
+                {"originCountryId":"US","destinationCountryId":"CA","weight":"1.234",
+                 "customerId":"de619854-b59b-425e-9db4-943379e1bd49","customerName":"RedBox Logistics",
+                 "customerSlug":"redbox-logistics"}""");
+
+        assertEquals(new TrackingNumberRequest("US", "CA", "1.234",
+                "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"), request);
+        // Valid country codes are shared instances
+        assertSame(request.originCountryId(), decode("{\"originCountryId\":\"US\"}").originCountryId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{}",
+            "{\"originCountryId\":\"USA\",\"destinationCountryId\":\"C\",\"weight\":\"invalid_weight\",\"customerName\":\"\"}",
+            " { \"weight\" : 1.234 , \"extra\" : {\"nested\": [1, \"]\", {}]}, \"customerSlug\": null } ",
+            "{\"customerName\":\"Caf\\u00e9 \\\"Logistics\\\"\",\"customerId\":\"Zürich-42\",\"originCountryId\":\"us\"}",
+            "{\"originCountryId\":\"US\",\"destinationCountryId\":\"CA\",\"weight\":\"1234.000\",\"customerId\":\"c\","
+                    + "\"customerName\":\"n\",\"customerSlug\":\"" + "s".repeat(51) + "\"}"
+    })
+    void shouldMatchJacksonBindingAndValidation(String json) throws Exception {
+        TrackingNumberRequest expected = objectMapper.readValue(json, TrackingNumberRequest.class);
+
+        TrackingNumberRequest decoded = decode(json);
+
+        assertEquals(expected, decoded);
+        assertEquals(TrackingNumberRequestValidator.validate(expected), TrackingNumberRequestValidator.validate(decoded));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "[]", "{\"weight\":", "{\"weight\":\"1.234\"", "{\"weight\" \"1.234\"}",
+            "{\"weight\":{\"value\":1}}", "{\"weight\":\"bad\\q\"}"})
+    void shouldRejectMalformedBodies(String json) {
+        assertThrows(TrackingNumberRequestDecoder.MalformedRequestException.class, () -> decode(json));
+    }
+
+    private static TrackingNumberRequest decode(String json) {
+        return TrackingNumberRequestDecoder.decode(
+                DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
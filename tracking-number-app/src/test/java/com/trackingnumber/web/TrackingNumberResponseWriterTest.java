@@ -0,0 +1,106 @@
+package com.trackingnumber.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.trackingnumber.config.TrackingNumberJsonComponent;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberResponseWriterTest {
+
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(TrackingNumberResponse.class);
+
+    private final TrackingNumberResponseWriter writer = new TrackingNumberResponseWriter();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(TrackingNumber.class, new TrackingNumberJsonComponent.Serializer()));
+
+    @Test
+    void shouldWriteSameJsonAsJackson() throws Exception {
+        TrackingNumberResponse response = new TrackingNumberResponse(TrackingNumber.of("ABC123DEF456"), CachedTimestamp.now());
+        MockServerHttpResponse message = new MockServerHttpResponse();
+
+        writer.write(Mono.just(response), RESPONSE_TYPE, MediaType.APPLICATION_JSON, message, Map.of()).block();
+
+        String body = message.getBodyAsString().block();
+        assertEquals(objectMapper.writeValueAsString(response), body);
+        assertEquals(body.length(), message.getHeaders().getContentLength());
+        assertEquals(MediaType.APPLICATION_JSON, message.getHeaders().getContentType());
+    }
+
+    @Test
+    void shouldEscapeCreatedAtAndLeaveOutNullFields() throws Exception {
+        TrackingNumberResponse quoted = new TrackingNumberResponse(TrackingNumber.of("1"), "a\"b\\c\ndé");
+        JsonNode node = objectMapper.readTree(encode(quoted));
+        assertEquals("a\"b\\c\ndé", node.get("created_at").asText());
+
+        assertEquals("{\"tracking_number\":\"Z\"}", encode(new TrackingNumberResponse(TrackingNumber.of("Z"), null)));
+        assertEquals("{\"created_at\":\"x\"}", encode(new TrackingNumberResponse(null, "x")));
+    }
+
+    @Test
+    void shouldStreamJsonArrayInChunks() throws Exception {
+        MockServerHttpResponse message = new MockServerHttpResponse();
+        Flux<TrackingNumberResponse> responses = Flux.range(1, 150)
+                .map(i -> new TrackingNumberResponse(TrackingNumber.ofPacked(i), CachedTimestamp.now()));
+
+        writer.write(responses, RESPONSE_TYPE, MediaType.APPLICATION_JSON, message, Map.of()).block();
+
+        JsonNode array = objectMapper.readTree(message.getBodyAsString().block());
+        assertEquals(150, array.size());
+        for (int i = 0; i < 150; i++) {
+            assertEquals(TrackingNumber.ofPacked(i + 1).toString(), array.get(i).get("tracking_number").asText());
+            Instant.parse(array.get(i).get("created_at").asText());
+        }
+        // 64 + 64 + 22 responses, then the closing bracket
+        assertEquals(4, message.getBody().count().block());
+    }
+
+    @Test
+    void shouldWriteEmptyArrayForNoResponses() {
+        MockServerHttpResponse message = new MockServerHttpResponse();
+
+        writer.write(Flux.empty(), RESPONSE_TYPE, MediaType.APPLICATION_JSON, message, Map.of()).block();
+
+        assertEquals("[]", message.getBodyAsString().block());
+    }
+
+    @Test
+    void shouldWriteOneObjectPerLineForNdjson() throws Exception {
+        MockServerHttpResponse message = new MockServerHttpResponse();
+        Flux<TrackingNumberResponse> responses = Flux.range(1, 3)
+                .map(i -> new TrackingNumberResponse(TrackingNumber.ofPacked(i), "t"));
+
+        writer.write(responses, RESPONSE_TYPE, MediaType.APPLICATION_NDJSON, message, Map.of()).block();
+
+        assertEquals("{\"tracking_number\":\"1\",\"created_at\":\"t\"}\n"
+                + "{\"tracking_number\":\"2\",\"created_at\":\"t\"}\n"
+                + "{\"tracking_number\":\"3\",\"created_at\":\"t\"}\n", message.getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_NDJSON, message.getHeaders().getContentType());
+    }
+
+    @Test
+    void shouldOnlyWriteResponsesAsJson() {
+        assertTrue(writer.canWrite(RESPONSE_TYPE, null));
+        assertTrue(writer.canWrite(RESPONSE_TYPE, MediaType.ALL));
+        assertFalse(writer.canWrite(RESPONSE_TYPE, MediaType.APPLICATION_XML));
+        assertFalse(writer.canWrite(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+    }
+
+    private String encode(TrackingNumberResponse response) {
+        MockServerHttpResponse message = new MockServerHttpResponse();
+        writer.write(Mono.just(response), RESPONSE_TYPE, MediaType.APPLICATION_JSON, message, Map.of()).block();
+        return message.getBodyAsString().block();
+    }
+}
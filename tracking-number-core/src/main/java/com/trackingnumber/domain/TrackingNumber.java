@@ -0,0 +1,65 @@
+package com.trackingnumber.domain;
+
+/**
+ * A tracking number of up to {@value TrackingNumberCodec#MAX_PACKED_LENGTH} characters held in its
+ * packed {@code long} form. Internal layers pass this (or the bare {@code long}) around and only the
+ * HTTP edge converts to and from text.
+ */
+public record TrackingNumber(long packed) {
+
+    public TrackingNumber {
+        if (packed <= 0) {
+            throw new IllegalArgumentException("Invalid packed tracking number: " + packed);
+        }
+    }
+
+    public static TrackingNumber of(CharSequence trackingNumber) {
+        return new TrackingNumber(TrackingNumberCodec.pack(trackingNumber));
+    }
+
+    public static TrackingNumber ofPacked(long packed) {
+        return new TrackingNumber(packed);
+    }
+
+    public int length() {
+        int length = 0;
+        for (long remaining = packed; remaining > 0; remaining = (remaining - 1) / 36) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the characters into {@code target} starting at {@code offset} and returns the count,
+     * so encoders can emit the number without materialising a {@link String}.
+     */
+    public int writeTo(char[] target, int offset) {
+        int length = length();
+        long remaining = packed;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            long digit = (remaining - 1) % 36;
+            target[i] = (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            remaining = (remaining - 1) / 36;
+        }
+        return length;
+    }
+
+    /**
+     * ASCII variant of {@link #writeTo(char[], int)} for encoders that write bytes.
+     */
+    public int writeTo(byte[] target, int offset) {
+        int length = length();
+        long remaining = packed;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            long digit = (remaining - 1) % 36;
+            target[i] = (byte) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            remaining = (remaining - 1) / 36;
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return TrackingNumberCodec.unpack(packed);
+    }
+}
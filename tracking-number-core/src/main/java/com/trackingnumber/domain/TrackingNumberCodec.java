@@ -0,0 +1,82 @@
+package com.trackingnumber.domain;
+
+/**
+ * Packs tracking numbers of up to 12 characters from {@code [0-9A-Z]} into a {@code long} using
+ * bijective base-36 (digits 1..36), so leading zeros and length survive the round trip and the
+ * 8-byte big-endian form can be used as a compact Redis member or hash field.
+ */
+public final class TrackingNumberCodec {
+
+    public static final int MAX_PACKED_LENGTH = 12;
+    public static final int PACKED_BYTES = Long.BYTES;
+
+    private TrackingNumberCodec() {
+    }
+
+    public static boolean isPackable(CharSequence trackingNumber) {
+        if (trackingNumber == null || trackingNumber.isEmpty() || trackingNumber.length() > MAX_PACKED_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < trackingNumber.length(); i++) {
+            if (digitOf(trackingNumber.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long pack(CharSequence trackingNumber) {
+        if (!isPackable(trackingNumber)) {
+            throw new IllegalArgumentException("Tracking number cannot be packed: " + trackingNumber);
+        }
+        long packed = 0;
+        for (int i = 0; i < trackingNumber.length(); i++) {
+            packed = packed * 36 + digitOf(trackingNumber.charAt(i)) + 1;
+        }
+        return packed;
+    }
+
+    public static String unpack(long packed) {
+        if (packed <= 0) {
+            throw new IllegalArgumentException("Invalid packed tracking number: " + packed);
+        }
+        char[] buffer = new char[MAX_PACKED_LENGTH];
+        int position = buffer.length;
+        while (packed > 0) {
+            long digit = (packed - 1) % 36;
+            buffer[--position] = (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            packed = (packed - 1) / 36;
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    public static byte[] toBytes(long packed) {
+        byte[] bytes = new byte[PACKED_BYTES];
+        for (int i = PACKED_BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) packed;
+            packed >>>= 8;
+        }
+        return bytes;
+    }
+
+    public static long fromBytes(byte[] bytes) {
+        if (bytes.length != PACKED_BYTES) {
+            throw new IllegalArgumentException("Packed tracking number must be " + PACKED_BYTES + " bytes");
+        }
+        long packed = 0;
+        for (byte b : bytes) {
+            packed = (packed << 8) | (b & 0xff);
+        }
+        return packed;
+    }
+
+    private static int digitOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
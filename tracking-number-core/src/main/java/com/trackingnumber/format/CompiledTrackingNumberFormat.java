@@ -0,0 +1,622 @@
+package com.trackingnumber.format;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A tracking number format compiled from a declarative pattern into per-position tables, so encoding and
+ * validation are a single pass of array lookups with no regex and no allocation. Formats without a check are drawn
+ * run by run: a run of literals is one precomputed constant and a run of one alphabet takes two positions per
+ * table lookup. Where every alphabet is also a power of two, such as {@code {hex}}, each pair is cut from the value
+ * with a fixed shift and mask, so the pairs do not depend on each other and their lookups overlap.
+ * <p>
+ * A pattern is a sequence of literal characters ({@code 0-9A-Z}) and placeholders, each optionally repeated with
+ * {@code *n}:
+ * <ul>
+ *   <li>{@code {digit}}, {@code {letter}}, {@code {alnum}}, {@code {hex}}: one character drawn from that alphabet</li>
+ *   <li>{@code {check:s10}}: the UPU S10 mod-11 check digit over the eight {@code {digit}} positions right before it</li>
+ *   <li>{@code {check:luhn36}}: the Luhn mod 36 check character over every position before it</li>
+ * </ul>
+ * For example {@code RR{digit*8}{check:s10}U} is an S10-style number with a fixed service indicator and suffix.
+ * Numbers are at most {@value TrackingNumberCodec#MAX_PACKED_LENGTH} characters, the limit of the packed form.
+ */
+public final class CompiledTrackingNumberFormat {
+
+    private static final int RADIX = 36;
+    private static final int ASCII = 128;
+    private static final byte LITERAL = 0;
+    private static final byte VARIABLE = 1;
+    private static final byte CHECK = 2;
+
+    private static final int[] S10_WEIGHTS = {8, 6, 4, 2, 3, 5, 9, 7};
+    private static final int[] DIGIT_VALUES = new int[ASCII];
+
+    static {
+        Arrays.fill(DIGIT_VALUES, -1);
+        for (char c = '0'; c <= '9'; c++) {
+            DIGIT_VALUES[c] = c - '0';
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            DIGIT_VALUES[c] = c - 'A' + 10;
+        }
+    }
+
+    private final String name;
+    private final String pattern;
+    private final int length;
+    // Per position: alphabet size (1 for literals and the check), the base-36 value of its first character and
+    // 36^(length - 1 - position), the weight of the position in the packed form
+    private final int[] radices;
+    private final int[] offsets;
+    private final long[] placeWeights;
+    // [position * 36 + digit]: check sum contribution of a digit value, or -1 where it is not allowed
+    private final int[] digitEntries;
+    // [position * 128 + char]: the same for characters; at the check position the entry is the digit value itself
+    private final short[] charEntries;
+    // Runs of literals, of one variable alphabet, or the check: kind, first position and end of each run
+    private final byte[] runKinds;
+    private final int[] runStarts;
+    private final int[] runEnds;
+    // Literal runs: packed value and 36^length
+    private final long[] runValues;
+    private final long[] runScales;
+    // Variable runs: log2 of the alphabet size where that is a power of two, otherwise 0
+    private final int[] runShifts;
+    // Variable runs of formats without a check: [first * radix + second] is the packed value of a pair of digits
+    private final int[][] runPairs;
+    // Variable positions in pattern order, and the literals' packed value and check sum, for encode
+    private final int[] variables;
+    private final long literalBase;
+    private final int literalSum;
+    private final int checkPosition;
+    // Check digit value for every possible sum, so the check costs one lookup instead of a modulo
+    private final int[] checkDigits;
+    private final long capacity;
+    // log2 of the capacity where every alphabet is a power of two, otherwise -1
+    private final int capacityBits;
+    // Formats without a check whose alphabets are all powers of two, otherwise null: per step (a pair of positions,
+    // or a last single one), the shift and mask that cut its digits from a capacityBits-wide value, the place weight
+    // of its last position and the table from digits to packed characters
+    private final int[] stepShifts;
+    private final int[] stepMasks;
+    private final long[] stepWeights;
+    private final int[][] stepTables;
+
+    private CompiledTrackingNumberFormat(Compiler compiled) {
+        this.name = compiled.name;
+        this.pattern = compiled.pattern;
+        this.length = compiled.length;
+        this.radices = compiled.radices;
+        this.offsets = compiled.offsets;
+        this.placeWeights = compiled.placeWeights;
+        this.digitEntries = compiled.digitEntries;
+        this.charEntries = compiled.charEntries;
+        this.runKinds = compiled.runKinds;
+        this.runStarts = compiled.runStarts;
+        this.runEnds = compiled.runEnds;
+        this.runValues = compiled.runValues;
+        this.runScales = compiled.runScales;
+        this.runShifts = compiled.runShifts;
+        this.runPairs = compiled.runPairs;
+        this.variables = compiled.variables;
+        this.literalBase = compiled.literalBase;
+        this.literalSum = compiled.literalSum;
+        this.checkPosition = compiled.checkPosition;
+        this.checkDigits = compiled.checkDigits;
+        this.capacity = compiled.capacity;
+        this.capacityBits = compiled.capacityBits;
+        this.stepShifts = compiled.stepShifts;
+        this.stepMasks = compiled.stepMasks;
+        this.stepWeights = compiled.stepWeights;
+        this.stepTables = compiled.stepTables;
+    }
+
+    public static CompiledTrackingNumberFormat compile(String name, String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("Format " + name + " needs a pattern");
+        }
+        Compiler compiler = new Compiler(name, pattern);
+        compiler.parse();
+        return compiler.build();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Distinct numbers the format can produce.
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * A random number of this format, in packed form.
+     */
+    public long random() {
+        return fromBits(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * The number at {@code bits / 2^64} of the way through the format's range: each position takes the integer
+     * part of the remaining fraction times its alphabet size, so one multiply (a shift for {@code {hex}}) per
+     * position, or per pair of positions, replaces a division. Uniformly random bits give numbers that are uniform to
+     * within {@code capacity / 2^64}.
+     */
+    public long fromBits(long bits) {
+        if (stepShifts != null) {
+            return fromValueBits(capacityBits == 0 ? 0 : bits >>> (64 - capacityBits));
+        }
+        if (checkPosition >= 0) {
+            return fromBitsWithCheck(bits);
+        }
+        long fraction = bits;
+        long packed = 0;
+        for (int run = 0; run < runKinds.length; run++) {
+            if (runKinds[run] == LITERAL) {
+                packed = packed * runScales[run] + runValues[run];
+                continue;
+            }
+            int end = runEnds[run];
+            int shift = runShifts[run];
+            int radix = radices[runStarts[run]];
+            int[] pairs = runPairs[run];
+            int i = runStarts[run];
+            // Two positions per step: the pair of digits is the integer part of fraction * radix^2
+            if (shift > 0) {
+                for (; i + 1 < end; i += 2) {
+                    packed = packed * (RADIX * RADIX) + pairs[(int) (fraction >>> (64 - 2 * shift))];
+                    fraction <<= 2 * shift;
+                }
+            } else {
+                int pairRadix = radix * radix;
+                for (; i + 1 < end; i += 2) {
+                    // Unsigned high half of fraction * pairRadix
+                    int pair = (int) (Math.multiplyHigh(fraction, pairRadix) + ((fraction >> 63) & pairRadix));
+                    fraction *= pairRadix;
+                    packed = packed * (RADIX * RADIX) + pairs[pair];
+                }
+            }
+            if (i < end) {
+                int digit = (int) (Math.multiplyHigh(fraction, radix) + ((fraction >> 63) & radix));
+                fraction *= radix;
+                packed = packed * RADIX + offsets[i] + digit + 1;
+            }
+        }
+        return packed;
+    }
+
+    // Each step reads its own bits of the value, so unlike the fraction above nothing carries from one step to the next
+    private long fromValueBits(long value) {
+        long packed = literalBase;
+        for (int step = 0; step < stepShifts.length; step++) {
+            packed += stepWeights[step] * stepTables[step][(int) (value >>> stepShifts[step]) & stepMasks[step]];
+        }
+        return packed;
+    }
+
+    // One position at a time, tracking the sum the check character is computed from
+    private long fromBitsWithCheck(long bits) {
+        long fraction = bits;
+        long packed = 0;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            int radix = radices[i];
+            int digit = offsets[i] + (int) (Math.multiplyHigh(fraction, radix) + ((fraction >> 63) & radix));
+            fraction *= radix;
+            if (i == checkPosition) {
+                digit = checkDigits[sum];
+            }
+            sum += digitEntries[i * RADIX + digit];
+            packed = packed * RADIX + digit + 1;
+        }
+        return packed;
+    }
+
+    /**
+     * The packed number whose variable positions spell {@code value} in mixed radix, most significant first, so
+     * consecutive values (for example from a sequence) give consecutive numbers.
+     */
+    public long encode(long value) {
+        if (value < 0 || value >= capacity) {
+            throw new IllegalArgumentException("Value " + value + " outside the capacity of format " + name);
+        }
+        // The value's bits are already the positions' digits, most significant first
+        if (stepShifts != null) {
+            return fromValueBits(value);
+        }
+        if (capacityBits >= 0) {
+            return fromBits(capacityBits == 0 ? 0 : value << (64 - capacityBits));
+        }
+        long remaining = value;
+        long packed = literalBase;
+        int sum = literalSum;
+        for (int k = variables.length - 1; k >= 0; k--) {
+            int position = variables[k];
+            int radix = radices[position];
+            // A constant divisor for decimal positions lets the JIT replace the division with a multiply
+            long rest = radix == 10 ? remaining / 10 : remaining / radix;
+            int digit = offsets[position] + (int) (remaining - rest * radix);
+            remaining = rest;
+            packed += placeWeights[position] * (digit + 1);
+            if (position < checkPosition) {
+                sum += digitEntries[position * RADIX + digit];
+            }
+        }
+        // Every position the check covers comes before it, so the sum is complete
+        return checkPosition < 0 ? packed : packed + placeWeights[checkPosition] * (checkDigits[sum] + 1);
+    }
+
+    public boolean isValid(CharSequence trackingNumber) {
+        if (trackingNumber == null || trackingNumber.length() != length) {
+            return false;
+        }
+        int summed = Math.max(checkPosition, 0);
+        int sum = 0;
+        for (int i = 0; i < summed; i++) {
+            char c = trackingNumber.charAt(i);
+            int entry = c < ASCII ? charEntries[i * ASCII + c] : -1;
+            if (entry < 0) {
+                return false;
+            }
+            sum += entry;
+        }
+        for (int i = summed; i < length; i++) {
+            char c = trackingNumber.charAt(i);
+            int entry = c < ASCII ? charEntries[i * ASCII + c] : -1;
+            if (entry < 0 || (i == checkPosition && entry != checkDigits[sum])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isValid(long packed) {
+        int sum = 0;
+        int check = -1;
+        for (int i = length - 1; i >= 0; i--) {
+            if (packed <= 0) {
+                return false;
+            }
+            int digit = (int) ((packed - 1) % RADIX);
+            packed = (packed - 1) / RADIX;
+            int entry = digitEntries[i * RADIX + digit];
+            if (entry < 0) {
+                return false;
+            }
+            if (i == checkPosition) {
+                check = digit;
+            } else {
+                sum += entry;
+            }
+        }
+        return packed == 0 && (checkPosition < 0 || check == checkDigits[sum]);
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + pattern;
+    }
+
+    private static final class Compiler {
+
+        private final String name;
+        private final String pattern;
+        private final int[][] alphabets = new int[TrackingNumberCodec.MAX_PACKED_LENGTH][];
+        private final byte[] kinds = new byte[TrackingNumberCodec.MAX_PACKED_LENGTH];
+        private int length;
+        private int checkPosition = -1;
+        private String checkAlgorithm;
+
+        // Filled in by build()
+        private int[] radices;
+        private int[] offsets;
+        private long[] placeWeights;
+        private int[] digitEntries;
+        private short[] charEntries;
+        private byte[] runKinds;
+        private int[] runStarts;
+        private int[] runEnds;
+        private long[] runValues;
+        private long[] runScales;
+        private int[] runShifts;
+        private int[][] runPairs;
+        private int[] variables;
+        private long literalBase;
+        private int literalSum;
+        private int[] checkDigits = {0};
+        private long capacity = 1;
+        private int capacityBits;
+        private int[] stepShifts;
+        private int[] stepMasks;
+        private long[] stepWeights;
+        private int[][] stepTables;
+
+        Compiler(String name, String pattern) {
+            this.name = name;
+            this.pattern = pattern;
+        }
+
+        void parse() {
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (c != '{') {
+                    if (c >= 128 || DIGIT_VALUES[c] < 0) {
+                        throw error("literal '" + c + "' is not in 0-9A-Z");
+                    }
+                    add(LITERAL, new int[]{DIGIT_VALUES[c]});
+                    i++;
+                    continue;
+                }
+                int end = pattern.indexOf('}', i);
+                if (end < 0) {
+                    throw error("unclosed placeholder at " + i);
+                }
+                String placeholder = pattern.substring(i + 1, end);
+                int repeat = 1;
+                int star = placeholder.indexOf('*');
+                if (star >= 0) {
+                    try {
+                        repeat = Integer.parseInt(placeholder.substring(star + 1));
+                    } catch (NumberFormatException e) {
+                        throw error("bad repeat count in {" + placeholder + "}");
+                    }
+                    placeholder = placeholder.substring(0, star);
+                    if (repeat < 1) {
+                        throw error("bad repeat count in {" + placeholder + "}");
+                    }
+                }
+                for (int r = 0; r < repeat; r++) {
+                    placeholder(placeholder);
+                }
+                i = end + 1;
+            }
+            if (length == 0) {
+                throw error("pattern is empty");
+            }
+        }
+
+        private void placeholder(String placeholder) {
+            switch (placeholder) {
+                case "digit" -> add(VARIABLE, range(0, 10));
+                case "letter" -> add(VARIABLE, range(10, 36));
+                case "alnum" -> add(VARIABLE, range(0, 36));
+                case "hex" -> add(VARIABLE, range(0, 16));
+                case "check:s10", "check:luhn36" -> {
+                    if (checkPosition >= 0) {
+                        throw error("only one check character is supported");
+                    }
+                    checkPosition = length;
+                    checkAlgorithm = placeholder.substring("check:".length());
+                    add(CHECK, "s10".equals(checkAlgorithm) ? range(0, 10) : range(0, 36));
+                }
+                default -> throw error("unknown placeholder {" + placeholder + "}");
+            }
+        }
+
+        private void add(byte kind, int[] alphabet) {
+            if (length == TrackingNumberCodec.MAX_PACKED_LENGTH) {
+                throw error("longer than " + TrackingNumberCodec.MAX_PACKED_LENGTH + " characters");
+            }
+            kinds[length] = kind;
+            alphabets[length] = alphabet;
+            length++;
+        }
+
+        CompiledTrackingNumberFormat build() {
+            radices = new int[length];
+            offsets = new int[length];
+            placeWeights = new long[length];
+            long placeWeight = 1;
+            for (int i = length - 1; i >= 0; i--) {
+                radices[i] = kinds[i] == VARIABLE ? alphabets[i].length : 1;
+                offsets[i] = alphabets[i][0];
+                placeWeights[i] = placeWeight;
+                placeWeight *= RADIX;
+                try {
+                    capacity = Math.multiplyExact(capacity, radices[i]);
+                } catch (ArithmeticException e) {
+                    throw error("capacity does not fit in a long");
+                }
+            }
+
+            int[][] contributions = new int[length][RADIX];
+            int modulus = 1;
+            if ("s10".equals(checkAlgorithm)) {
+                if (checkPosition < S10_WEIGHTS.length) {
+                    throw error("{check:s10} needs eight {digit} positions before it");
+                }
+                int first = checkPosition - S10_WEIGHTS.length;
+                for (int i = first; i < checkPosition; i++) {
+                    if (kinds[i] != VARIABLE || alphabets[i].length != 10) {
+                        throw error("{check:s10} needs eight {digit} positions before it");
+                    }
+                    for (int digit = 0; digit < 10; digit++) {
+                        contributions[i][digit] = S10_WEIGHTS[i - first] * digit;
+                    }
+                }
+                // 11 - sum % 11, where 10 becomes 0 and 11 becomes 5
+                modulus = 11;
+                checkDigits = new int[11];
+                for (int remainder = 0; remainder < 11; remainder++) {
+                    int check = 11 - remainder;
+                    checkDigits[remainder] = check == 10 ? 0 : check == 11 ? 5 : check;
+                }
+            } else if ("luhn36".equals(checkAlgorithm)) {
+                if (checkPosition == 0) {
+                    throw error("{check:luhn36} needs at least one position before it");
+                }
+                // Same weighting as TrackingNumberCheckCharacter: factor 2 on the character next to the check
+                for (int i = 0; i < checkPosition; i++) {
+                    int factor = (checkPosition - 1 - i) % 2 == 0 ? 2 : 1;
+                    for (int digit = 0; digit < RADIX; digit++) {
+                        int addend = factor * digit;
+                        contributions[i][digit] = addend / RADIX + addend % RADIX;
+                    }
+                }
+                modulus = RADIX;
+                checkDigits = new int[RADIX];
+                for (int remainder = 0; remainder < RADIX; remainder++) {
+                    checkDigits[remainder] = (RADIX - remainder) % RADIX;
+                }
+            }
+
+            if (checkPosition >= 0) {
+                int maxSum = 0;
+                for (int i = 0; i < checkPosition; i++) {
+                    maxSum += Arrays.stream(contributions[i]).max().getAsInt();
+                }
+                int[] byRemainder = checkDigits;
+                checkDigits = new int[maxSum + 1];
+                for (int sum = 0; sum <= maxSum; sum++) {
+                    checkDigits[sum] = byRemainder[sum % modulus];
+                }
+            }
+
+            digitEntries = new int[length * RADIX];
+            charEntries = new short[length * ASCII];
+            Arrays.fill(digitEntries, -1);
+            Arrays.fill(charEntries, (short) -1);
+            for (int i = 0; i < length; i++) {
+                for (int digit : alphabets[i]) {
+                    digitEntries[i * RADIX + digit] = contributions[i][digit];
+                    charEntries[i * ASCII + charOf(digit)] = (short) (i == checkPosition ? digit : contributions[i][digit]);
+                }
+            }
+
+            buildRuns(contributions);
+            return new CompiledTrackingNumberFormat(this);
+        }
+
+        // Consecutive literals, consecutive positions with the same alphabet, and the check on its own
+        private void buildRuns(int[][] contributions) {
+            int[] starts = new int[length];
+            int runs = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == 0 || kinds[i] != kinds[i - 1] || kinds[i] == CHECK
+                        || (kinds[i] == VARIABLE && !Arrays.equals(alphabets[i], alphabets[i - 1]))) {
+                    starts[runs++] = i;
+                }
+            }
+            runKinds = new byte[runs];
+            runStarts = Arrays.copyOf(starts, runs);
+            runEnds = new int[runs];
+            runValues = new long[runs];
+            runScales = new long[runs];
+            runShifts = new int[runs];
+            runPairs = new int[runs][];
+            variables = new int[length];
+            int variableCount = 0;
+            capacityBits = 0;
+            for (int run = 0; run < runs; run++) {
+                int start = runStarts[run];
+                int end = run + 1 < runs ? runStarts[run + 1] : length;
+                runKinds[run] = kinds[start];
+                runEnds[run] = end;
+                runScales[run] = 1;
+                for (int i = start; i < end; i++) {
+                    if (kinds[i] == LITERAL) {
+                        int digit = alphabets[i][0];
+                        runValues[run] = runValues[run] * RADIX + digit + 1;
+                        runScales[run] *= RADIX;
+                        literalBase += placeWeights[i] * (digit + 1);
+                        literalSum += contributions[i][digit];
+                    } else if (kinds[i] == VARIABLE) {
+                        variables[variableCount++] = i;
+                    }
+                }
+                if (kinds[start] == VARIABLE) {
+                    int radix = alphabets[start].length;
+                    if (checkPosition < 0) {
+                        int offset = alphabets[start][0] + 1;
+                        runPairs[run] = new int[radix * radix];
+                        for (int pair = 0; pair < radix * radix; pair++) {
+                            runPairs[run][pair] = (offset + pair / radix) * RADIX + offset + pair % radix;
+                        }
+                    }
+                    if (Integer.bitCount(radix) == 1) {
+                        runShifts[run] = Integer.numberOfTrailingZeros(radix);
+                        capacityBits += runShifts[run] * (end - start);
+                    } else {
+                        capacityBits = Integer.MIN_VALUE;
+                    }
+                }
+            }
+            variables = Arrays.copyOf(variables, variableCount);
+            capacityBits = Math.max(capacityBits, -1);
+            if (capacityBits >= 0 && checkPosition < 0) {
+                buildSteps();
+            }
+        }
+
+        // Same order as the runs: the first step takes the value's top bits
+        private void buildSteps() {
+            int steps = 0;
+            for (int run = 0; run < runKinds.length; run++) {
+                if (runKinds[run] == VARIABLE) {
+                    steps += (runEnds[run] - runStarts[run] + 1) / 2;
+                }
+            }
+            stepShifts = new int[steps];
+            stepMasks = new int[steps];
+            stepWeights = new long[steps];
+            stepTables = new int[steps][];
+            int step = 0;
+            int consumed = 0;
+            for (int run = 0; run < runKinds.length; run++) {
+                if (runKinds[run] != VARIABLE) {
+                    continue;
+                }
+                int bits = runShifts[run];
+                int end = runEnds[run];
+                int i = runStarts[run];
+                for (; i + 1 < end; i += 2, step++) {
+                    consumed += 2 * bits;
+                    stepShifts[step] = capacityBits - consumed;
+                    stepMasks[step] = (1 << 2 * bits) - 1;
+                    stepWeights[step] = placeWeights[i + 1];
+                    stepTables[step] = runPairs[run];
+                }
+                if (i < end) {
+                    consumed += bits;
+                    stepShifts[step] = capacityBits - consumed;
+                    stepMasks[step] = (1 << bits) - 1;
+                    stepWeights[step] = placeWeights[i];
+                    stepTables[step] = new int[1 << bits];
+                    for (int digit = 0; digit < 1 << bits; digit++) {
+                        stepTables[step][digit] = offsets[i] + digit + 1;
+                    }
+                    step++;
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid tracking number format " + name + " (" + pattern + "): " + message);
+        }
+
+        private static char charOf(int digit) {
+            return (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+        }
+
+        private static int[] range(int from, int to) {
+            int[] values = new int[to - from];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = from + i;
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.trackingnumber.format;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.service.TrackingNumberGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Picks a {@link CompiledTrackingNumberFormat} per customer, matched on the customer ID and then the slug, and
+ * draws a random number of that format. Customers without a format get {@code defaultFormat}, or the
+ * {@code fallback} generator when there is none.
+ */
+public class FormattedTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    private final TrackingNumberGenerator fallback;
+    private final CompiledTrackingNumberFormat defaultFormat;
+    private final Map<String, CompiledTrackingNumberFormat> customerFormats;
+
+    /**
+     * @param defaultFormat the format for customers without their own, or {@code null} to use {@code fallback}
+     */
+    public FormattedTrackingNumberGenerator(TrackingNumberGenerator fallback,
+                                            CompiledTrackingNumberFormat defaultFormat,
+                                            Map<String, CompiledTrackingNumberFormat> customerFormats) {
+        this.fallback = fallback;
+        this.defaultFormat = defaultFormat;
+        this.customerFormats = new HashMap<>(customerFormats);
+    }
+
+    @Override
+    public String generate(TrackingNumberRequest request, int attempt) {
+        return TrackingNumberCodec.unpack(generatePacked(request, attempt));
+    }
+
+    @Override
+    public long generatePacked(TrackingNumberRequest request, int attempt) {
+        if (request == null) {
+            throw new IllegalArgumentException("TrackingNumberRequest cannot be null");
+        }
+        CompiledTrackingNumberFormat format = formatFor(request);
+        return format != null ? format.random() : fallback.generatePacked(request, attempt);
+    }
+
+    /**
+     * The format numbers for {@code request} are drawn from, or {@code null} when the fallback generator is used.
+     */
+    public CompiledTrackingNumberFormat formatFor(TrackingNumberRequest request) {
+        CompiledTrackingNumberFormat format = customerFormats.get(request.customerId());
+        if (format == null && request.customerSlug() != null) {
+            format = customerFormats.get(request.customerSlug());
+        }
+        return format != null ? format : defaultFormat;
+    }
+}
@@ -0,0 +1,22 @@
+package com.trackingnumber.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.trackingnumber.Generation")
+@Label("Tracking Number Generation")
+@Description("Hashing one candidate tracking number")
+@Category({"Tracking Number"})
+@StackTrace(false)
+public class TrackingNumberGenerationEvent extends Event {
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Length")
+    public int length;
+}
@@ -0,0 +1,56 @@
+package com.trackingnumber.region;
+
+/**
+ * Region tags for multi-region issuance. Random numbers only contain hex digits ({@code 0-F}), so a region
+ * tags its numbers by replacing the last character with its own code from {@code G-Z}: numbers issued in
+ * different regions can never be equal, and neither can a tagged and an untagged (single-region) number.
+ * The last character is used because the service's keyspace partitions ({@code KeyspacePartitions}) own the
+ * leading ones.
+ */
+public final class RegionCode {
+
+    // Packed numbers use bijective base 36: digit value + 1 per character
+    private static final int RADIX = 36;
+    private static final int FIRST_CODE = 'G' - 'A' + 10;
+
+    private RegionCode() {
+    }
+
+    public static boolean isValid(String code) {
+        return code != null && code.length() == 1 && code.charAt(0) >= 'G' && code.charAt(0) <= 'Z';
+    }
+
+    /**
+     * Parses a configured code; blank means this deployment is not region-tagged ({@code 0}).
+     */
+    public static char parse(String code) {
+        if (code == null || code.isBlank()) {
+            return 0;
+        }
+        String trimmed = code.trim();
+        if (!isValid(trimmed)) {
+            throw new IllegalArgumentException("Region code must be a single character G-Z, got " + code);
+        }
+        return trimmed.charAt(0);
+    }
+
+    /**
+     * Replaces the last character of a packed number with the region code.
+     */
+    public static long tag(long packed, char region) {
+        long lastDigit = (packed - 1) % RADIX;
+        return packed - lastDigit + digitOf(region);
+    }
+
+    /**
+     * The region that issued a randomly generated number, or {@code 0} if it carries no region tag.
+     */
+    public static char regionOf(long packed) {
+        int lastDigit = (int) ((packed - 1) % RADIX);
+        return lastDigit < FIRST_CODE ? 0 : (char) ('A' + lastDigit - 10);
+    }
+
+    private static int digitOf(char region) {
+        return region - 'A' + 10;
+    }
+}
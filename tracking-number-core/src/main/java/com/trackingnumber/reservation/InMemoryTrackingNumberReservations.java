@@ -0,0 +1,27 @@
+package com.trackingnumber.reservation;
+
+import com.trackingnumber.domain.TrackingNumber;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reservations held in this JVM only, never expiring. Unique only among issuers sharing the instance; meant for
+ * tests and single-process tools.
+ */
+public class InMemoryTrackingNumberReservations implements TrackingNumberReservations {
+
+    private final Set<Long> reserved = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public CompletionStage<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        return CompletableFuture.completedFuture(reserved.add(trackingNumber.packed()));
+    }
+
+    public int size() {
+        return reserved.size();
+    }
+}
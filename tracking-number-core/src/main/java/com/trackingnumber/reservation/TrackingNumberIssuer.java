@@ -0,0 +1,72 @@
+package com.trackingnumber.reservation;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.service.TrackingNumberGenerator;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-process issuance for services that embed {@code tracking-number-core}: the same candidate-and-reserve loop as
+ * the HTTP service, without the network hop. Numbers are unique against other issuers only while all of them
+ * reserve through the same Redis store. Service-side extras (the issued-number feed, usage counters and
+ * occupancy-driven length escalation) are not applied to numbers issued here.
+ * <p>
+ * Not supported next to a service running keyspace partitioning, which reserves in memory and never reads the
+ * store, or the long-horizon archive, which embedded issuers neither check nor feed: in both cases the same number
+ * can be issued twice.
+ */
+public class TrackingNumberIssuer {
+
+    private final TrackingNumberGenerator generator;
+    private final TrackingNumberReservations reservations;
+    private final int maxRetries;
+
+    public TrackingNumberIssuer(TrackingNumberGenerator generator, TrackingNumberReservations reservations,
+                                int maxRetries) {
+        if (maxRetries < 1) {
+            throw new IllegalArgumentException("Max retries must be positive");
+        }
+        this.generator = generator;
+        this.reservations = reservations;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Completes with a reserved number, or exceptionally with {@link TrackingNumberException} once
+     * {@code maxRetries} candidates collided or the store failed.
+     */
+    public CompletableFuture<TrackingNumber> issue(TrackingNumberRequest request) {
+        if (request == null) {
+            return CompletableFuture.failedFuture(new TrackingNumberException("TrackingNumberRequest cannot be null"));
+        }
+        return attempt(request, 0);
+    }
+
+    private CompletableFuture<TrackingNumber> attempt(TrackingNumberRequest request, int attempt) {
+        if (attempt >= maxRetries) {
+            return CompletableFuture.failedFuture(new TrackingNumberException(
+                    "Failed to generate unique tracking number after " + maxRetries + " attempts"));
+        }
+
+        TrackingNumber candidate;
+        try {
+            candidate = TrackingNumber.ofPacked(generator.generatePacked(request, attempt));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new TrackingNumberException("Failed to generate tracking number", e));
+        }
+
+        return reservations.reserve(candidate, Instant.now())
+                .toCompletableFuture()
+                .handle((reserved, error) -> {
+                    if (error != null) {
+                        return CompletableFuture.<TrackingNumber>failedFuture(new TrackingNumberException(
+                                "Failed to store tracking number: " + candidate, error));
+                    }
+                    return reserved ? CompletableFuture.completedFuture(candidate) : attempt(request, attempt + 1);
+                })
+                .thenCompose(next -> next);
+    }
+}
@@ -0,0 +1,19 @@
+package com.trackingnumber.reservation;
+
+import com.trackingnumber.domain.TrackingNumber;
+
+import java.time.Instant;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Uniqueness SPI behind {@link TrackingNumberIssuer}. Implementations must be safe for concurrent use, and every
+ * issuer of one keyspace, embedded or the HTTP service, must reserve through the same backing store and layout
+ * (see {@code tracking-number-redis}).
+ */
+public interface TrackingNumberReservations {
+
+    /**
+     * Atomically records the number unless it is already live; completes with {@code false} on a collision.
+     */
+    CompletionStage<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt);
+}
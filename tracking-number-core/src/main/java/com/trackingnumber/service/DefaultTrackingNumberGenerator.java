@@ -0,0 +1,185 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.profiling.TrackingNumberGenerationEvent;
+import com.trackingnumber.region.RegionCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * Random candidates: the leading hex digits of a SHA-256 over the request, the attempt and several entropy sources.
+ * The length is read per candidate, so the service can raise it as the keyspace fills up.
+ */
+public class DefaultTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultTrackingNumberGenerator.class);
+    private static final int DEFAULT_LENGTH = 10;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<HashState> HASH_STATE = ThreadLocal.withInitial(HashState::new);
+
+    private final IntSupplier length;
+    private final char region;
+
+    public DefaultTrackingNumberGenerator() {
+        this(() -> DEFAULT_LENGTH);
+    }
+
+    public DefaultTrackingNumberGenerator(IntSupplier length) {
+        this(length, (char) 0);
+    }
+
+    /**
+     * @param region a {@link RegionCode} to tag every number with, or {@code 0}
+     */
+    public DefaultTrackingNumberGenerator(IntSupplier length, char region) {
+        this.length = length;
+        this.region = region;
+    }
+
+    @Override
+    public String generate(TrackingNumberRequest request, int attempt) {
+        if (request == null) {
+            throw new IllegalArgumentException("TrackingNumberRequest cannot be null");
+        }
+
+        try {
+            String trackingNumber = TrackingNumberCodec.unpack(generatePacked(request, attempt));
+
+            if (!isValidTrackingNumber(trackingNumber)) {
+                logger.warn("Generated invalid tracking number: {}", trackingNumber);
+                throw new IllegalStateException("Generated tracking number does not match required pattern");
+            }
+
+            logger.debug("Generated tracking number: {}", trackingNumber);
+            return trackingNumber;
+
+        } catch (Exception e) {
+            logger.error("Error generating tracking number for request: {}", request, e);
+            throw new RuntimeException("Failed to generate tracking number", e);
+        }
+    }
+
+    @Override
+    public long generatePacked(TrackingNumberRequest request, int attempt) {
+        if (request == null) {
+            throw new IllegalArgumentException("TrackingNumberRequest cannot be null");
+        }
+
+        logger.debug("Generating tracking number for request: {}, attempt: {}", request, attempt);
+
+        TrackingNumberGenerationEvent event = new TrackingNumberGenerationEvent();
+        event.begin();
+
+        byte[] hash = hash(request, attempt);
+
+        // The leading hex digits of the SHA-256 hash, packed straight into base-36 digit values
+        int digits = length.getAsInt();
+        long packed = 0;
+        for (int i = 0; i < digits; i++) {
+            int nibble = (i & 1) == 0 ? (hash[i >> 1] >> 4) & 0xf : hash[i >> 1] & 0xf;
+            packed = packed * 36 + nibble + 1;
+        }
+        if (region != 0) {
+            packed = RegionCode.tag(packed, region);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.attempt = attempt;
+            event.length = digits;
+            event.commit();
+        }
+        return packed;
+    }
+
+    private byte[] hash(TrackingNumberRequest request, int attempt) {
+        HashState state = HASH_STATE.get();
+        state.reset();
+
+        // Enhanced entropy sources
+        state.update(request.originCountryId());
+        state.update(request.destinationCountryId());
+        state.update(request.weight());
+        state.update(request.customerId());
+        state.update(request.customerName());
+        state.update(request.customerSlug() != null ? request.customerSlug() : "");
+        state.update(attempt);
+        state.update(System.nanoTime());
+        state.update(System.currentTimeMillis());
+        state.update(ThreadLocalRandom.current().nextInt());
+        SECURE_RANDOM.nextBytes(state.randomBytes);
+        state.digest.update(state.randomBytes);
+
+        try {
+            state.digest.digest(state.hash, 0, state.hash.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Failed to hash tracking number input", e);
+        }
+        return state.hash;
+    }
+
+    private boolean isValidTrackingNumber(String trackingNumber) {
+        return TrackingNumberFormat.isValid(trackingNumber);
+    }
+
+    /**
+     * Per-thread digest and scratch buffers, so hashing a request allocates nothing.
+     */
+    private static final class HashState {
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[256];
+        private final byte[] randomBytes = new byte[8];
+        private final byte[] hash = new byte[32];
+
+        HashState() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        void reset() {
+            digest.reset();
+        }
+
+        void update(String value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (length > buffer.length - 4) {
+                    digest.update(buffer, 0, length);
+                    length = 0;
+                }
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[length++] = (byte) (0xc0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3f));
+                } else {
+                    buffer[length++] = (byte) (0xe0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            buffer[length++] = '|';
+            digest.update(buffer, 0, length);
+        }
+
+        void update(long value) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                buffer[i] = (byte) (value >>> (56 - 8 * i));
+            }
+            buffer[Long.BYTES] = '|';
+            digest.update(buffer, 0, Long.BYTES + 1);
+        }
+    }
+}
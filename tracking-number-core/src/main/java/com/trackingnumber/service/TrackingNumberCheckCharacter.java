@@ -0,0 +1,56 @@
+package com.trackingnumber.service;
+
+/**
+ * Luhn mod N check character over the tracking number alphabet ({@code 0-9A-Z}, N = 36).
+ * Detects every single-character substitution and most adjacent transpositions.
+ */
+public final class TrackingNumberCheckCharacter {
+
+    private static final int RADIX = 36;
+
+    private TrackingNumberCheckCharacter() {
+    }
+
+    public static char compute(CharSequence payload) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int addend = factor * codePointOf(payload.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / RADIX + addend % RADIX;
+        }
+        return charOf((RADIX - sum % RADIX) % RADIX);
+    }
+
+    public static boolean isValid(CharSequence trackingNumber) {
+        if (trackingNumber == null || trackingNumber.length() < 2) {
+            return false;
+        }
+        int factor = 1;
+        int sum = 0;
+        for (int i = trackingNumber.length() - 1; i >= 0; i--) {
+            int codePoint = codePointOf(trackingNumber.charAt(i));
+            if (codePoint < 0) {
+                return false;
+            }
+            int addend = factor * codePoint;
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / RADIX + addend % RADIX;
+        }
+        return sum % RADIX == 0;
+    }
+
+    static int codePointOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    static char charOf(int codePoint) {
+        return (char) (codePoint < 10 ? '0' + codePoint : 'A' + codePoint - 10);
+    }
+}
@@ -0,0 +1,42 @@
+package com.trackingnumber.service;
+
+/**
+ * Precompiled check for the {@code ^[A-Z0-9]{1,16}$} tracking number format: a length check and a
+ * table lookup per character, with no regex matcher allocated per call.
+ */
+public final class TrackingNumberFormat {
+
+    public static final int MIN_LENGTH = 1;
+    public static final int MAX_LENGTH = 16;
+
+    private static final boolean[] ALLOWED = new boolean[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            ALLOWED[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            ALLOWED[c] = true;
+        }
+    }
+
+    private TrackingNumberFormat() {
+    }
+
+    public static boolean isValid(CharSequence trackingNumber) {
+        if (trackingNumber == null) {
+            return false;
+        }
+        int length = trackingNumber.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = trackingNumber.charAt(i);
+            if (c >= 128 || !ALLOWED[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
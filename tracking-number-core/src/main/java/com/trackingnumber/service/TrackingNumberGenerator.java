@@ -0,0 +1,16 @@
+package com.trackingnumber.service;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.domain.TrackingNumberRequest;
+
+public interface TrackingNumberGenerator {
+    String generate(TrackingNumberRequest request, int attempt);
+
+    /**
+     * Packed form of the next candidate (see {@link TrackingNumberCodec}). Implementations on the hot
+     * path should override this to avoid building the intermediate {@code String}.
+     */
+    default long generatePacked(TrackingNumberRequest request, int attempt) {
+        return TrackingNumberCodec.pack(generate(request, attempt));
+    }
+}
@@ -0,0 +1,42 @@
+package com.trackingnumber.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "00", "A", "ABC123DEF4", "000000000000", "ZZZZZZZZZZZZ"})
+    void shouldRoundTripThroughPackedForm(String text) {
+        TrackingNumber trackingNumber = TrackingNumber.of(text);
+
+        assertEquals(text, trackingNumber.toString());
+        assertEquals(text.length(), trackingNumber.length());
+        assertEquals(trackingNumber, TrackingNumberRedisSerializer.INSTANCE.deserialize(
+                TrackingNumberRedisSerializer.INSTANCE.serialize(trackingNumber)));
+    }
+
+    @Test
+    void shouldKeepLeadingZerosDistinct() {
+        assertNotEquals(TrackingNumber.of("0A"), TrackingNumber.of("A"));
+        assertNotEquals(TrackingNumber.of("00"), TrackingNumber.of("0"));
+    }
+
+    @Test
+    void shouldWriteCharactersWithoutAllocatingString() {
+        char[] buffer = new char[16];
+        int length = TrackingNumber.of("ABC123DEF4").writeTo(buffer, 2);
+
+        assertEquals("ABC123DEF4", new String(buffer, 2, length));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "ABC-123", "ABCDEFGHIJKLM"})
+    void shouldRejectUnpackableNumbers(String text) {
+        assertFalse(TrackingNumberCodec.isPackable(text));
+        assertThrows(IllegalArgumentException.class, () -> TrackingNumber.of(text));
+    }
+}
@@ -0,0 +1,99 @@
+package com.trackingnumber.format;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.service.TrackingNumberCheckCharacter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTrackingNumberFormatTest {
+
+    private final CompiledTrackingNumberFormat s10 =
+            CompiledTrackingNumberFormat.compile("s10", "RR{digit*8}{check:s10}G");
+
+    @Test
+    void shouldEncodeS10CheckDigit() {
+        // Serial 47312482 from the UPU S10 specification, check digit 9
+        assertEquals("RR473124829G", TrackingNumberCodec.unpack(s10.encode(47312482)));
+        // Remainder 0 gives 5, remainder 1 gives 0
+        assertEquals("RR000000005G", TrackingNumberCodec.unpack(s10.encode(0)));
+        assertEquals(12, s10.length());
+        assertEquals(100_000_000L, s10.capacity());
+    }
+
+    @Test
+    void shouldValidateS10Numbers() {
+        assertTrue(s10.isValid("RR473124829G"));
+        assertTrue(s10.isValid(TrackingNumberCodec.pack("RR473124829G")));
+
+        assertFalse(s10.isValid("RR473124828G"));
+        assertFalse(s10.isValid("RR473214829G"));
+        assertFalse(s10.isValid("RA473124829G"));
+        assertFalse(s10.isValid("RR47312482AG"));
+        assertFalse(s10.isValid("RR473124829"));
+        assertFalse(s10.isValid("rr473124829G"));
+        assertFalse(s10.isValid((CharSequence) null));
+        assertFalse(s10.isValid(TrackingNumberCodec.pack("RR473124828G")));
+        assertFalse(s10.isValid(TrackingNumberCodec.pack("R473124829G")));
+        // A valid number with one more character appended
+        assertFalse(s10.isValid(TrackingNumberCodec.pack("RR473124829G") * 36 + 1));
+    }
+
+    @Test
+    void shouldGenerateValidRandomNumbers() {
+        CompiledTrackingNumberFormat mixed =
+                CompiledTrackingNumberFormat.compile("mixed", "1Z{letter*2}{hex*3}{alnum*3}{check:luhn36}");
+        for (int i = 0; i < 10_000; i++) {
+            long packed = mixed.random();
+            String text = TrackingNumberCodec.unpack(packed);
+            assertTrue(mixed.isValid(packed), text);
+            assertTrue(mixed.isValid(text), text);
+            assertTrue(text.startsWith("1Z"), text);
+            assertTrue(Character.isLetter(text.charAt(2)) && Character.isLetter(text.charAt(3)), text);
+            // Same check character as the route-sequence format
+            assertTrue(TrackingNumberCheckCharacter.isValid(text), text);
+            assertTrue(s10.isValid(s10.random()));
+        }
+    }
+
+    @Test
+    void shouldEncodeConsecutiveValuesInOrder() {
+        CompiledTrackingNumberFormat format = CompiledTrackingNumberFormat.compile("seq", "A{letter}{digit*2}");
+        assertEquals("AA00", TrackingNumberCodec.unpack(format.encode(0)));
+        assertEquals("AA01", TrackingNumberCodec.unpack(format.encode(1)));
+        assertEquals("AB00", TrackingNumberCodec.unpack(format.encode(100)));
+        assertEquals("AZ99", TrackingNumberCodec.unpack(format.encode(format.capacity() - 1)));
+        assertThrows(IllegalArgumentException.class, () -> format.encode(format.capacity()));
+    }
+
+    @Test
+    void shouldDrawFormatsWithoutCheckTwoPositionsAtATime() {
+        CompiledTrackingNumberFormat hex = CompiledTrackingNumberFormat.compile("hex", "AB{hex*9}");
+        assertEquals("AB123456789", TrackingNumberCodec.unpack(hex.encode(0x123456789L)));
+        assertEquals("AB123456789", TrackingNumberCodec.unpack(hex.fromBits(0x123456789L << 28)));
+        assertEquals("ABFFFFFFFFF", TrackingNumberCodec.unpack(hex.encode(hex.capacity() - 1)));
+
+        CompiledTrackingNumberFormat mixed = CompiledTrackingNumberFormat.compile("mixed", "X{digit*3}{letter}{alnum*3}");
+        assertEquals("X000A000", TrackingNumberCodec.unpack(mixed.fromBits(0)));
+        assertEquals("X999ZZZZ", TrackingNumberCodec.unpack(mixed.fromBits(-1)));
+        assertEquals("X001A000", TrackingNumberCodec.unpack(mixed.encode(26L * 36 * 36 * 36)));
+        for (int i = 0; i < 10_000; i++) {
+            long packed = mixed.random();
+            assertTrue(mixed.isValid(packed), TrackingNumberCodec.unpack(packed));
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", ""));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{digit*13}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "ab{digit}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{digits}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{digit"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{digit*0}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{digit*7}{check:s10}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTrackingNumberFormat.compile("f", "{alnum*8}{check:s10}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledTrackingNumberFormat.compile("f", "{digit*8}{check:s10}{check:luhn36}"));
+    }
+}
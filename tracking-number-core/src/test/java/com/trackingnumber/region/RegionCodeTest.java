@@ -0,0 +1,34 @@
+package com.trackingnumber.region;
+
+import com.trackingnumber.domain.TrackingNumberCodec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionCodeTest {
+
+    @Test
+    void shouldReplaceLastCharacter() {
+        long tagged = RegionCode.tag(TrackingNumberCodec.pack("0A1B2C3D4E"), 'H');
+
+        assertEquals("0A1B2C3D4H", TrackingNumberCodec.unpack(tagged));
+        assertEquals('H', RegionCode.regionOf(tagged));
+        assertEquals("Z", TrackingNumberCodec.unpack(RegionCode.tag(TrackingNumberCodec.pack("F"), 'Z')));
+    }
+
+    @Test
+    void shouldReportUntaggedNumbers() {
+        assertEquals(0, RegionCode.regionOf(TrackingNumberCodec.pack("0A1B2C3D4F")));
+        assertEquals(0, RegionCode.regionOf(TrackingNumberCodec.pack("0A1B2C3D40")));
+    }
+
+    @Test
+    void shouldOnlyAcceptCodesOutsideHexDigits() {
+        assertEquals(0, RegionCode.parse(""));
+        assertEquals(0, RegionCode.parse(null));
+        assertEquals('G', RegionCode.parse(" G "));
+        assertThrows(IllegalArgumentException.class, () -> RegionCode.parse("F"));
+        assertThrows(IllegalArgumentException.class, () -> RegionCode.parse("h"));
+        assertThrows(IllegalArgumentException.class, () -> RegionCode.parse("GH"));
+    }
+}
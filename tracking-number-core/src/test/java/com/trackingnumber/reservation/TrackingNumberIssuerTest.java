@@ -0,0 +1,70 @@
+package com.trackingnumber.reservation;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberRequest;
+import com.trackingnumber.exception.TrackingNumberException;
+import com.trackingnumber.service.DefaultTrackingNumberGenerator;
+import com.trackingnumber.service.TrackingNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingNumberIssuerTest {
+
+    private final TrackingNumberRequest request = new TrackingNumberRequest(
+            "US", "CA", "1.234",
+            "de619854-b59b-425e-9db4-943379e1bd49", "RedBox Logistics", "redbox-logistics"
+    );
+
+    @Test
+    void shouldIssueUniqueNumbers() {
+        InMemoryTrackingNumberReservations reservations = new InMemoryTrackingNumberReservations();
+        TrackingNumberIssuer issuer = new TrackingNumberIssuer(new DefaultTrackingNumberGenerator(), reservations, 10);
+
+        Set<TrackingNumber> issued = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(issued.add(issuer.issue(request).join()));
+        }
+        assertEquals(10_000, reservations.size());
+    }
+
+    @Test
+    void shouldRetryCollidingCandidates() {
+        InMemoryTrackingNumberReservations reservations = new InMemoryTrackingNumberReservations();
+        reservations.reserve(TrackingNumber.ofPacked(1), null);
+        reservations.reserve(TrackingNumber.ofPacked(2), null);
+        TrackingNumberGenerator generator = new TrackingNumberGenerator() {
+            @Override
+            public String generate(TrackingNumberRequest request, int attempt) {
+                return TrackingNumber.ofPacked(attempt + 1).toString();
+            }
+        };
+
+        TrackingNumberIssuer issuer = new TrackingNumberIssuer(generator, reservations, 3);
+
+        assertEquals(TrackingNumber.ofPacked(3), issuer.issue(request).join());
+        CompletionException exhausted = assertThrows(CompletionException.class, () -> issuer.issue(request).join());
+        assertInstanceOf(TrackingNumberException.class, exhausted.getCause());
+    }
+
+    @Test
+    void shouldFailWhenStoreFails() {
+        AtomicInteger calls = new AtomicInteger();
+        TrackingNumberReservations failing = (trackingNumber, issuedAt) -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("connection refused"));
+        };
+
+        TrackingNumberIssuer issuer = new TrackingNumberIssuer(new DefaultTrackingNumberGenerator(), failing, 10);
+
+        CompletionException failure = assertThrows(CompletionException.class, () -> issuer.issue(request).join());
+        assertInstanceOf(TrackingNumberException.class, failure.getCause());
+        assertEquals(1, calls.get());
+    }
+}
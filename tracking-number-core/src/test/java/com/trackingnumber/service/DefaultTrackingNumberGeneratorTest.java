@@ -77,4 +77,27 @@ class DefaultTrackingNumberGeneratorTest {
         assertNotNull(trackingNumber);
         assertTrue(Pattern.matches("^[A-Z0-9]{1,16}$", trackingNumber));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 11, 12})
+    void shouldGenerateEscalatedLength(int length) {
+        DefaultTrackingNumberGenerator escalated = new DefaultTrackingNumberGenerator(() -> length);
+
+        String trackingNumber = escalated.generate(validRequest, 0);
+
+        assertEquals(length, trackingNumber.length());
+        assertTrue(Pattern.matches("^[A-Z0-9]{1,16}$", trackingNumber));
+    }
+
+    @Test
+    void shouldEndWithRegionCodeWhenTagged() {
+        DefaultTrackingNumberGenerator tagged = new DefaultTrackingNumberGenerator(() -> 10, 'H');
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String trackingNumber = tagged.generate(validRequest, attempt);
+
+            assertEquals(10, trackingNumber.length());
+            assertTrue(Pattern.matches("^[0-9A-F]{9}H$", trackingNumber));
+        }
+    }
 }
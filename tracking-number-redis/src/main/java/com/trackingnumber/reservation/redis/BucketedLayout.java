@@ -0,0 +1,72 @@
+package com.trackingnumber.reservation.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Key layout of the bucketed store, shared by the service and embedded issuers so both reserve into the same
+ * hashes: {@code tracking_numbers:{<shard>}:<bucket>} per shard and time bucket, plus one TTL-less
+ * {@code tracking_numbers:{<shard>}:blocked} hash per shard.
+ */
+public final class BucketedLayout {
+
+    public static final String KEY_PREFIX = "tracking_numbers:";
+    public static final String BLOCKED_SUFFIX = "blocked";
+
+    private final long ttlSeconds;
+    private final long bucketSeconds;
+    private final int shards;
+
+    public BucketedLayout(long ttlSeconds, long bucketSeconds, int shards) {
+        if (bucketSeconds < 1 || shards < 1) {
+            throw new IllegalArgumentException("Bucket seconds and shard count must be positive");
+        }
+        this.ttlSeconds = ttlSeconds;
+        this.bucketSeconds = bucketSeconds;
+        this.shards = shards;
+    }
+
+    public long bucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public long bucketOf(long epochSecond) {
+        return epochSecond / bucketSeconds;
+    }
+
+    /**
+     * The blocked hash first, then every bucket that can still hold a live number, oldest first.
+     */
+    public List<String> liveBucketKeys(int shard, long epochSecond) {
+        long current = epochSecond / bucketSeconds;
+        long oldest = Math.max(0, epochSecond - ttlSeconds) / bucketSeconds;
+        List<String> keys = new ArrayList<>((int) (current - oldest + 2));
+        keys.add(blockedKey(shard));
+        for (long bucket = oldest; bucket <= current; bucket++) {
+            keys.add(bucketKey(shard, bucket));
+        }
+        return keys;
+    }
+
+    public String bucketKey(int shard, long bucket) {
+        return KEY_PREFIX + "{" + shard + "}:" + bucket;
+    }
+
+    public String blockedKey(int shard) {
+        return KEY_PREFIX + "{" + shard + "}:" + BLOCKED_SUFFIX;
+    }
+
+    public int shardOf(long packed) {
+        long hash = packed * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) shards);
+    }
+
+    public long expiresAt(long bucket) {
+        // The whole bucket lives until its newest possible member has been live for ttlSeconds
+        return (bucket + 1) * bucketSeconds + ttlSeconds;
+    }
+}
@@ -0,0 +1,82 @@
+package com.trackingnumber.reservation.redis;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import com.trackingnumber.reservation.TrackingNumberReservations;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reservations in the service's {@code bucketed} layout, through the same {@code scripts/bucketed-reserve.lua}
+ * the service runs. The script is sent by digest and only loaded when Redis does not have it yet.
+ */
+public class BucketedRedisReservations implements TrackingNumberReservations {
+
+    static final String RESERVE_SCRIPT = "scripts/bucketed-reserve.lua";
+
+    private final RedisAsyncCommands<String, byte[]> commands;
+    private final BucketedLayout layout;
+    private final byte[] script;
+    private final String digest;
+
+    /**
+     * @param connection a shared connection with string keys and byte-array values; concurrent reservations are
+     *                   pipelined on it
+     */
+    public BucketedRedisReservations(StatefulRedisConnection<String, byte[]> connection, BucketedLayout layout) {
+        this.commands = connection.async();
+        this.layout = layout;
+        this.script = load(RESERVE_SCRIPT);
+        this.digest = commands.digest(script);
+    }
+
+    @Override
+    public CompletionStage<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        long epochSecond = issuedAt.getEpochSecond();
+        long bucket = layout.bucketOf(epochSecond);
+        String[] keys = layout.liveBucketKeys(layout.shardOf(trackingNumber.packed()), epochSecond)
+                .toArray(String[]::new);
+        byte[][] args = {
+                TrackingNumberCodec.toBytes(trackingNumber.packed()),
+                ascii(epochSecond - bucket * layout.bucketSeconds()),
+                ascii(layout.expiresAt(bucket))
+        };
+
+        return commands.<Long>evalsha(digest, ScriptOutputType.INTEGER, keys, args)
+                .exceptionallyCompose(error -> isNoScript(error)
+                        ? commands.<Long>eval(script, ScriptOutputType.INTEGER, keys, args)
+                        : CompletableFuture.<Long>failedFuture(error))
+                .thenApply(result -> result == 1L);
+    }
+
+    private static boolean isNoScript(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RedisNoScriptException;
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[] load(String resource) {
+        try (InputStream input = BucketedRedisReservations.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing script on the classpath: " + resource);
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+}
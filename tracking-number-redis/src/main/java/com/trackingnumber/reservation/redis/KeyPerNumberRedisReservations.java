@@ -0,0 +1,37 @@
+package com.trackingnumber.reservation.redis;
+
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.reservation.TrackingNumberReservations;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.time.Instant;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reservations in the service's {@code key-per-number} layout: one {@code tracking_number:<n>} key per number,
+ * set with {@code SET NX EX} in a single command. Numbers reserved here are seen by the service's lookups and
+ * collision checks; only the service's {@code @RedisHash} entity is not written.
+ */
+public class KeyPerNumberRedisReservations implements TrackingNumberReservations {
+
+    public static final String KEY_PREFIX = "tracking_number:";
+
+    private final RedisAsyncCommands<String, String> commands;
+    private final SetArgs setArgs;
+
+    /**
+     * @param connection a shared connection; concurrent reservations are pipelined on it
+     */
+    public KeyPerNumberRedisReservations(StatefulRedisConnection<String, String> connection, long ttlSeconds) {
+        this.commands = connection.async();
+        this.setArgs = SetArgs.Builder.nx().ex(ttlSeconds);
+    }
+
+    @Override
+    public CompletionStage<Boolean> reserve(TrackingNumber trackingNumber, Instant issuedAt) {
+        return commands.set(KEY_PREFIX + trackingNumber, issuedAt.toString(), setArgs)
+                .thenApply("OK"::equals);
+    }
+}
@@ -0,0 +1,10 @@
+-- KEYS: blocked hash, then live buckets of one shard oldest first, current bucket last (all share a hash slot)
+-- ARGV[1]: encoded tracking number, ARGV[2]: issue offset within the bucket, ARGV[3]: bucket expiry (unix seconds)
+for i = 1, #KEYS do
+    if redis.call('HEXISTS', KEYS[i], ARGV[1]) == 1 then
+        return 0
+    end
+end
+redis.call('HSET', KEYS[#KEYS], ARGV[1], ARGV[2])
+redis.call('EXPIREAT', KEYS[#KEYS], ARGV[3])
+return 1
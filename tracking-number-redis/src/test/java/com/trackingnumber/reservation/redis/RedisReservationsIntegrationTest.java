@@ -0,0 +1,88 @@
+package com.trackingnumber.reservation.redis;
+
+import com.redis.testcontainers.RedisContainer;
+import com.trackingnumber.domain.TrackingNumber;
+import com.trackingnumber.domain.TrackingNumberCodec;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+class RedisReservationsIntegrationTest {
+
+    @Container
+    static RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private RedisClient redisClient;
+    private StatefulRedisConnection<String, String> connection;
+    private StatefulRedisConnection<String, byte[]> binaryConnection;
+
+    @BeforeEach
+    void connect() {
+        redisClient = RedisClient.create(RedisURI.create(redis.getHost(), redis.getMappedPort(6379)));
+        connection = redisClient.connect();
+        binaryConnection = redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        connection.sync().flushall();
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.close();
+        binaryConnection.close();
+        redisClient.shutdown();
+    }
+
+    @Test
+    void shouldReserveKeyPerNumberOnce() {
+        KeyPerNumberRedisReservations reservations = new KeyPerNumberRedisReservations(connection, 3600);
+        TrackingNumber trackingNumber = TrackingNumber.of("0A1B2C3D4E");
+        Instant issuedAt = Instant.now();
+
+        assertTrue(reservations.reserve(trackingNumber, issuedAt).toCompletableFuture().join());
+        assertFalse(reservations.reserve(trackingNumber, issuedAt).toCompletableFuture().join());
+
+        assertEquals(issuedAt.toString(), connection.sync().get("tracking_number:0A1B2C3D4E"));
+        long ttl = connection.sync().ttl("tracking_number:0A1B2C3D4E");
+        assertTrue(ttl > 0 && ttl <= 3600);
+    }
+
+    @Test
+    void shouldReserveBucketedOnceAcrossBuckets() {
+        BucketedLayout layout = new BucketedLayout(3600, 60, 16);
+        BucketedRedisReservations reservations = new BucketedRedisReservations(binaryConnection, layout);
+        TrackingNumber trackingNumber = TrackingNumber.of("0A1B2C3D4E");
+        long now = Instant.now().getEpochSecond();
+
+        assertTrue(reservations.reserve(trackingNumber, Instant.ofEpochSecond(now - 600)).toCompletableFuture().join());
+        // Still live ten minutes later, in a newer bucket
+        assertFalse(reservations.reserve(trackingNumber, Instant.ofEpochSecond(now)).toCompletableFuture().join());
+
+        String key = layout.bucketKey(layout.shardOf(trackingNumber.packed()), layout.bucketOf(now - 600));
+        assertTrue(binaryConnection.sync().hexists(key, TrackingNumberCodec.toBytes(trackingNumber.packed())));
+    }
+
+    @Test
+    void shouldReloadScriptAfterFlush() {
+        BucketedRedisReservations reservations =
+                new BucketedRedisReservations(binaryConnection, new BucketedLayout(3600, 60, 16));
+        assertTrue(reservations.reserve(TrackingNumber.ofPacked(1), Instant.now()).toCompletableFuture().join());
+
+        connection.sync().scriptFlush();
+
+        assertTrue(reservations.reserve(TrackingNumber.ofPacked(2), Instant.now()).toCompletableFuture().join());
+    }
+}